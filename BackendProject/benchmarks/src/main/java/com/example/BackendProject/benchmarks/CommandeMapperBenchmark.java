@@ -0,0 +1,54 @@
+package com.example.BackendProject.benchmarks;
+
+import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.mappers.CommandeMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion entité <-> DTO d'une commande avec ses lignes (CommandeMapper + LigneCommandeMapper),
+ * telle qu'exécutée à chaque lecture ou diffusion d'une commande.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommandeMapperBenchmark {
+
+    @Param({"5", "50", "200"})
+    private int nombreLignes;
+
+    private AnnotationConfigApplicationContext contexte;
+    private CommandeMapper commandeMapper;
+    private Commande commande;
+    private CommandeDto commandeDto;
+
+    @Setup
+    public void preparer() {
+        // Implémentations générées par MapStruct, câblées comme dans l'application
+        contexte = new AnnotationConfigApplicationContext("com.example.BackendProject.mappers");
+        commandeMapper = contexte.getBean(CommandeMapper.class);
+        commande = JeuxDeDonnees.commande(nombreLignes);
+        commandeDto = commandeMapper.toDto(commande);
+    }
+
+    @TearDown
+    public void fermer() {
+        contexte.close();
+    }
+
+    @Benchmark
+    public CommandeDto toDto() {
+        return commandeMapper.toDto(commande);
+    }
+
+    @Benchmark
+    public Commande toEntity() {
+        return commandeMapper.toEntity(commandeDto);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.BackendProject.benchmarks;
+
+import com.example.BackendProject.entities.Ingredient;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.repository.RecetteRepository;
+import com.example.BackendProject.services.implementations.IngredientServiceImplementation;
+import com.example.BackendProject.services.implementations.JournalStockService;
+import com.example.BackendProject.services.implementations.NomenclaturePlatCache;
+import com.example.BackendProject.services.implementations.PortionsRestantesService;
+import com.example.BackendProject.services.implementations.RechercheCatalogueIndex;
+import com.example.BackendProject.services.implementations.StockAlerteService;
+import com.example.BackendProject.utils.OrigineMouvementStock;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Explosion des recettes lors de la déduction de stock d'une commande (deduireStockEnLot,
+ * utilisé aussi par deduireStockPourPlat) : cumul des besoins par ingrédient pour toutes les portions.
+ * <p>
+ * Les dépôts sont remplacés par des implémentations en mémoire : seul le calcul côté application est mesuré,
+ * pas les allers-retours SQL. Les nomenclatures de toute la carte sont chargées une fois dans le
+ * NomenclaturePlatCache, comme en production ; les services notifiés après la déduction (alertes, recherche,
+ * portions, journal) sont neutralisés.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeductionStockBenchmark {
+
+    /** Nombre de plats distincts dans la commande. */
+    @Param({"1", "10", "40"})
+    private int nombrePlats;
+
+    private IngredientServiceImplementation ingredientService;
+    private Map<Long, Integer> portionsParPlat;
+
+    @Setup
+    public void preparer() {
+        Random random = new Random(7);
+        portionsParPlat = new LinkedHashMap<>();
+        for (long platId = 1; platId <= nombrePlats; platId++) {
+            portionsParPlat.put(platId, 1 + random.nextInt(6));
+        }
+
+        List<Long> carte = LongStream.rangeClosed(1, JeuxDeDonnees.NOMBRE_PLATS_CARTE).boxed().collect(Collectors.toList());
+        RecetteRepository recetteRepository = depot(RecetteRepository.class,
+                (methode, args) -> "findNomenclatures".equals(methode) ? JeuxDeDonnees.nomenclatures(carte) : null);
+        NomenclaturePlatCache nomenclaturePlatCache = new NomenclaturePlatCache(recetteRepository, SANS_TRANSACTION);
+        // Chargement hors mesure
+        nomenclaturePlatCache.nomenclature(1L);
+
+        IngredientRepository ingredientRepository = depot(IngredientRepository.class, (methode, args) -> {
+            switch (methode) {
+                case "retirerStockEnLot":
+                    // Stock toujours suffisant
+                    return new HashSet<>(((Map<?, ?>) args[0]).keySet());
+                case "findAllById":
+                    // Aucun seuil franchi : pas d'alerte
+                    return List.of();
+                default:
+                    return null;
+            }
+        });
+
+        ingredientService = new IngredientServiceImplementation(null, ingredientRepository, nomenclaturePlatCache,
+                new StockAlerteService(null, null, SANS_TRANSACTION, BigDecimal.ZERO) {
+                    @Override
+                    public void evaluer(Ingredient ingredient) {
+                    }
+                },
+                new RechercheCatalogueIndex(null, null, SANS_TRANSACTION),
+                new PortionsRestantesService(nomenclaturePlatCache, null, null, null, null, null, SANS_TRANSACTION, 0L) {
+                    @Override
+                    public void stockAjuste(Map<Long, BigDecimal> variations) {
+                    }
+                },
+                new JournalStockService(null, null, 0L) {
+                    @Override
+                    public void enregistrer(Map<Long, BigDecimal> variations, OrigineMouvementStock origine) {
+                    }
+                });
+    }
+
+    @Benchmark
+    public void deduireStockEnLot() {
+        ingredientService.deduireStockEnLot(portionsParPlat);
+    }
+
+    @Benchmark
+    public void deduireStockPlatParPlat() {
+        portionsParPlat.forEach(ingredientService::deduireStockPourPlat);
+    }
+
+    // Pas de base : le chargement du cache s'exécute dans une transaction factice
+    private static final PlatformTransactionManager SANS_TRANSACTION = new PlatformTransactionManager() {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    };
+
+    @FunctionalInterface
+    private interface Reponse {
+        Object pour(String methode, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T depot(Class<T> type, Reponse reponse) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, methode, args) -> {
+            if (methode.getDeclaringClass() == Object.class) {
+                return "toString".equals(methode.getName()) ? type.getSimpleName() : methode.invoke(reponse, args);
+            }
+            Object resultat = reponse.pour(methode.getName(), args);
+            if (resultat == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + methode.getName());
+            }
+            return resultat;
+        });
+    }
+}
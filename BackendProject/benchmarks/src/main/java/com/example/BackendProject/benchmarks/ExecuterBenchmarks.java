@@ -0,0 +1,39 @@
+package com.example.BackendProject.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée du jar de benchmarks. Accepte les options JMH habituelles (filtre, -f, -wi, -p ...)
+ * et écrit toujours les résultats en JSON pour pouvoir comparer deux versions du backend :
+ * par défaut dans {@code jmh-result.json}, sinon dans le fichier passé par {@code -rff}.
+ * <p>
+ * Exemple : {@code java -jar target/benchmarks.jar -rff resultats-1.2.0.json}
+ */
+public class ExecuterBenchmarks {
+
+    private static final String FICHIER_RESULTATS_DEFAUT = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions ligneDeCommande = new CommandLineOptions(args);
+        if (ligneDeCommande.shouldHelp()) {
+            ligneDeCommande.showHelp();
+            return;
+        }
+        if (ligneDeCommande.shouldList()) {
+            new Runner(ligneDeCommande).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(ligneDeCommande)
+                .resultFormat(ResultFormatType.JSON);
+        if (!ligneDeCommande.getResult().hasValue()) {
+            options.result(FICHIER_RESULTATS_DEFAUT);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.BackendProject.benchmarks;
+
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.entities.LigneCommande;
+import com.example.BackendProject.entities.Plat;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.utils.CalculTotaux;
+import com.example.BackendProject.utils.StatutCommande;
+import com.example.BackendProject.utils.TypeCommande;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Données de test réalistes et déterministes (graine fixe) partagées par les benchmarks :
+ * une carte de 40 plats à prix en FCFA, des recettes de 6 à 12 ingrédients tirés d'un stock de 150.
+ */
+final class JeuxDeDonnees {
+
+    static final int NOMBRE_PLATS_CARTE = 40;
+    static final int NOMBRE_INGREDIENTS = 150;
+
+    private JeuxDeDonnees() {
+    }
+
+    static Plat plat(long id) {
+        Plat plat = new Plat();
+        plat.setId(id);
+        plat.setNom("Plat " + id);
+        plat.setPrix(BigDecimal.valueOf(1500 + (id * 250) % 6000));
+        return plat;
+    }
+
+    /**
+     * Commande sur place de {@code nombreLignes} lignes, totaux renseignés.
+     */
+    static Commande commande(int nombreLignes) {
+        Random random = new Random(42);
+        TableRestaurant table = new TableRestaurant();
+        table.setId(12L);
+
+        Commande commande = new Commande();
+        commande.setId(1001L);
+        commande.setTable(table);
+        commande.setDateHeureCommande(new Timestamp(1_760_000_000_000L));
+        commande.setStatut(StatutCommande.EN_ATTENTE);
+        commande.setTypeCommande(TypeCommande.SUR_PLACE);
+        commande.setNombrePersonnes(4);
+
+        List<LigneCommande> lignes = new ArrayList<>(nombreLignes);
+        for (int i = 0; i < nombreLignes; i++) {
+            Plat plat = plat(1 + random.nextInt(NOMBRE_PLATS_CARTE));
+            String notes = random.nextInt(4) == 0 ? "Sans piment, bien cuit" : null;
+            lignes.add(new LigneCommande((long) (i + 1), commande, plat, 1 + random.nextInt(4), plat.getPrix(), notes, null));
+        }
+        commande.setLignes(lignes);
+
+        BigDecimal totalHt = totalHt(lignes);
+        commande.setTotalHt(totalHt);
+        commande.setTotalTtc(CalculTotaux.ttc(totalHt, new BigDecimal("0.1925")));
+        return commande;
+    }
+
+    /**
+     * Somme des montants HT de toutes les lignes : le recalcul complet que l'application a remplacé par des deltas.
+     */
+    static BigDecimal totalHt(List<LigneCommande> lignes) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (LigneCommande ligne : lignes) {
+            total = total.add(CalculTotaux.montantLigne(ligne));
+        }
+        return total;
+    }
+
+    /**
+     * Lignes de nomenclature (platId, recetteId, ingredientId, quantiteRequise), au format renvoyé par
+     * {@code RecetteRepository.findNomenclatures}, triées par recette.
+     */
+    static List<Object[]> nomenclatures(Collection<Long> platIds) {
+        List<Object[]> lignes = new ArrayList<>();
+        for (Long platId : platIds) {
+            Random random = new Random(platId);
+            int nombreIngredients = 6 + random.nextInt(7);
+            for (int i = 0; i < nombreIngredients; i++) {
+                long ingredientId = 1 + random.nextInt(NOMBRE_INGREDIENTS);
+                BigDecimal quantite = BigDecimal.valueOf(5 + random.nextInt(400), 3);
+                lignes.add(new Object[]{platId, 500L + platId, ingredientId, quantite});
+            }
+        }
+        return lignes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.BackendProject.benchmarks;
+
+import com.example.BackendProject.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la validation JWT par requête dans JwtFilter, avant et après le parsing unique.
+ * <p>
+ * "avant" reproduit l'ancien chemin : extractUsername puis validateToken, soit trois parsings
+ * (extractUsername x2 + extractExpiration) avec reconstruction de la clé HMAC et du parser à chaque fois.
+ * "apres" correspond au chemin actuel : un seul validerEtExtraire avec clé et parser pré-construits.
+ * Le chargement du UserDetails est exclu (servi par le cache).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthentificationBenchmark {
+
+    private static final String SECRET = "SEm108AzjwmNhgc2dzAIardhYdhhQp7baKqPnhKNg08OdmXMcsz01mHSXFhkuNGr";
+
+    private JwtUtils jwtUtils;
+    private UserDetails utilisateur;
+    private String token;
+
+    @Setup
+    public void preparer() {
+        jwtUtils = new JwtUtils(SECRET, 86_400_000L);
+        utilisateur = new User("serveur@gusto.cm", "", List.of(new SimpleGrantedAuthority("ROLE_SERVEUR")));
+        token = jwtUtils.generateToken(utilisateur);
+    }
+
+    @Benchmark
+    public boolean avant() {
+        String username = ancienExtractUsername(token);
+        boolean usernameMatch = ancienExtractUsername(token).equals(utilisateur.getUsername());
+        boolean notExpired = !ancienneExpiration(token).before(new Date());
+        return username != null && usernameMatch && notExpired;
+    }
+
+    @Benchmark
+    public boolean apres() {
+        Claims claims = jwtUtils.validerEtExtraire(token);
+        return claims.getSubject().equals(utilisateur.getUsername());
+    }
+
+    // --- Ancienne implémentation de JwtUtils, conservée ici comme référence ---
+
+    private static Key ancienneCle() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    private static String ancienExtractUsername(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(ancienneCle())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    private static Date ancienneExpiration(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(ancienneCle())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getExpiration();
+    }
+}
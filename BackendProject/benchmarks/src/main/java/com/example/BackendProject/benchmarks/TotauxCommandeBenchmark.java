@@ -0,0 +1,57 @@
+package com.example.BackendProject.benchmarks;
+
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.entities.LigneCommande;
+import com.example.BackendProject.utils.CalculTotaux;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul des totaux HT/TTC d'une commande après modification d'une ligne.
+ * <p>
+ * "recalculComplet" re-somme toutes les lignes (ancien comportement de mise à jour de l'addition) ;
+ * "delta" applique la seule variation de la ligne modifiée, comme LigneCommandeServiceImplementation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TotauxCommandeBenchmark {
+
+    private static final BigDecimal TAUX_TVA = new BigDecimal("0.1925");
+
+    @Param({"5", "50", "200"})
+    private int nombreLignes;
+
+    private Commande commande;
+    private LigneCommande avantModification;
+    private LigneCommande apresModification;
+
+    @Setup
+    public void preparer() {
+        commande = JeuxDeDonnees.commande(nombreLignes);
+        avantModification = commande.getLignes().get(nombreLignes / 2);
+        apresModification = new LigneCommande(avantModification.getId(), commande, avantModification.getPlat(),
+                avantModification.getQuantite() + 2, avantModification.getPrixUnitaire(), null, null);
+    }
+
+    @Benchmark
+    public BigDecimal[] recalculComplet() {
+        BigDecimal totalHt = JeuxDeDonnees.totalHt(commande.getLignes())
+                .subtract(CalculTotaux.montantLigne(avantModification))
+                .add(CalculTotaux.montantLigne(apresModification));
+        return new BigDecimal[]{totalHt, CalculTotaux.ttc(totalHt, TAUX_TVA)};
+    }
+
+    @Benchmark
+    public BigDecimal[] delta() {
+        BigDecimal deltaHt = CalculTotaux.montantLigne(apresModification).subtract(CalculTotaux.montantLigne(avantModification));
+        // TTC dérivé du HT exact, comme le service : pas d'arrondis cumulés
+        BigDecimal totalHt = commande.getTotalHt().add(deltaHt);
+        return new BigDecimal[]{totalHt, CalculTotaux.ttc(totalHt, TAUX_TVA)};
+    }
+}
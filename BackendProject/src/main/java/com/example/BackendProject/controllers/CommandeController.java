@@ -1,6 +1,10 @@
 package com.example.BackendProject.controllers;
 
 import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.FiltreCommandesDto;
+import com.example.BackendProject.dto.PageCommandesDto;
+import com.example.BackendProject.dto.ResyncCommandeDto;
+import com.example.BackendProject.dto.SoumissionCommandeDto;
 import com.example.BackendProject.dto.UtilisateurDto;
 import com.example.BackendProject.services.implementations.CommandeServiceImplementation;
 import com.example.BackendProject.services.implementations.UtilisateurServiceImplementation;
@@ -86,13 +90,53 @@ public class CommandeController {
         }
     }
 
+    /**
+     * Soumettre un panier complet (commande + lignes + options) en une seule requête
+     */
+    @PostMapping("/soumettre")
+    @Operation(
+            summary = "Soumettre une commande complète",
+            description = "Crée la commande, toutes ses lignes et leurs options, déduit le stock en lot " +
+                    "et notifie la cuisine une seule fois, le tout dans une transaction"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Commande soumise avec succès",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CommandeDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Panier invalide, plat indisponible ou option non proposée"
+            )
+    })
+    public ResponseEntity<?> soumettreCommande(@RequestBody SoumissionCommandeDto panier, HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Soumission d'un panier de {} ligne(s)", context,
+                panier.getLignes() != null ? panier.getLignes().size() : 0);
+        try {
+            CommandeDto savedCommande = commandeServiceImplementation.soumettreCommande(panier);
+            logger.info("{} Panier soumis avec succès. Commande ID: {}", context, savedCommande.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedCommande);
+        } catch (RuntimeException e) {
+            logger.error("{} Erreur lors de la soumission du panier: {}", context, e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     /**
      * Récupérer toutes les commandes
      */
     @GetMapping
     @Operation(
             summary = "Récupérer toutes les commandes",
-            description = "Retourne la liste complète de toutes les commandes"
+            description = "Retourne la liste complète de toutes les commandes. Préférer /api/commandes/page, paginé et filtré",
+            deprecated = true
     )
     @ApiResponse(
             responseCode = "200",
@@ -110,6 +154,52 @@ public class CommandeController {
         return ResponseEntity.ok(commandes);
     }
 
+    /**
+     * Récupérer une page de commandes filtrées
+     */
+    @GetMapping("/page")
+    @Operation(
+            summary = "Rechercher les commandes (pagination par curseur)",
+            description = "Retourne les commandes les plus récentes d'abord, filtrées côté serveur. " +
+                    "Passer le curseurSuivant de la réponse dans 'curseur' pour obtenir la page suivante."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page de commandes récupérée avec succès",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageCommandesDto.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Curseur invalide", content = @Content)
+    })
+    public ResponseEntity<?> getPageCommandes(
+            @Parameter(description = "Statut de la commande") @RequestParam(required = false) StatutCommande statut,
+            @Parameter(description = "Type de commande") @RequestParam(required = false) TypeCommande type,
+            @Parameter(description = "ID du serveur") @RequestParam(required = false) Long serveurId,
+            @Parameter(description = "ID de la table") @RequestParam(required = false) Long tableId,
+            @Parameter(description = "Date de début (format: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @Parameter(description = "Date de fin (format: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @Parameter(description = "Curseur renvoyé par la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre de commandes par page (50 par défaut, 200 au maximum)", example = "50")
+            @RequestParam(required = false) Integer taille,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Recherche paginée des commandes - statut: {}, type: {}, serveur: {}, table: {}, du {} au {}",
+                context, statut, type, serveurId, tableId, debut, fin);
+        try {
+            FiltreCommandesDto filtre = new FiltreCommandesDto(statut, type, serveurId, tableId,
+                    debut != null ? Timestamp.valueOf(debut) : null,
+                    fin != null ? Timestamp.valueOf(fin) : null);
+            return ResponseEntity.ok(commandeServiceImplementation.rechercher(filtre, curseur, taille));
+        } catch (RuntimeException e) {
+            logger.error("{} Erreur lors de la recherche paginée des commandes: {}", context, e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
     /**
      * Récupérer une commande par son ID
      */
@@ -341,6 +431,45 @@ public class CommandeController {
         }
     }
 
+    /**
+     * Resynchroniser un client temps réel ayant manqué un événement
+     */
+    @GetMapping("/{id}/resync")
+    @Operation(
+            summary = "Resynchroniser l'état d'une commande",
+            description = "Retourne l'état complet de la commande et la dernière séquence d'événement incluse. " +
+                    "À appeler quand un écran détecte un trou dans les séquences reçues par WebSocket."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "État de la commande",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ResyncCommandeDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Commande non trouvée"
+            )
+    })
+    public ResponseEntity<?> resynchroniser(
+            @Parameter(description = "ID de la commande", required = true, example = "1")
+            @PathVariable Long id, HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Resynchronisation de la commande ID: {}", context, id);
+        try {
+            ResyncCommandeDto resync = commandeServiceImplementation.resynchroniser(id);
+            return ResponseEntity.ok(resync);
+        } catch (RuntimeException e) {
+            logger.error("{} Resynchronisation impossible pour la commande ID: {}: {}", context, id, e.getMessage());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
     /**
      * Récupérer les commandes du jour
      */
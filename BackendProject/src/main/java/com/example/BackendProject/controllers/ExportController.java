@@ -0,0 +1,160 @@
+package com.example.BackendProject.controllers;
+
+import com.example.BackendProject.services.implementations.ExportService;
+import com.example.BackendProject.utils.FormatExport;
+import com.example.BackendProject.utils.LoggingUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api/exports")
+@Tag(name = "Exports", description = "Export en flux des historiques pour la comptabilité (NDJSON ou CSV gzippé)")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private static final DateTimeFormatter FORMAT_NOM_FICHIER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final ExportService exportService;
+    private final long delaiMaxMs;
+
+    public ExportController(ExportService exportService,
+                            @Value("${app.exports.delai-max-ms:600000}") long delaiMaxMs) {
+        this.exportService = exportService;
+        this.delaiMaxMs = delaiMaxMs;
+    }
+
+    @GetMapping("/commandes")
+    @Operation(summary = "Exporter les commandes", description = "Commandes passées sur la période, une ligne par commande")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export en cours de transfert"),
+            @ApiResponse(responseCode = "400", description = "Période invalide")
+    })
+    public ResponseEntity<?> exporterCommandes(
+            @Parameter(description = "Date de début (format: yyyy-MM-dd'T'HH:mm:ss)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @Parameter(description = "Date de fin (format: yyyy-MM-dd'T'HH:mm:ss)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @Parameter(description = "NDJSON ou CSV (gzippé)") @RequestParam(defaultValue = "NDJSON") FormatExport format,
+            HttpServletRequest request) {
+        return exporter("commandes", debut, fin, format, exportService::exporterCommandes, request);
+    }
+
+    @GetMapping("/paiements")
+    @Operation(summary = "Exporter les paiements", description = "Paiements encaissés sur la période, une ligne par paiement")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export en cours de transfert"),
+            @ApiResponse(responseCode = "400", description = "Période invalide")
+    })
+    public ResponseEntity<?> exporterPaiements(
+            @Parameter(description = "Date de début (format: yyyy-MM-dd'T'HH:mm:ss)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @Parameter(description = "Date de fin (format: yyyy-MM-dd'T'HH:mm:ss)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @Parameter(description = "NDJSON ou CSV (gzippé)") @RequestParam(defaultValue = "NDJSON") FormatExport format,
+            HttpServletRequest request) {
+        return exporter("paiements", debut, fin, format, exportService::exporterPaiements, request);
+    }
+
+    @GetMapping("/mouvements-stock")
+    @Operation(summary = "Exporter les mouvements de stock", description = "Mouvements de stock sur la période, avec l'ingrédient concerné")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export en cours de transfert"),
+            @ApiResponse(responseCode = "400", description = "Période invalide")
+    })
+    public ResponseEntity<?> exporterMouvementsStock(
+            @Parameter(description = "Date de début (format: yyyy-MM-dd'T'HH:mm:ss)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @Parameter(description = "Date de fin (format: yyyy-MM-dd'T'HH:mm:ss)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fin,
+            @Parameter(description = "NDJSON ou CSV (gzippé)") @RequestParam(defaultValue = "NDJSON") FormatExport format,
+            HttpServletRequest request) {
+        return exporter("mouvements-stock", debut, fin, format, exportService::exporterMouvementsStock, request);
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        long ecrire(Timestamp debut, Timestamp fin, FormatExport format, OutputStream sortie) throws IOException;
+    }
+
+    private ResponseEntity<?> exporter(String nom, LocalDateTime debut, LocalDateTime fin, FormatExport format,
+                                       Export export, HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Export {} demandé entre {} et {} au format {}", context, nom, debut, fin, format);
+
+        if (debut.isAfter(fin)) {
+            logger.error("{} Date de début postérieure à la date de fin", context);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "La date de début doit être antérieure à la date de fin");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        Timestamp timestampDebut = Timestamp.valueOf(debut);
+        Timestamp timestampFin = Timestamp.valueOf(fin);
+        // Écrit hors du thread de requête, directement dans la réponse HTTP
+        StreamingResponseBody corps = sortie -> {
+            try {
+                export.ecrire(timestampDebut, timestampFin, format, sortie);
+            } catch (IOException | RuntimeException e) {
+                // Réponse déjà partiellement envoyée : on ne peut que journaliser
+                logger.error("{} Export {} interrompu : {}", context, nom, e.getMessage());
+                throw e;
+            }
+        };
+
+        prolongerDelai(request);
+
+        String fichier = nom + "_" + debut.format(FORMAT_NOM_FICHIER) + "_" + fin.format(FORMAT_NOM_FICHIER)
+                + (format == FormatExport.CSV ? ".csv.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(format == FormatExport.CSV ? GZIP : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fichier).build().toString())
+                .body(corps);
+    }
+
+    // Délai propre aux exports : les autres traitements asynchrones gardent le délai par défaut du conteneur.
+    // Appliqué juste avant le démarrage du traitement asynchrone de cette requête.
+    private void prolongerDelai(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportController.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(delaiMaxMs);
+                        }
+                    }
+                });
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.BackendProject.controllers;
 
+import com.example.BackendProject.dto.AlerteStockDto;
 import com.example.BackendProject.dto.IngredientDto;
 import com.example.BackendProject.services.implementations.IngredientServiceImplementation;
+import com.example.BackendProject.services.implementations.StockAlerteService;
 import com.example.BackendProject.utils.LoggingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,9 +33,11 @@ public class IngredientController {
 
     private static final Logger logger = LoggerFactory.getLogger(IngredientController.class);
     private final IngredientServiceImplementation ingredientService;
+    private final StockAlerteService stockAlerteService;
 
-    public IngredientController(IngredientServiceImplementation ingredientService) {
+    public IngredientController(IngredientServiceImplementation ingredientService, StockAlerteService stockAlerteService) {
         this.ingredientService = ingredientService;
+        this.stockAlerteService = stockAlerteService;
     }
 
     /**
@@ -295,6 +299,30 @@ public class IngredientController {
         return ResponseEntity.ok(ingredients);
     }
 
+    /**
+     * Récupérer l'état des alertes en cours
+     */
+    @GetMapping("/alertes/en-cours")
+    @Operation(
+            summary = "Récupérer les alertes de stock en cours",
+            description = "Servies depuis la mémoire : niveau (FAIBLE ou RUPTURE) et date du dernier changement d'état. " +
+                    "Un ingrédient ne sort de l'alerte qu'au-dessus du seuil majoré de la marge de réarmement"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Alertes en cours, ruptures d'abord",
+            content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = AlerteStockDto.class))
+            )
+    )
+    public ResponseEntity<List<AlerteStockDto>> getAlertesEnCours(HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        List<AlerteStockDto> alertes = stockAlerteService.alertesEnCours();
+        logger.info("{} {} alerte(s) de stock en cours", context, alertes.size());
+        return ResponseEntity.ok(alertes);
+    }
+
     /**
      * Récupérer les ingrédients par unité de mesure
      */
@@ -1,6 +1,7 @@
 package com.example.BackendProject.controllers;
 
 
+import com.example.BackendProject.dto.CommandeDto;
 import com.example.BackendProject.dto.LigneCommandeDto;
 import com.example.BackendProject.services.implementations.LigneCommandeServiceImplementation;
 import com.example.BackendProject.utils.LoggingUtils;
@@ -426,6 +427,47 @@ public class LigneCommandeController {
         }
     }
 
+    /**
+     * Vérifier et réparer les totaux d'une commande
+     */
+    @PostMapping("/commande/{commandeId}/totaux/recalculer")
+    @Operation(
+            summary = "Recalculer les totaux d'une commande",
+            description = "Recalcule totalHt/totalTtc à partir de toutes les lignes en base (vérification ou réparation). " +
+                    "En fonctionnement normal, les totaux sont maintenus par différence à chaque modification de ligne."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Totaux recalculés avec succès",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CommandeDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Commande non trouvée"
+            )
+    })
+    public ResponseEntity<?> recalculerTotaux(
+            @Parameter(description = "ID de la commande", required = true, example = "1")
+            @PathVariable Long commandeId,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Recalcul des totaux demandé pour la commande ID: {}", context, commandeId);
+        try {
+            CommandeDto commande = ligneCommandeService.recalculerTotaux(commandeId);
+            logger.info("{} Totaux recalculés pour la commande ID: {} - TTC: {}", context, commandeId, commande.getTotalTtc());
+            return ResponseEntity.ok(commande);
+        } catch (RuntimeException e) {
+            logger.error("{} Erreur lors du recalcul des totaux de la commande ID: {} - {}", context, commandeId, e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+    }
+
     /**
      * Supprimer tous les articles d'une commande
      */
@@ -1,6 +1,8 @@
 package com.example.BackendProject.controllers;
 
+import com.example.BackendProject.dto.ArbreMenuDto;
 import com.example.BackendProject.dto.MenuDto;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
 import com.example.BackendProject.services.implementations.MenuServiceImplementation;
 import com.example.BackendProject.utils.LoggingUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,9 +29,11 @@ public class MenuController {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuController.class);
     private final MenuServiceImplementation menuServiceImplementation;
+    private final ArbreMenuCache arbreMenuCache;
 
-    public MenuController(MenuServiceImplementation menuServiceImplementation) {
+    public MenuController(MenuServiceImplementation menuServiceImplementation, ArbreMenuCache arbreMenuCache) {
         this.menuServiceImplementation = menuServiceImplementation;
+        this.arbreMenuCache = arbreMenuCache;
     }
 
     /**
@@ -92,6 +96,54 @@ public class MenuController {
         return ResponseEntity.ok(menus);
     }
 
+    /**
+     * Récupérer la carte complète de tous les menus actifs
+     */
+    @GetMapping("/arbre")
+    @Operation(
+            summary = "Récupérer la carte complète",
+            description = "Renvoie chaque menu actif avec ses catégories (par ordre d'affichage), ses plats disponibles et leurs options"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Carte récupérée avec succès",
+            content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = ArbreMenuDto.class))
+            )
+    )
+    public ResponseEntity<List<ArbreMenuDto>> getArbres(HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Récupération de la carte complète", context);
+        List<ArbreMenuDto> arbres = arbreMenuCache.arbres();
+        logger.info("{} Carte complète récupérée : {} menu(s)", context, arbres.size());
+        return ResponseEntity.ok(arbres);
+    }
+
+    /**
+     * Récupérer la carte complète d'un menu
+     */
+    @GetMapping("/{id}/arbre")
+    @Operation(summary = "Récupérer la carte complète d'un menu")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Carte du menu récupérée",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ArbreMenuDto.class))),
+            @ApiResponse(responseCode = "404", description = "Menu non trouvé ou inactif")
+    })
+    public ResponseEntity<ArbreMenuDto> getArbre(
+            @Parameter(description = "ID du menu", required = true, example = "1")
+            @PathVariable Long id,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Récupération de la carte du menu ID: {}", context, id);
+        return arbreMenuCache.arbre(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("{} Menu ID: {} non trouvé ou inactif", context, id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+                });
+    }
+
     /**
      * Récupérer un menu par ID
      */
@@ -1,7 +1,10 @@
 package com.example.BackendProject.controllers;
 
 import com.example.BackendProject.dto.PlatDto;
+import com.example.BackendProject.dto.PortionsRestantesDto;
+import com.example.BackendProject.services.implementations.MenuActifCache;
 import com.example.BackendProject.services.implementations.PlatServiceImplementation;
+import com.example.BackendProject.services.implementations.PortionsRestantesService;
 import com.example.BackendProject.utils.LoggingUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +18,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -33,9 +38,14 @@ public class PlatController {
 
     private static final Logger logger = LoggerFactory.getLogger(PlatController.class);
     private final PlatServiceImplementation platServiceImplementation;
+    private final MenuActifCache menuActifCache;
+    private final PortionsRestantesService portionsRestantesService;
 
-    public PlatController(PlatServiceImplementation platServiceImplementation) {
+    public PlatController(PlatServiceImplementation platServiceImplementation, MenuActifCache menuActifCache,
+                          PortionsRestantesService portionsRestantesService) {
         this.platServiceImplementation = platServiceImplementation;
+        this.menuActifCache = menuActifCache;
+        this.portionsRestantesService = portionsRestantesService;
     }
 
     /**
@@ -230,13 +240,83 @@ public class PlatController {
      */
 
     @GetMapping("/disponibles")
-    @Operation(summary = "Récupérer la carte du restaurant (Plats disponibles uniquement)")
-    public ResponseEntity<List<PlatDto>> getMenu(HttpServletRequest request) {
+    @Operation(
+            summary = "Récupérer la carte du restaurant (Plats disponibles uniquement)",
+            description = "Servie depuis un instantané en mémoire. Renvoyer l'ETag reçu dans If-None-Match : " +
+                    "la réponse est 304 tant que la carte n'a pas changé"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Carte récupérée avec succès",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PlatDto.class)))
+            ),
+            @ApiResponse(responseCode = "304", description = "Carte inchangée depuis l'ETag fourni", content = @Content)
+    })
+    public ResponseEntity<byte[]> getMenu(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        MenuActifCache.Instantane menu = menuActifCache.courant();
+
+        if (etagCorrespond(ifNoneMatch, menu.getEtag())) {
+            logger.debug("{} Carte inchangée ({}) : 304", context, menu.getEtag());
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(menu.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        logger.info("{} Carte du restaurant envoyée : {} plats disponibles ({})", context, menu.getPlats().size(), menu.getEtag());
+        ResponseEntity.BodyBuilder reponse = ResponseEntity.ok()
+                .eTag(menu.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return reponse.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(menu.getJsonGzip());
+        }
+        return reponse.body(menu.getJson());
+    }
+
+    // If-None-Match peut contenir plusieurs ETags, "*", ou une version faible (W/) ajoutée par un proxy
+    private static boolean etagCorrespond(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidat : ifNoneMatch.split(",")) {
+            String valeur = candidat.trim();
+            if (valeur.startsWith("W/")) {
+                valeur = valeur.substring(2);
+            }
+            if (valeur.equals("*") || valeur.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Portions restantes de chaque plat selon le stock
+     */
+
+    @GetMapping("/portions-restantes")
+    @Operation(
+            summary = "Portions réalisables de chaque plat avec le stock actuel",
+            description = "Servies depuis la mémoire ; les changements sont aussi diffusés sur /topic/plats/portions. " +
+                    "Un plat à zéro portion est retiré automatiquement de la carte"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Portions restantes récupérées avec succès",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PortionsRestantesDto.class)))
+    )
+    public ResponseEntity<List<PortionsRestantesDto>> getPortionsRestantes(HttpServletRequest request) {
         String context = LoggingUtils.getLogContext(request);
-        logger.info("{} Récupération de la carte du restaurant (plats disponibles)", context);
-        List<PlatDto> platsDisponibles = platServiceImplementation.getMenuActif();
-        logger.info("{} {} plats disponibles récupérés avec succès", context, platsDisponibles.size());
-        return ResponseEntity.ok(platsDisponibles);
+        List<PortionsRestantesDto> portions = portionsRestantesService.toutes();
+        logger.info("{} Portions restantes envoyées pour {} plat(s)", context, portions.size());
+        return ResponseEntity.ok(portions);
     }
 
     /**
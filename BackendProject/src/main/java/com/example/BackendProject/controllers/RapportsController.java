@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/rapports")
@@ -112,4 +113,19 @@ public class RapportsController {
             throw e;
         }
     }
+
+    // ================= AGRÉGATS =================
+    @PostMapping("/statistiques/reconstruire")
+    public ResponseEntity<Map<String, Integer>> reconstruireAgregats(HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Reconstruction des agrégats de ventes demandée", context);
+        try {
+            int lignes = rapportService.reconstruireAgregatsVentes();
+            logger.info("{} Agrégats reconstruits: {} lignes", context, lignes);
+            return ResponseEntity.ok(Map.of("lignes", lignes));
+        } catch (Exception e) {
+            logger.error("{} Erreur lors de la reconstruction des agrégats: {}", context, e.getMessage(), e);
+            throw e;
+        }
+    }
 }
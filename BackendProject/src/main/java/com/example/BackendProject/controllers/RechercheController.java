@@ -0,0 +1,48 @@
+package com.example.BackendProject.controllers;
+
+import com.example.BackendProject.dto.ResultatRechercheDto;
+import com.example.BackendProject.services.implementations.RechercheCatalogueIndex;
+import com.example.BackendProject.utils.LoggingUtils;
+import com.example.BackendProject.utils.TypeElementCatalogue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recherche")
+@Tag(name = "Recherche", description = "Recherche des plats et des ingrédients, sans accents et tolérante aux fautes de frappe")
+public class RechercheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RechercheController.class);
+    private static final int LIMITE_MAX = 100;
+
+    private final RechercheCatalogueIndex rechercheCatalogueIndex;
+
+    public RechercheController(RechercheCatalogueIndex rechercheCatalogueIndex) {
+        this.rechercheCatalogueIndex = rechercheCatalogueIndex;
+    }
+
+    @GetMapping
+    @Operation(summary = "Rechercher dans le catalogue",
+            description = "Servi depuis l'index en mémoire : correspondance exacte, par préfixe ou à une faute près, triée par pertinence")
+    public ResponseEntity<List<ResultatRechercheDto>> rechercher(
+            @Parameter(description = "Terme recherché", required = true) @RequestParam String q,
+            @Parameter(description = "PLAT ou INGREDIENT ; tout le catalogue si absent") @RequestParam(required = false) TypeElementCatalogue type,
+            @RequestParam(defaultValue = "20") int limite,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        List<ResultatRechercheDto> resultats = rechercheCatalogueIndex.rechercher(q, type, Math.min(limite, LIMITE_MAX));
+        logger.debug("{} Recherche catalogue '{}' : {} résultat(s)", context, q, resultats.size());
+        return ResponseEntity.ok(resultats);
+    }
+}
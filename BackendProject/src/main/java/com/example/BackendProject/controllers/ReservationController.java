@@ -1,6 +1,9 @@
 package com.example.BackendProject.controllers;
 
+import com.example.BackendProject.dto.CreneauDisponibleDto;
+import com.example.BackendProject.dto.PlanTablesDto;
 import com.example.BackendProject.dto.ReservationDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
 import com.example.BackendProject.services.interfaces.ReservationService;
 import com.example.BackendProject.utils.LoggingUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -80,4 +84,31 @@ public class ReservationController {
     public ResponseEntity<List<ReservationDto>> search(@RequestParam String term) {
         return ResponseEntity.ok(reservationService.searchReservations(term));
     }
+
+    @GetMapping("/disponibilites")
+    @Operation(summary = "Tables libres pour N personnes à une date et heure données")
+    public ResponseEntity<List<TableRestaurantDto>> disponibilites(
+            @RequestParam int personnes,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime debut,
+            @RequestParam(required = false) Integer duree) {
+        return ResponseEntity.ok(reservationService.getTablesDisponibles(personnes, debut, duree));
+    }
+
+    @GetMapping("/prochains-creneaux")
+    @Operation(summary = "Prochains créneaux libres pour N personnes")
+    public ResponseEntity<List<CreneauDisponibleDto>> prochainsCreneaux(
+            @RequestParam int personnes,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime aPartirDe,
+            @RequestParam(required = false) Integer duree,
+            @RequestParam(defaultValue = "5") int nombre) {
+        return ResponseEntity.ok(reservationService.getProchainsCreneaux(personnes, aPartirDe, duree, nombre));
+    }
+
+    @GetMapping("/plan-tables")
+    @Operation(summary = "Proposer l'affectation des tables pour les réservations d'une date")
+    public ResponseEntity<PlanTablesDto> planTables(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "false") boolean complet) {
+        return ResponseEntity.ok(reservationService.getPlanTables(date, complet));
+    }
 }
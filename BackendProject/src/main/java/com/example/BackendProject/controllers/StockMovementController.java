@@ -1,5 +1,6 @@
 package com.example.BackendProject.controllers;
 
+import com.example.BackendProject.dto.BilanStockDto;
 import com.example.BackendProject.dto.StockMovementDto;
 import com.example.BackendProject.services.interfaces.StockMovementServiceInterface;
 import com.example.BackendProject.utils.LoggingUtils;
@@ -338,4 +339,87 @@ public class StockMovementController {
                     .body("Erreur lors du calcul: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Solde d'un ingrédient à un instant donné, lu dans le journal de stock
+     */
+    @GetMapping("/ingredient/{ingredientId}/solde")
+    @Operation(summary = "Solde d'un ingrédient à un instant donné",
+            description = "Lit le solde dans le journal de stock : cliché le plus proche avant l'instant, plus les écritures qui le suivent")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solde calculé avec succès"),
+            @ApiResponse(responseCode = "400", description = "Format de date invalide"),
+            @ApiResponse(responseCode = "404", description = "Ingrédient non trouvé")
+    })
+    public ResponseEntity<?> getSoldeA(
+            @Parameter(description = "ID de l'ingrédient", required = true, example = "1")
+            @PathVariable Long ingredientId,
+            @Parameter(description = "Instant (format: yyyy-MM-dd HH:mm:ss), maintenant par défaut", example = "2024-06-01 12:00:00")
+            @RequestParam(required = false) String instant,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Solde du journal de stock pour l'ingrédient ID: {} au {}", context, ingredientId, instant);
+        Timestamp date;
+        try {
+            date = instant != null ? Timestamp.valueOf(instant) : new Timestamp(System.currentTimeMillis());
+        } catch (IllegalArgumentException e) {
+            logger.error("{} Format de date invalide: {} - {}", context, instant, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Format de date invalide. Utilisez: yyyy-MM-dd HH:mm:ss");
+        }
+        try {
+            BigDecimal solde = stockMovementService.getSoldeA(ingredientId, date);
+            return new ResponseEntity<>(solde, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            logger.error("{} Ingrédient ID: {} non trouvé - {}", context, ingredientId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Ingrédient non trouvé avec l'ID: " + ingredientId);
+        }
+    }
+
+    /**
+     * Entrées, sorties et soldes d'un ingrédient sur une période, lus dans le journal de stock
+     */
+    @GetMapping("/ingredient/{ingredientId}/bilan")
+    @Operation(summary = "Bilan de stock d'un ingrédient sur une période",
+            description = "Soldes de début et de fin, entrées et consommation entre deux dates, calculés depuis le journal de stock")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bilan calculé avec succès",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BilanStockDto.class))),
+            @ApiResponse(responseCode = "400", description = "Dates invalides"),
+            @ApiResponse(responseCode = "404", description = "Ingrédient non trouvé")
+    })
+    public ResponseEntity<?> getBilan(
+            @Parameter(description = "ID de l'ingrédient", required = true, example = "1")
+            @PathVariable Long ingredientId,
+            @Parameter(description = "Date de début (format: yyyy-MM-dd HH:mm:ss)", required = true, example = "2024-06-01 00:00:00")
+            @RequestParam String debut,
+            @Parameter(description = "Date de fin (format: yyyy-MM-dd HH:mm:ss)", required = true, example = "2024-06-30 23:59:59")
+            @RequestParam String fin,
+            HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Bilan du journal de stock pour l'ingrédient ID: {} entre {} et {}", context, ingredientId, debut, fin);
+        Timestamp dateDebut;
+        Timestamp dateFin;
+        try {
+            dateDebut = Timestamp.valueOf(debut);
+            dateFin = Timestamp.valueOf(fin);
+        } catch (IllegalArgumentException e) {
+            logger.error("{} Format de date invalide: {} - {}", context, debut + " à " + fin, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Format de date invalide. Utilisez: yyyy-MM-dd HH:mm:ss");
+        }
+        if (dateDebut.after(dateFin)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Dates invalides");
+        }
+        try {
+            BilanStockDto bilan = stockMovementService.getBilan(ingredientId, dateDebut, dateFin);
+            return new ResponseEntity<>(bilan, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            logger.error("{} Ingrédient ID: {} non trouvé - {}", context, ingredientId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Ingrédient non trouvé avec l'ID: " + ingredientId);
+        }
+    }
+}
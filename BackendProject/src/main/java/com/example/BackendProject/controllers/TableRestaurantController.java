@@ -1,5 +1,6 @@
 package com.example.BackendProject.controllers;
 
+import com.example.BackendProject.dto.EtatSalleDto;
 import com.example.BackendProject.dto.TableRestaurantDto;
 import com.example.BackendProject.services.implementations.TableRestaurantServiceImplementation;
 import com.example.BackendProject.utils.LoggingUtils;
@@ -97,6 +98,23 @@ public class TableRestaurantController {
         }
     }
 
+    @GetMapping("/etat")
+    @Operation(summary = "État de la salle pour les écrans temps réel",
+            description = "Retourne toutes les tables et la dernière séquence d'événement incluse. Les écrans s'abonnent à " +
+                    "/topic/salle/tables, puis appellent cet endpoint à la connexion ou quand ils détectent un trou de séquence.")
+    @ApiResponse(responseCode = "200", description = "État de la salle",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = EtatSalleDto.class)))
+    public ResponseEntity<EtatSalleDto> getEtatSalle(HttpServletRequest request) {
+        String context = LoggingUtils.getLogContext(request);
+        logger.info("{} Récupération de l'état de la salle", context);
+        try {
+            return ResponseEntity.ok(tableService.getEtatSalle());
+        } catch (Exception e) {
+            logger.error("{} Erreur lors de la récupération de l'état de la salle: {}", context, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Récupérer une table par ID")
     @ApiResponses(value = {
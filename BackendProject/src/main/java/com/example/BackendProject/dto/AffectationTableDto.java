@@ -0,0 +1,59 @@
+package com.example.BackendProject.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Table (ou tables voisines combinées) proposée pour une réservation par le plan de service.
+ */
+public class AffectationTableDto {
+
+    private Long reservationId;
+    private String nomClient;
+    private Integer nombrePersonnes;
+    private LocalTime heure;
+    private List<Long> tableIds;
+    private List<String> numerosTables;
+    private Integer capaciteTotale;
+    // Table choisie à la main par l'hôte : conservée telle quelle
+    private boolean fixee;
+
+    public AffectationTableDto(Long reservationId, String nomClient, Integer nombrePersonnes, LocalTime heure,
+                               List<Long> tableIds, List<String> numerosTables, Integer capaciteTotale, boolean fixee) {
+        this.reservationId = reservationId;
+        this.nomClient = nomClient;
+        this.nombrePersonnes = nombrePersonnes;
+        this.heure = heure;
+        this.tableIds = tableIds;
+        this.numerosTables = numerosTables;
+        this.capaciteTotale = capaciteTotale;
+        this.fixee = fixee;
+    }
+
+    public AffectationTableDto() {
+    }
+
+    public Long getReservationId() { return reservationId; }
+    public void setReservationId(Long reservationId) { this.reservationId = reservationId; }
+
+    public String getNomClient() { return nomClient; }
+    public void setNomClient(String nomClient) { this.nomClient = nomClient; }
+
+    public Integer getNombrePersonnes() { return nombrePersonnes; }
+    public void setNombrePersonnes(Integer nombrePersonnes) { this.nombrePersonnes = nombrePersonnes; }
+
+    public LocalTime getHeure() { return heure; }
+    public void setHeure(LocalTime heure) { this.heure = heure; }
+
+    public List<Long> getTableIds() { return tableIds; }
+    public void setTableIds(List<Long> tableIds) { this.tableIds = tableIds; }
+
+    public List<String> getNumerosTables() { return numerosTables; }
+    public void setNumerosTables(List<String> numerosTables) { this.numerosTables = numerosTables; }
+
+    public Integer getCapaciteTotale() { return capaciteTotale; }
+    public void setCapaciteTotale(Integer capaciteTotale) { this.capaciteTotale = capaciteTotale; }
+
+    public boolean isFixee() { return fixee; }
+    public void setFixee(boolean fixee) { this.fixee = fixee; }
+}
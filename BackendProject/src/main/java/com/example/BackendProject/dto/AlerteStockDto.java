@@ -0,0 +1,66 @@
+package com.example.BackendProject.dto;
+
+import com.example.BackendProject.utils.NiveauStock;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * État d'alerte d'un ingrédient : alerte en cours (/api/ingredients/alertes/en-cours) ou transition
+ * diffusée sur /topic/stock/alertes. {@code depuis} est l'instant du dernier changement d'état.
+ */
+public class AlerteStockDto {
+
+    private Long id;
+    private String nom;
+    private BigDecimal quantite;
+    private String unite;
+    private BigDecimal seuilAlerte;
+    private NiveauStock status;
+    private NiveauStock statusPrecedent;
+    private String message;
+    private LocalDateTime depuis;
+
+    public AlerteStockDto(Long id, String nom, BigDecimal quantite, String unite, BigDecimal seuilAlerte,
+                          NiveauStock status, NiveauStock statusPrecedent, String message, LocalDateTime depuis) {
+        this.id = id;
+        this.nom = nom;
+        this.quantite = quantite;
+        this.unite = unite;
+        this.seuilAlerte = seuilAlerte;
+        this.status = status;
+        this.statusPrecedent = statusPrecedent;
+        this.message = message;
+        this.depuis = depuis;
+    }
+
+    public AlerteStockDto() {
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getNom() { return nom; }
+    public void setNom(String nom) { this.nom = nom; }
+
+    public BigDecimal getQuantite() { return quantite; }
+    public void setQuantite(BigDecimal quantite) { this.quantite = quantite; }
+
+    public String getUnite() { return unite; }
+    public void setUnite(String unite) { this.unite = unite; }
+
+    public BigDecimal getSeuilAlerte() { return seuilAlerte; }
+    public void setSeuilAlerte(BigDecimal seuilAlerte) { this.seuilAlerte = seuilAlerte; }
+
+    public NiveauStock getStatus() { return status; }
+    public void setStatus(NiveauStock status) { this.status = status; }
+
+    public NiveauStock getStatusPrecedent() { return statusPrecedent; }
+    public void setStatusPrecedent(NiveauStock statusPrecedent) { this.statusPrecedent = statusPrecedent; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getDepuis() { return depuis; }
+    public void setDepuis(LocalDateTime depuis) { this.depuis = depuis; }
+}
@@ -0,0 +1,138 @@
+package com.example.BackendProject.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Carte complète d'un menu : catégories (par ordre d'affichage), plats disponibles et options de chaque plat.
+ * Objets immuables : une même instance est partagée par toutes les requêtes tant que le catalogue ne change pas.
+ */
+public class ArbreMenuDto {
+
+    private final Long id;
+    private final String nom;
+    private final List<Categorie> categories;
+
+    public ArbreMenuDto(Long id, String nom, List<Categorie> categories) {
+        this.id = id;
+        this.nom = nom;
+        this.categories = List.copyOf(categories);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public List<Categorie> getCategories() {
+        return categories;
+    }
+
+    public static class Categorie {
+
+        private final Long id;
+        private final String nom;
+        private final String description;
+        private final Integer ordreAffichage;
+        private final List<Plat> plats;
+
+        public Categorie(Long id, String nom, String description, Integer ordreAffichage, List<Plat> plats) {
+            this.id = id;
+            this.nom = nom;
+            this.description = description;
+            this.ordreAffichage = ordreAffichage;
+            this.plats = List.copyOf(plats);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Integer getOrdreAffichage() {
+            return ordreAffichage;
+        }
+
+        public List<Plat> getPlats() {
+            return plats;
+        }
+    }
+
+    public static class Plat {
+
+        private final Long id;
+        private final String nom;
+        private final String description;
+        private final BigDecimal prix;
+        private final String photoUrl;
+        private final List<Option> options;
+
+        public Plat(Long id, String nom, String description, BigDecimal prix, String photoUrl, List<Option> options) {
+            this.id = id;
+            this.nom = nom;
+            this.description = description;
+            this.prix = prix;
+            this.photoUrl = photoUrl;
+            this.options = List.copyOf(options);
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public BigDecimal getPrix() {
+            return prix;
+        }
+
+        public String getPhotoUrl() {
+            return photoUrl;
+        }
+
+        public List<Option> getOptions() {
+            return options;
+        }
+    }
+
+    public static class Option {
+
+        private final Long id;
+        private final String nom;
+        private final BigDecimal prixSupplementaire;
+
+        public Option(Long id, String nom, BigDecimal prixSupplementaire) {
+            this.id = id;
+            this.nom = nom;
+            this.prixSupplementaire = prixSupplementaire;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getNom() {
+            return nom;
+        }
+
+        public BigDecimal getPrixSupplementaire() {
+            return prixSupplementaire;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.BackendProject.dto;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Mouvements d'un ingrédient sur ]debut, fin], calculés depuis le journal de stock.
+ * {@code sorties} est la consommation (somme des retraits) ; {@code entrees} la somme des ajouts.
+ */
+public class BilanStockDto {
+
+    private Long ingredientId;
+    private Timestamp debut;
+    private Timestamp fin;
+    private BigDecimal soldeDebut;
+    private BigDecimal soldeFin;
+    private BigDecimal entrees;
+    private BigDecimal sorties;
+
+    public BilanStockDto(Long ingredientId, Timestamp debut, Timestamp fin, BigDecimal soldeDebut, BigDecimal soldeFin,
+                         BigDecimal entrees, BigDecimal sorties) {
+        this.ingredientId = ingredientId;
+        this.debut = debut;
+        this.fin = fin;
+        this.soldeDebut = soldeDebut;
+        this.soldeFin = soldeFin;
+        this.entrees = entrees;
+        this.sorties = sorties;
+    }
+
+    public BilanStockDto() {
+    }
+
+    public Long getIngredientId() { return ingredientId; }
+    public void setIngredientId(Long ingredientId) { this.ingredientId = ingredientId; }
+
+    public Timestamp getDebut() { return debut; }
+    public void setDebut(Timestamp debut) { this.debut = debut; }
+
+    public Timestamp getFin() { return fin; }
+    public void setFin(Timestamp fin) { this.fin = fin; }
+
+    public BigDecimal getSoldeDebut() { return soldeDebut; }
+    public void setSoldeDebut(BigDecimal soldeDebut) { this.soldeDebut = soldeDebut; }
+
+    public BigDecimal getSoldeFin() { return soldeFin; }
+    public void setSoldeFin(BigDecimal soldeFin) { this.soldeFin = soldeFin; }
+
+    public BigDecimal getEntrees() { return entrees; }
+    public void setEntrees(BigDecimal entrees) { this.entrees = entrees; }
+
+    public BigDecimal getSorties() { return sorties; }
+    public void setSorties(BigDecimal sorties) { this.sorties = sorties; }
+}
@@ -0,0 +1,47 @@
+package com.example.BackendProject.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Créneau libre sur une table, proposé par /api/reservations/prochains-creneaux.
+ */
+public class CreneauDisponibleDto {
+
+    private Long tableId;
+    private String numeroTable;
+    private Long zoneId;
+    private Integer capacite;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+
+    public CreneauDisponibleDto(Long tableId, String numeroTable, Long zoneId, Integer capacite,
+                                LocalDateTime debut, LocalDateTime fin) {
+        this.tableId = tableId;
+        this.numeroTable = numeroTable;
+        this.zoneId = zoneId;
+        this.capacite = capacite;
+        this.debut = debut;
+        this.fin = fin;
+    }
+
+    public CreneauDisponibleDto() {
+    }
+
+    public Long getTableId() { return tableId; }
+    public void setTableId(Long tableId) { this.tableId = tableId; }
+
+    public String getNumeroTable() { return numeroTable; }
+    public void setNumeroTable(String numeroTable) { this.numeroTable = numeroTable; }
+
+    public Long getZoneId() { return zoneId; }
+    public void setZoneId(Long zoneId) { this.zoneId = zoneId; }
+
+    public Integer getCapacite() { return capacite; }
+    public void setCapacite(Integer capacite) { this.capacite = capacite; }
+
+    public LocalDateTime getDebut() { return debut; }
+    public void setDebut(LocalDateTime debut) { this.debut = debut; }
+
+    public LocalDateTime getFin() { return fin; }
+    public void setFin(LocalDateTime fin) { this.fin = fin; }
+}
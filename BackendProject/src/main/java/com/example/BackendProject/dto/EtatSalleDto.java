@@ -0,0 +1,37 @@
+package com.example.BackendProject.dto;
+
+import java.util.List;
+
+/**
+ * Réponse de /api/tables/etat : état de toutes les tables et dernière séquence d'événement déjà incluse.
+ * Le client ignore ensuite les événements de /topic/salle/tables de séquence inférieure ou égale.
+ */
+public class EtatSalleDto {
+
+    private Long sequence;
+    private List<TableRestaurantDto> tables;
+
+    public EtatSalleDto(Long sequence, List<TableRestaurantDto> tables) {
+        this.sequence = sequence;
+        this.tables = tables;
+    }
+
+    public EtatSalleDto() {
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public List<TableRestaurantDto> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<TableRestaurantDto> tables) {
+        this.tables = tables;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.BackendProject.dto;
+
+import com.example.BackendProject.utils.StatutCommande;
+import com.example.BackendProject.utils.TypeEvenementCommande;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Delta diffusé sur /topic/cuisine/commandes et /topic/serveurs/addition/{id}.
+ * Toutes les valeurs sont absolues (quantité, totaux, statut) : rejouer un événement déjà
+ * appliqué est sans effet. Un trou dans {@code sequence} impose un appel à /api/commandes/{id}/resync.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EvenementCommandeDto {
+
+    private TypeEvenementCommande type;
+    private Long commandeId;
+    private Long sequence;
+    private StatutCommande statut;
+    private BigDecimal totalHt;
+    private BigDecimal totalTtc;
+
+    // Ligne concernée (ajout / modification de quantité)
+    private LigneCommandeDto ligne;
+
+    // Identifiant de la ligne retirée
+    private Long ligneId;
+
+    // Instantané complet, uniquement pour COMMANDE_CREEE
+    private CommandeDto commande;
+
+    public EvenementCommandeDto(TypeEvenementCommande type, Long commandeId) {
+        this.type = type;
+        this.commandeId = commandeId;
+    }
+
+    public EvenementCommandeDto() {
+    }
+
+    public TypeEvenementCommande getType() {
+        return type;
+    }
+
+    public void setType(TypeEvenementCommande type) {
+        this.type = type;
+    }
+
+    public Long getCommandeId() {
+        return commandeId;
+    }
+
+    public void setCommandeId(Long commandeId) {
+        this.commandeId = commandeId;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public StatutCommande getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutCommande statut) {
+        this.statut = statut;
+    }
+
+    public BigDecimal getTotalHt() {
+        return totalHt;
+    }
+
+    public void setTotalHt(BigDecimal totalHt) {
+        this.totalHt = totalHt;
+    }
+
+    public BigDecimal getTotalTtc() {
+        return totalTtc;
+    }
+
+    public void setTotalTtc(BigDecimal totalTtc) {
+        this.totalTtc = totalTtc;
+    }
+
+    public LigneCommandeDto getLigne() {
+        return ligne;
+    }
+
+    public void setLigne(LigneCommandeDto ligne) {
+        this.ligne = ligne;
+    }
+
+    public Long getLigneId() {
+        return ligneId;
+    }
+
+    public void setLigneId(Long ligneId) {
+        this.ligneId = ligneId;
+    }
+
+    public CommandeDto getCommande() {
+        return commande;
+    }
+
+    public void setCommande(CommandeDto commande) {
+        this.commande = commande;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.BackendProject.dto;
+
+import com.example.BackendProject.utils.StatutTable;
+import com.example.BackendProject.utils.TypeEvenementTable;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Changement d'état d'une table diffusé sur /topic/salle/tables.
+ * Valeurs absolues : rejouer un événement déjà appliqué est sans effet. La séquence est globale à la salle ;
+ * un trou (ou une séquence inférieure à la dernière reçue) impose un rechargement de /api/tables/etat.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EvenementTableDto {
+
+    private TypeEvenementTable type;
+    private Long tableId;
+    private Long sequence;
+    private StatutTable statut;
+
+    // Renseignés uniquement pour TABLE_ENREGISTREE
+    private Long zoneId;
+    private String numero;
+    private Integer capacite;
+
+    public EvenementTableDto(TypeEvenementTable type, Long tableId) {
+        this.type = type;
+        this.tableId = tableId;
+    }
+
+    public EvenementTableDto() {
+    }
+
+    public TypeEvenementTable getType() {
+        return type;
+    }
+
+    public void setType(TypeEvenementTable type) {
+        this.type = type;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public StatutTable getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutTable statut) {
+        this.statut = statut;
+    }
+
+    public Long getZoneId() {
+        return zoneId;
+    }
+
+    public void setZoneId(Long zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    public String getNumero() {
+        return numero;
+    }
+
+    public void setNumero(String numero) {
+        this.numero = numero;
+    }
+
+    public Integer getCapacite() {
+        return capacite;
+    }
+
+    public void setCapacite(Integer capacite) {
+        this.capacite = capacite;
+    }
+}
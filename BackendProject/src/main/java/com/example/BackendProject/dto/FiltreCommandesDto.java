@@ -0,0 +1,80 @@
+package com.example.BackendProject.dto;
+
+import com.example.BackendProject.utils.StatutCommande;
+import com.example.BackendProject.utils.TypeCommande;
+
+import java.sql.Timestamp;
+
+/**
+ * Critères de recherche des commandes. Un critère nul n'est pas appliqué.
+ */
+public class FiltreCommandesDto {
+
+    private StatutCommande statut;
+    private TypeCommande typeCommande;
+    private Long serveurId;
+    private Long tableId;
+    private Timestamp debut;
+    private Timestamp fin;
+
+    public FiltreCommandesDto(StatutCommande statut, TypeCommande typeCommande, Long serveurId, Long tableId,
+                              Timestamp debut, Timestamp fin) {
+        this.statut = statut;
+        this.typeCommande = typeCommande;
+        this.serveurId = serveurId;
+        this.tableId = tableId;
+        this.debut = debut;
+        this.fin = fin;
+    }
+
+    public FiltreCommandesDto() {
+    }
+
+    public StatutCommande getStatut() {
+        return statut;
+    }
+
+    public void setStatut(StatutCommande statut) {
+        this.statut = statut;
+    }
+
+    public TypeCommande getTypeCommande() {
+        return typeCommande;
+    }
+
+    public void setTypeCommande(TypeCommande typeCommande) {
+        this.typeCommande = typeCommande;
+    }
+
+    public Long getServeurId() {
+        return serveurId;
+    }
+
+    public void setServeurId(Long serveurId) {
+        this.serveurId = serveurId;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    public Timestamp getDebut() {
+        return debut;
+    }
+
+    public void setDebut(Timestamp debut) {
+        this.debut = debut;
+    }
+
+    public Timestamp getFin() {
+        return fin;
+    }
+
+    public void setFin(Timestamp fin) {
+        this.fin = fin;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.BackendProject.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.List;
+
+public class LignePanierDto {
+
+    @NotNull(message = "Le plat est obligatoire")
+    private Long platId;
+
+    @NotNull(message = "La quantité est obligatoire")
+    @Positive(message = "La quantité doit être supérieure à 0")
+    private Integer quantite;
+
+    private String notesCuisine;
+
+    // IDs des OptionItem choisies pour ce plat
+    private List<Long> optionIds;
+
+    public LignePanierDto(Long platId, Integer quantite, String notesCuisine, List<Long> optionIds) {
+        this.platId = platId;
+        this.quantite = quantite;
+        this.notesCuisine = notesCuisine;
+        this.optionIds = optionIds;
+    }
+
+    public LignePanierDto() {
+    }
+
+    public Long getPlatId() {
+        return platId;
+    }
+
+    public void setPlatId(Long platId) {
+        this.platId = platId;
+    }
+
+    public Integer getQuantite() {
+        return quantite;
+    }
+
+    public void setQuantite(Integer quantite) {
+        this.quantite = quantite;
+    }
+
+    public String getNotesCuisine() {
+        return notesCuisine;
+    }
+
+    public void setNotesCuisine(String notesCuisine) {
+        this.notesCuisine = notesCuisine;
+    }
+
+    public List<Long> getOptionIds() {
+        return optionIds;
+    }
+
+    public void setOptionIds(List<Long> optionIds) {
+        this.optionIds = optionIds;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.BackendProject.dto;
+
+import java.util.List;
+
+/**
+ * Page de commandes (plus récentes d'abord). Pour la page suivante, renvoyer {@code curseurSuivant}
+ * dans le paramètre {@code curseur} ; il est nul sur la dernière page.
+ */
+public class PageCommandesDto {
+
+    private List<CommandeDto> commandes;
+    private String curseurSuivant;
+
+    public PageCommandesDto(List<CommandeDto> commandes, String curseurSuivant) {
+        this.commandes = commandes;
+        this.curseurSuivant = curseurSuivant;
+    }
+
+    public PageCommandesDto() {
+    }
+
+    public List<CommandeDto> getCommandes() {
+        return commandes;
+    }
+
+    public void setCommandes(List<CommandeDto> commandes) {
+        this.commandes = commandes;
+    }
+
+    public String getCurseurSuivant() {
+        return curseurSuivant;
+    }
+
+    public void setCurseurSuivant(String curseurSuivant) {
+        this.curseurSuivant = curseurSuivant;
+    }
+}
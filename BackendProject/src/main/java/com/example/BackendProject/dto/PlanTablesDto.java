@@ -0,0 +1,48 @@
+package com.example.BackendProject.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Plan d'affectation des tables d'un service, calculé par /api/reservations/plan-tables.
+ */
+public class PlanTablesDto {
+
+    private LocalDate date;
+    private int couvertsPlaces;
+    private int couvertsNonPlaces;
+    // Places inoccupées sur les tables affectées
+    private int placesPerdues;
+    // Nombre d'affectations reprises telles quelles du plan précédent
+    private int affectationsConservees;
+    private long dureeCalculMs;
+    private List<AffectationTableDto> affectations;
+    private List<Long> reservationsNonPlacees;
+
+    public PlanTablesDto() {
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public int getCouvertsPlaces() { return couvertsPlaces; }
+    public void setCouvertsPlaces(int couvertsPlaces) { this.couvertsPlaces = couvertsPlaces; }
+
+    public int getCouvertsNonPlaces() { return couvertsNonPlaces; }
+    public void setCouvertsNonPlaces(int couvertsNonPlaces) { this.couvertsNonPlaces = couvertsNonPlaces; }
+
+    public int getPlacesPerdues() { return placesPerdues; }
+    public void setPlacesPerdues(int placesPerdues) { this.placesPerdues = placesPerdues; }
+
+    public int getAffectationsConservees() { return affectationsConservees; }
+    public void setAffectationsConservees(int affectationsConservees) { this.affectationsConservees = affectationsConservees; }
+
+    public long getDureeCalculMs() { return dureeCalculMs; }
+    public void setDureeCalculMs(long dureeCalculMs) { this.dureeCalculMs = dureeCalculMs; }
+
+    public List<AffectationTableDto> getAffectations() { return affectations; }
+    public void setAffectations(List<AffectationTableDto> affectations) { this.affectations = affectations; }
+
+    public List<Long> getReservationsNonPlacees() { return reservationsNonPlacees; }
+    public void setReservationsNonPlacees(List<Long> reservationsNonPlacees) { this.reservationsNonPlacees = reservationsNonPlacees; }
+}
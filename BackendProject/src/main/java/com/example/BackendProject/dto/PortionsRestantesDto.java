@@ -0,0 +1,25 @@
+package com.example.BackendProject.dto;
+
+/**
+ * Nombre de portions d'un plat réalisables avec le stock actuel, diffusé sur /topic/plats/portions.
+ * {@code portions} est nul quand aucun ingrédient ne limite plus le plat (recette retirée).
+ */
+public class PortionsRestantesDto {
+
+    private Long platId;
+    private Integer portions;
+
+    public PortionsRestantesDto(Long platId, Integer portions) {
+        this.platId = platId;
+        this.portions = portions;
+    }
+
+    public PortionsRestantesDto() {
+    }
+
+    public Long getPlatId() { return platId; }
+    public void setPlatId(Long platId) { this.platId = platId; }
+
+    public Integer getPortions() { return portions; }
+    public void setPortions(Integer portions) { this.portions = portions; }
+}
@@ -30,6 +30,10 @@ public class ReservationDto {
 
     private StatutReservation statut;
     private String notes;
+
+    @Min(value = 15, message = "La durée doit être d'au moins 15 minutes")
+    private Integer dureeMinutes;
+
     private Long tableId;
     private String numeroTable;
 
@@ -38,6 +42,9 @@ public class ReservationDto {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Integer getDureeMinutes() { return dureeMinutes; }
+    public void setDureeMinutes(Integer dureeMinutes) { this.dureeMinutes = dureeMinutes; }
+
     public String getNomClient() { return nomClient; }
     public void setNomClient(String nomClient) { this.nomClient = nomClient; }
 
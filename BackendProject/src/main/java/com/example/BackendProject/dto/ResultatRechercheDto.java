@@ -0,0 +1,42 @@
+package com.example.BackendProject.dto;
+
+import com.example.BackendProject.utils.TypeElementCatalogue;
+
+/**
+ * Résultat de /api/recherche : plat ou ingrédient, servi depuis l'index en mémoire.
+ */
+public class ResultatRechercheDto {
+
+    private TypeElementCatalogue type;
+    private Long id;
+    private String nom;
+    private String description;
+    // Pertinence : plus elle est élevée, meilleure est la correspondance
+    private double score;
+
+    public ResultatRechercheDto(TypeElementCatalogue type, Long id, String nom, String description, double score) {
+        this.type = type;
+        this.id = id;
+        this.nom = nom;
+        this.description = description;
+        this.score = score;
+    }
+
+    public ResultatRechercheDto() {
+    }
+
+    public TypeElementCatalogue getType() { return type; }
+    public void setType(TypeElementCatalogue type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getNom() { return nom; }
+    public void setNom(String nom) { this.nom = nom; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
@@ -0,0 +1,35 @@
+package com.example.BackendProject.dto;
+
+/**
+ * Réponse de /api/commandes/{id}/resync : état complet de la commande et dernière séquence
+ * d'événement déjà incluse. Le client ignore ensuite les événements de séquence inférieure ou égale.
+ */
+public class ResyncCommandeDto {
+
+    private Long sequence;
+    private CommandeDto commande;
+
+    public ResyncCommandeDto(Long sequence, CommandeDto commande) {
+        this.sequence = sequence;
+        this.commande = commande;
+    }
+
+    public ResyncCommandeDto() {
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public CommandeDto getCommande() {
+        return commande;
+    }
+
+    public void setCommande(CommandeDto commande) {
+        this.commande = commande;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.BackendProject.dto;
+
+import com.example.BackendProject.utils.TypeCommande;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Panier complet envoyé par la tablette serveur : la commande, ses lignes et leurs options
+ * sont créées en une seule transaction.
+ */
+public class SoumissionCommandeDto {
+
+    private Long tableId; // Optionnel pour A_EMPORTER
+
+    private Long serveurId;
+
+    @NotNull(message = "Le type de commande est obligatoire")
+    private TypeCommande typeCommande;
+
+    private Integer nombrePersonnes;
+
+    @NotEmpty(message = "Le panier ne peut pas être vide")
+    private List<LignePanierDto> lignes;
+
+    public SoumissionCommandeDto(Long tableId, Long serveurId, TypeCommande typeCommande, Integer nombrePersonnes, List<LignePanierDto> lignes) {
+        this.tableId = tableId;
+        this.serveurId = serveurId;
+        this.typeCommande = typeCommande;
+        this.nombrePersonnes = nombrePersonnes;
+        this.lignes = lignes;
+    }
+
+    public SoumissionCommandeDto() {
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    public Long getServeurId() {
+        return serveurId;
+    }
+
+    public void setServeurId(Long serveurId) {
+        this.serveurId = serveurId;
+    }
+
+    public TypeCommande getTypeCommande() {
+        return typeCommande;
+    }
+
+    public void setTypeCommande(TypeCommande typeCommande) {
+        this.typeCommande = typeCommande;
+    }
+
+    public Integer getNombrePersonnes() {
+        return nombrePersonnes;
+    }
+
+    public void setNombrePersonnes(Integer nombrePersonnes) {
+        this.nombrePersonnes = nombrePersonnes;
+    }
+
+    public List<LignePanierDto> getLignes() {
+        return lignes;
+    }
+
+    public void setLignes(List<LignePanierDto> lignes) {
+        this.lignes = lignes;
+    }
+}
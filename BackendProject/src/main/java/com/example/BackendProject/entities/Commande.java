@@ -9,7 +9,10 @@ import java.sql.Timestamp;
 import java.util.List;
 
 @Entity
-@Table(name = "commande")
+@Table(name = "commande", indexes = {
+        // Pagination par clé de l'historique des commandes
+        @Index(name = "idx_commande_date_id", columnList = "dateHeureCommande, id")
+})
 public class Commande {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
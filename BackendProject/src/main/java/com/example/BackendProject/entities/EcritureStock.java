@@ -0,0 +1,66 @@
+package com.example.BackendProject.entities;
+
+import com.example.BackendProject.utils.OrigineMouvementStock;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Ligne du journal de stock : variation signée de la quantité d'un ingrédient. Le journal est en ajout seul ;
+ * l'ingrédient est référencé par son ID (sans clé étrangère) pour que l'historique survive à sa suppression.
+ */
+@Entity
+@Table(name = "ecriture_stock", indexes = {
+        @Index(name = "idx_ecriture_stock_ingredient_date", columnList = "ingredientId, dateEcriture"),
+        @Index(name = "idx_ecriture_stock_date", columnList = "dateEcriture")
+})
+public class EcritureStock {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ingredientId;
+
+    @Column(nullable = false)
+    private BigDecimal variation;
+
+    // VARCHAR plutôt qu'un ENUM MySQL : une nouvelle origine ne demande pas de modifier la colonne
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    private OrigineMouvementStock origine;
+
+    @Column(nullable = false)
+    private Timestamp dateEcriture;
+
+    public EcritureStock(Long ingredientId, BigDecimal variation, OrigineMouvementStock origine, Timestamp dateEcriture) {
+        this.ingredientId = ingredientId;
+        this.variation = variation;
+        this.origine = origine;
+        this.dateEcriture = dateEcriture;
+    }
+
+    public EcritureStock() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getIngredientId() {
+        return ingredientId;
+    }
+
+    public BigDecimal getVariation() {
+        return variation;
+    }
+
+    public OrigineMouvementStock getOrigine() {
+        return origine;
+    }
+
+    public Timestamp getDateEcriture() {
+        return dateEcriture;
+    }
+}
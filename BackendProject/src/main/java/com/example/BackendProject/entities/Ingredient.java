@@ -1,6 +1,7 @@
 package com.example.BackendProject.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,9 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "ingredient")
+// Seules les colonnes modifiées sont écrites : une mise à jour du nom ou du seuil
+// n'écrase pas la quantité décrémentée entre-temps par une autre transaction
+@DynamicUpdate
 public class Ingredient {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
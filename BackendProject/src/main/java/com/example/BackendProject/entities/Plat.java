@@ -30,6 +30,8 @@ public class Plat {
     private BigDecimal prix;
     private String photoUrl;
     private Boolean disponibilite = true;
+    // Retiré de la carte par le moteur des portions restantes, qui l'y remettra au réapprovisionnement
+    private Boolean retireParRupture = false;
 
     @ManyToMany
     @JoinTable(
@@ -114,6 +116,14 @@ public class Plat {
         this.disponibilite = disponibilite;
     }
 
+    public Boolean getRetireParRupture() {
+        return retireParRupture;
+    }
+
+    public void setRetireParRupture(Boolean retireParRupture) {
+        this.retireParRupture = retireParRupture;
+    }
+
     public List<OptionItem> getOptions() {
         return options;
     }
@@ -34,6 +34,9 @@ public class Reservation {
 
     private String notes;
 
+    // Durée prévue à table ; null = durée par défaut (app.reservations.duree-defaut-minutes)
+    private Integer dureeMinutes;
+
     @ManyToOne
     @JoinColumn(name = "table_id")
     private TableRestaurant table;
@@ -56,6 +59,9 @@ public class Reservation {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Integer getDureeMinutes() { return dureeMinutes; }
+    public void setDureeMinutes(Integer dureeMinutes) { this.dureeMinutes = dureeMinutes; }
+
     public String getNomClient() { return nomClient; }
     public void setNomClient(String nomClient) { this.nomClient = nomClient; }
 
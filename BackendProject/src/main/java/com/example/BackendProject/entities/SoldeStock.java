@@ -0,0 +1,64 @@
+package com.example.BackendProject.entities;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Cliché périodique du journal de stock pour un ingrédient : solde et total des sorties depuis l'ouverture,
+ * à l'instant {@code dateSolde}. Une question « à l'instant T » part du cliché le plus proche avant T.
+ */
+@Entity
+@Table(name = "solde_stock", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_solde_stock_ingredient_date", columnNames = {"ingredientId", "dateSolde"})
+}, indexes = {
+        @Index(name = "idx_solde_stock_date", columnList = "dateSolde")
+})
+public class SoldeStock {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ingredientId;
+
+    @Column(nullable = false)
+    private Timestamp dateSolde;
+
+    @Column(nullable = false)
+    private BigDecimal solde;
+
+    @Column(nullable = false)
+    private BigDecimal sortiesCumulees;
+
+    public SoldeStock(Long ingredientId, Timestamp dateSolde, BigDecimal solde, BigDecimal sortiesCumulees) {
+        this.ingredientId = ingredientId;
+        this.dateSolde = dateSolde;
+        this.solde = solde;
+        this.sortiesCumulees = sortiesCumulees;
+    }
+
+    public SoldeStock() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getIngredientId() {
+        return ingredientId;
+    }
+
+    public Timestamp getDateSolde() {
+        return dateSolde;
+    }
+
+    public BigDecimal getSolde() {
+        return solde;
+    }
+
+    public BigDecimal getSortiesCumulees() {
+        return sortiesCumulees;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.BackendProject.entities;
+
+import com.example.BackendProject.utils.GranulariteAgregat;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Agrégat de ventes pré-calculé (par heure ou par jour) alimenté à chaque
+ * encaissement de commande. Le tableau de bord lit ces lignes au lieu des commandes.
+ */
+@Entity
+@Table(name = "vente_agregee",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"granularite", "debut_periode"}))
+public class VenteAgregee {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private GranulariteAgregat granularite;
+
+    @Column(name = "debut_periode", nullable = false)
+    private Timestamp debutPeriode;
+
+    private BigDecimal chiffreAffaires;
+    private Long nombreCommandes;
+    private Long nombreClients;
+
+    public VenteAgregee(Long id, GranulariteAgregat granularite, Timestamp debutPeriode, BigDecimal chiffreAffaires, Long nombreCommandes, Long nombreClients) {
+        this.id = id;
+        this.granularite = granularite;
+        this.debutPeriode = debutPeriode;
+        this.chiffreAffaires = chiffreAffaires;
+        this.nombreCommandes = nombreCommandes;
+        this.nombreClients = nombreClients;
+    }
+
+    public VenteAgregee() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public GranulariteAgregat getGranularite() {
+        return granularite;
+    }
+
+    public void setGranularite(GranulariteAgregat granularite) {
+        this.granularite = granularite;
+    }
+
+    public Timestamp getDebutPeriode() {
+        return debutPeriode;
+    }
+
+    public void setDebutPeriode(Timestamp debutPeriode) {
+        this.debutPeriode = debutPeriode;
+    }
+
+    public BigDecimal getChiffreAffaires() {
+        return chiffreAffaires;
+    }
+
+    public void setChiffreAffaires(BigDecimal chiffreAffaires) {
+        this.chiffreAffaires = chiffreAffaires;
+    }
+
+    public Long getNombreCommandes() {
+        return nombreCommandes;
+    }
+
+    public void setNombreCommandes(Long nombreCommandes) {
+        this.nombreCommandes = nombreCommandes;
+    }
+
+    public Long getNombreClients() {
+        return nombreClients;
+    }
+
+    public void setNombreClients(Long nombreClients) {
+        this.nombreClients = nombreClients;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.BackendProject.exceptions;
+
+/**
+ * Exception levée lorsqu'une réservation chevauche un créneau déjà pris sur la même table
+ */
+public class ConflitReservationException extends RuntimeException {
+
+    public ConflitReservationException(String message) {
+        super(message);
+    }
+}
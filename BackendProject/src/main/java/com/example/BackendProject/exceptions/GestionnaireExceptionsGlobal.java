@@ -96,6 +96,27 @@ public class GestionnaireExceptionsGlobal {
         return new ResponseEntity<>(erreur, HttpStatus.BAD_REQUEST);
     }
     
+    /**
+     * Gère les conflits de réservation (409)
+     */
+    @ExceptionHandler(ConflitReservationException.class)
+    public ResponseEntity<ReponseErreur> gererConflitReservation(
+            ConflitReservationException ex,
+            HttpServletRequest request) {
+        
+        logger.warn("Conflit de réservation : {} - Chemin : {}", ex.getMessage(), request.getRequestURI());
+        
+        ReponseErreur erreur = new ReponseErreur(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Conflit de Réservation",
+            ex.getMessage(),
+            request.getRequestURI()
+        );
+        
+        return new ResponseEntity<>(erreur, HttpStatus.CONFLICT);
+    }
+    
     /**
      * Gère les exceptions d'authentification (401)
      */
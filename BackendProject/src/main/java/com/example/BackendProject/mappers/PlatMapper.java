@@ -13,6 +13,7 @@ public interface PlatMapper {
 
     // Vers Entité : On reconstruit l'objet Category avec l'ID pour Hibernate
     @Mapping(target = "category.id", source = "category")
+    @Mapping(target = "retireParRupture", ignore = true)
     Plat toEntity(PlatDto platDto);
 
 }
@@ -4,16 +4,25 @@ import com.example.BackendProject.entities.Commande;
 import com.example.BackendProject.utils.StatutCommande;
 import com.example.BackendProject.utils.TypeCommande;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CommandeRepository extends JpaRepository<Commande, Long> {
+public interface CommandeRepository extends JpaRepository<Commande, Long>, CommandeRepositoryCustom {
+
+    // Commande verrouillée (SELECT ... FOR UPDATE) jusqu'à la fin de la transaction : modifications des lignes
+    // et des totaux d'une même commande sérialisées
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Commande c WHERE c.id = :id")
+    Optional<Commande> findByIdPourMiseAJour(@Param("id") Long id);
 
     // Trouver les commandes par statut
     List<Commande> findByStatut(StatutCommande statut);
@@ -53,4 +62,12 @@ public interface CommandeRepository extends JpaRepository<Commande, Long> {
 
     // Récupère les commandes à traiter en cuisine (Priorité aux plus anciennes)
     List<Commande> findByStatutInOrderByDateHeureCommandeAsc(List<StatutCommande> statuts);
+
+    // Même sélection avec les lignes chargées en une requête (réconciliation du tableau cuisine)
+    @Query("SELECT DISTINCT c FROM Commande c LEFT JOIN FETCH c.lignes WHERE c.statut IN :statuts ORDER BY c.dateHeureCommande ASC")
+    List<Commande> findAvecLignesByStatutIn(@Param("statuts") List<StatutCommande> statuts);
+
+    // Projection scalaire (date, total TTC, couverts) pour reconstruire les agrégats de ventes sans charger les entités
+    @Query("SELECT c.dateHeureCommande, c.totalTtc, c.nombrePersonnes FROM Commande c WHERE c.statut IN :statuts")
+    List<Object[]> findDonneesVentesByStatutIn(@Param("statuts") List<StatutCommande> statuts);
 }
\ No newline at end of file
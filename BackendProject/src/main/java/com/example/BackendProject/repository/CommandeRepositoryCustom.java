@@ -0,0 +1,15 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.dto.FiltreCommandesDto;
+import com.example.BackendProject.entities.Commande;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public interface CommandeRepositoryCustom {
+
+    // Pagination par clé (dateHeureCommande DESC, id DESC) sans OFFSET ni COUNT : renvoie au plus "limite"
+    // commandes strictement après la position (apresDate, apresId), ou depuis le début si elles sont nulles.
+    // Table, serveur, lignes et plats sont chargés en deux requêtes, quel que soit le nombre de commandes.
+    List<Commande> rechercherPage(FiltreCommandesDto filtre, Timestamp apresDate, Long apresId, int limite);
+}
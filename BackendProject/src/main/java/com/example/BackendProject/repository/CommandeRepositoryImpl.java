@@ -0,0 +1,64 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.dto.FiltreCommandesDto;
+import com.example.BackendProject.entities.Commande;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class CommandeRepositoryImpl implements CommandeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Commande> rechercherPage(FiltreCommandesDto filtre, Timestamp apresDate, Long apresId, int limite) {
+        // Les commandes sans date (toutes en ont une depuis leur création) ne peuvent pas être positionnées
+        StringBuilder jpql = new StringBuilder("SELECT c FROM Commande c LEFT JOIN FETCH c.table LEFT JOIN FETCH c.serveur " +
+                "WHERE c.dateHeureCommande IS NOT NULL");
+        Map<String, Object> parametres = new HashMap<>();
+
+        if (filtre != null) {
+            ajouterCritere(jpql, parametres, "c.statut = :statut", "statut", filtre.getStatut());
+            ajouterCritere(jpql, parametres, "c.typeCommande = :typeCommande", "typeCommande", filtre.getTypeCommande());
+            ajouterCritere(jpql, parametres, "c.serveur.id = :serveurId", "serveurId", filtre.getServeurId());
+            ajouterCritere(jpql, parametres, "c.table.id = :tableId", "tableId", filtre.getTableId());
+            ajouterCritere(jpql, parametres, "c.dateHeureCommande >= :debut", "debut", filtre.getDebut());
+            ajouterCritere(jpql, parametres, "c.dateHeureCommande <= :fin", "fin", filtre.getFin());
+        }
+        if (apresDate != null && apresId != null) {
+            // Forme développée du (date, id) < (:d, :id) : exploitable par l'index (date_heure_commande, id)
+            jpql.append(" AND (c.dateHeureCommande < :apresDate OR (c.dateHeureCommande = :apresDate AND c.id < :apresId))");
+            parametres.put("apresDate", apresDate);
+            parametres.put("apresId", apresId);
+        }
+        jpql.append(" ORDER BY c.dateHeureCommande DESC, c.id DESC");
+
+        TypedQuery<Commande> requete = entityManager.createQuery(jpql.toString(), Commande.class);
+        parametres.forEach(requete::setParameter);
+        List<Commande> commandes = requete.setMaxResults(limite).getResultList();
+
+        if (!commandes.isEmpty()) {
+            // Remplit les collections "lignes" des commandes déjà chargées (pas de N+1 au mapping)
+            entityManager.createQuery("SELECT DISTINCT c FROM Commande c LEFT JOIN FETCH c.lignes l " +
+                            "LEFT JOIN FETCH l.plat WHERE c.id IN :ids", Commande.class)
+                    .setParameter("ids", commandes.stream().map(Commande::getId).collect(Collectors.toList()))
+                    .getResultList();
+        }
+        return commandes;
+    }
+
+    private static void ajouterCritere(StringBuilder jpql, Map<String, Object> parametres,
+                                       String condition, String nom, Object valeur) {
+        if (valeur != null) {
+            jpql.append(" AND ").append(condition);
+            parametres.put(nom, valeur);
+        }
+    }
+}
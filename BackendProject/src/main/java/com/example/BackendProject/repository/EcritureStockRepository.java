@@ -0,0 +1,38 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.EcritureStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface EcritureStockRepository extends JpaRepository<EcritureStock, Long>, EcritureStockRepositoryCustom {
+
+    // Traîne d'un ingrédient sur ]depuis, jusqua] : [somme des variations, somme des sorties], nulles sans écriture
+    @Query("SELECT SUM(e.variation), SUM(CASE WHEN e.variation < 0 THEN -e.variation ELSE 0 END) " +
+            "FROM EcritureStock e " +
+            "WHERE e.ingredientId = :ingredientId AND e.dateEcriture > :depuis AND e.dateEcriture <= :jusqua")
+    List<Object[]> sommerEntre(@Param("ingredientId") Long ingredientId,
+                               @Param("depuis") Timestamp depuis,
+                               @Param("jusqua") Timestamp jusqua);
+
+    // Même agrégat pour tous les ingrédients : [ingredientId, somme des variations, somme des sorties]
+    @Query("SELECT e.ingredientId, SUM(e.variation), " +
+            "SUM(CASE WHEN e.variation < 0 THEN -e.variation ELSE 0 END) " +
+            "FROM EcritureStock e " +
+            "WHERE e.dateEcriture > :depuis AND e.dateEcriture <= :jusqua " +
+            "GROUP BY e.ingredientId")
+    List<Object[]> sommerParIngredientEntre(@Param("depuis") Timestamp depuis, @Param("jusqua") Timestamp jusqua);
+
+    // Ingrédients dont le compte n'est pas ouvert : [id, quantiteActuelle, somme des écritures déjà passées]
+    @Query("SELECT i.id, i.quantiteActuelle, " +
+            "(SELECT SUM(e.variation) FROM EcritureStock e WHERE e.ingredientId = i.id) " +
+            "FROM Ingredient i " +
+            "WHERE NOT EXISTS (SELECT o.id FROM EcritureStock o WHERE o.ingredientId = i.id " +
+            "AND o.origine = com.example.BackendProject.utils.OrigineMouvementStock.OUVERTURE)")
+    List<Object[]> findComptesNonOuverts();
+}
@@ -0,0 +1,13 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.EcritureStock;
+
+import java.util.List;
+
+/**
+ * Écriture du journal de stock par lots (un seul aller-retour JDBC par transaction).
+ */
+public interface EcritureStockRepositoryCustom {
+
+    void insererEnLot(List<EcritureStock> ecritures);
+}
@@ -0,0 +1,31 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.EcritureStock;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class EcritureStockRepositoryImpl implements EcritureStockRepositoryCustom {
+
+    private static final String SQL_INSERTION =
+            "INSERT INTO ecriture_stock (ingredient_id, variation, origine, date_ecriture) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EcritureStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insererEnLot(List<EcritureStock> ecritures) {
+        if (ecritures.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTION, ecritures, ecritures.size(), (ps, ecriture) -> {
+            ps.setLong(1, ecriture.getIngredientId());
+            ps.setBigDecimal(2, ecriture.getVariation());
+            ps.setString(3, ecriture.getOrigine().name());
+            ps.setTimestamp(4, ecriture.getDateEcriture());
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.BackendProject.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.stream.Stream;
+
+/**
+ * Lectures en flux des exports comptables, sur un pool de connexions qui leur est réservé.
+ * <p>
+ * Les connexions de ce pool sont ouvertes avec {@code useCursorFetch=true} (MySQL) : les lignes arrivent par paquets
+ * de {@value #TAILLE_PAQUET} via un curseur côté serveur, au lieu d'être toutes chargées par le pilote. Le pool
+ * principal de l'application n'utilise pas ce mode. Chaque flux renvoyé garde une connexion jusqu'à sa fermeture.
+ */
+@Repository
+public class ExportRepository implements DisposableBean {
+
+    static final int TAILLE_PAQUET = 500;
+
+    private static final String SQL_COMMANDES =
+            "SELECT c.id, c.date_heure_commande, c.statut, c.type_commande, t.numero, c.serveur_id, c.nombre_personnes, "
+                    + "c.total_ht, c.total_ttc "
+                    + "FROM commande c LEFT JOIN table_restaurant t ON t.id = c.table_id "
+                    + "WHERE c.date_heure_commande BETWEEN ? AND ? ORDER BY c.date_heure_commande, c.id";
+    private static final String SQL_PAIEMENTS =
+            "SELECT p.id, p.commande_id, p.date_paiement, p.type_paiement, p.montant, p.reference_transaction "
+                    + "FROM paiement p WHERE p.date_paiement BETWEEN ? AND ? ORDER BY p.date_paiement, p.id";
+    private static final String SQL_MOUVEMENTS_STOCK =
+            "SELECT m.id, m.date_mouvement, i.id, i.nom, m.type_mouvement, m.quantite, i.unite_mesure, m.raison "
+                    + "FROM stock_movement m LEFT JOIN ingredient i ON i.id = m.ingredient_id "
+                    + "WHERE m.date_mouvement BETWEEN ? AND ? ORDER BY m.date_mouvement, m.id";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSourceProperties dataSourceProperties,
+                            @Value("${app.exports.connexions-max:2}") int connexionsMax) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(avecCurseurServeur(dataSourceProperties.determineUrl()))
+                .build();
+        this.dataSource.setPoolName("exports");
+        this.dataSource.setMaximumPoolSize(connexionsMax);
+        // Aucune connexion gardée entre deux exports
+        this.dataSource.setMinimumIdle(0);
+        this.dataSource.setReadOnly(true);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(TAILLE_PAQUET);
+    }
+
+    // Colonnes : voir ExportService.COLONNES_COMMANDES. Flux à fermer.
+    public Stream<Object[]> commandesEntre(Timestamp debut, Timestamp fin) {
+        return jdbcTemplate.queryForStream(SQL_COMMANDES, (rs, numero) -> new Object[]{
+                rs.getObject(1, Long.class), rs.getTimestamp(2), rs.getString(3), rs.getString(4), rs.getString(5),
+                rs.getObject(6, Long.class), rs.getObject(7, Integer.class), rs.getBigDecimal(8), rs.getBigDecimal(9)
+        }, debut, fin);
+    }
+
+    // Colonnes : voir ExportService.COLONNES_PAIEMENTS. Flux à fermer.
+    public Stream<Object[]> paiementsEntre(Timestamp debut, Timestamp fin) {
+        return jdbcTemplate.queryForStream(SQL_PAIEMENTS, (rs, numero) -> new Object[]{
+                rs.getObject(1, Long.class), rs.getObject(2, Long.class), rs.getTimestamp(3), rs.getString(4),
+                rs.getBigDecimal(5), rs.getString(6)
+        }, debut, fin);
+    }
+
+    // Colonnes : voir ExportService.COLONNES_MOUVEMENTS_STOCK. Flux à fermer.
+    public Stream<Object[]> mouvementsStockEntre(Timestamp debut, Timestamp fin) {
+        return jdbcTemplate.queryForStream(SQL_MOUVEMENTS_STOCK, (rs, numero) -> new Object[]{
+                rs.getObject(1, Long.class), rs.getTimestamp(2), rs.getObject(3, Long.class), rs.getString(4),
+                rs.getString(5), rs.getBigDecimal(6), rs.getString(7), rs.getString(8)
+        }, debut, fin);
+    }
+
+    @Override
+    public void destroy() {
+        dataSource.close();
+    }
+
+    // Le pilote MySQL ne lit par paquets qu'avec un curseur serveur ; les autres bases ignorent l'option
+    static String avecCurseurServeur(String url) {
+        if (url == null || !url.startsWith("jdbc:mysql:") || url.contains("useCursorFetch=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
+    }
+}
@@ -1,20 +1,38 @@
 package com.example.BackendProject.repository;
 
 import com.example.BackendProject.entities.Ingredient;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
+public interface IngredientRepository extends JpaRepository<Ingredient, Long>, IngredientRepositoryCustom {
+
+    // Ingrédient verrouillé (SELECT ... FOR UPDATE) jusqu'à la fin de la transaction : aucun débit atomique
+    // ne peut s'intercaler entre la lecture de la quantité et l'écriture de l'entité complète
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Ingredient i WHERE i.id = :id")
+    Optional<Ingredient> findByIdPourMiseAJour(@Param("id") Long id);
 
     // Rechercher par nom
     List<Ingredient> findByNomContainingIgnoreCase(String nom);
 
+    // Chargement de l'index de recherche : [id, nom]
+    @Query("SELECT i.id, i.nom FROM Ingredient i")
+    List<Object[]> findIndexRecherche();
+
+    // Chargement du moteur de portions restantes : [id, quantiteActuelle]
+    @Query("SELECT i.id, i.quantiteActuelle FROM Ingredient i")
+    List<Object[]> findStocks();
+
     // Trouver les ingrédients en alerte (quantité actuelle <= seuil d'alerte)
     @Query("SELECT i FROM Ingredient i WHERE i.quantiteActuelle <= i.seuilAlerte")
     List<Ingredient> findIngredientsEnAlerte();
@@ -28,4 +46,16 @@ public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
     // Trouver les ingrédients avec quantité inférieure à un seuil donné
     @Query("SELECT i FROM Ingredient i WHERE i.quantiteActuelle < :seuil")
     List<Ingredient> findByQuantiteInferieurA(@Param("seuil") BigDecimal seuil);
+
+    // Retrait atomique en base : aucune mise à jour perdue entre requêtes concurrentes.
+    // Retourne 0 si l'ingrédient n'existe pas ou si le stock est insuffisant.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ingredient i SET i.quantiteActuelle = i.quantiteActuelle - :quantite " +
+            "WHERE i.id = :id AND i.quantiteActuelle >= :quantite")
+    int decrementerStock(@Param("id") Long id, @Param("quantite") BigDecimal quantite);
+
+    // Ajout atomique en base. Retourne 0 si l'ingrédient n'existe pas.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ingredient i SET i.quantiteActuelle = i.quantiteActuelle + :quantite WHERE i.id = :id")
+    int incrementerStock(@Param("id") Long id, @Param("quantite") BigDecimal quantite);
 }
@@ -0,0 +1,18 @@
+package com.example.BackendProject.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opérations de stock ensemblistes (un seul aller-retour JDBC pour tous les ingrédients).
+ */
+public interface IngredientRepositoryCustom {
+
+    // Retire les quantités de façon atomique (quantite_actuelle = quantite_actuelle - ?) ;
+    // un ingrédient dont le stock est insuffisant n'est pas modifié. Retourne les IDs effectivement débités.
+    Set<Long> retirerStockEnLot(Map<Long, BigDecimal> quantitesParIngredient);
+
+    // Ajoute les quantités de façon atomique (quantite_actuelle = quantite_actuelle + ?)
+    void ajouterStockEnLot(Map<Long, BigDecimal> quantitesParIngredient);
+}
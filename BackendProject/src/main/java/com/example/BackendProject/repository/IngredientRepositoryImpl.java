@@ -0,0 +1,91 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.Ingredient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class IngredientRepositoryImpl implements IngredientRepositoryCustom {
+
+    private static final String SQL_RETRAIT =
+            "UPDATE ingredient SET quantite_actuelle = quantite_actuelle - ? WHERE id = ? AND quantite_actuelle >= ?";
+    private static final String SQL_AJOUT =
+            "UPDATE ingredient SET quantite_actuelle = quantite_actuelle + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IngredientRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Set<Long> retirerStockEnLot(Map<Long, BigDecimal> quantitesParIngredient) {
+        if (quantitesParIngredient.isEmpty()) {
+            return Set.of();
+        }
+        List<Map.Entry<Long, BigDecimal>> lignes = preparer(quantitesParIngredient);
+        int[] resultats = jdbcTemplate.batchUpdate(SQL_RETRAIT, lignes, lignes.size(), (ps, ligne) -> {
+            ps.setBigDecimal(1, ligne.getValue());
+            ps.setLong(2, ligne.getKey());
+            ps.setBigDecimal(3, ligne.getValue());
+        })[0];
+        evincer(lignes);
+
+        Set<Long> debites = new HashSet<>();
+        for (int i = 0; i < resultats.length; i++) {
+            if (resultats[i] == Statement.SUCCESS_NO_INFO) {
+                // Sans nombre de lignes, impossible de savoir si la garde de stock a bloqué le retrait :
+                // on annule plutôt que de compter un débit qui n'a peut-être pas eu lieu
+                throw new RuntimeException("Retrait de stock indéterminé pour l'ingrédient ID : " + lignes.get(i).getKey()
+                        + " (le pilote JDBC ne renvoie pas le nombre de lignes modifiées)");
+            }
+            if (resultats[i] > 0) {
+                debites.add(lignes.get(i).getKey());
+            }
+        }
+        return debites;
+    }
+
+    @Override
+    public void ajouterStockEnLot(Map<Long, BigDecimal> quantitesParIngredient) {
+        if (quantitesParIngredient.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, BigDecimal>> lignes = preparer(quantitesParIngredient);
+        jdbcTemplate.batchUpdate(SQL_AJOUT, lignes, lignes.size(), (ps, ligne) -> {
+            ps.setBigDecimal(1, ligne.getValue());
+            ps.setLong(2, ligne.getKey());
+        });
+        evincer(lignes);
+    }
+
+    /**
+     * Pousse les modifications JPA en attente puis trie par ID : toutes les transactions
+     * verrouillent les lignes dans le même ordre, ce qui évite les interblocages.
+     */
+    private List<Map.Entry<Long, BigDecimal>> preparer(Map<Long, BigDecimal> quantitesParIngredient) {
+        entityManager.flush();
+        return new ArrayList<>(new TreeMap<>(quantitesParIngredient).entrySet());
+    }
+
+    // Les copies gérées par le contexte de persistance sont périmées après l'UPDATE SQL
+    private void evincer(List<Map.Entry<Long, BigDecimal>> lignes) {
+        Session session = entityManager.unwrap(Session.class);
+        for (Map.Entry<Long, BigDecimal> ligne : lignes) {
+            session.evict(session.getReference(Ingredient.class, ligne.getKey()));
+        }
+    }
+}
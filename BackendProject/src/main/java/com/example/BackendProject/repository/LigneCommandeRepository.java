@@ -10,14 +10,19 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface LigneCommandeRepository extends JpaRepository<LigneCommande, Long> {
+public interface LigneCommandeRepository extends JpaRepository<LigneCommande, Long>, LigneCommandeRepositoryCustom {
 
     // Trouver toutes les lignes d'une commande
     @Query("SELECT lc FROM LigneCommande lc WHERE lc.commande.id = :commandeId")
     List<LigneCommande> findByCommandeId(@Param("commandeId") Long commandeId);
 
+    // Commande d'une ligne, sans charger la ligne (pour verrouiller la commande avant de la lire)
+    @Query("SELECT lc.commande.id FROM LigneCommande lc WHERE lc.id = :id")
+    Optional<Long> findCommandeIdById(@Param("id") Long id);
+
     // Trouver toutes les lignes contenant un plat spécifique
     @Query("SELECT lc FROM LigneCommande lc WHERE lc.plat.id = :platId")
     List<LigneCommande> findByPlatId(@Param("platId") Long platId);
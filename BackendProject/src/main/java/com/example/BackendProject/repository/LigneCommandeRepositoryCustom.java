@@ -0,0 +1,12 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.LigneCommande;
+
+import java.util.List;
+
+public interface LigneCommandeRepositoryCustom {
+
+    // Insère les lignes d'une commande puis leurs options en deux lots JDBC.
+    // Les IDs générés sont reportés sur les objets LigneCommande passés en paramètre.
+    void insererEnLot(Long commandeId, List<LigneCommande> lignes);
+}
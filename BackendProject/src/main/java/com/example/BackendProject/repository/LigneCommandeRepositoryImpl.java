@@ -0,0 +1,83 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.LigneCommande;
+import com.example.BackendProject.entities.OrderItemOption;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Insertion par lots des lignes de commande : l'identité IDENTITY empêche Hibernate de regrouper
+ * les INSERT, on passe donc directement par JDBC (un aller-retour par table).
+ */
+public class LigneCommandeRepositoryImpl implements LigneCommandeRepositoryCustom {
+
+    private static final String SQL_LIGNE =
+            "INSERT INTO ligne_commande (commande_id, plat_id, quantite, prix_unitaire, notes_cuisine) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_OPTION =
+            "INSERT INTO order_itemoption (ligne_commande_id, option_id, nom_option, prix_supplementaire) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LigneCommandeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insererEnLot(Long commandeId, List<LigneCommande> lignes) {
+        if (lignes.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(SQL_LIGNE, Statement.RETURN_GENERATED_KEYS)) {
+                for (LigneCommande ligne : lignes) {
+                    ps.setLong(1, commandeId);
+                    ps.setLong(2, ligne.getPlat().getId());
+                    ps.setInt(3, ligne.getQuantite());
+                    ps.setBigDecimal(4, ligne.getPrixUnitaire());
+                    ps.setString(5, ligne.getNotesCuisine());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet cles = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (cles.next() && i < lignes.size()) {
+                        lignes.get(i++).setId(cles.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+
+        List<OrderItemOption> options = new ArrayList<>();
+        for (LigneCommande ligne : lignes) {
+            if (ligne.getOptions() != null) {
+                options.addAll(ligne.getOptions());
+            }
+        }
+        if (options.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(SQL_OPTION, options, options.size(), (ps, option) -> {
+            ps.setLong(1, option.getLigneCommande().getId());
+            if (option.getOption() != null) {
+                ps.setLong(2, option.getOption().getId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, option.getNomOption());
+            BigDecimal prix = option.getPrixSupplementaire();
+            ps.setBigDecimal(4, prix != null ? prix : BigDecimal.ZERO);
+        });
+    }
+}
@@ -1,13 +1,36 @@
 package com.example.BackendProject.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.example.BackendProject.entities.Menu;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MenuRepository extends JpaRepository<Menu, Long> {
     // Trouver un menu par son nom (utile pour les validations)
     Optional<Menu> findByNomIgnoreCase(String nom);
+
+    // --- Arbre de la carte : une requête par niveau, en projections scalaires (pas de chargement de Recette) ---
+
+    // [id, nom]
+    @Query("SELECT m.id, m.nom FROM Menu m WHERE m.actif IS NULL OR m.actif = true ORDER BY m.id")
+    List<Object[]> findArbreMenus();
+
+    // [id, menuId, nom, description, ordreAffichage]
+    @Query("SELECT c.id, c.menu.id, c.nom, c.description, c.ordreAffichage FROM Category c " +
+            "WHERE c.menu IS NOT NULL ORDER BY c.ordreAffichage ASC NULLS LAST, c.id")
+    List<Object[]> findArbreCategories();
+
+    // [id, categoryId, nom, description, prix, photoUrl]
+    @Query("SELECT p.id, p.category.id, p.nom, p.description, p.prix, p.photoUrl FROM Plat p " +
+            "WHERE p.disponibilite = true AND p.category IS NOT NULL ORDER BY p.nom, p.id")
+    List<Object[]> findArbrePlats();
+
+    // [platId, optionId, nom, prixSupplementaire]
+    @Query("SELECT p.id, o.id, o.nom, o.prixSupplementaire FROM Plat p JOIN p.options o " +
+            "WHERE p.disponibilite = true ORDER BY o.nom, o.id")
+    List<Object[]> findArbreOptions();
 }
@@ -1,13 +1,16 @@
 package com.example.BackendProject.repository;
 
 import com.example.BackendProject.entities.Category;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.example.BackendProject.entities.Plat;
 
 
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +22,10 @@ public interface PlatRepository extends JpaRepository<Plat, Long> {
     // Rechercher des plats par nom
     List<Plat> findByNomContainingIgnoreCase(String keyword);
 
+    // Chargement de l'index de recherche : [id, nom, description]
+    @Query("SELECT p.id, p.nom, p.description FROM Plat p")
+    List<Object[]> findIndexRecherche();
+
     @Query("SELECT p.nom, SUM(lc.quantite) as totalVendu " +
             "FROM LigneCommande lc " +
             "JOIN lc.plat p " +
@@ -34,9 +41,27 @@ public interface PlatRepository extends JpaRepository<Plat, Long> {
             "ORDER BY totalVendu DESC LIMIT 5", nativeQuery = true)
     List<Object[]> findTop5SellingPlats();
 
+    // Validation d'un panier : tous les plats demandés et leurs options autorisées en une requête
+    @Query("SELECT DISTINCT p FROM Plat p LEFT JOIN FETCH p.options WHERE p.id IN :ids")
+    List<Plat> findAllWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
+
     // Pour afficher uniquement les plats disponibles sur la carte
     List<Plat> findByDisponibiliteTrue();
 
+    // Plats encore disponibles parmi ceux donnés (bascule automatique sur rupture)
+    @Query("SELECT p.id FROM Plat p WHERE p.id IN :ids AND p.disponibilite = true")
+    List<Long> findIdsDisponiblesParmi(@Param("ids") Collection<Long> ids);
+
+    // Plats retirés de la carte sur rupture, à remettre au réapprovisionnement
+    @Query("SELECT p.id FROM Plat p WHERE p.retireParRupture = true")
+    List<Long> findIdsRetiresParRupture();
+
+    // Bascule de disponibilité sur rupture / réapprovisionnement en une requête
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Plat p SET p.disponibilite = :disponible, p.retireParRupture = :retireParRupture WHERE p.id IN :ids")
+    int modifierDisponibilite(@Param("ids") Collection<Long> ids, @Param("disponible") boolean disponible,
+                              @Param("retireParRupture") boolean retireParRupture);
+
     // Pour filtrer par catégorie et disponibilité
 //    List<Plat> findByCategorieIdAndDisponibiliteTrue(Long categorieId);
 
@@ -2,6 +2,7 @@ package com.example.BackendProject.repository;
 
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import com.example.BackendProject.entities.Recette;
 
 import java.util.List;
@@ -9,4 +10,9 @@ import java.util.List;
 @Repository
 public interface RecetteRepository extends JpaRepository<Recette, Long> {
     List<Recette> findByPlatId(Long platId);
+
+    // Nomenclatures (platId, recetteId, ingredientId, quantiteRequise) de tous les plats en une requête scalaire
+    @Query("SELECT r.plat.id, r.id, i.ingredient.id, i.quantiteRequise FROM Recette r JOIN r.items i " +
+            "WHERE r.plat IS NOT NULL ORDER BY r.id")
+    List<Object[]> findNomenclatures();
 }
@@ -1,14 +1,28 @@
 package com.example.BackendProject.repository;
 
 import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.utils.StatutReservation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     List<Reservation> findByDate(LocalDate date);
+    List<Reservation> findByDateGreaterThanEqual(LocalDate date);
     List<Reservation> findByTelephoneContainingOrNomClientContainingIgnoreCase(String telephone, String nomClient);
+
+    // Créneaux occupant une table : [id, tableId, date, heure, dureeMinutes]
+    @Query("SELECT r.id, r.table.id, r.date, r.heure, r.dureeMinutes FROM Reservation r " +
+            "WHERE r.table IS NOT NULL AND r.date >= :depuis AND r.statut IN :statuts")
+    List<Object[]> findCreneauxDepuis(LocalDate depuis, Collection<StatutReservation> statuts);
+
+    // Contrôle de chevauchement à l'écriture (la veille incluse pour les créneaux passant minuit)
+    @Query("SELECT r FROM Reservation r WHERE r.table.id = :tableId AND r.date BETWEEN :du AND :au " +
+            "AND r.statut IN :statuts")
+    List<Reservation> findActivesPourTable(Long tableId, LocalDate du, LocalDate au, Collection<StatutReservation> statuts);
 }
@@ -0,0 +1,27 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.SoldeStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SoldeStockRepository extends JpaRepository<SoldeStock, Long> {
+
+    // Cliché le plus proche avant l'instant demandé
+    Optional<SoldeStock> findFirstByIngredientIdAndDateSoldeLessThanEqualOrderByDateSoldeDesc(Long ingredientId, Timestamp instant);
+
+    @Query("SELECT MAX(s.dateSolde) FROM SoldeStock s")
+    Timestamp findDerniereDateSolde();
+
+    // Dernier cliché de chacun des ingrédients donnés (index unique ingredientId, dateSolde)
+    @Query("SELECT s FROM SoldeStock s WHERE s.ingredientId IN :ingredientIds AND s.dateSolde = " +
+            "(SELECT MAX(d.dateSolde) FROM SoldeStock d WHERE d.ingredientId = s.ingredientId)")
+    List<SoldeStock> findDerniersByIngredientIdIn(@Param("ingredientIds") Collection<Long> ingredientIds);
+}
@@ -2,9 +2,12 @@ package com.example.BackendProject.repository;
 
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.example.BackendProject.entities.StockMovement;
 import com.example.BackendProject.utils.TypeMouvement;
 
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.List;
 
@@ -20,4 +23,9 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
     List<StockMovement> findByDateMouvementBetweenOrderByDateMouvementDesc(Timestamp startDate, Timestamp endDate);
 
     List<StockMovement> findByRaisonContainingIgnoreCase(String keyword);
+
+    // Solde des mouvements déclarés d'un ingrédient, calculé en base : ENTREE en plus, le reste en moins (null sans mouvement)
+    @Query("SELECT SUM(CASE WHEN m.typeMouvement = com.example.BackendProject.utils.TypeMouvement.ENTREE " +
+            "THEN m.quantite ELSE -m.quantite END) FROM StockMovement m WHERE m.ingredient.id = :ingredientId")
+    BigDecimal sommerParIngredient(@Param("ingredientId") Long ingredientId);
 }
\ No newline at end of file
@@ -1,9 +1,28 @@
 package com.example.BackendProject.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.example.BackendProject.entities.TableRestaurant;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TableRestaurantRepository extends JpaRepository<TableRestaurant, Long> {
+
+    List<TableRestaurant> findByZoneIdOrderByIdAsc(Long zoneId);
+
+    // Verrou de ligne : sérialise les réservations concurrentes d'une même table jusqu'au commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TableRestaurant t WHERE t.id = :id")
+    Optional<TableRestaurant> findByIdPourReservation(Long id);
+
+    List<TableRestaurant> findByNumeroContainingIgnoreCaseOrderByIdAsc(String numero);
+
+    // Chargement du plan de salle : [id, zoneId, numero, capacite, statut], sans charger les zones
+    @Query("SELECT t.id, z.id, t.numero, t.capacite, t.statut FROM TableRestaurant t LEFT JOIN t.zone z ORDER BY t.id")
+    List<Object[]> findPlanSalle();
 }
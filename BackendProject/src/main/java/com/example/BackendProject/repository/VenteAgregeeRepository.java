@@ -0,0 +1,35 @@
+package com.example.BackendProject.repository;
+
+import com.example.BackendProject.entities.VenteAgregee;
+import com.example.BackendProject.utils.GranulariteAgregat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface VenteAgregeeRepository extends JpaRepository<VenteAgregee, Long> {
+
+    // Lignes d'agrégat d'une granularité donnée sur une fenêtre [debut, fin]
+    List<VenteAgregee> findByGranulariteAndDebutPeriodeBetweenOrderByDebutPeriodeAsc(GranulariteAgregat granularite,
+                                                                                      Timestamp debut,
+                                                                                      Timestamp fin);
+
+    // Upsert atomique : crée la ligne de la période ou cumule les deltas (sans lecture préalable)
+    @Modifying
+    @Query(value = "INSERT INTO vente_agregee (granularite, debut_periode, chiffre_affaires, nombre_commandes, nombre_clients) " +
+            "VALUES (:granularite, :debut, :ca, :nbCommandes, :nbClients) " +
+            "ON DUPLICATE KEY UPDATE chiffre_affaires = chiffre_affaires + VALUES(chiffre_affaires), " +
+            "nombre_commandes = nombre_commandes + VALUES(nombre_commandes), " +
+            "nombre_clients = nombre_clients + VALUES(nombre_clients)", nativeQuery = true)
+    int cumuler(@Param("granularite") String granularite,
+                @Param("debut") Timestamp debut,
+                @Param("ca") BigDecimal ca,
+                @Param("nbCommandes") long nbCommandes,
+                @Param("nbClients") long nbClients);
+}
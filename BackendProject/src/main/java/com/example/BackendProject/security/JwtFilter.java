@@ -1,6 +1,6 @@
 package com.example.BackendProject.security;
 
-import com.example.BackendProject.services.implementations.UtilisateurDetailService;
+import com.example.BackendProject.services.implementations.UtilisateurDetailsCache;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.springframework.security.authentication.*;
@@ -17,11 +17,11 @@ public class JwtFilter extends OncePerRequestFilter {
     // ✅ Déclarez tous les champs AVANT le constructeur
     private final JwtUtils jwtUtils;
 
-    private final UtilisateurDetailService utilisateurDetailService;
+    private final UtilisateurDetailsCache utilisateurDetailsCache;
 
-    public JwtFilter(JwtUtils jwtUtils, UtilisateurDetailService utilisateurDetailService) {
+    public JwtFilter(JwtUtils jwtUtils, UtilisateurDetailsCache utilisateurDetailsCache) {
         this.jwtUtils = jwtUtils;
-        this.utilisateurDetailService = utilisateurDetailService;
+        this.utilisateurDetailsCache = utilisateurDetailsCache;
     }
 
     @Override
@@ -38,7 +38,8 @@ public class JwtFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             token = header.substring(7);
             try {
-                username = jwtUtils.extractUsername(token);
+                // Signature et expiration vérifiées une seule fois pour toute la requête
+                username = jwtUtils.validerEtExtraire(token).getSubject();
             } catch (Exception e) {
                 // Token invalide ou expiré : on laisse passer sans authentifier
                 filterChain.doFilter(req, res);
@@ -49,10 +50,11 @@ public class JwtFilter extends OncePerRequestFilter {
         // Si username valide et aucune authentification en cours
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            var userDetails = utilisateurDetailService.loadUserByUsername(username);
+            // Servi depuis le cache : pas de requête SQL par appel authentifié
+            var userDetails = utilisateurDetailsCache.charger(username);
 
-            // Valide le token (username + expiration)
-            if (jwtUtils.validateToken(token, userDetails)) {
+            // Token déjà validé ci-dessus : il reste à vérifier que le compte correspond
+            if (username.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities()
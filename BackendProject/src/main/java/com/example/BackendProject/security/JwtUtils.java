@@ -11,56 +11,40 @@ import java.util.Date;
 @Component
 public class JwtUtils {
 
-    // ✅ Lecture depuis application.properties
-    @Value("${jwt.secret:MonSuperSecretJWTKeyQuiFaitAuMoins32Caracteres123456789}")
-    private String SECRET;
+    private final long expiration;
 
-    @Value("${jwt.expiration:86400000}")
-    private long EXPIRATION; // 24h par défaut
+    // Clé HMAC et parser construits une seule fois : ils sont immuables et thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    // ✅ Lecture depuis application.properties
+    public JwtUtils(@Value("${jwt.secret:MonSuperSecretJWTKeyQuiFaitAuMoins32Caracteres123456789}") String secret,
+                    @Value("${jwt.expiration:86400000}") long expiration) { // 24h par défaut
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     /**
-     * Extrait le username du token JWT.
+     * Vérifie la signature et l'expiration du token en un seul parsing et renvoie ses claims.
      */
-    public String extractUsername(String token) {
+    public Claims validerEtExtraire(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             throw new RuntimeException("Token expiré", e);
-        } catch (JwtException e) {
+        } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Token invalide", e);
         }
     }
 
     /**
-     * Extrait la date d'expiration du token.
-     */
-    private Date extractExpiration(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-    }
-
-    /**
-     * Vérifie si le token est expiré.
+     * Extrait le username du token JWT.
      */
-    private boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+    public String extractUsername(String token) {
+        return validerEtExtraire(token).getSubject();
     }
 
     /**
@@ -70,21 +54,18 @@ public class JwtUtils {
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
      * Valide le token : vérifie le username ET l'expiration.
+     * L'expiration est contrôlée par le parser lui-même (ExpiredJwtException).
      */
     public boolean validateToken(String token, UserDetails user) {
         try {
-            String username = extractUsername(token);
-            boolean usernameMatch = username.equals(user.getUsername());
-            boolean notExpired = !isTokenExpired(token);
-
-            return usernameMatch && notExpired;
+            return validerEtExtraire(token).getSubject().equals(user.getUsername());
         } catch (Exception e) {
             return false;
         }
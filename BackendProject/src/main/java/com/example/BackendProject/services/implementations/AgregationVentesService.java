@@ -0,0 +1,158 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.entities.VenteAgregee;
+import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.repository.VenteAgregeeRepository;
+import com.example.BackendProject.utils.GranulariteAgregat;
+import com.example.BackendProject.utils.LoggingUtils;
+import com.example.BackendProject.utils.StatutCommande;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintient les agrégats de ventes horaires et journaliers (CA, commandes, couverts).
+ * Une commande est comptée dès qu'elle devient PAYEE ou TERMINEE et décomptée si elle en sort.
+ */
+@Service
+@Transactional
+public class AgregationVentesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgregationVentesService.class);
+    private static final List<StatutCommande> STATUTS_ENCAISSES = List.of(StatutCommande.PAYEE, StatutCommande.TERMINEE);
+
+    private final VenteAgregeeRepository venteAgregeeRepository;
+    private final CommandeRepository commandeRepository;
+
+    public AgregationVentesService(VenteAgregeeRepository venteAgregeeRepository,
+                                   CommandeRepository commandeRepository) {
+        this.venteAgregeeRepository = venteAgregeeRepository;
+        this.commandeRepository = commandeRepository;
+    }
+
+    public static boolean estEncaissee(StatutCommande statut) {
+        return statut != null && STATUTS_ENCAISSES.contains(statut);
+    }
+
+    /**
+     * Répercute sur les agrégats le passage d'une commande de (ancienStatut, ancienTotalTtc)
+     * à son état courant. Sans effet si la commande n'est encaissée ni avant ni après.
+     */
+    public void enregistrerTransition(Commande commande, StatutCommande ancienStatut, BigDecimal ancienTotalTtc) {
+        boolean avant = estEncaissee(ancienStatut);
+        boolean apres = estEncaissee(commande.getStatut());
+        if (!avant && !apres) {
+            return;
+        }
+        BigDecimal ancienMontant = montant(ancienTotalTtc);
+        BigDecimal nouveauMontant = montant(commande.getTotalTtc());
+        if (avant && apres && ancienMontant.compareTo(nouveauMontant) == 0) {
+            return;
+        }
+
+        long couverts = couverts(commande.getNombrePersonnes());
+        if (avant) {
+            cumuler(commande.getDateHeureCommande(), ancienMontant.negate(), -1, -couverts);
+        }
+        if (apres) {
+            cumuler(commande.getDateHeureCommande(), nouveauMontant, 1, couverts);
+        }
+        logger.debug("{} Agrégats de ventes mis à jour pour la commande ID: {} ({} -> {})",
+                LoggingUtils.getLogContext(), commande.getId(), ancienStatut, commande.getStatut());
+    }
+
+    /**
+     * Retire des agrégats une commande encaissée sur le point d'être supprimée.
+     */
+    public void retirerCommande(Commande commande) {
+        if (!estEncaissee(commande.getStatut())) {
+            return;
+        }
+        cumuler(commande.getDateHeureCommande(), montant(commande.getTotalTtc()).negate(), -1,
+                -couverts(commande.getNombrePersonnes()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<VenteAgregee> lireAgregats(GranulariteAgregat granularite, LocalDateTime debut, LocalDateTime fin) {
+        return venteAgregeeRepository.findByGranulariteAndDebutPeriodeBetweenOrderByDebutPeriodeAsc(
+                granularite, Timestamp.valueOf(debutPeriode(granularite, debut)), Timestamp.valueOf(fin));
+    }
+
+    /**
+     * Reconstruit entièrement les agrégats depuis l'historique des commandes encaissées
+     * (initialisation ou réparation). Seules des colonnes scalaires sont lues.
+     * <p>
+     * Les anciennes lignes sont supprimées avant la lecture des commandes : en REPEATABLE READ, le DELETE
+     * verrouille toute la table (lignes et intervalles) jusqu'au commit, si bien qu'un cumul
+     * concurrent attend la fin de la reconstruction. Une commande encaissée avant la lecture y figure,
+     * une commande encaissée après est cumulée ensuite : aucune n'est perdue ni comptée deux fois.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconstruire() {
+        String context = LoggingUtils.getLogContext();
+        logger.info("{} Reconstruction des agrégats de ventes", context);
+
+        // En premier : pose les verrous avant que la lecture des commandes ne fige son instantané
+        venteAgregeeRepository.deleteAllInBatch();
+
+        Map<GranulariteAgregat, Map<LocalDateTime, VenteAgregee>> parGranularite = new HashMap<>();
+        for (GranulariteAgregat granularite : GranulariteAgregat.values()) {
+            parGranularite.put(granularite, new HashMap<>());
+        }
+
+        for (Object[] ligne : commandeRepository.findDonneesVentesByStatutIn(STATUTS_ENCAISSES)) {
+            LocalDateTime date = ligne[0] != null ? ((Timestamp) ligne[0]).toLocalDateTime() : LocalDateTime.now();
+            BigDecimal ca = montant((BigDecimal) ligne[1]);
+            long couverts = couverts((Integer) ligne[2]);
+            for (GranulariteAgregat granularite : GranulariteAgregat.values()) {
+                LocalDateTime debut = debutPeriode(granularite, date);
+                VenteAgregee agregat = parGranularite.get(granularite).computeIfAbsent(debut,
+                        d -> new VenteAgregee(null, granularite, Timestamp.valueOf(d), BigDecimal.ZERO, 0L, 0L));
+                agregat.setChiffreAffaires(agregat.getChiffreAffaires().add(ca));
+                agregat.setNombreCommandes(agregat.getNombreCommandes() + 1);
+                agregat.setNombreClients(agregat.getNombreClients() + couverts);
+            }
+        }
+
+        List<VenteAgregee> agregats = new ArrayList<>();
+        parGranularite.values().forEach(m -> agregats.addAll(m.values()));
+
+        venteAgregeeRepository.saveAll(agregats);
+        logger.info("{} {} lignes d'agrégat reconstruites", context, agregats.size());
+        return agregats.size();
+    }
+
+    private void cumuler(Timestamp dateCommande, BigDecimal ca, long nbCommandes, long nbClients) {
+        LocalDateTime date = dateCommande != null ? dateCommande.toLocalDateTime() : LocalDateTime.now();
+        for (GranulariteAgregat granularite : GranulariteAgregat.values()) {
+            venteAgregeeRepository.cumuler(granularite.name(), Timestamp.valueOf(debutPeriode(granularite, date)),
+                    ca, nbCommandes, nbClients);
+        }
+    }
+
+    private static LocalDateTime debutPeriode(GranulariteAgregat granularite, LocalDateTime date) {
+        return granularite == GranulariteAgregat.HEURE
+                ? date.truncatedTo(ChronoUnit.HOURS)
+                : date.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private static BigDecimal montant(BigDecimal total) {
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    private static long couverts(Integer nombrePersonnes) {
+        return nombrePersonnes != null ? nombrePersonnes : 1;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.ArbreMenuDto;
+import com.example.BackendProject.repository.MenuRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Arbre complet de la carte (Menu → Catégorie → Plat → Option) gardé en mémoire sous forme immuable.
+ * <p>
+ * L'arbre est chargé en quatre requêtes, une par niveau, puis assemblé en mémoire : le nombre de requêtes
+ * ne dépend pas de la taille de la carte. Toute modification d'un menu, d'une catégorie, d'un plat ou
+ * d'une option invalide l'arbre (après commit) ; il est reconstruit à la lecture suivante.
+ */
+@Service
+public class ArbreMenuCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArbreMenuCache.class);
+
+    private final MenuRepository menuRepository;
+    private final TransactionTemplate lectureSeule;
+    private final Object verrouReconstruction = new Object();
+
+    private volatile Instantane instantane;
+    // Incrémentée à chaque modification commitée ; un arbre lu avant ne peut pas être publié après
+    private volatile long version = 0;
+
+    public ArbreMenuCache(MenuRepository menuRepository, PlatformTransactionManager transactionManager) {
+        this.menuRepository = menuRepository;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Arbres de tous les menus actifs.
+     */
+    public List<ArbreMenuDto> arbres() {
+        return courant().arbres;
+    }
+
+    /**
+     * Arbre d'un menu actif, vide si le menu n'existe pas ou est inactif.
+     */
+    public Optional<ArbreMenuDto> arbre(Long menuId) {
+        return Optional.ofNullable(courant().parId.get(menuId));
+    }
+
+    /**
+     * Signale la modification d'un élément de la carte. Effective après le commit de la transaction en cours.
+     */
+    public void invalider() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementerVersion();
+                }
+            });
+        } else {
+            incrementerVersion();
+        }
+    }
+
+    private synchronized void incrementerVersion() {
+        version++;
+    }
+
+    private Instantane courant() {
+        Instantane actuel = instantane;
+        if (actuel != null && actuel.version == version) {
+            return actuel;
+        }
+        return reconstruire();
+    }
+
+    private Instantane reconstruire() {
+        synchronized (verrouReconstruction) {
+            Instantane actuel = instantane;
+            long versionLue = version;
+            if (actuel != null && actuel.version == versionLue) {
+                return actuel;
+            }
+
+            long debut = System.currentTimeMillis();
+            List<ArbreMenuDto> arbres = lectureSeule.execute(statut -> charger());
+            Instantane nouveau = new Instantane(versionLue, arbres);
+
+            synchronized (this) {
+                if (version == versionLue) {
+                    instantane = nouveau;
+                }
+            }
+            logger.info("Arbre de la carte reconstruit : {} menu(s), version {}, en {} ms",
+                    arbres.size(), versionLue, System.currentTimeMillis() - debut);
+            return nouveau;
+        }
+    }
+
+    private List<ArbreMenuDto> charger() {
+        // Options par plat
+        Map<Long, List<ArbreMenuDto.Option>> optionsParPlat = new HashMap<>();
+        for (Object[] ligne : menuRepository.findArbreOptions()) {
+            optionsParPlat.computeIfAbsent((Long) ligne[0], id -> new ArrayList<>())
+                    .add(new ArbreMenuDto.Option((Long) ligne[1], (String) ligne[2], (BigDecimal) ligne[3]));
+        }
+
+        // Plats par catégorie
+        Map<Long, List<ArbreMenuDto.Plat>> platsParCategorie = new HashMap<>();
+        for (Object[] ligne : menuRepository.findArbrePlats()) {
+            Long platId = (Long) ligne[0];
+            platsParCategorie.computeIfAbsent((Long) ligne[1], id -> new ArrayList<>())
+                    .add(new ArbreMenuDto.Plat(platId, (String) ligne[2], (String) ligne[3], (BigDecimal) ligne[4],
+                            (String) ligne[5], optionsParPlat.getOrDefault(platId, List.of())));
+        }
+
+        // Catégories par menu, déjà triées par ordre d'affichage
+        Map<Long, List<ArbreMenuDto.Categorie>> categoriesParMenu = new HashMap<>();
+        for (Object[] ligne : menuRepository.findArbreCategories()) {
+            Long categorieId = (Long) ligne[0];
+            categoriesParMenu.computeIfAbsent((Long) ligne[1], id -> new ArrayList<>())
+                    .add(new ArbreMenuDto.Categorie(categorieId, (String) ligne[2], (String) ligne[3], (Integer) ligne[4],
+                            platsParCategorie.getOrDefault(categorieId, List.of())));
+        }
+
+        List<ArbreMenuDto> arbres = new ArrayList<>();
+        for (Object[] ligne : menuRepository.findArbreMenus()) {
+            Long menuId = (Long) ligne[0];
+            arbres.add(new ArbreMenuDto(menuId, (String) ligne[1], categoriesParMenu.getOrDefault(menuId, List.of())));
+        }
+        return List.copyOf(arbres);
+    }
+
+    private static final class Instantane {
+        private final long version;
+        private final List<ArbreMenuDto> arbres;
+        private final Map<Long, ArbreMenuDto> parId;
+
+        private Instantane(long version, List<ArbreMenuDto> arbres) {
+            this.version = version;
+            this.arbres = arbres;
+            Map<Long, ArbreMenuDto> index = new LinkedHashMap<>();
+            for (ArbreMenuDto arbre : arbres) {
+                index.put(arbre.getId(), arbre);
+            }
+            this.parId = index;
+        }
+    }
+}
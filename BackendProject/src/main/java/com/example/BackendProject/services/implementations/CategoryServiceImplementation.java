@@ -24,13 +24,16 @@ public class CategoryServiceImplementation implements CategoryServiceInterface {
     private final CategoryMapper categoryMapper;
     private final CategoryRepository categoryRepository;
     private final MenuRepository menuRepository;
+    private final ArbreMenuCache arbreMenuCache;
 
     public CategoryServiceImplementation(CategoryMapper categoryMapper,
                                          CategoryRepository categoryRepository,
-                                         MenuRepository menuRepository) {
+                                         MenuRepository menuRepository,
+                                         ArbreMenuCache arbreMenuCache) {
         this.categoryMapper = categoryMapper;
         this.categoryRepository = categoryRepository;
         this.menuRepository = menuRepository;
+        this.arbreMenuCache = arbreMenuCache;
     }
 
     @Override
@@ -63,6 +66,7 @@ public class CategoryServiceImplementation implements CategoryServiceInterface {
 
         Category category = categoryMapper.toEntity(categoryDto);
         Category savedCategory = categoryRepository.save(category);
+        arbreMenuCache.invalider();
 
         logger.info("{} Catégorie sauvegardée avec succès. ID: {}", context, savedCategory.getId());
         return categoryMapper.toDto(savedCategory);
@@ -128,6 +132,7 @@ public class CategoryServiceImplementation implements CategoryServiceInterface {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        arbreMenuCache.invalider();
         logger.info("{} Catégorie ID : {} mise à jour avec succès", context, id);
 
         return categoryMapper.toDto(updatedCategory);
@@ -151,6 +156,7 @@ public class CategoryServiceImplementation implements CategoryServiceInterface {
          }
 
         categoryRepository.delete(category);
+        arbreMenuCache.invalider();
         logger.info("{} Catégorie ID : {} supprimée avec succès", context, id);
     }
 
@@ -217,6 +223,7 @@ public class CategoryServiceImplementation implements CategoryServiceInterface {
             category.setOrdreAffichage(newOrder);
             categoryRepository.save(category);
         }
+        arbreMenuCache.invalider();
         logger.info("{} Réorganisation terminée pour {} catégories", context, categoryIds.size());
     }
 }
\ No newline at end of file
@@ -1,15 +1,28 @@
 package com.example.BackendProject.services.implementations;
 
 import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.FiltreCommandesDto;
 import com.example.BackendProject.dto.LigneCommandeDto;
+import com.example.BackendProject.dto.LignePanierDto;
+import com.example.BackendProject.dto.PageCommandesDto;
+import com.example.BackendProject.dto.ResyncCommandeDto;
+import com.example.BackendProject.dto.SoumissionCommandeDto;
 import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.entities.LigneCommande;
+import com.example.BackendProject.entities.OptionItem;
+import com.example.BackendProject.entities.OrderItemOption;
+import com.example.BackendProject.entities.Plat;
 import com.example.BackendProject.entities.TableRestaurant;
 import com.example.BackendProject.entities.Utilisateur;
 import com.example.BackendProject.mappers.CommandeMapper;
 import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.repository.LigneCommandeRepository;
+import com.example.BackendProject.repository.PlatRepository;
 import com.example.BackendProject.repository.TableRestaurantRepository;
 import com.example.BackendProject.repository.UtilisateurRepository;
 import com.example.BackendProject.services.interfaces.CommandeServiceInterface;
+import com.example.BackendProject.services.interfaces.IngredientServiceInterface;
+import com.example.BackendProject.utils.CalculTotaux;
 import com.example.BackendProject.utils.LoggingUtils;
 import com.example.BackendProject.utils.RoleType;
 import com.example.BackendProject.utils.StatutCommande;
@@ -17,39 +30,70 @@ import com.example.BackendProject.utils.TypeCommande;
 import com.example.BackendProject.exceptions.RessourceNonTrouveeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class CommandeServiceImplementation implements CommandeServiceInterface {
 
     private static final Logger logger = LoggerFactory.getLogger(CommandeServiceImplementation.class);
+    public static final int TAILLE_PAGE_DEFAUT = 50;
+    public static final int TAILLE_PAGE_MAX = 200;
     private final CommandeMapper commandeMapper;
     private final CommandeRepository commandeRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final TableRestaurantRepository tableRestaurantRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final DiffusionWebSocketService diffusionWebSocketService;
+    private final AgregationVentesService agregationVentesService;
+    private final PlatRepository platRepository;
+    private final LigneCommandeRepository ligneCommandeRepository;
+    private final IngredientServiceInterface ingredientService;
+    private final EvenementsCommandeService evenementsCommandeService;
+    private final EvenementsTableService evenementsTableService;
+    private final TauxTvaCache tauxTvaCache;
 
     public CommandeServiceImplementation(CommandeMapper commandeMapper,
             CommandeRepository commandeRepository,
             UtilisateurRepository UtilisateurRepository,
             TableRestaurantRepository tableRestaurantRepository,
-            SimpMessagingTemplate messagingTemplate) {
+            DiffusionWebSocketService diffusionWebSocketService,
+            AgregationVentesService agregationVentesService,
+            PlatRepository platRepository,
+            LigneCommandeRepository ligneCommandeRepository,
+            IngredientServiceInterface ingredientService,
+            EvenementsCommandeService evenementsCommandeService,
+            EvenementsTableService evenementsTableService,
+            TauxTvaCache tauxTvaCache) {
         this.commandeMapper = commandeMapper;
         this.commandeRepository = commandeRepository;
         this.utilisateurRepository = UtilisateurRepository;
         this.tableRestaurantRepository = tableRestaurantRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.diffusionWebSocketService = diffusionWebSocketService;
+        this.agregationVentesService = agregationVentesService;
+        this.platRepository = platRepository;
+        this.ligneCommandeRepository = ligneCommandeRepository;
+        this.ingredientService = ingredientService;
+        this.evenementsCommandeService = evenementsCommandeService;
+        this.evenementsTableService = evenementsTableService;
+        this.tauxTvaCache = tauxTvaCache;
     }
 
     @Override
+    @Transactional
     public CommandeDto save(CommandeDto commandeDto) {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Tentative de création d'une commande - Type: {}, Table ID: {}",
@@ -118,6 +162,7 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
             if (commandeDto.getTypeCommande() == TypeCommande.SUR_PLACE) {
                 table.setStatut(com.example.BackendProject.utils.StatutTable.Occupée);
                 tableRestaurantRepository.save(table);
+                evenementsTableService.statutModifie(table.getId(), com.example.BackendProject.utils.StatutTable.Occupée);
                 logger.info("{} Table ID: {} marquée comme Occupée", context, table.getId());
             }
             commande.setTable(table);
@@ -133,12 +178,13 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
         Commande savedCommande = commandeRepository.save(commande);
         logger.info("{} Commande enregistrée avec succès. ID: {}, Statut: {}", context, savedCommande.getId(),
                 savedCommande.getStatut());
+        agregationVentesService.enregistrerTransition(savedCommande, null, null);
 
         CommandeDto resultDto = commandeMapper.toDto(savedCommande);
 
         // Notification WebSocket pour la cuisine
         if (savedCommande.getStatut() == StatutCommande.EN_ATTENTE) {
-            messagingTemplate.convertAndSend("/topic/cuisine/commandes", resultDto);
+            evenementsCommandeService.commandeCreee(resultDto);
             logger.info("{} Notification envoyée à la cuisine pour la nouvelle commande ID: {}", context,
                     savedCommande.getId());
         }
@@ -147,6 +193,136 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
     }
 
     @Override
+    @Transactional
+    public CommandeDto soumettreCommande(SoumissionCommandeDto panier) {
+        String context = LoggingUtils.getLogContext();
+        logger.info("{} Soumission d'une commande complète - Type: {}, Table ID: {}, {} ligne(s)",
+                context, panier.getTypeCommande(), panier.getTableId() != null ? panier.getTableId() : "N/A",
+                panier.getLignes() != null ? panier.getLignes().size() : 0);
+
+        if (panier.getTypeCommande() == null) {
+            logger.error("{} Erreur de validation: le type de commande est obligatoire", context);
+            throw new RuntimeException("Le type de commande est obligatoire");
+        }
+        if (panier.getLignes() == null || panier.getLignes().isEmpty()) {
+            logger.error("{} Erreur de validation: panier vide", context);
+            throw new RuntimeException("Le panier ne peut pas être vide");
+        }
+        for (LignePanierDto ligne : panier.getLignes()) {
+            if (ligne.getPlatId() == null || ligne.getQuantite() == null || ligne.getQuantite() <= 0) {
+                logger.error("{} Erreur de validation: ligne invalide (plat {}, quantité {})",
+                        context, ligne.getPlatId(), ligne.getQuantite());
+                throw new RuntimeException("Chaque ligne doit avoir un plat et une quantité supérieure à 0");
+            }
+        }
+
+        Utilisateur serveur = null;
+        if (panier.getServeurId() != null) {
+            serveur = utilisateurRepository.findById(panier.getServeurId())
+                    .orElseThrow(() -> new RessourceNonTrouveeException("Utilisateur non trouvé avec l'ID : " + panier.getServeurId()));
+            if (serveur.getRole() != RoleType.SERVEUR) {
+                logger.error("{} L'utilisateur ID: {} n'a pas le rôle SERVEUR", context, serveur.getId());
+                throw new RuntimeException("L'utilisateur doit avoir le rôle SERVEUR");
+            }
+        }
+
+        TableRestaurant table = null;
+        if (panier.getTableId() != null) {
+            table = tableRestaurantRepository.findById(panier.getTableId())
+                    .orElseThrow(() -> new RessourceNonTrouveeException("Table non trouvée avec l'ID : " + panier.getTableId()));
+        }
+
+        // Validation de tous les plats (et de leurs options autorisées) en une seule requête
+        Set<Long> platIds = panier.getLignes().stream().map(LignePanierDto::getPlatId).collect(Collectors.toSet());
+        Map<Long, Plat> plats = platRepository.findAllWithOptionsByIdIn(platIds).stream()
+                .collect(Collectors.toMap(Plat::getId, Function.identity()));
+
+        Commande commande = new Commande();
+        commande.setTypeCommande(panier.getTypeCommande());
+        commande.setStatut(StatutCommande.EN_ATTENTE);
+        commande.setDateHeureCommande(Timestamp.valueOf(LocalDateTime.now()));
+        commande.setNombrePersonnes(panier.getNombrePersonnes());
+        commande.setServeur(serveur);
+        commande.setTable(table);
+
+        List<LigneCommande> lignes = new ArrayList<>();
+        Map<Long, Integer> portionsParPlat = new HashMap<>();
+        BigDecimal totalHt = BigDecimal.ZERO;
+
+        for (LignePanierDto lignePanier : panier.getLignes()) {
+            Plat plat = plats.get(lignePanier.getPlatId());
+            if (plat == null) {
+                throw new RessourceNonTrouveeException("Plat non trouvé avec l'ID : " + lignePanier.getPlatId());
+            }
+            if (!Boolean.TRUE.equals(plat.getDisponibilite())) {
+                logger.warn("{} Plat non disponible dans le panier: {}", context, plat.getNom());
+                throw new RuntimeException("Le plat '" + plat.getNom() + "' n'est pas disponible actuellement");
+            }
+
+            LigneCommande ligne = new LigneCommande();
+            ligne.setCommande(commande);
+            ligne.setPlat(plat);
+            ligne.setQuantite(lignePanier.getQuantite());
+            ligne.setNotesCuisine(lignePanier.getNotesCuisine());
+
+            // Prix unitaire = prix du plat + suppléments des options choisies
+            BigDecimal prixUnitaire = plat.getPrix() != null ? plat.getPrix() : BigDecimal.ZERO;
+            List<OrderItemOption> options = new ArrayList<>();
+            if (lignePanier.getOptionIds() != null) {
+                for (Long optionId : lignePanier.getOptionIds()) {
+                    OptionItem option = plat.getOptions() == null ? null : plat.getOptions().stream()
+                            .filter(o -> o.getId().equals(optionId))
+                            .findFirst().orElse(null);
+                    if (option == null) {
+                        throw new RuntimeException("L'option ID " + optionId + " n'est pas proposée pour le plat '" + plat.getNom() + "'");
+                    }
+                    BigDecimal supplement = option.getPrixSupplementaire() != null ? option.getPrixSupplementaire() : BigDecimal.ZERO;
+                    options.add(new OrderItemOption(null, ligne, option, option.getNom(), supplement));
+                    prixUnitaire = prixUnitaire.add(supplement);
+                }
+            }
+            ligne.setPrixUnitaire(prixUnitaire);
+            ligne.setOptions(options);
+            lignes.add(ligne);
+
+            totalHt = totalHt.add(prixUnitaire.multiply(new BigDecimal(ligne.getQuantite())));
+            portionsParPlat.merge(plat.getId(), ligne.getQuantite(), Integer::sum);
+        }
+
+        // Totaux calculés une seule fois en mémoire
+        commande.setTotalHt(totalHt);
+        commande.setTotalTtc(CalculTotaux.ttc(totalHt, tauxTvaCache.taux()));
+
+        if (table != null && panier.getTypeCommande() == TypeCommande.SUR_PLACE) {
+            table.setStatut(com.example.BackendProject.utils.StatutTable.Occupée);
+            tableRestaurantRepository.save(table);
+            evenementsTableService.statutModifie(table.getId(), com.example.BackendProject.utils.StatutTable.Occupée);
+        }
+
+        Commande savedCommande = commandeRepository.save(commande);
+        ligneCommandeRepository.insererEnLot(savedCommande.getId(), lignes);
+
+        // DÉDUCTION STOCK EN LOT
+        // Un stock insuffisant est seulement journalisé par la déduction ; une exception, elle, a déjà marqué
+        // la transaction pour annulation : on la laisse remonter plutôt que de perdre la commande au commit
+        ingredientService.deduireStockEnLot(portionsParPlat);
+
+        CommandeDto resultDto = commandeMapper.toDto(savedCommande);
+        resultDto.setLignesCommande(lignes.stream()
+                .map(l -> new LigneCommandeDto(l.getId(), savedCommande.getId(), l.getPlat().getId(),
+                        l.getQuantite(), l.getPrixUnitaire(), l.getNotesCuisine()))
+                .collect(Collectors.toList()));
+
+        // Une seule notification cuisine pour tout le panier
+        evenementsCommandeService.commandeCreee(resultDto);
+        logger.info("{} Commande ID: {} soumise avec {} ligne(s) - Total TTC: {}",
+                context, savedCommande.getId(), lignes.size(), savedCommande.getTotalTtc());
+
+        return resultDto;
+    }
+
+    @Override
+    @Transactional
     public CommandeDto update(Long id, CommandeDto commandeDto) {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Mise à jour de la commande ID: {}", context, id);
@@ -157,6 +333,9 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
                     return new RessourceNonTrouveeException("Commande non trouvée avec l'ID : " + id);
                 });
 
+        StatutCommande ancienStatut = commande.getStatut();
+        BigDecimal ancienTotalTtc = commande.getTotalTtc();
+
         if (commandeDto.getStatut() != null) {
             logger.info("{} Changement de statut demandé: {} -> {}", context, commande.getStatut(),
                     commandeDto.getStatut());
@@ -169,11 +348,16 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
         }
 
         Commande updated = commandeRepository.save(commande);
+        agregationVentesService.enregistrerTransition(updated, ancienStatut, ancienTotalTtc);
+        if (updated.getStatut() != ancienStatut) {
+            evenementsCommandeService.statutModifie(updated);
+        }
         logger.info("{} Commande ID: {} mise à jour avec succès", context, id);
         return commandeMapper.toDto(updated);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         String context = LoggingUtils.getLogContext();
         logger.warn("{} Tentative de suppression de la commande ID: {}", context, id);
@@ -189,11 +373,14 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
             throw new RuntimeException("Impossible de supprimer une commande déjà payée");
         }
 
+        agregationVentesService.retirerCommande(commande);
         commandeRepository.delete(commande);
+        evenementsCommandeService.commandeSupprimee(id);
         logger.info("{} Commande ID: {} supprimée avec succès", context, id);
     }
 
     @Override
+    @Transactional
     public CommandeDto updateStatut(Long id, StatutCommande nouveauStatut) {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Mise à jour statut commande ID: {} vers {}", context, id, nouveauStatut);
@@ -208,6 +395,7 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
             throw e;
         }
 
+        StatutCommande ancienStatut = commande.getStatut();
         commande.setStatut(nouveauStatut);
 
         // Libérer la table si la commande est payée
@@ -215,31 +403,46 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
             TableRestaurant table = commande.getTable();
             table.setStatut(com.example.BackendProject.utils.StatutTable.Libre);
             tableRestaurantRepository.save(table);
+            evenementsTableService.statutModifie(table.getId(), com.example.BackendProject.utils.StatutTable.Libre);
             logger.info("{} Table ID: {} libérée après paiement", context, table.getId());
         }
 
         Commande updated = commandeRepository.save(commande);
+        agregationVentesService.enregistrerTransition(updated, ancienStatut, updated.getTotalTtc());
         logger.info("{} Statut mis à jour avec succès pour la commande ID: {}", context, id);
 
         CommandeDto updatedDto = commandeMapper.toDto(updated);
 
         // Notifications WebSocket basées sur le nouveau statut
         if (nouveauStatut == StatutCommande.PRETE) {
-            messagingTemplate.convertAndSend("/topic/salle/prete", updatedDto);
+            diffusionWebSocketService.publier("/topic/salle/prete", id, updatedDto);
             logger.info("{} Notification 'PRÊTE' envoyée pour la commande ID: {}", context, id);
         } else if (nouveauStatut == StatutCommande.SERVIE) {
-            messagingTemplate.convertAndSend("/topic/serveurs/servie", updatedDto);
+            diffusionWebSocketService.publier("/topic/serveurs/servie", id, updatedDto);
             logger.info("{} Notification 'SERVIE' envoyée pour la commande ID: {}", context, id);
         } else if (nouveauStatut == StatutCommande.PAYEE) {
-            messagingTemplate.convertAndSend("/topic/serveurs/addition", updatedDto);
+            diffusionWebSocketService.publier("/topic/serveurs/addition", id, updatedDto);
             logger.info("{} Notification 'PAYÉE' envoyée pour la commande ID: {}", context, id);
-        } else if (nouveauStatut == StatutCommande.EN_PREPARATION || nouveauStatut == StatutCommande.EN_ATTENTE) {
-            messagingTemplate.convertAndSend("/topic/cuisine/commandes", updatedDto);
         }
+        // Delta de statut pour la cuisine et l'addition (sans les lignes)
+        evenementsCommandeService.statutModifie(updated);
 
         return updatedDto;
     }
 
+    @Override
+    public ResyncCommandeDto resynchroniser(Long id) {
+        String context = LoggingUtils.getLogContext();
+        logger.info("{} Resynchronisation demandée pour la commande ID: {}", context, id);
+
+        // Séquence lue AVANT l'état : tout événement <= sequence est déjà inclus dans l'instantané
+        long sequence = evenementsCommandeService.sequenceCourante(id);
+        Commande commande = commandeRepository.findById(id)
+                .orElseThrow(() -> new RessourceNonTrouveeException("Commande non trouvée avec l'ID : " + id));
+
+        return new ResyncCommandeDto(sequence, commandeMapper.toDto(commande));
+    }
+
     @Override
     public BigDecimal calculateTotalVentes(Timestamp debut, Timestamp fin) {
         String context = LoggingUtils.getLogContext();
@@ -256,6 +459,53 @@ public class CommandeServiceImplementation implements CommandeServiceInterface {
         return commandeRepository.findAll().stream().map(commandeMapper::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCommandesDto rechercher(FiltreCommandesDto filtre, String curseur, Integer taille) {
+        String context = LoggingUtils.getLogContext();
+        int taillePage = (taille == null || taille <= 0) ? TAILLE_PAGE_DEFAUT : Math.min(taille, TAILLE_PAGE_MAX);
+
+        Timestamp apresDate = null;
+        Long apresId = null;
+        if (curseur != null && !curseur.isBlank()) {
+            Object[] position = decoderCurseur(curseur);
+            apresDate = (Timestamp) position[0];
+            apresId = (Long) position[1];
+        }
+
+        // Une commande de plus que la page : indique s'il existe une page suivante sans COUNT(*)
+        List<Commande> commandes = commandeRepository.rechercherPage(filtre, apresDate, apresId, taillePage + 1);
+        boolean pageSuivante = commandes.size() > taillePage;
+        if (pageSuivante) {
+            commandes = commandes.subList(0, taillePage);
+        }
+
+        List<CommandeDto> resultat = commandes.stream().map(commandeMapper::toDto).collect(Collectors.toList());
+        String curseurSuivant = pageSuivante ? encoderCurseur(commandes.get(commandes.size() - 1)) : null;
+        logger.info("{} Page de {} commande(s) renvoyée(s) (taille demandée: {}, page suivante: {})",
+                context, resultat.size(), taillePage, pageSuivante);
+        return new PageCommandesDto(resultat, curseurSuivant);
+    }
+
+    // Curseur opaque : position (dateHeureCommande, id) de la dernière commande renvoyée
+    private static String encoderCurseur(Commande derniere) {
+        String position = derniere.getDateHeureCommande().toInstant() + "|" + derniere.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decoderCurseur(String curseur) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = position.lastIndexOf('|');
+            return new Object[]{
+                    Timestamp.from(Instant.parse(position.substring(0, separateur))),
+                    Long.parseLong(position.substring(separateur + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Curseur de pagination invalide");
+        }
+    }
+
     @Override
     public CommandeDto getById(Long id) {
         return commandeRepository.findById(id).map(commandeMapper::toDto)
@@ -9,12 +9,9 @@ import com.example.BackendProject.utils.StatutCommande;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -23,29 +20,33 @@ public class CuisineServiceImplementation {
     private static final Logger logger = LoggerFactory.getLogger(CuisineServiceImplementation.class);
     private final CommandeRepository commandeRepository;
     private final CommandeMapper commandeMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final DiffusionWebSocketService diffusionWebSocketService;
+    private final EvenementsCommandeService evenementsCommandeService;
+    private final TableauCuisineService tableauCuisineService;
 
     public CuisineServiceImplementation(CommandeRepository commandeRepository, 
                                         CommandeMapper commandeMapper,
-                                        SimpMessagingTemplate messagingTemplate) {
+                                        DiffusionWebSocketService diffusionWebSocketService,
+                                        EvenementsCommandeService evenementsCommandeService,
+                                        TableauCuisineService tableauCuisineService) {
         this.commandeRepository = commandeRepository;
         this.commandeMapper = commandeMapper;
-        this.messagingTemplate = messagingTemplate;
+        this.diffusionWebSocketService = diffusionWebSocketService;
+        this.evenementsCommandeService = evenementsCommandeService;
+        this.tableauCuisineService = tableauCuisineService;
     }
 
     /**
      * Récupère la liste des commandes à traiter par la cuisine (En attente ou En préparation).
+     * Aucune transaction n'est ouverte : la lecture se fait en mémoire.
      */
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<CommandeDto> getListeAPreparer() {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Récupération de la liste des commandes pour l'écran cuisine", context);
 
-        List<StatutCommande> statutsCuisine = Arrays.asList(StatutCommande.EN_ATTENTE, StatutCommande.EN_PREPARATION);
-        
-        List<CommandeDto> commandes = commandeRepository.findByStatutInOrderByDateHeureCommandeAsc(statutsCuisine)
-                .stream()
-                .map(commandeMapper::toDto)
-                .collect(Collectors.toList());
+        // Servi depuis la projection en mémoire, tenue à jour par les événements de commande
+        List<CommandeDto> commandes = tableauCuisineService.commandesAPreparer();
 
         logger.info("{} {} commandes envoyées à l'écran cuisine", context, commandes.size());
         return commandes;
@@ -67,6 +68,7 @@ public class CuisineServiceImplementation {
         if (commande.getStatut() == StatutCommande.EN_ATTENTE) {
             commande.setStatut(StatutCommande.EN_PREPARATION);
             Commande saved = commandeRepository.save(commande);
+            evenementsCommandeService.statutModifie(saved);
             logger.info("{} Commande ID: {} est maintenant EN_PREPARATION", context, commandeId);
             return commandeMapper.toDto(saved);
         } else {
@@ -94,7 +96,8 @@ public class CuisineServiceImplementation {
         
         // Notifier la salle que la commande est PRÊTE
         CommandeDto commandeDto = commandeMapper.toDto(saved);
-        messagingTemplate.convertAndSend("/topic/salle/prete", commandeDto);
+        diffusionWebSocketService.publier("/topic/salle/prete", commandeId, commandeDto);
+        evenementsCommandeService.statutModifie(saved);
         
         logger.info("{} Commande ID: {} marquée comme PRETE et notifiée à la salle", context, commandeId);
         return commandeDto;
@@ -0,0 +1,148 @@
+package com.example.BackendProject.services.implementations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline de diffusion WebSocket sortante.
+ * <p>
+ * Les services publient ici au lieu d'appeler directement {@link SimpMessagingTemplate} :
+ * l'événement n'est mis en file qu'après le commit de la transaction appelante, puis une tâche
+ * planifiée vide la file toutes les {@code app.websocket.fenetre-coalescence-ms} millisecondes.
+ * Plusieurs publications pour la même destination et la même clé (ex. la même commande) dans
+ * la fenêtre sont fusionnées : seul le dernier état est envoyé, sérialisé une seule fois. Les événements,
+ * eux, ne sont jamais fusionnés mais regroupés : une destination reçoit une seule trame par fenêtre,
+ * contenant la liste de ses événements dans l'ordre de mise en file.
+ */
+@Service
+public class DiffusionWebSocketService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiffusionWebSocketService.class);
+
+    // Clé de fusion du lot d'événements d'une destination
+    private static final String CLE_EVENEMENTS = "#evenements";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Ordre d'insertion conservé : une commande garde sa place même si son état est remplacé
+    private final Map<String, EnvoiEnAttente> enAttente = new LinkedHashMap<>();
+    private final AtomicLong sequenceSansCle = new AtomicLong();
+    private final AtomicLong publicationsFusionnees = new AtomicLong();
+
+    public DiffusionWebSocketService(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Publie un état sur une destination. Les publications de même (destination, clé) sont fusionnées ;
+     * une clé nulle désactive la fusion (chaque publication est envoyée).
+     */
+    public void publier(String destination, Object cle, Object payload) {
+        String cleFusion = cle != null
+                ? destination + "#" + cle
+                : destination + "#~" + sequenceSansCle.incrementAndGet();
+        EnvoiEnAttente envoi = new EnvoiEnAttente(destination, payload);
+        apresCommit(() -> enfiler(cleFusion, envoi));
+    }
+
+    /**
+     * Publie un événement qui ne doit jamais être fusionné (ex. delta de commande), vers une ou plusieurs
+     * destinations. Le payload est fabriqué au moment de la mise en file, sous le verrou de la file :
+     * un numéro de séquence attribué dans la fabrique suit donc l'ordre d'envoi. Les événements d'une
+     * destination sont envoyés ensemble, en une trame de type liste, à la fin de la fenêtre.
+     */
+    public void publierEvenement(List<String> destinations, Supplier<?> fabriquePayload) {
+        apresCommit(() -> {
+            synchronized (enAttente) {
+                Object payload = fabriquePayload.get();
+                for (String destination : destinations) {
+                    enAttente.computeIfAbsent(destination + CLE_EVENEMENTS,
+                            cle -> new EnvoiEnAttente(destination, new ArrayList<>())).ajouter(payload);
+                }
+            }
+        });
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rien n'est diffusé si la transaction est annulée
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void enfiler(String cleFusion, EnvoiEnAttente envoi) {
+        synchronized (enAttente) {
+            if (enAttente.put(cleFusion, envoi) != null) {
+                publicationsFusionnees.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Vide la file hors du thread de requête. Chaque payload distinct n'est converti qu'une fois,
+     * même s'il part vers plusieurs destinations.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.fenetre-coalescence-ms:100}")
+    public void vider() {
+        List<EnvoiEnAttente> lot;
+        synchronized (enAttente) {
+            if (enAttente.isEmpty()) {
+                return;
+            }
+            lot = new ArrayList<>(enAttente.values());
+            enAttente.clear();
+        }
+
+        MessageConverter convertisseur = messagingTemplate.getMessageConverter();
+        Map<Object, Message<?>> messagesParPayload = new IdentityHashMap<>();
+        for (EnvoiEnAttente envoi : lot) {
+            try {
+                Message<?> message = messagesParPayload.computeIfAbsent(envoi.payload,
+                        payload -> convertisseur.toMessage(payload, null));
+                messagingTemplate.send(envoi.destination, message);
+            } catch (Exception e) {
+                logger.error("Échec de diffusion WebSocket vers {}: {}", envoi.destination, e.getMessage());
+            }
+        }
+
+        logger.debug("Diffusion WebSocket : {} trame(s) envoyée(s), {} sérialisation(s), {} publication(s) fusionnée(s) au total",
+                lot.size(), messagesParPayload.size(), publicationsFusionnees.get());
+    }
+
+    private static final class EnvoiEnAttente {
+        private final String destination;
+        private final Object payload;
+
+        private EnvoiEnAttente(String destination, Object payload) {
+            this.destination = destination;
+            this.payload = payload;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void ajouter(Object evenement) {
+            ((List<Object>) payload).add(evenement);
+        }
+    }
+}
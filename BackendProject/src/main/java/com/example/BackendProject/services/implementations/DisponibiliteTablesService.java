@@ -0,0 +1,303 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.CreneauDisponibleDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
+import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.repository.ReservationRepository;
+import com.example.BackendProject.utils.StatutReservation;
+import com.example.BackendProject.utils.StatutTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moteur de disponibilité des tables : un index d'intervalles par table (réservations actives triées par début).
+ * <p>
+ * Répond en mémoire à « quelles tables peuvent accueillir N personnes à T pendant D minutes » et
+ * « prochains créneaux libres pour N personnes ». Une table actuellement occupée est considérée prise
+ * jusqu'à maintenant + durée de rotation. L'index est chargé à la première lecture puis tenu à jour après
+ * commit par le service de réservation ; le contrôle des doubles réservations à l'écriture se fait en base
+ * (voir {@link ReservationServiceImplementation}).
+ */
+@Service
+public class DisponibiliteTablesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisponibiliteTablesService.class);
+
+    public static final Set<StatutReservation> STATUTS_ACTIFS = Set.of(StatutReservation.EN_ATTENTE, StatutReservation.CONFIRMEE);
+
+    private static final Comparator<Creneau> ORDRE_DEBUT = Comparator
+            .comparingLong((Creneau creneau) -> creneau.debut)
+            .thenComparingLong(creneau -> creneau.reservationId);
+
+    private final ReservationRepository reservationRepository;
+    private final PlanSalleIndex planSalleIndex;
+    private final TransactionTemplate lectureSeule;
+    private final int dureeDefautMinutes;
+    private final int dureeOccupationMinutes;
+
+    // Toutes les écritures et lectures de l'index passent par "this"
+    private final Map<Long, NavigableSet<Creneau>> parTable = new HashMap<>();
+    private final Map<Long, Creneau> parReservation = new HashMap<>();
+    // Plus longue durée indexée : borne la recherche des créneaux commencés avant l'instant demandé
+    private long dureeMax = 0;
+    private boolean charge = false;
+
+    public DisponibiliteTablesService(ReservationRepository reservationRepository,
+                                      PlanSalleIndex planSalleIndex,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.reservations.duree-defaut-minutes:90}") int dureeDefautMinutes,
+                                      @Value("${app.reservations.duree-occupation-minutes:60}") int dureeOccupationMinutes) {
+        this.reservationRepository = reservationRepository;
+        this.planSalleIndex = planSalleIndex;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.dureeDefautMinutes = dureeDefautMinutes;
+        this.dureeOccupationMinutes = dureeOccupationMinutes;
+    }
+
+    public int dureeEffective(Integer dureeMinutes) {
+        return dureeMinutes != null && dureeMinutes > 0 ? dureeMinutes : dureeDefautMinutes;
+    }
+
+    public static boolean estActive(StatutReservation statut) {
+        return statut == null || STATUTS_ACTIFS.contains(statut);
+    }
+
+    // --- Lectures ---
+
+    /**
+     * Tables d'au moins {@code personnes} places libres sur [debut, debut + durée), la plus petite capacité d'abord.
+     */
+    public List<TableRestaurantDto> tablesDisponibles(int personnes, LocalDateTime debut, Integer dureeMinutes) {
+        long debutMinute = enMinutes(debut);
+        long finMinute = debutMinute + dureeEffective(dureeMinutes);
+        long maintenant = enMinutes(maintenant());
+
+        List<TableRestaurantDto> libres = new ArrayList<>();
+        synchronized (this) {
+            assurerCharge();
+            for (TableRestaurantDto table : planSalleIndex.toutes()) {
+                if (peutAccueillir(table, personnes)
+                        && !occupeeSur(table, maintenant, debutMinute, finMinute)
+                        && !chevauche(table.getId(), debutMinute, finMinute)) {
+                    libres.add(table);
+                }
+            }
+        }
+        libres.sort(Comparator.comparing(TableRestaurantDto::getCapacite).thenComparing(TableRestaurantDto::getId));
+        return libres;
+    }
+
+    /**
+     * Premier créneau libre de chaque table adaptée à partir de {@code aPartirDe}, les plus proches d'abord.
+     */
+    public List<CreneauDisponibleDto> prochainsCreneaux(int personnes, LocalDateTime aPartirDe, Integer dureeMinutes, int nombre) {
+        int duree = dureeEffective(dureeMinutes);
+        long depart = enMinutes(aPartirDe);
+        long maintenant = enMinutes(maintenant());
+
+        List<CreneauDisponibleDto> creneaux = new ArrayList<>();
+        synchronized (this) {
+            assurerCharge();
+            for (TableRestaurantDto table : planSalleIndex.toutes()) {
+                if (!peutAccueillir(table, personnes)) {
+                    continue;
+                }
+                long candidat = depart;
+                if (table.getStatut() == StatutTable.Occupée) {
+                    candidat = Math.max(candidat, maintenant + dureeOccupationMinutes);
+                }
+                for (Creneau pris : candidats(table.getId(), candidat)) {
+                    if (pris.debut >= candidat + duree) {
+                        break;
+                    }
+                    candidat = Math.max(candidat, pris.fin);
+                }
+                creneaux.add(new CreneauDisponibleDto(table.getId(), table.getNumero(), table.getZoneId(),
+                        table.getCapacite(), enDate(candidat), enDate(candidat + duree)));
+            }
+        }
+        creneaux.sort(Comparator.comparing(CreneauDisponibleDto::getDebut)
+                .thenComparing(CreneauDisponibleDto::getCapacite)
+                .thenComparing(CreneauDisponibleDto::getTableId));
+        return creneaux.size() > nombre ? new ArrayList<>(creneaux.subList(0, nombre)) : creneaux;
+    }
+
+    private static boolean peutAccueillir(TableRestaurantDto table, int personnes) {
+        return table.getCapacite() != null && table.getCapacite() >= personnes;
+    }
+
+    private boolean occupeeSur(TableRestaurantDto table, long maintenant, long debut, long fin) {
+        return table.getStatut() == StatutTable.Occupée && debut < maintenant + dureeOccupationMinutes && fin > maintenant;
+    }
+
+    private boolean chevauche(Long tableId, long debut, long fin) {
+        for (Creneau pris : candidats(tableId, debut)) {
+            if (pris.debut >= fin) {
+                return false;
+            }
+            if (pris.fin > debut) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Créneaux pouvant encore être en cours à l'instant donné, dans l'ordre des débuts
+    private Set<Creneau> candidats(Long tableId, long depuis) {
+        NavigableSet<Creneau> creneaux = parTable.get(tableId);
+        if (creneaux == null) {
+            return Set.of();
+        }
+        return creneaux.tailSet(new Creneau(Long.MIN_VALUE, tableId, depuis - dureeMax, depuis - dureeMax), true);
+    }
+
+    // --- Mises à jour (après commit) ---
+
+    public void enregistrer(Reservation reservation) {
+        Long tableId = reservation.getTable() != null ? reservation.getTable().getId() : null;
+        Creneau creneau = tableId != null && estActive(reservation.getStatut())
+                ? creneau(reservation.getId(), tableId, reservation.getDate(), reservation.getHeure(), reservation.getDureeMinutes())
+                : null;
+        Long reservationId = reservation.getId();
+        apresCommit(() -> {
+            synchronized (this) {
+                if (!charge) {
+                    return;
+                }
+                retirerDeIndex(reservationId);
+                if (creneau != null) {
+                    ajouterAIndex(creneau);
+                }
+            }
+        });
+    }
+
+    public void retirer(Long reservationId) {
+        apresCommit(() -> {
+            synchronized (this) {
+                if (charge) {
+                    retirerDeIndex(reservationId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Oublie les créneaux terminés depuis plus d'un jour.
+     */
+    @Scheduled(cron = "${app.reservations.purge-cron:0 0 4 * * *}")
+    public synchronized void purger() {
+        long limite = enMinutes(maintenant().minusDays(1));
+        List<Long> termines = new ArrayList<>();
+        for (Creneau creneau : parReservation.values()) {
+            if (creneau.fin < limite) {
+                termines.add(creneau.reservationId);
+            }
+        }
+        termines.forEach(this::retirerDeIndex);
+        if (!termines.isEmpty()) {
+            logger.info("Disponibilités : {} créneau(x) terminé(s) retiré(s) de l'index", termines.size());
+        }
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void ajouterAIndex(Creneau creneau) {
+        parTable.computeIfAbsent(creneau.tableId, id -> new TreeSet<>(ORDRE_DEBUT)).add(creneau);
+        parReservation.put(creneau.reservationId, creneau);
+        dureeMax = Math.max(dureeMax, creneau.fin - creneau.debut);
+    }
+
+    private void retirerDeIndex(Long reservationId) {
+        Creneau ancien = parReservation.remove(reservationId);
+        if (ancien != null) {
+            NavigableSet<Creneau> creneaux = parTable.get(ancien.tableId);
+            creneaux.remove(ancien);
+            if (creneaux.isEmpty()) {
+                parTable.remove(ancien.tableId);
+            }
+        }
+    }
+
+    // --- Chargement ---
+
+    private void assurerCharge() {
+        if (charge) {
+            return;
+        }
+        long debut = System.currentTimeMillis();
+        // La veille incluse : un créneau tardif peut déborder sur aujourd'hui
+        LocalDate depuis = maintenant().toLocalDate().minusDays(1);
+        List<Object[]> lignes = lectureSeule.execute(statut -> reservationRepository.findCreneauxDepuis(depuis, STATUTS_ACTIFS));
+        for (Object[] ligne : lignes) {
+            ajouterAIndex(creneau((Long) ligne[0], (Long) ligne[1], (LocalDate) ligne[2], (LocalTime) ligne[3], (Integer) ligne[4]));
+        }
+        charge = true;
+        logger.info("Disponibilités chargées : {} créneau(x) sur {} table(s) en {} ms",
+                parReservation.size(), parTable.size(), System.currentTimeMillis() - debut);
+    }
+
+    private Creneau creneau(Long reservationId, Long tableId, LocalDate date, LocalTime heure, Integer dureeMinutes) {
+        long debut = enMinutes(LocalDateTime.of(date, heure));
+        return new Creneau(reservationId, tableId, debut, debut + dureeEffective(dureeMinutes));
+    }
+
+    protected LocalDateTime maintenant() {
+        return LocalDateTime.now();
+    }
+
+    private static long enMinutes(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime enDate(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    // Intervalle [debut, fin) en minutes, immuable
+    private static final class Creneau {
+        private final Long reservationId;
+        private final Long tableId;
+        private final long debut;
+        private final long fin;
+
+        private Creneau(Long reservationId, Long tableId, long debut, long fin) {
+            this.reservationId = reservationId;
+            this.tableId = tableId;
+            this.debut = debut;
+            this.fin = fin;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.EvenementCommandeDto;
+import com.example.BackendProject.dto.LigneCommandeDto;
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.utils.TypeEvenementCommande;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Émet les deltas de commande versionnés vers la cuisine et l'addition du serveur.
+ * <p>
+ * La séquence est propre à chaque commande et n'est attribuée qu'à la mise en file (après commit),
+ * si bien que l'ordre des numéros est celui de la diffusion. Les séquences sont en mémoire, dans un cache
+ * borné ({@code app.commandes.sequences.taille-max}) dont les entrées expirent après
+ * {@code app.commandes.sequences.expiration-minutes} sans événement : une commande encore active ne voit
+ * jamais sa séquence repartir, quel que soit son statut. Après un redémarrage ou une expiration, la séquence
+ * repart à 1 et les clients se resynchronisent.
+ * Chaque événement est aussi appliqué à la projection {@link TableauCuisineService}.
+ */
+@Service
+public class EvenementsCommandeService {
+
+    public static final String TOPIC_CUISINE = "/topic/cuisine/commandes";
+    public static final String TOPIC_ADDITION = "/topic/serveurs/addition/";
+
+    private final DiffusionWebSocketService diffusionWebSocketService;
+    private final TableauCuisineService tableauCuisineService;
+    private final Cache<Long, AtomicLong> sequences;
+
+    public EvenementsCommandeService(DiffusionWebSocketService diffusionWebSocketService,
+                                     TableauCuisineService tableauCuisineService,
+                                     @Value("${app.commandes.sequences.taille-max:10000}") long tailleMax,
+                                     @Value("${app.commandes.sequences.expiration-minutes:720}") long expirationMinutes) {
+        this.diffusionWebSocketService = diffusionWebSocketService;
+        this.tableauCuisineService = tableauCuisineService;
+        this.sequences = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfterAccess(Duration.ofMinutes(expirationMinutes))
+                .build();
+    }
+
+    public void commandeCreee(CommandeDto commandeDto) {
+        EvenementCommandeDto evenement = new EvenementCommandeDto(TypeEvenementCommande.COMMANDE_CREEE, commandeDto.getId());
+        evenement.setStatut(commandeDto.getStatut());
+        evenement.setTotalHt(commandeDto.getTotalHt());
+        evenement.setTotalTtc(commandeDto.getTotalTtc());
+        evenement.setCommande(commandeDto);
+        publier(evenement);
+    }
+
+    public void ligneAjoutee(Commande commande, LigneCommandeDto ligne) {
+        publier(avecLigne(TypeEvenementCommande.LIGNE_AJOUTEE, commande, ligne));
+    }
+
+    public void ligneModifiee(Commande commande, LigneCommandeDto ligne) {
+        publier(avecLigne(TypeEvenementCommande.LIGNE_MODIFIEE, commande, ligne));
+    }
+
+    public void quantiteModifiee(Commande commande, LigneCommandeDto ligne) {
+        publier(avecLigne(TypeEvenementCommande.QUANTITE_MODIFIEE, commande, ligne));
+    }
+
+    public void ligneSupprimee(Commande commande, Long ligneId) {
+        EvenementCommandeDto evenement = avecTotaux(TypeEvenementCommande.LIGNE_SUPPRIMEE, commande);
+        evenement.setLigneId(ligneId);
+        publier(evenement);
+    }
+
+    public void lignesVidees(Commande commande) {
+        publier(avecTotaux(TypeEvenementCommande.LIGNES_VIDEES, commande));
+    }
+
+    public void totauxModifies(Commande commande) {
+        publier(avecTotaux(TypeEvenementCommande.TOTAUX_MODIFIES, commande));
+    }
+
+    public void statutModifie(Commande commande) {
+        EvenementCommandeDto evenement = avecTotaux(TypeEvenementCommande.STATUT_MODIFIE, commande);
+        evenement.setStatut(commande.getStatut());
+        publier(evenement);
+    }
+
+    public void commandeSupprimee(Long commandeId) {
+        publier(new EvenementCommandeDto(TypeEvenementCommande.COMMANDE_SUPPRIMEE, commandeId));
+    }
+
+    /**
+     * Dernière séquence diffusée pour la commande (0 si aucune).
+     */
+    public long sequenceCourante(Long commandeId) {
+        AtomicLong sequence = sequences.getIfPresent(commandeId);
+        return sequence != null ? sequence.get() : 0L;
+    }
+
+    private void publier(EvenementCommandeDto evenement) {
+        Long commandeId = evenement.getCommandeId();
+        diffusionWebSocketService.publierEvenement(List.of(TOPIC_CUISINE, TOPIC_ADDITION + commandeId), () -> {
+            evenement.setSequence(sequences.get(commandeId, id -> new AtomicLong()).incrementAndGet());
+            // Même ordre que la diffusion : le tableau cuisine reste cohérent avec les écrans
+            tableauCuisineService.appliquer(evenement);
+            return evenement;
+        });
+    }
+
+    private static EvenementCommandeDto avecLigne(TypeEvenementCommande type, Commande commande, LigneCommandeDto ligne) {
+        EvenementCommandeDto evenement = avecTotaux(type, commande);
+        evenement.setLigne(ligne);
+        return evenement;
+    }
+
+    private static EvenementCommandeDto avecTotaux(TypeEvenementCommande type, Commande commande) {
+        EvenementCommandeDto evenement = new EvenementCommandeDto(type, commande.getId());
+        evenement.setTotalHt(commande.getTotalHt());
+        evenement.setTotalTtc(commande.getTotalTtc());
+        return evenement;
+    }
+}
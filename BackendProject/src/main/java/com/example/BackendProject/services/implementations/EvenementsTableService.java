@@ -0,0 +1,68 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.EvenementTableDto;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.utils.StatutTable;
+import com.example.BackendProject.utils.TypeEvenementTable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Émet les changements d'état des tables vers les plans de salle ({@value #TOPIC_TABLES}).
+ * <p>
+ * La séquence est globale à la salle et attribuée à la mise en file (après commit). Chaque événement est
+ * appliqué à {@link PlanSalleIndex} avant que sa séquence ne devienne visible : un instantané lu avec la
+ * séquence S contient donc tous les événements jusqu'à S. Séquence en mémoire : elle repart de 1 au redémarrage.
+ */
+@Service
+public class EvenementsTableService {
+
+    public static final String TOPIC_TABLES = "/topic/salle/tables";
+
+    private final DiffusionWebSocketService diffusionWebSocketService;
+    private final PlanSalleIndex planSalleIndex;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public EvenementsTableService(DiffusionWebSocketService diffusionWebSocketService, PlanSalleIndex planSalleIndex) {
+        this.diffusionWebSocketService = diffusionWebSocketService;
+        this.planSalleIndex = planSalleIndex;
+    }
+
+    public void tableEnregistree(TableRestaurant table) {
+        EvenementTableDto evenement = new EvenementTableDto(TypeEvenementTable.TABLE_ENREGISTREE, table.getId());
+        evenement.setZoneId(table.getZone() != null ? table.getZone().getId() : null);
+        evenement.setNumero(table.getNumero());
+        evenement.setCapacite(table.getCapacite());
+        evenement.setStatut(table.getStatut());
+        publier(evenement);
+    }
+
+    public void statutModifie(Long tableId, StatutTable statut) {
+        EvenementTableDto evenement = new EvenementTableDto(TypeEvenementTable.STATUT_MODIFIE, tableId);
+        evenement.setStatut(statut);
+        publier(evenement);
+    }
+
+    public void tableSupprimee(Long tableId) {
+        publier(new EvenementTableDto(TypeEvenementTable.TABLE_SUPPRIMEE, tableId));
+    }
+
+    /**
+     * Dernière séquence diffusée (0 si aucune).
+     */
+    public long sequenceCourante() {
+        return sequence.get();
+    }
+
+    private void publier(EvenementTableDto evenement) {
+        diffusionWebSocketService.publierEvenement(List.of(TOPIC_TABLES), () -> {
+            // Sous le verrou de la file : une seule mise en file à la fois
+            evenement.setSequence(sequence.get() + 1);
+            planSalleIndex.appliquer(evenement);
+            sequence.set(evenement.getSequence());
+            return evenement;
+        });
+    }
+}
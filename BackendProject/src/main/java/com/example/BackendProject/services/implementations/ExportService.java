@@ -0,0 +1,182 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.repository.ExportRepository;
+import com.example.BackendProject.utils.FormatExport;
+import com.example.BackendProject.utils.LoggingUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export des historiques (commandes, paiements, mouvements de stock) en NDJSON ou en CSV gzippé.
+ * <p>
+ * Les lignes sont lues par paquets sur le pool dédié aux exports ({@link ExportRepository}) et écrites au fil de l'eau
+ * dans le flux de sortie : aucune liste intermédiaire n'est construite, la mémoire utilisée ne dépend pas de la
+ * période exportée.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    public static final String[] COLONNES_COMMANDES = {
+            "id", "dateHeureCommande", "statut", "typeCommande", "table", "serveurId", "nombrePersonnes", "totalHt", "totalTtc"};
+    public static final String[] COLONNES_PAIEMENTS = {
+            "id", "commandeId", "datePaiement", "typePaiement", "montant", "referenceTransaction"};
+    public static final String[] COLONNES_MOUVEMENTS_STOCK = {
+            "id", "dateMouvement", "ingredientId", "ingredient", "typeMouvement", "quantite", "uniteMesure", "raison"};
+
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(ExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public long exporterCommandes(Timestamp debut, Timestamp fin, FormatExport format, OutputStream sortie) throws IOException {
+        try (Stream<Object[]> lignes = exportRepository.commandesEntre(debut, fin)) {
+            return ecrire("commandes", COLONNES_COMMANDES, lignes, format, sortie);
+        }
+    }
+
+    public long exporterPaiements(Timestamp debut, Timestamp fin, FormatExport format, OutputStream sortie) throws IOException {
+        try (Stream<Object[]> lignes = exportRepository.paiementsEntre(debut, fin)) {
+            return ecrire("paiements", COLONNES_PAIEMENTS, lignes, format, sortie);
+        }
+    }
+
+    public long exporterMouvementsStock(Timestamp debut, Timestamp fin, FormatExport format, OutputStream sortie) throws IOException {
+        try (Stream<Object[]> lignes = exportRepository.mouvementsStockEntre(debut, fin)) {
+            return ecrire("mouvements de stock", COLONNES_MOUVEMENTS_STOCK, lignes, format, sortie);
+        }
+    }
+
+    private long ecrire(String nom, String[] colonnes, Stream<Object[]> lignes, FormatExport format,
+                        OutputStream sortie) throws IOException {
+        String context = LoggingUtils.getLogContext();
+        long debutExport = System.currentTimeMillis();
+
+        long nombre = format == FormatExport.CSV
+                ? ecrireCsvGzip(colonnes, lignes.iterator(), sortie)
+                : ecrireNdjson(colonnes, lignes.iterator(), sortie);
+
+        logger.info("{} Export {} ({}) terminé : {} ligne(s) en {} ms",
+                context, nom, format, nombre, System.currentTimeMillis() - debutExport);
+        return nombre;
+    }
+
+    private long ecrireNdjson(String[] colonnes, Iterator<Object[]> lignes, OutputStream sortie) throws IOException {
+        long nombre = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(sortie)) {
+            // Un objet par ligne ; le flux de sortie est fermé par le conteneur, pas par le générateur
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(new SerializedString("\n"));
+            while (lignes.hasNext()) {
+                Object[] ligne = lignes.next();
+                json.writeStartObject();
+                for (int i = 0; i < colonnes.length; i++) {
+                    json.writeFieldName(colonnes[i]);
+                    ecrireValeurJson(json, ligne[i]);
+                }
+                json.writeEndObject();
+                nombre++;
+            }
+            if (nombre > 0) {
+                json.writeRaw('\n');
+            }
+        }
+        return nombre;
+    }
+
+    private static void ecrireValeurJson(JsonGenerator json, Object valeur) throws IOException {
+        if (valeur == null) {
+            json.writeNull();
+        } else if (valeur instanceof BigDecimal montant) {
+            json.writeNumber(montant);
+        } else if (valeur instanceof Long || valeur instanceof Integer) {
+            json.writeNumber(((Number) valeur).longValue());
+        } else {
+            json.writeString(texte(valeur));
+        }
+    }
+
+    private long ecrireCsvGzip(String[] colonnes, Iterator<Object[]> lignes, OutputStream sortie) throws IOException {
+        long nombre = 0;
+        GZIPOutputStream gzip = new GZIPOutputStream(new NonFermant(sortie), 64 * 1024);
+        try (Writer csv = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024)) {
+            csv.write(String.join(";", colonnes));
+            csv.write("\r\n");
+            while (lignes.hasNext()) {
+                Object[] ligne = lignes.next();
+                for (int i = 0; i < colonnes.length; i++) {
+                    if (i > 0) {
+                        csv.write(';');
+                    }
+                    csv.write(champCsv(ligne[i]));
+                }
+                csv.write("\r\n");
+                nombre++;
+            }
+        }
+        return nombre;
+    }
+
+    // Séparateur ";" (tableurs en locale française) ; guillemets doublés si nécessaire
+    private static String champCsv(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        String texte = texte(valeur);
+        if (texte.indexOf(';') >= 0 || texte.indexOf('"') >= 0 || texte.indexOf('\n') >= 0 || texte.indexOf('\r') >= 0) {
+            return '"' + texte.replace("\"", "\"\"") + '"';
+        }
+        return texte;
+    }
+
+    private static String texte(Object valeur) {
+        if (valeur instanceof Timestamp date) {
+            return date.toLocalDateTime().toString();
+        }
+        if (valeur instanceof BigDecimal montant) {
+            return montant.toPlainString();
+        }
+        if (valeur instanceof Enum<?> constante) {
+            return constante.name();
+        }
+        return valeur.toString();
+    }
+
+    // Laisse le flux HTTP ouvert quand le GZIP se termine (le conteneur le ferme lui-même)
+    private static final class NonFermant extends FilterOutputStream {
+        private NonFermant(OutputStream sortie) {
+            super(sortie);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
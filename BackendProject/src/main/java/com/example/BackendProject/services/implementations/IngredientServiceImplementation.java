@@ -2,16 +2,14 @@ package com.example.BackendProject.services.implementations;
 
 import com.example.BackendProject.dto.IngredientDto;
 import com.example.BackendProject.entities.Ingredient;
-import com.example.BackendProject.entities.Recette;
-import com.example.BackendProject.entities.RecetteItem;
 import com.example.BackendProject.mappers.IngredientMapper;
 import com.example.BackendProject.repository.IngredientRepository;
-import com.example.BackendProject.repository.RecetteRepository;
 import com.example.BackendProject.services.interfaces.IngredientServiceInterface;
 import com.example.BackendProject.utils.LoggingUtils;
+import com.example.BackendProject.utils.OrigineMouvementStock;
+import com.example.BackendProject.utils.TypeElementCatalogue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +17,9 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,41 +29,26 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
     private static final Logger logger = LoggerFactory.getLogger(IngredientServiceImplementation.class);
     private final IngredientMapper ingredientMapper;
     private final IngredientRepository ingredientRepository;
-    private final RecetteRepository recetteRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NomenclaturePlatCache nomenclaturePlatCache;
+    private final StockAlerteService stockAlerteService;
+    private final RechercheCatalogueIndex rechercheCatalogueIndex;
+    private final PortionsRestantesService portionsRestantesService;
+    private final JournalStockService journalStockService;
 
     public IngredientServiceImplementation(IngredientMapper ingredientMapper,
                                            IngredientRepository ingredientRepository,
-                                           RecetteRepository recetteRepository,
-                                           SimpMessagingTemplate messagingTemplate) {
+                                           NomenclaturePlatCache nomenclaturePlatCache,
+                                           StockAlerteService stockAlerteService,
+                                           RechercheCatalogueIndex rechercheCatalogueIndex,
+                                           PortionsRestantesService portionsRestantesService,
+                                           JournalStockService journalStockService) {
         this.ingredientMapper = ingredientMapper;
         this.ingredientRepository = ingredientRepository;
-        this.recetteRepository = recetteRepository;
-        this.messagingTemplate = messagingTemplate;
-    }
-
-    /**
-     * LOGIQUE TEMPS RÉEL : Vérifie le seuil et envoie une alerte WebSocket
-     */
-    private void verifierEtAlerter(Ingredient ingredient) {
-        String context = LoggingUtils.getLogContext();
-        if (ingredient.getQuantiteActuelle().compareTo(ingredient.getSeuilAlerte()) <= 0) {
-            
-            Map<String, Object> alerte = new HashMap<>();
-            alerte.put("id", ingredient.getId());
-            alerte.put("nom", ingredient.getNom());
-            alerte.put("quantite", ingredient.getQuantiteActuelle());
-            alerte.put("unite", ingredient.getUniteMesure());
-
-            String status = ingredient.getQuantiteActuelle().compareTo(BigDecimal.ZERO) <= 0 ? "RUPTURE" : "FAIBLE";
-            alerte.put("status", status);
-            alerte.put("message", "Attention : Stock " + status + " pour " + ingredient.getNom());
-
-            logger.warn("{} ALERTE STOCK - Ingrédient: {}, Statut: {}, Quantité: {}", 
-                        context, ingredient.getNom(), status, ingredient.getQuantiteActuelle());
-
-            messagingTemplate.convertAndSend("/topic/stock/alertes", (Object) alerte);
-        }
+        this.nomenclaturePlatCache = nomenclaturePlatCache;
+        this.stockAlerteService = stockAlerteService;
+        this.rechercheCatalogueIndex = rechercheCatalogueIndex;
+        this.portionsRestantesService = portionsRestantesService;
+        this.journalStockService = journalStockService;
     }
 
     @Override
@@ -85,9 +71,12 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
         if (ingredient.getSeuilAlerte() == null) ingredient.setSeuilAlerte(BigDecimal.ZERO);
 
         Ingredient savedIngredient = ingredientRepository.save(ingredient);
+        rechercheCatalogueIndex.ingredientEnregistre(savedIngredient);
+        portionsRestantesService.stockDefini(savedIngredient.getId(), savedIngredient.getQuantiteActuelle());
+        journalStockService.enregistrer(savedIngredient.getId(), savedIngredient.getQuantiteActuelle(), OrigineMouvementStock.OUVERTURE);
         logger.info("{} Ingrédient sauvegardé avec succès ID: {}", context, savedIngredient.getId());
 
-        verifierEtAlerter(savedIngredient);
+        stockAlerteService.evaluer(savedIngredient);
         return ingredientMapper.toDto(savedIngredient);
     }
 
@@ -96,12 +85,15 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
         String context = LoggingUtils.getLogContext();
         logger.info("{} Mise à jour de l'ingrédient ID: {}", context, id);
 
-        Ingredient ingredient = ingredientRepository.findById(id)
+        // Lecture verrouillée : l'écart journalisé et la quantité écrite partent du stock réel
+        Ingredient ingredient = ingredientRepository.findByIdPourMiseAJour(id)
                 .orElseThrow(() -> {
                     logger.error("{} Ingrédient non trouvé ID: {}", context, id);
                     return new RuntimeException("Ingrédient non trouvé avec l'ID : " + id);
                 });
 
+        BigDecimal ancienneQuantite = ingredient.getQuantiteActuelle() != null ? ingredient.getQuantiteActuelle() : BigDecimal.ZERO;
+
         // Mise à jour logique avec logs
         if (ingredientDto.getNom() != null && !ingredientDto.getNom().trim().isEmpty()) {
             ingredient.setNom(ingredientDto.getNom());
@@ -116,9 +108,16 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
         }
 
         Ingredient updatedIngredient = ingredientRepository.save(ingredient);
+        rechercheCatalogueIndex.ingredientEnregistre(updatedIngredient);
+        if (ingredientDto.getQuantiteActuelle() != null) {
+            portionsRestantesService.stockDefini(updatedIngredient.getId(), updatedIngredient.getQuantiteActuelle());
+            // Quantité saisie à l'inventaire : le journal enregistre l'écart
+            journalStockService.enregistrer(updatedIngredient.getId(),
+                    updatedIngredient.getQuantiteActuelle().subtract(ancienneQuantite), OrigineMouvementStock.INVENTAIRE);
+        }
         logger.info("{} Mise à jour réussie pour l'ingrédient: {}", context, updatedIngredient.getNom());
 
-        verifierEtAlerter(updatedIngredient);
+        stockAlerteService.evaluer(updatedIngredient);
         return ingredientMapper.toDto(updatedIngredient);
     }
 
@@ -127,13 +126,19 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
         String context = LoggingUtils.getLogContext();
         logger.info("{} Ajout de stock - ID: {}, Quantité: +{}", context, id, quantite);
 
-        Ingredient ingredient = ingredientRepository.findById(id)
+        // Incrément atomique en base (pas de lecture-calcul-écriture côté Java)
+        if (ingredientRepository.incrementerStock(id, quantite) == 0) {
+            throw new RuntimeException("Ingrédient non trouvé");
+        }
+
+        portionsRestantesService.stockAjuste(Map.of(id, quantite));
+        journalStockService.enregistrer(id, quantite, OrigineMouvementStock.AJOUT_MANUEL);
+        Ingredient updated = ingredientRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ingrédient non trouvé"));
 
-        ingredient.setQuantiteActuelle(ingredient.getQuantiteActuelle().add(quantite));
-        Ingredient updated = ingredientRepository.save(ingredient);
-        
         logger.info("{} Nouveau stock pour {}: {}", context, updated.getNom(), updated.getQuantiteActuelle());
+        // Un réapprovisionnement peut réarmer une alerte
+        stockAlerteService.evaluer(updated);
         return ingredientMapper.toDto(updated);
     }
 
@@ -142,21 +147,21 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
         String context = LoggingUtils.getLogContext();
         logger.info("{} Retrait de stock - ID: {}, Quantité: -{}", context, id, quantite);
 
-        Ingredient ingredient = ingredientRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Ingrédient non trouvé"));
-
-        BigDecimal nouvelleQuantite = ingredient.getQuantiteActuelle().subtract(quantite);
-
-        if (nouvelleQuantite.compareTo(BigDecimal.ZERO) < 0) {
-            logger.error("{} Stock insuffisant pour {}. Actuel: {}, Demandé: {}", 
+        // Décrément atomique conditionnel : le contrôle de stock suffisant est fait par la base
+        if (ingredientRepository.decrementerStock(id, quantite) == 0) {
+            Ingredient ingredient = ingredientRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Ingrédient non trouvé"));
+            logger.error("{} Stock insuffisant pour {}. Actuel: {}, Demandé: {}",
                          context, ingredient.getNom(), ingredient.getQuantiteActuelle(), quantite);
             throw new RuntimeException("Stock insuffisant pour " + ingredient.getNom());
         }
+        portionsRestantesService.stockAjuste(Map.of(id, quantite.negate()));
+        journalStockService.enregistrer(id, quantite.negate(), OrigineMouvementStock.RETRAIT_MANUEL);
 
-        ingredient.setQuantiteActuelle(nouvelleQuantite);
-        Ingredient updatedIngredient = ingredientRepository.save(ingredient);
+        Ingredient updatedIngredient = ingredientRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Ingrédient non trouvé"));
 
-        verifierEtAlerter(updatedIngredient);
+        stockAlerteService.evaluer(updatedIngredient);
         return ingredientMapper.toDto(updatedIngredient);
     }
 
@@ -173,12 +178,21 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
     public void delete(Long id) {
         String context = LoggingUtils.getLogContext();
         logger.warn("{} Suppression de l'ingrédient ID: {}", context, id);
-        
-        if (!ingredientRepository.existsById(id)) {
-            logger.error("{} Échec suppression: ID {} inexistant", context, id);
-            throw new RuntimeException("Ingrédient non trouvé");
+
+        // Ligne verrouillée : aucun mouvement concurrent ne peut changer le solde à clôturer
+        Ingredient ingredient = ingredientRepository.findByIdPourMiseAJour(id)
+                .orElseThrow(() -> {
+                    logger.error("{} Échec suppression: ID {} inexistant", context, id);
+                    return new RuntimeException("Ingrédient non trouvé");
+                });
+        if (ingredient.getQuantiteActuelle() != null) {
+            // Le journal survit à l'ingrédient : son solde doit y revenir à zéro
+            journalStockService.enregistrer(id, ingredient.getQuantiteActuelle().negate(), OrigineMouvementStock.CLOTURE);
         }
-        ingredientRepository.deleteById(id);
+        ingredientRepository.delete(ingredient);
+        rechercheCatalogueIndex.ingredientSupprime(id);
+        stockAlerteService.oublier(id);
+        portionsRestantesService.stockDefini(id, BigDecimal.ZERO);
         logger.info("{} Ingrédient ID: {} supprimé", context, id);
     }
 
@@ -200,8 +214,19 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
 
     @Override
     public List<IngredientDto> search(String keyword) {
-        return ingredientRepository.findByNomContainingIgnoreCase(keyword).stream()
-                .map(ingredientMapper::toDto).collect(Collectors.toList());
+        // Même sens que le LIKE '%terme%' d'origine (accents en plus), résolu sur l'index en mémoire puis chargé
+        // par clé primaire ; la recherche classée par pertinence reste sur /api/recherche
+        List<Long> ids = rechercheCatalogueIndex.contenant(keyword, TypeElementCatalogue.INGREDIENT);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Ingredient> parId = ingredientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Ingredient::getId, ingredient -> ingredient));
+        return ids.stream()
+                .map(parId::get)
+                .filter(Objects::nonNull)
+                .map(ingredientMapper::toDto)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -213,54 +238,92 @@ public class IngredientServiceImplementation implements IngredientServiceInterfa
     @Override
     public IngredientDto updateSeuilAlerte(Long id, BigDecimal nouveauSeuil) {
         String context = LoggingUtils.getLogContext();
-        Ingredient ingredient = ingredientRepository.findById(id).orElseThrow(() -> new RuntimeException("Non trouvé"));
+        // L'entité entière est réécrite : verrouillée pour ne pas écraser un débit concurrent
+        Ingredient ingredient = ingredientRepository.findByIdPourMiseAJour(id).orElseThrow(() -> new RuntimeException("Non trouvé"));
         ingredient.setSeuilAlerte(nouveauSeuil);
         Ingredient updated = ingredientRepository.save(ingredient);
         logger.info("{} Nouveau seuil d'alerte pour {}: {}", context, updated.getNom(), nouveauSeuil);
-        verifierEtAlerter(updated);
+        stockAlerteService.evaluer(updated);
         return ingredientMapper.toDto(updated);
     }
     
     @Override
     public void deduireStockPourPlat(Long platId, Integer nombreDePlats) {
+        deduireStockEnLot(Map.of(platId, nombreDePlats));
+    }
+
+    @Override
+    public void restaurerStockPourPlat(Long platId, Integer nombreDePlats) {
+        restaurerStockEnLot(Map.of(platId, nombreDePlats));
+    }
+
+    @Override
+    public void deduireStockEnLot(Map<Long, Integer> portionsParPlat) {
         String context = LoggingUtils.getLogContext();
-        logger.info("{} Déduction de stock pour Plat ID: {} (x{})", context, platId, nombreDePlats);
+        logger.info("{} Déduction de stock en lot pour les plats: {}", context, portionsParPlat);
 
-        List<Recette> recettes = recetteRepository.findByPlatId(platId);
-        if (recettes.isEmpty()) {
-            logger.warn("{} Pas de recette trouvée pour le plat ID: {}. Aucun stock déduit.", context, platId);
+        Map<Long, BigDecimal> besoins = calculerBesoins(portionsParPlat);
+        if (besoins.isEmpty()) {
+            logger.warn("{} Pas de recette trouvée pour les plats {}. Aucun stock déduit.", context, portionsParPlat.keySet());
             return;
         }
 
-        // On prend la première recette trouvée (par défaut)
-        Recette recette = recettes.get(0);
-        
-        for (RecetteItem item : recette.getItems()) {
-            BigDecimal quantiteRequise = item.getQuantiteRequise().multiply(new BigDecimal(nombreDePlats));
-            
-            // Appel interne à retirerQuantite pour gérer la logique de retrait et alerte
-            try {
-                this.retirerQuantite(item.getIngredient().getId(), quantiteRequise);
-                logger.info("{} Déduit {} {} de {}", context, quantiteRequise, item.getIngredient().getUniteMesure(), item.getIngredient().getNom());
-            } catch (Exception e) {
-                logger.error("{} Erreur deduction ingrédient {} : {}", context, item.getIngredient().getNom(), e.getMessage());
-                // On continue pour les autres ingrédients même si un échoue (ou on pourrait throw)
+        Set<Long> debites = ingredientRepository.retirerStockEnLot(besoins);
+        Map<Long, BigDecimal> variations = new HashMap<>();
+        besoins.forEach((ingredientId, quantite) -> {
+            if (debites.contains(ingredientId)) {
+                variations.put(ingredientId, quantite.negate());
+            } else {
+                // On continue pour les autres ingrédients même si un échoue
+                logger.error("{} Stock insuffisant pour l'ingrédient ID: {}. Demandé: {}", context, ingredientId, quantite);
             }
+        });
+        portionsRestantesService.stockAjuste(variations);
+        journalStockService.enregistrer(variations, OrigineMouvementStock.COMMANDE);
+
+        // Évaluation des alertes uniquement sur les lignes modifiées ; seules les transitions sont diffusées
+        if (!debites.isEmpty()) {
+            ingredientRepository.findAllById(debites).forEach(stockAlerteService::evaluer);
         }
+        logger.info("{} {} ingrédient(s) déduit(s) sur {} requis", context, debites.size(), besoins.size());
     }
 
     @Override
-    public void restaurerStockPourPlat(Long platId, Integer nombreDePlats) {
+    public void restaurerStockEnLot(Map<Long, Integer> portionsParPlat) {
         String context = LoggingUtils.getLogContext();
-        logger.info("{} Restauration de stock pour Plat ID: {} (x{})", context, platId, nombreDePlats);
-
-        List<Recette> recettes = recetteRepository.findByPlatId(platId);
-        if (recettes.isEmpty()) return;
+        logger.info("{} Restauration de stock en lot pour les plats: {}", context, portionsParPlat);
+
+        Map<Long, BigDecimal> besoins = calculerBesoins(portionsParPlat);
+        if (besoins.isEmpty()) return;
+
+        ingredientRepository.ajouterStockEnLot(besoins);
+        portionsRestantesService.stockAjuste(besoins);
+        journalStockService.enregistrer(besoins, OrigineMouvementStock.ANNULATION);
+        // Seuls les ingrédients déjà en alerte peuvent changer d'état en remontant
+        List<Long> enAlerte = stockAlerteService.filtrerEnAlerte(besoins.keySet());
+        if (!enAlerte.isEmpty()) {
+            ingredientRepository.findAllById(enAlerte).forEach(stockAlerteService::evaluer);
+        }
+        logger.info("{} {} ingrédient(s) restauré(s)", context, besoins.size());
+    }
 
-        Recette recette = recettes.get(0);
-        for (RecetteItem item : recette.getItems()) {
-            BigDecimal quantiteARendre = item.getQuantiteRequise().multiply(new BigDecimal(nombreDePlats));
-            this.ajouterQuantite(item.getIngredient().getId(), quantiteARendre);
+    /**
+     * Cumule les quantités requises par ingrédient pour l'ensemble des portions demandées.
+     * Les nomenclatures viennent du cache en mémoire : aucune requête sur les recettes.
+     */
+    private Map<Long, BigDecimal> calculerBesoins(Map<Long, Integer> portionsParPlat) {
+        Map<Long, BigDecimal> besoins = new TreeMap<>();
+        if (portionsParPlat == null || portionsParPlat.isEmpty()) {
+            return besoins;
         }
+
+        portionsParPlat.forEach((platId, portions) -> {
+            NomenclaturePlatCache.Nomenclature nomenclature = nomenclaturePlatCache.nomenclature(platId);
+            BigDecimal nombre = new BigDecimal(portions);
+            for (int i = 0; i < nomenclature.taille(); i++) {
+                besoins.merge(nomenclature.ingredientId(i), nomenclature.quantiteParPortion(i).multiply(nombre), BigDecimal::add);
+            }
+        });
+        return besoins;
     }
-}
\ No newline at end of file
+}
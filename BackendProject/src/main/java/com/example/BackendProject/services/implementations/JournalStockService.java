@@ -0,0 +1,233 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.BilanStockDto;
+import com.example.BackendProject.entities.EcritureStock;
+import com.example.BackendProject.entities.SoldeStock;
+import com.example.BackendProject.repository.EcritureStockRepository;
+import com.example.BackendProject.repository.SoldeStockRepository;
+import com.example.BackendProject.utils.OrigineMouvementStock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Journal de stock en ajout seul : chaque variation de quantité d'un ingrédient y est écrite, datée et signée,
+ * et n'est jamais modifiée ni supprimée.
+ * <p>
+ * Les écritures d'une transaction sont regroupées, datées et insérées en un lot juste avant son commit : elles
+ * sont validées ou annulées avec la variation de stock qu'elles décrivent. Un cliché des soldes est pris
+ * périodiquement ({@code app.stock.journal.cliche-cron}) ; le solde à un instant T se lit alors comme le cliché
+ * le plus proche avant T plus la somme des écritures qui le suivent, sans rejouer tout l'historique.
+ */
+@Service
+public class JournalStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalStockService.class);
+
+    private static final Timestamp ORIGINE = new Timestamp(0L);
+
+    private final EcritureStockRepository ecritureStockRepository;
+    private final SoldeStockRepository soldeStockRepository;
+    private final long margeMillis;
+
+    // Clé du tampon d'écritures de la transaction en cours
+    private final Object cleTampon = new Object();
+
+    public JournalStockService(EcritureStockRepository ecritureStockRepository,
+                               SoldeStockRepository soldeStockRepository,
+                               @Value("${app.stock.journal.marge-secondes:60}") long margeSecondes) {
+        this.ecritureStockRepository = ecritureStockRepository;
+        this.soldeStockRepository = soldeStockRepository;
+        this.margeMillis = margeSecondes * 1000L;
+    }
+
+    // --- Écritures ---
+
+    public void enregistrer(Long ingredientId, BigDecimal variation, OrigineMouvementStock origine) {
+        enregistrer(Map.of(ingredientId, variation), origine);
+    }
+
+    /**
+     * Journalise des variations signées, par ingrédient. Les variations nulles sont ignorées, sauf à
+     * l'ouverture d'un compte. Dans une transaction, l'insertion est différée jusqu'à son commit.
+     */
+    public void enregistrer(Map<Long, BigDecimal> variations, OrigineMouvementStock origine) {
+        List<EcritureStock> ecritures = new ArrayList<>();
+        variations.forEach((ingredientId, variation) -> {
+            if (variation != null && (variation.signum() != 0 || origine == OrigineMouvementStock.OUVERTURE)) {
+                ecritures.add(new EcritureStock(ingredientId, variation, origine, null));
+            }
+        });
+        if (ecritures.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            tampon().addAll(ecritures);
+        } else {
+            inserer(ecritures);
+        }
+    }
+
+    // Datées à l'insertion, c'est-à-dire au commit et non à l'enregistrement : une transaction longue ne peut
+    // pas écrire dans une période qu'un cliché a déjà figée
+    private void inserer(List<EcritureStock> ecritures) {
+        Timestamp date = maintenant();
+        List<EcritureStock> datees = new ArrayList<>(ecritures.size());
+        for (EcritureStock ecriture : ecritures) {
+            datees.add(new EcritureStock(ecriture.getIngredientId(), ecriture.getVariation(), ecriture.getOrigine(), date));
+        }
+        ecritureStockRepository.insererEnLot(datees);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EcritureStock> tampon() {
+        List<EcritureStock> tampon = (List<EcritureStock>) TransactionSynchronizationManager.getResource(cleTampon);
+        if (tampon != null) {
+            return tampon;
+        }
+
+        List<EcritureStock> nouveau = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(cleTampon, nouveau);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Dans la transaction : le journal est commité avec le stock, ou pas du tout
+                inserer(nouveau);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(cleTampon);
+            }
+        });
+        return nouveau;
+    }
+
+    /**
+     * Ouvre le compte des ingrédients créés avant le journal : l'écriture d'ouverture complète les écritures
+     * déjà passées pour retrouver la quantité actuelle.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void ouvrirComptes() {
+        Timestamp date = maintenant();
+        List<EcritureStock> ouvertures = new ArrayList<>();
+        for (Object[] ligne : ecritureStockRepository.findComptesNonOuverts()) {
+            BigDecimal ouverture = decimal(ligne[1]).subtract(decimal(ligne[2]));
+            ouvertures.add(new EcritureStock((Long) ligne[0], ouverture, OrigineMouvementStock.OUVERTURE, date));
+        }
+        if (!ouvertures.isEmpty()) {
+            ecritureStockRepository.insererEnLot(ouvertures);
+            logger.info("Journal de stock : {} compte(s) ouvert(s)", ouvertures.size());
+        }
+    }
+
+    // --- Clichés ---
+
+    /**
+     * Prend un cliché des soldes à {@code maintenant - marge} : la marge couvre le délai entre la datation des
+     * écritures (juste avant le commit) et le commit lui-même. Chaque cliché se déduit du précédent et des
+     * seules écritures de la période ; la table des clichés croît avec l'activité, pas avec le temps.
+     */
+    @Scheduled(cron = "${app.stock.journal.cliche-cron:0 0 * * * *}")
+    @Transactional
+    public void prendreCliche() {
+        ouvrirComptes();
+
+        Timestamp instant = new Timestamp(maintenant().getTime() - margeMillis);
+        Timestamp precedent = soldeStockRepository.findDerniereDateSolde();
+        if (precedent != null && !instant.after(precedent)) {
+            return;
+        }
+
+        // Seuls les ingrédients mouvementés sur la période reçoivent un cliché ; pour les autres, le dernier
+        // cliché reste le plus proche et la lecture d'un solde s'y reporte
+        Map<Long, BigDecimal[]> soldes = new HashMap<>();
+        for (Object[] ligne : ecritureStockRepository.sommerParIngredientEntre(precedent != null ? precedent : ORIGINE, instant)) {
+            soldes.put((Long) ligne[0], new BigDecimal[]{decimal(ligne[1]), decimal(ligne[2])});
+        }
+        if (soldes.isEmpty()) {
+            return;
+        }
+        // Point de départ de chacun : son dernier cliché, quelle que soit sa date, aucune écriture ne l'ayant suivi
+        for (SoldeStock solde : soldeStockRepository.findDerniersByIngredientIdIn(soldes.keySet())) {
+            BigDecimal[] cumul = soldes.get(solde.getIngredientId());
+            cumul[0] = cumul[0].add(solde.getSolde());
+            cumul[1] = cumul[1].add(solde.getSortiesCumulees());
+        }
+
+        List<SoldeStock> cliches = new ArrayList<>();
+        soldes.forEach((ingredientId, cumul) -> cliches.add(new SoldeStock(ingredientId, instant, cumul[0], cumul[1])));
+        soldeStockRepository.saveAll(cliches);
+        logger.info("Journal de stock : cliché de {} solde(s) au {}", cliches.size(), instant);
+    }
+
+    // --- Lectures ---
+
+    /**
+     * Solde d'un ingrédient à un instant donné.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal soldeA(Long ingredientId, Timestamp instant) {
+        return point(ingredientId, instant)[0];
+    }
+
+    /**
+     * Entrées, sorties et soldes d'un ingrédient sur ]debut, fin].
+     */
+    @Transactional(readOnly = true)
+    public BilanStockDto bilan(Long ingredientId, Timestamp debut, Timestamp fin) {
+        if (debut.after(fin)) {
+            throw new RuntimeException("Dates invalides : le début doit précéder la fin");
+        }
+        BigDecimal[] auDebut = point(ingredientId, debut);
+        BigDecimal[] aLaFin = point(ingredientId, fin);
+
+        BigDecimal sorties = aLaFin[1].subtract(auDebut[1]);
+        BigDecimal entrees = aLaFin[0].subtract(auDebut[0]).add(sorties);
+        return new BilanStockDto(ingredientId, debut, fin, auDebut[0], aLaFin[0], entrees, sorties);
+    }
+
+    // [solde, sorties cumulées] à l'instant : cliché le plus proche avant l'instant, plus la traîne d'écritures
+    private BigDecimal[] point(Long ingredientId, Timestamp instant) {
+        Optional<SoldeStock> cliche = soldeStockRepository
+                .findFirstByIngredientIdAndDateSoldeLessThanEqualOrderByDateSoldeDesc(ingredientId, instant);
+        Timestamp depuis = cliche.map(SoldeStock::getDateSolde).orElse(ORIGINE);
+
+        BigDecimal solde = cliche.map(SoldeStock::getSolde).orElse(BigDecimal.ZERO);
+        BigDecimal sorties = cliche.map(SoldeStock::getSortiesCumulees).orElse(BigDecimal.ZERO);
+        List<Object[]> traine = ecritureStockRepository.sommerEntre(ingredientId, depuis, instant);
+        if (!traine.isEmpty()) {
+            solde = solde.add(decimal(traine.get(0)[0]));
+            sorties = sorties.add(decimal(traine.get(0)[1]));
+        }
+        return new BigDecimal[]{solde, sorties};
+    }
+
+    private static BigDecimal decimal(Object valeur) {
+        if (valeur == null) {
+            return BigDecimal.ZERO;
+        }
+        return valeur instanceof BigDecimal decimal ? decimal : new BigDecimal(valeur.toString());
+    }
+
+    protected Timestamp maintenant() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
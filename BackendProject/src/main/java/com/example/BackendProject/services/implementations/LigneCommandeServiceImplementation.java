@@ -2,7 +2,6 @@ package com.example.BackendProject.services.implementations;
 
 import com.example.BackendProject.dto.CommandeDto;
 import com.example.BackendProject.dto.LigneCommandeDto;
-import com.example.BackendProject.dto.RestaurantDto;
 import com.example.BackendProject.entities.Commande;
 import com.example.BackendProject.entities.LigneCommande;
 import com.example.BackendProject.entities.Plat;
@@ -14,15 +13,17 @@ import com.example.BackendProject.repository.PlatRepository;
 import com.example.BackendProject.repository.PlatRepository;
 import com.example.BackendProject.services.interfaces.IngredientServiceInterface;
 import com.example.BackendProject.services.interfaces.LigneCommandeServiceInterface;
+import com.example.BackendProject.utils.CalculTotaux;
 import com.example.BackendProject.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,24 +36,29 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
     private final CommandeRepository commandeRepository;
     private final PlatRepository platRepository;
     private final CommandeMapper commandeMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final EvenementsCommandeService evenementsCommandeService;
     private final IngredientServiceInterface ingredientService;
-    private RestaurantDto restaurantDto;
+    private final AgregationVentesService agregationVentesService;
+    private final TauxTvaCache tauxTvaCache;
 
     public LigneCommandeServiceImplementation(LigneCommandeMapper ligneCommandeMapper,
                                               LigneCommandeRepository ligneCommandeRepository,
                                               CommandeRepository commandeRepository,
                                               PlatRepository platRepository,
                                               CommandeMapper commandeMapper,
-                                              SimpMessagingTemplate messagingTemplate,
-                                              IngredientServiceInterface ingredientService) {
+                                              EvenementsCommandeService evenementsCommandeService,
+                                              IngredientServiceInterface ingredientService,
+                                              AgregationVentesService agregationVentesService,
+                                              TauxTvaCache tauxTvaCache) {
         this.ligneCommandeMapper = ligneCommandeMapper;
         this.ligneCommandeRepository = ligneCommandeRepository;
         this.commandeRepository = commandeRepository;
         this.platRepository = platRepository;
         this.commandeMapper = commandeMapper;
-        this.messagingTemplate = messagingTemplate;
+        this.evenementsCommandeService = evenementsCommandeService;
         this.ingredientService = ingredientService;
+        this.agregationVentesService = agregationVentesService;
+        this.tauxTvaCache = tauxTvaCache;
     }
 
     @Override
@@ -79,7 +85,7 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
         Long commandeId = ligneCommandeDto.getCommande();
         Long platId = ligneCommandeDto.getPlat();
 
-        Commande commande = commandeRepository.findById(commandeId)
+        Commande commande = commandeRepository.findByIdPourMiseAJour(commandeId)
                 .orElseThrow(() -> {
                     logger.error("{} Commande non trouvée ID: {}", context, commandeId);
                     return new RuntimeException("Commande non trouvée avec l'ID : " + commandeId);
@@ -115,9 +121,11 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
             // On ne bloque pas la commande, mais on log l'erreur
         }
 
-        mettreAJourEtNotifierAddition(commandeId);
+        appliquerDelta(commande, CalculTotaux.montantLigne(saved));
 
-        return ligneCommandeMapper.toDto(saved);
+        LigneCommandeDto savedDto = ligneCommandeMapper.toDto(saved);
+        evenementsCommandeService.ligneAjoutee(commande, savedDto);
+        return savedDto;
     }
 
     @Override
@@ -148,12 +156,15 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
         String context = LoggingUtils.getLogContext();
         logger.info("{} Mise à jour de la ligne de commande ID: {}", context, id);
 
+        verrouillerCommandeDeLaLigne(id);
         LigneCommande ligneCommande = ligneCommandeRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("{} Ligne de commande non trouvée ID: {}", context, id);
                     return new RuntimeException("Ligne de commande non trouvée avec l'ID : " + id);
                 });
 
+        BigDecimal ancienMontant = CalculTotaux.montantLigne(ligneCommande);
+
         if (ligneCommandeDto.getQuantite() != null) {
             if (ligneCommandeDto.getQuantite() <= 0) {
                 throw new RuntimeException("La quantité doit être supérieure à 0");
@@ -185,9 +196,11 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
         LigneCommande updated = ligneCommandeRepository.save(ligneCommande);
         logger.info("{} Ligne de commande ID: {} mise à jour avec succès", context, id);
 
-        mettreAJourEtNotifierAddition(updated.getCommande().getId());
+        appliquerDelta(updated.getCommande(), CalculTotaux.montantLigne(updated).subtract(ancienMontant));
 
-        return ligneCommandeMapper.toDto(updated);
+        LigneCommandeDto updatedDto = ligneCommandeMapper.toDto(updated);
+        evenementsCommandeService.ligneModifiee(updated.getCommande(), updatedDto);
+        return updatedDto;
     }
 
     @Override
@@ -195,16 +208,18 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
         String context = LoggingUtils.getLogContext();
         logger.info("{} Suppression de la ligne de commande ID: {}", context, id);
 
+        verrouillerCommandeDeLaLigne(id);
         LigneCommande ligneCommande = ligneCommandeRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("{} Ligne de commande non trouvée ID: {}", context, id);
                     return new RuntimeException("Ligne de commande non trouvée avec l'ID : " + id);
                 });
 
-        Long commandeId = ligneCommande.getCommande().getId();
+        Commande commande = ligneCommande.getCommande();
         Long platId = ligneCommande.getPlat().getId();
         Integer quantite = ligneCommande.getQuantite();
-        
+        BigDecimal montant = CalculTotaux.montantLigne(ligneCommande);
+
         ligneCommandeRepository.delete(ligneCommande);
         logger.info("{} Ligne de commande ID: {} supprimée", context, id);
 
@@ -215,7 +230,8 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
             logger.error("{} Erreur restauration stock: {}", context, e.getMessage());
         }
 
-        mettreAJourEtNotifierAddition(commandeId);
+        appliquerDelta(commande, montant.negate());
+        evenementsCommandeService.ligneSupprimee(commande, id);
     }
 
     @Override
@@ -251,7 +267,7 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
         String context = LoggingUtils.getLogContext();
         logger.info("{} Ajout direct - Commande: {}, Plat: {}, Qté: {}", context, commandeId, platId, quantite);
         
-        Commande commande = commandeRepository.findById(commandeId)
+        Commande commande = commandeRepository.findByIdPourMiseAJour(commandeId)
                 .orElseThrow(() -> new RuntimeException("Commande non trouvée avec l'ID : " + commandeId));
 
         Plat plat = platRepository.findById(platId)
@@ -281,9 +297,11 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
             logger.error("{} Erreur stock: {}", context, e.getMessage());
         }
 
-        mettreAJourEtNotifierAddition(commandeId);
-        
-        return ligneCommandeMapper.toDto(saved);
+        appliquerDelta(commande, CalculTotaux.montantLigne(saved));
+
+        LigneCommandeDto savedDto = ligneCommandeMapper.toDto(saved);
+        evenementsCommandeService.ligneAjoutee(commande, savedDto);
+        return savedDto;
     }
 
     @Override
@@ -295,10 +313,12 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
             throw new RuntimeException("La quantité doit être supérieure à 0");
         }
 
+        verrouillerCommandeDeLaLigne(id);
         LigneCommande ligneCommande = ligneCommandeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Ligne de commande non trouvée avec l'ID : " + id));
 
         Integer ancienneQuantite = ligneCommande.getQuantite();
+        BigDecimal ancienMontant = CalculTotaux.montantLigne(ligneCommande);
         ligneCommande.setQuantite(nouvelleQuantite);
         LigneCommande updated = ligneCommandeRepository.save(ligneCommande);
 
@@ -313,9 +333,11 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
             logger.error("{} Erreur ajustement stock: {}", context, e.getMessage());
         }
 
-        mettreAJourEtNotifierAddition(updated.getCommande().getId());
+        appliquerDelta(updated.getCommande(), CalculTotaux.montantLigne(updated).subtract(ancienMontant));
 
-        return ligneCommandeMapper.toDto(updated);
+        LigneCommandeDto updatedDto = ligneCommandeMapper.toDto(updated);
+        evenementsCommandeService.quantiteModifiee(updated.getCommande(), updatedDto);
+        return updatedDto;
     }
 
     @Override
@@ -336,54 +358,93 @@ public class LigneCommandeServiceImplementation implements LigneCommandeServiceI
         String context = LoggingUtils.getLogContext();
         logger.info("{} Suppression de toutes les lignes pour la commande ID: {}", context, commandeId);
         
-        if (!commandeRepository.existsById(commandeId)) {
-            throw new RuntimeException("Commande non trouvée avec l'ID : " + commandeId);
-        }
+        Commande commande = commandeRepository.findByIdPourMiseAJour(commandeId)
+                .orElseThrow(() -> new RuntimeException("Commande non trouvée avec l'ID : " + commandeId));
 
         // RESTAURATION STOCK POUR CHAQUE LIGNE
         try {
             List<LigneCommande> lignes = ligneCommandeRepository.findByCommandeId(commandeId);
+            Map<Long, Integer> portionsParPlat = new HashMap<>();
             for (LigneCommande ligne : lignes) {
-                ingredientService.restaurerStockPourPlat(ligne.getPlat().getId(), ligne.getQuantite());
+                portionsParPlat.merge(ligne.getPlat().getId(), ligne.getQuantite(), Integer::sum);
             }
+            ingredientService.restaurerStockEnLot(portionsParPlat);
         } catch (Exception e) {
             logger.error("{} Erreur restauration stock massive: {}", context, e.getMessage());
         }
 
         ligneCommandeRepository.deleteByCommandeId(commandeId);
-        mettreAJourEtNotifierAddition(commandeId);
+
+        // Commande vide : les totaux sont connus sans recalcul
+        BigDecimal ancienTotalTtc = commande.getTotalTtc();
+        commande.setTotalHt(BigDecimal.ZERO);
+        commande.setTotalTtc(BigDecimal.ZERO);
+        commandeRepository.save(commande);
+        agregationVentesService.enregistrerTransition(commande, commande.getStatut(), ancienTotalTtc);
+        evenementsCommandeService.lignesVidees(commande);
     }
 
-    private void mettreAJourEtNotifierAddition(Long commandeId) {
+    @Override
+    public CommandeDto recalculerTotaux(Long commandeId) {
         String context = LoggingUtils.getLogContext();
-        logger.info("{} Recalcul des totaux et notification pour la commande ID: {}", context, commandeId);
-        
-        Commande commande = commandeRepository.findById(commandeId)
-                .orElseThrow(() -> new RuntimeException("Commande non trouvée"));
+        logger.info("{} Vérification des totaux de la commande ID: {}", context, commandeId);
 
-        BigDecimal totalHt = commande.getLignes().stream()
-                .map(l -> l.getPrixUnitaire().multiply(new BigDecimal(l.getQuantite())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Commande commande = commandeRepository.findByIdPourMiseAJour(commandeId)
+                .orElseThrow(() -> new RuntimeException("Commande non trouvée avec l'ID : " + commandeId));
 
-        // Correction ici: On utilise 19.25 pour le calcul si restaurantDto n'est pas encore initialisé
-        BigDecimal tauxTva = (restaurantDto != null) ? new BigDecimal(String.valueOf(restaurantDto.getTauxTva())) : new BigDecimal("0.1925");
-        BigDecimal tva = totalHt.multiply(tauxTva);
-        BigDecimal totalTtc = totalHt.add(tva);
+        BigDecimal ancienTotalHt = commande.getTotalHt();
+        BigDecimal ancienTotalTtc = commande.getTotalTtc();
+        recalculerDepuisLaBase(commande);
 
-        commande.setTotalHt(totalHt);
-        commande.setTotalTtc(totalTtc);
+        if (ancienTotalHt == null || ancienTotalHt.compareTo(commande.getTotalHt()) != 0) {
+            logger.warn("{} Écart de total corrigé pour la commande ID: {} - HT enregistré: {}, HT réel: {}",
+                    context, commandeId, ancienTotalHt, commande.getTotalHt());
+        }
 
         commandeRepository.save(commande);
-        logger.info("{} Totaux mis à jour - HT: {}, TTC: {}", context, totalHt, totalTtc);
+        agregationVentesService.enregistrerTransition(commande, commande.getStatut(), ancienTotalTtc);
+        evenementsCommandeService.totauxModifies(commande);
+        return commandeMapper.toDto(commande);
+    }
 
-        CommandeDto commandeDto = commandeMapper.toDto(commande);
-        
-        // Notifier Serveur (Addition)
-        messagingTemplate.convertAndSend("/topic/serveurs/addition/" + commandeId, commandeDto);
-        
-        // Notifier Cuisine (Mise à jour commande)
-        messagingTemplate.convertAndSend("/topic/cuisine/commandes", commandeDto);
-        
-        logger.info("{} Notification envoyée sur /topic/serveurs/addition/{} et /topic/cuisine/commandes", context, commandeId);
+    /**
+     * Verrouille la commande d'une ligne avant de lire la ligne : deux modifications concurrentes d'une même
+     * commande s'appliquent l'une après l'autre, chacune sur des totaux et une ligne à jour.
+     */
+    private void verrouillerCommandeDeLaLigne(Long ligneId) {
+        ligneCommandeRepository.findCommandeIdById(ligneId).ifPresent(commandeRepository::findByIdPourMiseAJour);
+    }
+
+    /**
+     * Applique la variation de montant HT d'une ligne aux totaux de la commande (O(1)),
+     * sans relire ni re-sommer les autres lignes. La commande doit avoir été lue verrouillée.
+     * Si elle est déjà encaissée, l'écart de TTC est reporté sur les agrégats de ventes.
+     */
+    private void appliquerDelta(Commande commande, BigDecimal deltaHt) {
+        String context = LoggingUtils.getLogContext();
+        BigDecimal ancienTotalTtc = commande.getTotalTtc();
+
+        if (commande.getTotalHt() == null || commande.getTotalTtc() == null) {
+            // Totaux jamais initialisés (données anciennes) : recalcul complet unique
+            recalculerDepuisLaBase(commande);
+        } else {
+            BigDecimal totalHt = commande.getTotalHt().add(deltaHt);
+            commande.setTotalHt(totalHt);
+            // TTC dérivé du HT exact, comme un recalcul complet : pas d'arrondis cumulés d'un delta à l'autre
+            commande.setTotalTtc(CalculTotaux.ttc(totalHt, tauxTvaCache.taux()));
+        }
+
+        commandeRepository.save(commande);
+        agregationVentesService.enregistrerTransition(commande, commande.getStatut(), ancienTotalTtc);
+        logger.info("{} Totaux mis à jour - HT: {}, TTC: {} (delta HT: {})",
+                context, commande.getTotalHt(), commande.getTotalTtc(), deltaHt);
+    }
+
+    // Recalcul complet par agrégation SQL (réparation / vérification uniquement)
+    private void recalculerDepuisLaBase(Commande commande) {
+        BigDecimal totalHt = ligneCommandeRepository.calculateTotalCommande(commande.getId());
+        if (totalHt == null) totalHt = BigDecimal.ZERO;
+        commande.setTotalHt(totalHt);
+        commande.setTotalTtc(CalculTotaux.ttc(totalHt, tauxTvaCache.taux()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.PlatDto;
+import com.example.BackendProject.mappers.PlatMapper;
+import com.example.BackendProject.repository.PlatRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Instantané en mémoire de la carte active (plats disponibles), déjà sérialisé en JSON et compressé en gzip.
+ * <p>
+ * L'instantané est reconstruit à la première lecture qui suit une modification de plat (après commit) ;
+ * entre deux modifications, la carte est servie sans accès à la base. L'ETag est dérivé de la version
+ * et du contenu, ce qui permet de répondre 304 aux requêtes conditionnelles.
+ */
+@Service
+public class MenuActifCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuActifCache.class);
+
+    private final PlatRepository platRepository;
+    private final PlatMapper platMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate lectureSeule;
+    private final Object verrouReconstruction = new Object();
+
+    private volatile Instantane instantane;
+    // Incrémentée à chaque modification commitée ; un instantané lu avant ne peut pas être publié après
+    private volatile long version = 0;
+
+    public MenuActifCache(PlatRepository platRepository, PlatMapper platMapper, ObjectMapper objectMapper,
+                          PlatformTransactionManager transactionManager) {
+        this.platRepository = platRepository;
+        this.platMapper = platMapper;
+        this.objectMapper = objectMapper;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Instantané courant, reconstruit si une modification a eu lieu depuis le précédent.
+     * Pas de transaction ici : une lecture servie depuis la mémoire ne prend aucune connexion.
+     */
+    public Instantane courant() {
+        Instantane actuel = instantane;
+        if (actuel != null && actuel.version == version) {
+            return actuel;
+        }
+        return reconstruire();
+    }
+
+    /**
+     * Signale la modification d'un plat. Effective après le commit de la transaction en cours.
+     */
+    public void invalider() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementerVersion();
+                }
+            });
+        } else {
+            incrementerVersion();
+        }
+    }
+
+    private synchronized void incrementerVersion() {
+        version++;
+    }
+
+    private Instantane reconstruire() {
+        // Une seule reconstruction à la fois : les autres lecteurs attendent puis réutilisent son résultat
+        synchronized (verrouReconstruction) {
+            Instantane actuel = instantane;
+            long versionLue = version;
+            if (actuel != null && actuel.version == versionLue) {
+                return actuel;
+            }
+
+            List<PlatDto> plats = lectureSeule.execute(statut -> platRepository.findByDisponibiliteTrue().stream()
+                    .map(platMapper::toDto)
+                    .collect(Collectors.toUnmodifiableList()));
+            Instantane nouveau = new Instantane(versionLue, plats, serialiser(plats));
+
+            synchronized (this) {
+                // Modification commitée pendant la lecture : on sert ce résultat sans le garder
+                if (version == versionLue) {
+                    instantane = nouveau;
+                }
+            }
+            logger.info("Carte active reconstruite : {} plat(s), version {}, {} octets ({} compressés)",
+                    plats.size(), versionLue, nouveau.json.length, nouveau.jsonGzip.length);
+            return nouveau;
+        }
+    }
+
+    private byte[] serialiser(List<PlatDto> plats) {
+        try {
+            return objectMapper.writeValueAsBytes(plats);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erreur lors de la sérialisation de la carte", e);
+        }
+    }
+
+    public static final class Instantane {
+        private final long version;
+        private final List<PlatDto> plats;
+        private final byte[] json;
+        private final byte[] jsonGzip;
+        private final String etag;
+
+        private Instantane(long version, List<PlatDto> plats, byte[] json) {
+            this.version = version;
+            this.plats = plats;
+            this.json = json;
+            this.jsonGzip = compresser(json);
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            // La version seule ne suffit pas : elle repart de 0 au redémarrage
+            this.etag = "\"menu-" + version + "-" + Long.toHexString(crc.getValue()) + "\"";
+        }
+
+        private static byte[] compresser(byte[] donnees) {
+            ByteArrayOutputStream sortie = new ByteArrayOutputStream(Math.max(64, donnees.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(sortie)) {
+                gzip.write(donnees);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return sortie.toByteArray();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<PlatDto> getPlats() {
+            return plats;
+        }
+
+        // Tableaux partagés : ne pas modifier
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getJsonGzip() {
+            return jsonGzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
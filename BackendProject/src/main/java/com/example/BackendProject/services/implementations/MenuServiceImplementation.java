@@ -20,10 +20,12 @@ public class MenuServiceImplementation implements MenuServiceInterface {
     private static final Logger logger = LoggerFactory.getLogger(MenuServiceImplementation.class);
     private final MenuRepository menuRepository;
     private final MenuMapper menuMapper;
+    private final ArbreMenuCache arbreMenuCache;
 
-    public MenuServiceImplementation(MenuRepository menuRepository, MenuMapper menuMapper) {
+    public MenuServiceImplementation(MenuRepository menuRepository, MenuMapper menuMapper, ArbreMenuCache arbreMenuCache) {
         this.menuRepository = menuRepository;
         this.menuMapper = menuMapper;
+        this.arbreMenuCache = arbreMenuCache;
     }
 
     @Override
@@ -43,6 +45,7 @@ public class MenuServiceImplementation implements MenuServiceInterface {
 
         Menu menu = menuMapper.toEntity(menuDto);
         Menu savedMenu = menuRepository.save(menu);
+        arbreMenuCache.invalider();
         logger.info("{} Menu sauvegardé avec succès. ID: {}, Nom: {}", context, savedMenu.getId(), savedMenu.getNom());
         return menuMapper.toDto(savedMenu);
     }
@@ -85,6 +88,7 @@ public class MenuServiceImplementation implements MenuServiceInterface {
                 });
         menu.setNom(menuDto.getNom());
         Menu updatedMenu = menuRepository.save(menu);
+        arbreMenuCache.invalider();
         logger.info("{} Menu ID: {} mis à jour avec succès - Nouveau nom: {}", context, id, updatedMenu.getNom());
         return menuMapper.toDto(updatedMenu);
     }
@@ -106,6 +110,7 @@ public class MenuServiceImplementation implements MenuServiceInterface {
         }
 
         menuRepository.delete(menu);
+        arbreMenuCache.invalider();
         logger.info("{} Menu ID: {} supprimé avec succès", context, id);
     }
 }
@@ -0,0 +1,204 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.repository.RecetteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nomenclatures (ingrédients et quantités par portion) de tous les plats, gardées en mémoire sous forme immuable.
+ * <p>
+ * Chargées en une requête à la première déduction de stock : un plat sans recette est connu comme tel et
+ * n'entraîne plus de requête. Comme auparavant, seule la première recette d'un plat (plus petit ID) compte.
+ * Toute modification d'une recette ou d'un de ses items invalide l'ensemble (après commit) ; il est rechargé
+ * à la lecture suivante. Un index inverse donne les plats qui utilisent un ingrédient.
+ */
+@Service
+public class NomenclaturePlatCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NomenclaturePlatCache.class);
+
+    private final RecetteRepository recetteRepository;
+    private final TransactionTemplate lectureSeule;
+    private final Object verrouReconstruction = new Object();
+
+    private volatile Instantane instantane;
+    // Incrémentée à chaque modification commitée ; des nomenclatures lues avant ne peuvent pas être publiées après
+    private volatile long version = 0;
+
+    public NomenclaturePlatCache(RecetteRepository recetteRepository, PlatformTransactionManager transactionManager) {
+        this.recetteRepository = recetteRepository;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Nomenclature d'un plat, vide s'il n'a pas de recette.
+     */
+    public Nomenclature nomenclature(Long platId) {
+        return courant().parPlat.getOrDefault(platId, Nomenclature.VIDE);
+    }
+
+    /**
+     * Plats dont la recette utilise l'ingrédient.
+     */
+    public List<Long> platsUtilisant(Long ingredientId) {
+        return courant().platsParIngredient.getOrDefault(ingredientId, List.of());
+    }
+
+    /**
+     * Plats ayant une recette.
+     */
+    public Set<Long> platsAvecRecette() {
+        return Collections.unmodifiableSet(courant().parPlat.keySet());
+    }
+
+    /**
+     * Version des nomenclatures servies : change quand une modification de recette a été rechargée.
+     */
+    public long version() {
+        return courant().version;
+    }
+
+    /**
+     * Signale la modification d'une recette. Effective après le commit de la transaction en cours.
+     */
+    public void invalider() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementerVersion();
+                }
+            });
+        } else {
+            incrementerVersion();
+        }
+    }
+
+    private synchronized void incrementerVersion() {
+        version++;
+    }
+
+    private Instantane courant() {
+        Instantane actuel = instantane;
+        if (actuel != null && actuel.version == version) {
+            return actuel;
+        }
+        return reconstruire();
+    }
+
+    private Instantane reconstruire() {
+        synchronized (verrouReconstruction) {
+            Instantane actuel = instantane;
+            long versionLue = version;
+            if (actuel != null && actuel.version == versionLue) {
+                return actuel;
+            }
+
+            long debut = System.currentTimeMillis();
+            Map<Long, Nomenclature> parPlat = lectureSeule.execute(statut -> charger());
+            Instantane nouveau = new Instantane(versionLue, parPlat);
+
+            synchronized (this) {
+                if (version == versionLue) {
+                    instantane = nouveau;
+                }
+            }
+            logger.info("Nomenclatures rechargées : {} plat(s), version {}, en {} ms",
+                    parPlat.size(), versionLue, System.currentTimeMillis() - debut);
+            return nouveau;
+        }
+    }
+
+    private Map<Long, Nomenclature> charger() {
+        Map<Long, Long> recetteParPlat = new HashMap<>();
+        Map<Long, List<Object[]>> lignesParPlat = new HashMap<>();
+        for (Object[] ligne : recetteRepository.findNomenclatures()) {
+            Long platId = (Long) ligne[0];
+            Long recetteId = (Long) ligne[1];
+            // Lignes triées par recette : la première rencontrée est celle du plat
+            if (!recetteId.equals(recetteParPlat.computeIfAbsent(platId, id -> recetteId))
+                    || ligne[2] == null || ligne[3] == null) {
+                continue;
+            }
+            lignesParPlat.computeIfAbsent(platId, id -> new ArrayList<>()).add(ligne);
+        }
+
+        Map<Long, Nomenclature> parPlat = new HashMap<>();
+        lignesParPlat.forEach((platId, lignes) -> {
+            long[] ingredientIds = new long[lignes.size()];
+            BigDecimal[] quantites = new BigDecimal[lignes.size()];
+            for (int i = 0; i < lignes.size(); i++) {
+                ingredientIds[i] = (Long) lignes.get(i)[2];
+                quantites[i] = (BigDecimal) lignes.get(i)[3];
+            }
+            parPlat.put(platId, new Nomenclature(ingredientIds, quantites));
+        });
+        return parPlat;
+    }
+
+    /**
+     * Ingrédients d'un plat et quantité requise par portion, dans deux tableaux parallèles immuables.
+     */
+    public static final class Nomenclature {
+
+        public static final Nomenclature VIDE = new Nomenclature(new long[0], new BigDecimal[0]);
+
+        private final long[] ingredientIds;
+        private final BigDecimal[] quantitesParPortion;
+
+        public Nomenclature(long[] ingredientIds, BigDecimal[] quantitesParPortion) {
+            if (ingredientIds.length != quantitesParPortion.length) {
+                throw new IllegalArgumentException("Autant de quantités que d'ingrédients sont attendues");
+            }
+            this.ingredientIds = ingredientIds.clone();
+            this.quantitesParPortion = quantitesParPortion.clone();
+        }
+
+        public int taille() {
+            return ingredientIds.length;
+        }
+
+        public long ingredientId(int index) {
+            return ingredientIds[index];
+        }
+
+        public BigDecimal quantiteParPortion(int index) {
+            return quantitesParPortion[index];
+        }
+    }
+
+    private static final class Instantane {
+        private final long version;
+        private final Map<Long, Nomenclature> parPlat;
+        private final Map<Long, List<Long>> platsParIngredient = new HashMap<>();
+
+        private Instantane(long version, Map<Long, Nomenclature> parPlat) {
+            this.version = version;
+            this.parPlat = parPlat;
+            parPlat.forEach((platId, nomenclature) -> {
+                for (int i = 0; i < nomenclature.taille(); i++) {
+                    List<Long> plats = platsParIngredient.computeIfAbsent(nomenclature.ingredientId(i), id -> new ArrayList<>());
+                    // Un ingrédient présent sur deux lignes de la même recette ne compte qu'une fois
+                    if (plats.isEmpty() || !plats.get(plats.size() - 1).equals(platId)) {
+                        plats.add(platId);
+                    }
+                }
+            });
+            platsParIngredient.replaceAll((ingredientId, plats) -> List.copyOf(plats));
+        }
+    }
+}
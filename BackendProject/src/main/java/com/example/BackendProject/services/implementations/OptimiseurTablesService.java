@@ -0,0 +1,381 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.AffectationTableDto;
+import com.example.BackendProject.dto.PlanTablesDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
+import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Affectation automatique des tables pour les réservations d'un service.
+ * <p>
+ * Une réservation occupe une table seule ou plusieurs tables voisines d'une même zone (numéros consécutifs
+ * dans la zone, faute de plan géométrique). Objectif : placer le plus de couverts possible, puis perdre le moins
+ * de places. Heuristique gloutonne (grands groupes d'abord, plus petite capacité suffisante) suivie d'une passe
+ * de réparation qui déplace une réservation gênante pour en placer une autre.
+ * <p>
+ * Les tables choisies à la main par l'hôte sont conservées. Le dernier plan de chaque date sert de point de
+ * départ : seules les réservations nouvelles ou modifiées depuis sont replacées, le reste du plan ne bouge pas.
+ */
+@Service
+public class OptimiseurTablesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimiseurTablesService.class);
+
+    private static final int PLANS_EN_CACHE = 14;
+
+    private static final Comparator<TableRestaurantDto> ORDRE_NUMERO = Comparator
+            .comparing((TableRestaurantDto table) -> numeroEntier(table.getNumero()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TableRestaurantDto::getNumero, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TableRestaurantDto::getId);
+
+    // Plus petite capacité d'abord (moins de places perdues), puis le moins de tables combinées
+    private static final Comparator<Unite> ORDRE_UNITES = Comparator
+            .comparingInt((Unite unite) -> unite.capacite)
+            .thenComparingInt(unite -> unite.tableIds.size())
+            .thenComparing(unite -> unite.cle);
+
+    // Grands groupes d'abord : ce sont les plus difficiles à placer
+    private static final Comparator<Demande> ORDRE_PLACEMENT = Comparator
+            .comparingInt((Demande demande) -> -demande.personnes)
+            .thenComparingInt(demande -> demande.debut)
+            .thenComparing(demande -> demande.reservationId);
+
+    private final ReservationRepository reservationRepository;
+    private final PlanSalleIndex planSalleIndex;
+    private final DisponibiliteTablesService disponibiliteTablesService;
+    private final int tablesCombineesMax;
+
+    // Dernier plan calculé par date (réservation -> placement), accès protégé par le verrou de la map
+    private final Map<LocalDate, Map<Long, Placement>> derniersPlans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDate, Map<Long, Placement>> eldest) {
+            return size() > PLANS_EN_CACHE;
+        }
+    };
+
+    public OptimiseurTablesService(ReservationRepository reservationRepository,
+                                   PlanSalleIndex planSalleIndex,
+                                   DisponibiliteTablesService disponibiliteTablesService,
+                                   @Value("${app.reservations.tables-combinees-max:3}") int tablesCombineesMax) {
+        this.reservationRepository = reservationRepository;
+        this.planSalleIndex = planSalleIndex;
+        this.disponibiliteTablesService = disponibiliteTablesService;
+        this.tablesCombineesMax = Math.max(1, tablesCombineesMax);
+    }
+
+    /**
+     * Calcule le plan des tables pour une date.
+     *
+     * @param complet true pour repartir de zéro au lieu de compléter le plan précédent
+     */
+    public PlanTablesDto planifier(LocalDate date, boolean complet) {
+        long debutCalcul = System.nanoTime();
+
+        List<Unite> unites = construireUnites(planSalleIndex.toutes());
+        Map<String, Unite> unitesParCle = new HashMap<>();
+        Map<Long, Unite> uniteSeule = new HashMap<>();
+        for (Unite unite : unites) {
+            unitesParCle.put(unite.cle, unite);
+            if (unite.tableIds.size() == 1) {
+                uniteSeule.put(unite.tableIds.get(0), unite);
+            }
+        }
+
+        List<Demande> demandes = new ArrayList<>();
+        for (Reservation reservation : reservationRepository.findByDate(date)) {
+            if (DisponibiliteTablesService.estActive(reservation.getStatut())
+                    && reservation.getHeure() != null
+                    && reservation.getNombrePersonnes() != null && reservation.getNombrePersonnes() > 0) {
+                demandes.add(new Demande(reservation, disponibiliteTablesService.dureeEffective(reservation.getDureeMinutes())));
+            }
+        }
+
+        Map<Long, Placement> precedent;
+        synchronized (derniersPlans) {
+            precedent = complet ? null : derniersPlans.get(date);
+        }
+
+        Occupation occupation = new Occupation();
+        List<Demande> aPlacer = new ArrayList<>();
+        int conservees = 0;
+
+        // 1. Choix de l'hôte, imposés
+        for (Demande demande : demandes) {
+            Unite fixee = demande.tableFixee != null ? uniteSeule.get(demande.tableFixee) : null;
+            if (fixee != null) {
+                demande.fixee = true;
+                occupation.placer(demande, fixee);
+            }
+        }
+        // 2. Plan précédent, pour les réservations inchangées dont la place est toujours valable
+        for (Demande demande : demandes) {
+            if (demande.fixee) {
+                continue;
+            }
+            Placement ancien = precedent != null ? precedent.get(demande.reservationId) : null;
+            Unite unite = ancien != null && ancien.correspondA(demande) ? unitesParCle.get(ancien.cleUnite) : null;
+            if (unite != null && unite.capacite >= demande.personnes && occupation.estLibre(unite, demande)) {
+                occupation.placer(demande, unite);
+                conservees++;
+            } else {
+                aPlacer.add(demande);
+            }
+        }
+        // 3. Placement glouton du reste
+        aPlacer.sort(ORDRE_PLACEMENT);
+        List<Demande> nonPlacees = new ArrayList<>();
+        for (Demande demande : aPlacer) {
+            Unite unite = meilleureUnite(unites, occupation, demande);
+            if (unite != null) {
+                occupation.placer(demande, unite);
+            } else {
+                nonPlacees.add(demande);
+            }
+        }
+        // 4. Réparation : libérer une place en déplaçant une seule réservation
+        nonPlacees.removeIf(demande -> reparer(unites, occupation, demande));
+
+        Map<Long, Placement> plan = new HashMap<>();
+        for (Demande demande : demandes) {
+            if (!demande.fixee && demande.unite != null) {
+                plan.put(demande.reservationId, new Placement(demande));
+            }
+        }
+        synchronized (derniersPlans) {
+            derniersPlans.put(date, plan);
+        }
+
+        PlanTablesDto resultat = resultat(date, demandes, nonPlacees, conservees);
+        resultat.setDureeCalculMs((System.nanoTime() - debutCalcul) / 1_000_000);
+        logger.debug("Plan des tables du {} : {} réservation(s), {} conservée(s), {} non placée(s) en {} ms",
+                date, demandes.size(), conservees, nonPlacees.size(), resultat.getDureeCalculMs());
+        return resultat;
+    }
+
+    private static Unite meilleureUnite(List<Unite> unites, Occupation occupation, Demande demande) {
+        for (Unite unite : unites) {
+            if (unite.capacite >= demande.personnes && occupation.estLibre(unite, demande)) {
+                return unite;
+            }
+        }
+        return null;
+    }
+
+    private static boolean reparer(List<Unite> unites, Occupation occupation, Demande demande) {
+        for (Unite unite : unites) {
+            if (unite.capacite < demande.personnes) {
+                continue;
+            }
+            List<Demande> genantes = occupation.chevauchements(unite, demande);
+            if (genantes.size() != 1 || genantes.get(0).fixee) {
+                continue;
+            }
+            Demande genante = genantes.get(0);
+            Unite ancienne = genante.unite;
+            occupation.retirer(genante);
+            occupation.placer(demande, unite);
+            Unite nouvelle = meilleureUnite(unites, occupation, genante);
+            if (nouvelle != null) {
+                occupation.placer(genante, nouvelle);
+                return true;
+            }
+            occupation.retirer(demande);
+            occupation.placer(genante, ancienne);
+        }
+        return false;
+    }
+
+    // Tables seules et suites de tables voisines d'une même zone, triées par capacité
+    private List<Unite> construireUnites(List<TableRestaurantDto> tables) {
+        Map<Long, List<TableRestaurantDto>> parZone = new LinkedHashMap<>();
+        List<Unite> unites = new ArrayList<>();
+        for (TableRestaurantDto table : tables) {
+            if (table.getCapacite() == null || table.getCapacite() <= 0) {
+                continue;
+            }
+            if (table.getZoneId() == null) {
+                unites.add(new Unite(List.of(table)));
+            } else {
+                parZone.computeIfAbsent(table.getZoneId(), id -> new ArrayList<>()).add(table);
+            }
+        }
+        for (List<TableRestaurantDto> zone : parZone.values()) {
+            zone.sort(ORDRE_NUMERO);
+            for (int i = 0; i < zone.size(); i++) {
+                for (int taille = 1; taille <= tablesCombineesMax && i + taille <= zone.size(); taille++) {
+                    unites.add(new Unite(zone.subList(i, i + taille)));
+                }
+            }
+        }
+        unites.sort(ORDRE_UNITES);
+        return unites;
+    }
+
+    private static Long numeroEntier(String numero) {
+        if (numero == null) {
+            return null;
+        }
+        String chiffres = numero.replaceAll("\\D", "");
+        return chiffres.isEmpty() || chiffres.length() > 18 ? null : Long.parseLong(chiffres);
+    }
+
+    private static PlanTablesDto resultat(LocalDate date, List<Demande> demandes, List<Demande> nonPlacees, int conservees) {
+        List<AffectationTableDto> affectations = new ArrayList<>();
+        int couvertsPlaces = 0;
+        int placesPerdues = 0;
+        for (Demande demande : demandes) {
+            if (demande.unite == null) {
+                continue;
+            }
+            couvertsPlaces += demande.personnes;
+            placesPerdues += Math.max(0, demande.unite.capacite - demande.personnes);
+            affectations.add(new AffectationTableDto(demande.reservationId, demande.nomClient, demande.personnes,
+                    demande.heure, demande.unite.tableIds, demande.unite.numeros, demande.unite.capacite, demande.fixee));
+        }
+        affectations.sort(Comparator.comparing(AffectationTableDto::getHeure)
+                .thenComparing(AffectationTableDto::getReservationId));
+
+        int couvertsNonPlaces = 0;
+        List<Long> idsNonPlaces = new ArrayList<>();
+        for (Demande demande : nonPlacees) {
+            couvertsNonPlaces += demande.personnes;
+            idsNonPlaces.add(demande.reservationId);
+        }
+
+        PlanTablesDto plan = new PlanTablesDto();
+        plan.setDate(date);
+        plan.setCouvertsPlaces(couvertsPlaces);
+        plan.setCouvertsNonPlaces(couvertsNonPlaces);
+        plan.setPlacesPerdues(placesPerdues);
+        plan.setAffectationsConservees(conservees);
+        plan.setAffectations(affectations);
+        plan.setReservationsNonPlacees(idsNonPlaces);
+        return plan;
+    }
+
+    // Réservations placées sur chaque table pendant le calcul
+    private static final class Occupation {
+        private final Map<Long, List<Demande>> parTable = new HashMap<>();
+
+        private boolean estLibre(Unite unite, Demande demande) {
+            for (Long tableId : unite.tableIds) {
+                for (Demande autre : parTable.getOrDefault(tableId, List.of())) {
+                    if (autre.chevauche(demande)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private List<Demande> chevauchements(Unite unite, Demande demande) {
+            List<Demande> genantes = new ArrayList<>();
+            for (Long tableId : unite.tableIds) {
+                for (Demande autre : parTable.getOrDefault(tableId, List.of())) {
+                    if (autre.chevauche(demande) && !genantes.contains(autre)) {
+                        genantes.add(autre);
+                    }
+                }
+            }
+            return genantes;
+        }
+
+        private void placer(Demande demande, Unite unite) {
+            demande.unite = unite;
+            for (Long tableId : unite.tableIds) {
+                parTable.computeIfAbsent(tableId, id -> new ArrayList<>()).add(demande);
+            }
+        }
+
+        private void retirer(Demande demande) {
+            for (Long tableId : demande.unite.tableIds) {
+                parTable.get(tableId).remove(demande);
+            }
+            demande.unite = null;
+        }
+    }
+
+    // Table seule ou tables voisines combinées, immuable
+    private static final class Unite {
+        private final String cle;
+        private final List<Long> tableIds;
+        private final List<String> numeros;
+        private final int capacite;
+
+        private Unite(List<TableRestaurantDto> tables) {
+            List<Long> ids = new ArrayList<>();
+            List<String> numeros = new ArrayList<>();
+            int capacite = 0;
+            for (TableRestaurantDto table : tables) {
+                ids.add(table.getId());
+                numeros.add(table.getNumero());
+                capacite += table.getCapacite();
+            }
+            this.tableIds = List.copyOf(ids);
+            this.numeros = Collections.unmodifiableList(numeros);
+            this.capacite = capacite;
+            this.cle = ids.toString();
+        }
+    }
+
+    // Réservation à placer, horaires en minutes depuis le début de la journée
+    private static final class Demande {
+        private final Long reservationId;
+        private final String nomClient;
+        private final int personnes;
+        private final LocalTime heure;
+        private final int debut;
+        private final int fin;
+        private final Long tableFixee;
+        private boolean fixee;
+        private Unite unite;
+
+        private Demande(Reservation reservation, int dureeMinutes) {
+            this.reservationId = reservation.getId();
+            this.nomClient = reservation.getNomClient();
+            this.personnes = reservation.getNombrePersonnes();
+            this.heure = reservation.getHeure();
+            this.debut = heure.toSecondOfDay() / 60;
+            this.fin = debut + dureeMinutes;
+            this.tableFixee = reservation.getTable() != null ? reservation.getTable().getId() : null;
+        }
+
+        private boolean chevauche(Demande autre) {
+            return autre != this && debut < autre.fin && autre.debut < fin;
+        }
+    }
+
+    // Place retenue au plan précédent, avec ce qui la justifiait
+    private static final class Placement {
+        private final String cleUnite;
+        private final int personnes;
+        private final int debut;
+        private final int fin;
+
+        private Placement(Demande demande) {
+            this.cleUnite = demande.unite.cle;
+            this.personnes = demande.personnes;
+            this.debut = demande.debut;
+            this.fin = demande.fin;
+        }
+
+        private boolean correspondA(Demande demande) {
+            return personnes == demande.personnes && debut == demande.debut && fin == demande.fin;
+        }
+    }
+}
@@ -21,10 +21,13 @@ public class OptionItemServiceImplementation implements OptionItemServiceInterfa
     private static final Logger logger = LoggerFactory.getLogger(OptionItemServiceImplementation.class);
     private final OptionItemRepository optionItemRepository;
     private final OptionItemMapper optionItemMapper;
+    private final ArbreMenuCache arbreMenuCache;
 
-    public OptionItemServiceImplementation(OptionItemRepository optionItemRepository, OptionItemMapper optionItemMapper) {
+    public OptionItemServiceImplementation(OptionItemRepository optionItemRepository, OptionItemMapper optionItemMapper,
+                                           ArbreMenuCache arbreMenuCache) {
         this.optionItemRepository = optionItemRepository;
         this.optionItemMapper = optionItemMapper;
+        this.arbreMenuCache = arbreMenuCache;
     }
 
     @Override
@@ -33,6 +36,7 @@ public class OptionItemServiceImplementation implements OptionItemServiceInterfa
         logger.info("{} Tentative de sauvegarde d'une option - Nom: {}", context, dto.getNom());
         OptionItem entity = optionItemMapper.toEntity(dto);
         OptionItem saved = optionItemRepository.save(entity);
+        arbreMenuCache.invalider();
         logger.info("{} Option sauvegardée avec succès. ID: {}, Nom: {}", context, saved.getId(), saved.getNom());
         return optionItemMapper.toDto(saved);
     }
@@ -51,6 +55,7 @@ public class OptionItemServiceImplementation implements OptionItemServiceInterfa
         existing.setPrixSupplementaire(dto.getPrixSupplementaire());
 
         OptionItem updated = optionItemRepository.save(existing);
+        arbreMenuCache.invalider();
         logger.info("{} Option ID: {} mise à jour avec succès", context, id);
         return optionItemMapper.toDto(updated);
     }
@@ -87,6 +92,7 @@ public class OptionItemServiceImplementation implements OptionItemServiceInterfa
             throw new RuntimeException("Option non trouvée avec l'ID: " + id);
         }
         optionItemRepository.deleteById(id);
+        arbreMenuCache.invalider();
         logger.info("{} Option ID: {} supprimée avec succès", context, id);
     }
 }
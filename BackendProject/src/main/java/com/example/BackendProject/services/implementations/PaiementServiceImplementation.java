@@ -30,13 +30,19 @@ public class PaiementServiceImplementation implements PaiementServiceInterface {
     private final PaiementMapper paiementMapper;
     private final PaiementRepository paiementRepository;
     private final CommandeRepository commandeRepository;
+    private final AgregationVentesService agregationVentesService;
+    private final EvenementsCommandeService evenementsCommandeService;
 
     public PaiementServiceImplementation(PaiementMapper paiementMapper,
                                          PaiementRepository paiementRepository,
-                                         CommandeRepository commandeRepository) {
+                                         CommandeRepository commandeRepository,
+                                         AgregationVentesService agregationVentesService,
+                                         EvenementsCommandeService evenementsCommandeService) {
         this.paiementMapper = paiementMapper;
         this.paiementRepository = paiementRepository;
         this.commandeRepository = commandeRepository;
+        this.agregationVentesService = agregationVentesService;
+        this.evenementsCommandeService = evenementsCommandeService;
     }
 
     @Override
@@ -93,8 +99,11 @@ public class PaiementServiceImplementation implements PaiementServiceInterface {
         logger.info("{} Paiement sauvegardé avec succès. ID: {}, Référence: {}", context, saved.getId(), saved.getReferenceTransaction());
 
         // Mettre à jour le statut de la commande à PAYEE
+        StatutCommande ancienStatut = commande.getStatut();
         commande.setStatut(StatutCommande.PAYEE);
         commandeRepository.save(commande);
+        agregationVentesService.enregistrerTransition(commande, ancienStatut, commande.getTotalTtc());
+        evenementsCommandeService.statutModifie(commande);
         logger.info("{} Statut de la commande ID: {} mis à jour à PAYEE", context, commandeId);
 
         return paiementMapper.toDto(saved);
@@ -177,8 +186,11 @@ public class PaiementServiceImplementation implements PaiementServiceInterface {
         // Remettre le statut de la commande à EN_ATTENTE
         Commande commande = paiement.getCommande();
         if (commande != null) {
+            StatutCommande ancienStatut = commande.getStatut();
             commande.setStatut(StatutCommande.EN_ATTENTE);
             commandeRepository.save(commande);
+            agregationVentesService.enregistrerTransition(commande, ancienStatut, commande.getTotalTtc());
+            evenementsCommandeService.statutModifie(commande);
             logger.info("{} Statut de la commande ID: {} remis à EN_ATTENTE", context, commande.getId());
         }
 
@@ -287,8 +299,11 @@ public class PaiementServiceImplementation implements PaiementServiceInterface {
         Paiement saved = paiementRepository.save(paiement);
 
         // Mettre à jour le statut de la commande
+        StatutCommande ancienStatut = commande.getStatut();
         commande.setStatut(StatutCommande.PAYEE);
         commandeRepository.save(commande);
+        agregationVentesService.enregistrerTransition(commande, ancienStatut, commande.getTotalTtc());
+        evenementsCommandeService.statutModifie(commande);
         logger.info("{} Paiement effectué avec succès. ID: {}, Référence: {}, Statut de la commande ID: {} mis à PAYEE", 
                     context, saved.getId(), saved.getReferenceTransaction(), commandeId);
 
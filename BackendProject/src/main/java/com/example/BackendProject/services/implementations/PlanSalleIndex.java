@@ -0,0 +1,245 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.EvenementTableDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.mappers.TableRestaurantMapper;
+import com.example.BackendProject.repository.TableRestaurantRepository;
+import com.example.BackendProject.utils.StatutTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Index en mémoire du plan de salle : tables par identifiant, par zone et par numéro normalisé, avec leur statut courant.
+ * <p>
+ * Chargé une fois (en projection scalaire, sans les zones) à la première lecture, puis tenu à jour par les événements
+ * de table (CRUD, passages Occupée/Libre des commandes) après commit. Si le chargement échoue, les lectures passent
+ * par les requêtes du dépôt.
+ */
+@Service
+public class PlanSalleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanSalleIndex.class);
+
+    private final TableRestaurantRepository tableRestaurantRepository;
+    private final TableRestaurantMapper tableRestaurantMapper;
+    private final TransactionTemplate lectureSeule;
+
+    private final Map<Long, Entree> parId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> parZone = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> parNumero = new ConcurrentHashMap<>();
+    private volatile boolean charge = false;
+
+    public PlanSalleIndex(TableRestaurantRepository tableRestaurantRepository,
+                          TableRestaurantMapper tableRestaurantMapper,
+                          PlatformTransactionManager transactionManager) {
+        this.tableRestaurantRepository = tableRestaurantRepository;
+        this.tableRestaurantMapper = tableRestaurantMapper;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    // --- Lectures ---
+
+    public List<TableRestaurantDto> toutes() {
+        if (!assurerCharge()) {
+            return versDtos(tableRestaurantRepository.findAll());
+        }
+        return versDtosIndex(new TreeSet<>(parId.keySet()));
+    }
+
+    public Optional<TableRestaurantDto> parId(Long id) {
+        if (!assurerCharge()) {
+            return tableRestaurantRepository.findById(id).map(tableRestaurantMapper::toDto);
+        }
+        return Optional.ofNullable(parId.get(id)).map(Entree::versDto);
+    }
+
+    /**
+     * Tables d'une zone, par identifiant croissant. Coût proportionnel au nombre de tables de la zone.
+     */
+    public List<TableRestaurantDto> tablesDeZone(Long zoneId) {
+        if (!assurerCharge()) {
+            return versDtos(tableRestaurantRepository.findByZoneIdOrderByIdAsc(zoneId));
+        }
+        return versDtosIndex(parZone.getOrDefault(zoneId, Set.of()));
+    }
+
+    /**
+     * Tables dont le numéro contient le texte recherché (sans tenir compte de la casse, des accents ni des espaces).
+     */
+    public List<TableRestaurantDto> rechercherParNumero(String numero) {
+        if (!assurerCharge()) {
+            return versDtos(tableRestaurantRepository.findByNumeroContainingIgnoreCaseOrderByIdAsc(numero.trim()));
+        }
+        String recherche = normaliser(numero);
+        Set<Long> ids = new TreeSet<>();
+        parNumero.forEach((cle, tables) -> {
+            if (cle.contains(recherche)) {
+                ids.addAll(tables);
+            }
+        });
+        return versDtosIndex(ids);
+    }
+
+    // --- Mises à jour ---
+
+    /**
+     * Applique un changement de table déjà commité (appelé par {@link EvenementsTableService}).
+     */
+    public synchronized void appliquer(EvenementTableDto evenement) {
+        // Avant le chargement, rien à tenir à jour : la base sera lue telle quelle
+        if (!charge) {
+            return;
+        }
+        Long tableId = evenement.getTableId();
+        switch (evenement.getType()) {
+            case TABLE_ENREGISTREE:
+                Entree entree = new Entree(tableId, evenement.getZoneId(), evenement.getNumero(),
+                        evenement.getCapacite(), evenement.getStatut());
+                Entree remplacee = parId.put(tableId, entree);
+                if (remplacee != null) {
+                    desindexer(remplacee);
+                }
+                indexer(entree);
+                break;
+            case STATUT_MODIFIE:
+                Entree actuelle = parId.get(tableId);
+                if (actuelle != null) {
+                    parId.put(tableId, actuelle.avecStatut(evenement.getStatut()));
+                }
+                break;
+            case TABLE_SUPPRIMEE:
+                Entree ancienne = parId.remove(tableId);
+                if (ancienne != null) {
+                    desindexer(ancienne);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void indexer(Entree entree) {
+        if (entree.zoneId != null) {
+            parZone.computeIfAbsent(entree.zoneId, id -> new ConcurrentSkipListSet<>()).add(entree.id);
+        }
+        parNumero.computeIfAbsent(entree.numeroNormalise, cle -> new ConcurrentSkipListSet<>()).add(entree.id);
+    }
+
+    private void desindexer(Entree entree) {
+        if (entree.zoneId != null) {
+            retirerDe(parZone, entree.zoneId, entree.id);
+        }
+        retirerDe(parNumero, entree.numeroNormalise, entree.id);
+    }
+
+    private static <K> void retirerDe(Map<K, Set<Long>> index, K cle, Long id) {
+        Set<Long> ids = index.get(cle);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(cle);
+            }
+        }
+    }
+
+    // --- Chargement ---
+
+    private boolean assurerCharge() {
+        if (charge) {
+            return true;
+        }
+        // Les mises à jour attendent la fin du chargement, puis s'appliquent par-dessus
+        synchronized (this) {
+            if (charge) {
+                return true;
+            }
+            try {
+                long debut = System.currentTimeMillis();
+                List<Object[]> lignes = lectureSeule.execute(statut -> tableRestaurantRepository.findPlanSalle());
+                for (Object[] ligne : lignes) {
+                    Entree entree = new Entree((Long) ligne[0], (Long) ligne[1], (String) ligne[2],
+                            (Integer) ligne[3], (StatutTable) ligne[4]);
+                    parId.put(entree.id, entree);
+                    indexer(entree);
+                }
+                charge = true;
+                logger.info("Plan de salle chargé : {} table(s), {} zone(s) en {} ms",
+                        parId.size(), parZone.size(), System.currentTimeMillis() - debut);
+                return true;
+            } catch (RuntimeException e) {
+                parId.clear();
+                parZone.clear();
+                parNumero.clear();
+                logger.error("Chargement du plan de salle impossible, lecture directe en base : {}", e.getMessage(), e);
+                return false;
+            }
+        }
+    }
+
+    private List<TableRestaurantDto> versDtosIndex(Set<Long> ids) {
+        List<TableRestaurantDto> tables = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entree entree = parId.get(id);
+            if (entree != null) {
+                tables.add(entree.versDto());
+            }
+        }
+        return tables;
+    }
+
+    private List<TableRestaurantDto> versDtos(List<TableRestaurant> tables) {
+        return tables.stream().map(tableRestaurantMapper::toDto).collect(Collectors.toList());
+    }
+
+    public static String normaliser(String numero) {
+        if (numero == null) {
+            return "";
+        }
+        String sansAccents = Normalizer.normalize(numero, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sansAccents.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+    }
+
+    // Entrée immuable : un changement de statut remplace l'entrée
+    private static final class Entree {
+        private final Long id;
+        private final Long zoneId;
+        private final String numero;
+        private final String numeroNormalise;
+        private final Integer capacite;
+        private final StatutTable statut;
+
+        private Entree(Long id, Long zoneId, String numero, Integer capacite, StatutTable statut) {
+            this.id = id;
+            this.zoneId = zoneId;
+            this.numero = numero;
+            this.numeroNormalise = normaliser(numero);
+            this.capacite = capacite;
+            this.statut = statut;
+        }
+
+        private Entree avecStatut(StatutTable nouveauStatut) {
+            return new Entree(id, zoneId, numero, capacite, nouveauStatut);
+        }
+
+        private TableRestaurantDto versDto() {
+            return new TableRestaurantDto(id, zoneId, numero, capacite, statut);
+        }
+    }
+}
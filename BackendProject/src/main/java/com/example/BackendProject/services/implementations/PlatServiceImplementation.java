@@ -12,6 +12,7 @@ import net.coobird.thumbnailator.Thumbnails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -32,6 +33,10 @@ public class PlatServiceImplementation implements PlatServiceInterface {
     private final PlatRepository platRepository;
     private final CategoryRepository categoryRepository;
     private final PlatMapper platMapper;
+    private final MenuActifCache menuActifCache;
+    private final ArbreMenuCache arbreMenuCache;
+    private final RechercheCatalogueIndex rechercheCatalogueIndex;
+    private final PortionsRestantesService portionsRestantesService;
 //    private final LigneCommandeRepository ligneCommandeRepository;
 
     // Dossier pour le stockage des images - Gusto/src/images
@@ -48,10 +53,18 @@ public class PlatServiceImplementation implements PlatServiceInterface {
     public PlatServiceImplementation(PlatRepository platRepository,
                                      CategoryRepository categoryRepository,
                                      PlatMapper platMapper,
-                                     LigneCommandeRepository ligneCommandeRepository) {
+                                     LigneCommandeRepository ligneCommandeRepository,
+                                     MenuActifCache menuActifCache,
+                                     ArbreMenuCache arbreMenuCache,
+                                     RechercheCatalogueIndex rechercheCatalogueIndex,
+                                     PortionsRestantesService portionsRestantesService) {
         this.platRepository = platRepository;
         this.categoryRepository = categoryRepository;
         this.platMapper = platMapper;
+        this.menuActifCache = menuActifCache;
+        this.arbreMenuCache = arbreMenuCache;
+        this.rechercheCatalogueIndex = rechercheCatalogueIndex;
+        this.portionsRestantesService = portionsRestantesService;
 //        this.ligneCommandeRepository = ligneCommandeRepository;
     }
 
@@ -72,6 +85,9 @@ public class PlatServiceImplementation implements PlatServiceInterface {
         // Par défaut, un nouveau plat est disponible
         plat.setDisponibilite(true);
         Plat savedPlat = platRepository.save(plat);
+        menuActifCache.invalider();
+        arbreMenuCache.invalider();
+        rechercheCatalogueIndex.platEnregistre(savedPlat);
         logger.info("{} Plat sauvegardé avec succès. ID: {}, Nom: {}", context, savedPlat.getId(), savedPlat.getNom());
         return platMapper.toDto(savedPlat);
     }
@@ -133,6 +149,9 @@ public class PlatServiceImplementation implements PlatServiceInterface {
         }
 
         Plat updatedPlat = platRepository.save(existingPlat);
+        menuActifCache.invalider();
+        arbreMenuCache.invalider();
+        rechercheCatalogueIndex.platEnregistre(updatedPlat);
         logger.info("{} Plat ID: {} mis à jour avec succès - Nom: {}", context, id, updatedPlat.getNom());
         return platMapper.toDto(updatedPlat);
     }
@@ -146,18 +165,21 @@ public class PlatServiceImplementation implements PlatServiceInterface {
             throw new RuntimeException("Plat non trouvé");
         }
         platRepository.deleteById(id);
+        menuActifCache.invalider();
+        arbreMenuCache.invalider();
+        rechercheCatalogueIndex.platSupprime(id);
         logger.info("{} Plat ID: {} supprimé avec succès", context, id);
     }
 
     // --- GESTION DE LA DISPONIBILITÉ ---
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<PlatDto> getMenuActif() {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Récupération du menu actif (plats disponibles)", context);
-        List<PlatDto> platsDisponibles = platRepository.findByDisponibiliteTrue().stream()
-                .map(platMapper::toDto)
-                .collect(Collectors.toList());
+        // Servi depuis l'instantané en mémoire, reconstruit seulement après une modification de plat
+        List<PlatDto> platsDisponibles = menuActifCache.courant().getPlats();
         logger.info("{} {} plats disponibles récupérés avec succès", context, platsDisponibles.size());
         return platsDisponibles;
     }
@@ -172,7 +194,12 @@ public class PlatServiceImplementation implements PlatServiceInterface {
                     return new RuntimeException("Plat non trouvé");
                 });
         plat.setDisponibilite(estDisponible);
+        plat.setRetireParRupture(false);
         Plat updatedPlat = platRepository.save(plat);
+        menuActifCache.invalider();
+        arbreMenuCache.invalider();
+        // Choix explicite : le moteur de portions ne remettra plus ce plat à la carte de lui-même
+        portionsRestantesService.disponibiliteModifiee(id);
         logger.info("{} Disponibilité du plat ID: {} modifiée avec succès - Disponible: {}", context, id, estDisponible);
         return platMapper.toDto(updatedPlat);
     }
@@ -253,6 +280,8 @@ public class PlatServiceImplementation implements PlatServiceInterface {
         // Stocker juste le nom du fichier (référence locale)
         plat.setPhotoUrl(fileName);
         Plat savedPlat = platRepository.save(plat);
+        menuActifCache.invalider();
+        arbreMenuCache.invalider();
         logger.info("{} Image uploadée avec succès pour le plat ID: {} - Fichier: {}", context, id, fileName);
         return platMapper.toDto(savedPlat);
     }
@@ -0,0 +1,352 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.PortionsRestantesDto;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.repository.PlatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moteur des portions restantes : pour chaque plat ayant une recette, nombre de portions réalisables avec le
+ * stock actuel (minimum, sur ses ingrédients, du stock divisé par la quantité requise par portion).
+ * <p>
+ * Les variations de stock sont mises en file après commit par {@link IngredientServiceImplementation}, puis
+ * appliquées hors du thread de requête toutes les {@code app.stock.portions.fenetre-ms} millisecondes : seuls
+ * les plats qui utilisent un ingrédient modifié (index inverse de {@link NomenclaturePlatCache}) sont recalculés.
+ * Un plat qui tombe à zéro est retiré de la carte, et y revient dès que le stock le permet s'il n'a pas été
+ * modifié à la main entre-temps ; ce retrait est enregistré sur le plat et survit donc à un redémarrage. Les comptes modifiés sont diffusés sur {@value #DESTINATION}. Le stock en
+ * mémoire est réconcilié périodiquement avec la base.
+ */
+@Service
+public class PortionsRestantesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortionsRestantesService.class);
+
+    public static final String DESTINATION = "/topic/plats/portions";
+
+    private final NomenclaturePlatCache nomenclaturePlatCache;
+    private final IngredientRepository ingredientRepository;
+    private final PlatRepository platRepository;
+    private final MenuActifCache menuActifCache;
+    private final ArbreMenuCache arbreMenuCache;
+    private final DiffusionWebSocketService diffusionWebSocketService;
+    private final TransactionTemplate lectureSeule;
+    private final TransactionTemplate ecriture;
+    private final long reconciliationMs;
+
+    // Mouvements commités en attente de traitement
+    private final List<Mouvement> enAttente = new ArrayList<>();
+
+    // État du moteur : modifié uniquement par traiter(), sous "this"
+    private final Map<Long, BigDecimal> stocks = new HashMap<>();
+    private final Map<Long, Integer> portions = new HashMap<>();
+    private long versionNomenclatures = -1;
+    private long dernierChargement = 0;
+    private volatile boolean charge = false;
+    private volatile List<PortionsRestantesDto> vue = List.of();
+
+    // Plats retirés de la carte par le moteur : seuls ceux-là y reviennent automatiquement.
+    // Copie de Plat.retireParRupture, relue au premier chargement
+    private final Set<Long> desactivesParRupture = ConcurrentHashMap.newKeySet();
+
+    public PortionsRestantesService(NomenclaturePlatCache nomenclaturePlatCache,
+                                    IngredientRepository ingredientRepository,
+                                    PlatRepository platRepository,
+                                    MenuActifCache menuActifCache,
+                                    ArbreMenuCache arbreMenuCache,
+                                    DiffusionWebSocketService diffusionWebSocketService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.stock.portions.reconciliation-ms:300000}") long reconciliationMs) {
+        this.nomenclaturePlatCache = nomenclaturePlatCache;
+        this.ingredientRepository = ingredientRepository;
+        this.platRepository = platRepository;
+        this.menuActifCache = menuActifCache;
+        this.arbreMenuCache = arbreMenuCache;
+        this.diffusionWebSocketService = diffusionWebSocketService;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.ecriture = new TransactionTemplate(transactionManager);
+        this.reconciliationMs = reconciliationMs;
+    }
+
+    // --- Lectures ---
+
+    /**
+     * Portions restantes des plats ayant une recette, par ID de plat.
+     */
+    public List<PortionsRestantesDto> toutes() {
+        if (!charge) {
+            traiter();
+        }
+        return vue;
+    }
+
+    // --- Mouvements (pris en compte après commit) ---
+
+    /**
+     * Variations de stock (positives ou négatives) de la transaction en cours.
+     */
+    public void stockAjuste(Map<Long, BigDecimal> variations) {
+        if (variations == null || variations.isEmpty()) {
+            return;
+        }
+        List<Mouvement> mouvements = new ArrayList<>();
+        variations.forEach((ingredientId, variation) -> mouvements.add(new Mouvement(ingredientId, variation, false)));
+        apresCommit(() -> enfiler(mouvements));
+    }
+
+    /**
+     * Nouvelle quantité d'un ingrédient (création, correction d'inventaire, suppression à zéro).
+     */
+    public void stockDefini(Long ingredientId, BigDecimal quantite) {
+        Mouvement mouvement = new Mouvement(ingredientId, quantite != null ? quantite : BigDecimal.ZERO, true);
+        apresCommit(() -> enfiler(List.of(mouvement)));
+    }
+
+    /**
+     * Disponibilité d'un plat modifiée à la main (l'appelant remet {@code retireParRupture} à faux dans sa
+     * transaction) : le moteur ne la rétablira plus de lui-même.
+     */
+    public void disponibiliteModifiee(Long platId) {
+        apresCommit(() -> desactivesParRupture.remove(platId));
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void enfiler(List<Mouvement> mouvements) {
+        synchronized (enAttente) {
+            enAttente.addAll(mouvements);
+        }
+    }
+
+    // --- Traitement ---
+
+    /**
+     * Applique les mouvements en attente, recalcule les plats concernés, bascule leur disponibilité et
+     * diffuse les nouveaux comptes. Recharge d'abord le stock depuis la base au premier passage et à
+     * chaque période de réconciliation.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.portions.fenetre-ms:500}")
+    public synchronized void traiter() {
+        boolean recharge = false;
+        if (!charge || System.currentTimeMillis() - dernierChargement >= reconciliationMs) {
+            recharger();
+            recharge = true;
+        }
+
+        List<Mouvement> lot;
+        synchronized (enAttente) {
+            lot = new ArrayList<>(enAttente);
+            enAttente.clear();
+        }
+        Set<Long> ingredientsModifies = new HashSet<>();
+        for (Mouvement mouvement : lot) {
+            appliquer(mouvement);
+            ingredientsModifies.add(mouvement.ingredientId);
+        }
+
+        Set<Long> aRecalculer = new HashSet<>();
+        long version = nomenclaturePlatCache.version();
+        if (recharge || version != versionNomenclatures) {
+            // Recette ajoutée, modifiée ou retirée : tous les plats, y compris ceux qui n'ont plus de recette
+            versionNomenclatures = version;
+            aRecalculer.addAll(nomenclaturePlatCache.platsAvecRecette());
+            aRecalculer.addAll(portions.keySet());
+        } else {
+            ingredientsModifies.forEach(ingredientId -> aRecalculer.addAll(nomenclaturePlatCache.platsUtilisant(ingredientId)));
+        }
+        if (aRecalculer.isEmpty()) {
+            return;
+        }
+
+        List<PortionsRestantesDto> modifies = new ArrayList<>();
+        List<Long> epuises = new ArrayList<>();
+        List<Long> reapprovisionnes = new ArrayList<>();
+        for (Long platId : aRecalculer) {
+            Integer avant = portions.get(platId);
+            Integer apres = calculer(nomenclaturePlatCache.nomenclature(platId));
+            if (apres == null) {
+                if (portions.remove(platId) != null) {
+                    modifies.add(new PortionsRestantesDto(platId, null));
+                }
+                if (desactivesParRupture.contains(platId)) {
+                    reapprovisionnes.add(platId);
+                }
+                continue;
+            }
+            portions.put(platId, apres);
+            if (apres.equals(avant)) {
+                continue;
+            }
+            modifies.add(new PortionsRestantesDto(platId, apres));
+            if (apres == 0) {
+                epuises.add(platId);
+            } else if (desactivesParRupture.contains(platId)) {
+                reapprovisionnes.add(platId);
+            }
+        }
+        if (modifies.isEmpty() && reapprovisionnes.isEmpty()) {
+            return;
+        }
+
+        publierVue();
+        basculer(epuises, reapprovisionnes);
+        modifies.forEach(dto -> diffusionWebSocketService.publier(DESTINATION, dto.getPlatId(), dto));
+        logger.debug("Portions restantes : {} mouvement(s), {} plat(s) recalculé(s), {} compte(s) diffusé(s)",
+                lot.size(), aRecalculer.size(), modifies.size());
+    }
+
+    /**
+     * Relit le stock de tous les ingrédients. Les mouvements déjà en file, commités avant la lecture, y sont
+     * inclus et sont écartés ; ceux reçus pendant la lecture restent en file et sont rejoués sur l'instantané
+     * par {@link #traiter()}, si bien que la réconciliation aboutit toujours. Seule une variation commitée
+     * entre le début de la lecture et sa mise en file peut être comptée deux fois ; la réconciliation
+     * suivante la corrige.
+     */
+    private void recharger() {
+        long debut = System.currentTimeMillis();
+        List<Mouvement> inclus;
+        synchronized (enAttente) {
+            inclus = new ArrayList<>(enAttente);
+            enAttente.clear();
+        }
+
+        List<Object[]> lignes = lectureSeule.execute(statut -> ingredientRepository.findStocks());
+        // Mémoire mise à jour de ce que la lecture contient déjà, pour ne signaler que les vrais écarts
+        inclus.forEach(this::appliquer);
+
+        Map<Long, BigDecimal> depuisLaBase = new HashMap<>();
+        for (Object[] ligne : lignes) {
+            depuisLaBase.put((Long) ligne[0], ligne[1] != null ? (BigDecimal) ligne[1] : BigDecimal.ZERO);
+        }
+        if (charge && !stocksEgaux(stocks, depuisLaBase)) {
+            logger.warn("Portions restantes : stock en mémoire corrigé par réconciliation");
+        }
+        stocks.clear();
+        stocks.putAll(depuisLaBase);
+        if (!charge) {
+            desactivesParRupture.addAll(lectureSeule.execute(statut -> platRepository.findIdsRetiresParRupture()));
+        }
+        charge = true;
+        dernierChargement = System.currentTimeMillis();
+        logger.info("Portions restantes : stock de {} ingrédient(s) chargé en {} ms",
+                stocks.size(), System.currentTimeMillis() - debut);
+    }
+
+    private void appliquer(Mouvement mouvement) {
+        if (mouvement.absolu) {
+            stocks.put(mouvement.ingredientId, mouvement.quantite);
+        } else {
+            stocks.merge(mouvement.ingredientId, mouvement.quantite, BigDecimal::add);
+        }
+    }
+
+    private static boolean stocksEgaux(Map<Long, BigDecimal> memoire, Map<Long, BigDecimal> base) {
+        if (memoire.size() != base.size()) {
+            return false;
+        }
+        for (Map.Entry<Long, BigDecimal> entree : base.entrySet()) {
+            BigDecimal quantite = memoire.get(entree.getKey());
+            if (quantite == null || quantite.compareTo(entree.getValue()) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Portions réalisables, ou null si aucun ingrédient ne limite le plat
+    private Integer calculer(NomenclaturePlatCache.Nomenclature nomenclature) {
+        long minimum = Long.MAX_VALUE;
+        for (int i = 0; i < nomenclature.taille(); i++) {
+            BigDecimal parPortion = nomenclature.quantiteParPortion(i);
+            if (parPortion.signum() <= 0) {
+                continue;
+            }
+            BigDecimal stock = stocks.getOrDefault(nomenclature.ingredientId(i), BigDecimal.ZERO);
+            long possibles = stock.signum() <= 0 ? 0 : stock.divide(parPortion, 0, RoundingMode.FLOOR).longValue();
+            minimum = Math.min(minimum, possibles);
+        }
+        return minimum == Long.MAX_VALUE ? null : (int) Math.min(minimum, Integer.MAX_VALUE);
+    }
+
+    private void publierVue() {
+        List<PortionsRestantesDto> triee = new ArrayList<>();
+        portions.forEach((platId, nombre) -> triee.add(new PortionsRestantesDto(platId, nombre)));
+        triee.sort(Comparator.comparing(PortionsRestantesDto::getPlatId));
+        vue = List.copyOf(triee);
+    }
+
+    /**
+     * Retire de la carte les plats épuisés encore disponibles et y remet ceux que le moteur avait retirés.
+     */
+    private void basculer(List<Long> epuises, List<Long> reapprovisionnes) {
+        if (epuises.isEmpty() && reapprovisionnes.isEmpty()) {
+            return;
+        }
+        List<Long> retires = ecriture.execute(statut -> {
+            List<Long> disponibles = epuises.isEmpty() ? List.of() : platRepository.findIdsDisponiblesParmi(epuises);
+            if (!disponibles.isEmpty()) {
+                platRepository.modifierDisponibilite(disponibles, false, true);
+            }
+            if (!reapprovisionnes.isEmpty()) {
+                platRepository.modifierDisponibilite(reapprovisionnes, true, false);
+            }
+            if (!disponibles.isEmpty() || !reapprovisionnes.isEmpty()) {
+                menuActifCache.invalider();
+                arbreMenuCache.invalider();
+            }
+            return disponibles;
+        });
+
+        desactivesParRupture.addAll(retires);
+        reapprovisionnes.forEach(desactivesParRupture::remove);
+        if (!retires.isEmpty()) {
+            logger.warn("Rupture de stock : plat(s) {} retiré(s) de la carte", retires);
+        }
+        if (!reapprovisionnes.isEmpty()) {
+            logger.info("Plat(s) {} remis à la carte après réapprovisionnement", reapprovisionnes);
+        }
+    }
+
+    private static final class Mouvement {
+        private final Long ingredientId;
+        private final BigDecimal quantite;
+        // Vrai : nouvelle quantité ; faux : variation à ajouter
+        private final boolean absolu;
+
+        private Mouvement(Long ingredientId, BigDecimal quantite, boolean absolu) {
+            this.ingredientId = ingredientId;
+            this.quantite = quantite;
+            this.absolu = absolu;
+        }
+    }
+}
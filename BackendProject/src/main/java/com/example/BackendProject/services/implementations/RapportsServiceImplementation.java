@@ -2,24 +2,24 @@ package com.example.BackendProject.services.implementations;
 
 import com.example.BackendProject.dto.RapportsDto;
 import com.example.BackendProject.entities.Rapports;
+import com.example.BackendProject.entities.VenteAgregee;
 import com.example.BackendProject.mappers.RapportsMapper;
 import com.example.BackendProject.repository.RapportsRepository;
-import com.example.BackendProject.repository.CommandeRepository;
 import com.example.BackendProject.services.interfaces.RapportServiceInterface;
+import com.example.BackendProject.utils.GranulariteAgregat;
 import com.example.BackendProject.utils.LoggingUtils;
-import com.example.BackendProject.utils.StatutCommande;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,14 +28,14 @@ public class RapportsServiceImplementation implements RapportServiceInterface {
     private static final Logger logger = LoggerFactory.getLogger(RapportsServiceImplementation.class);
     private final RapportsRepository rapportsRepository;
     private final RapportsMapper rapportsMapper;
-    private final CommandeRepository commandeRepository;
+    private final AgregationVentesService agregationVentesService;
 
     public RapportsServiceImplementation(RapportsRepository rapportsRepository,
                                          RapportsMapper rapportsMapper,
-                                         CommandeRepository commandeRepository) {
+                                         AgregationVentesService agregationVentesService) {
         this.rapportsRepository = rapportsRepository;
         this.rapportsMapper = rapportsMapper;
-        this.commandeRepository = commandeRepository;
+        this.agregationVentesService = agregationVentesService;
     }
 
     // ================= CREATE =================
@@ -121,10 +121,12 @@ public class RapportsServiceImplementation implements RapportServiceInterface {
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime start;
+        GranulariteAgregat granularite = GranulariteAgregat.JOUR;
 
         switch (period.toLowerCase()) {
             case "day":
                 start = now.withHour(0).withMinute(0).withSecond(0).withNano(0);
+                granularite = GranulariteAgregat.HEURE;
                 break;
             case "week":
                 start = now.minusDays(7);
@@ -138,31 +140,24 @@ public class RapportsServiceImplementation implements RapportServiceInterface {
                 break;
         }
 
-        Timestamp startTs = Timestamp.valueOf(start);
-        Timestamp endTs = Timestamp.valueOf(now);
-
-        List<com.example.BackendProject.entities.Commande> commandes = commandeRepository.findByDateHeureCommandeBetween(startTs, endTs);
-
-        BigDecimal ca = commandes.stream()
-                .filter(c -> c.getStatut() == StatutCommande.TERMINEE || c.getStatut() == StatutCommande.PAYEE)
-                .map(c -> c.getTotalTtc() != null ? c.getTotalTtc() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Lecture des agrégats pré-calculés (au plus quelques centaines de lignes) au lieu des commandes
+        List<VenteAgregee> agregats = agregationVentesService.lireAgregats(granularite, start, now);
+
+        BigDecimal ca = BigDecimal.ZERO;
+        long nbCommandes = 0;
+        long nbClients = 0;
+        Map<String, BigDecimal> groupedByDate = new TreeMap<>();
+        for (VenteAgregee agregat : agregats) {
+            ca = ca.add(agregat.getChiffreAffaires());
+            nbCommandes += agregat.getNombreCommandes();
+            nbClients += agregat.getNombreClients();
+            groupedByDate.merge(agregat.getDebutPeriode().toLocalDateTime().toLocalDate().toString(),
+                    agregat.getChiffreAffaires(), BigDecimal::add);
+        }
 
-        long nbCommandes = commandes.size();
         BigDecimal ticketMoyen = nbCommandes > 0 ? ca.divide(BigDecimal.valueOf(nbCommandes), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
-        
-        long nbClients = commandes.stream()
-                .mapToLong(c -> c.getNombrePersonnes() != null ? c.getNombrePersonnes() : 1)
-                .sum();
 
         List<Map<String, Object>> evolutionCA = new ArrayList<>();
-        Map<String, BigDecimal> groupedByDate = commandes.stream()
-                .filter(c -> c.getStatut() == StatutCommande.TERMINEE || c.getStatut() == StatutCommande.PAYEE)
-                .collect(Collectors.groupingBy(
-                        c -> c.getDateHeureCommande().toLocalDateTime().toLocalDate().toString(),
-                        Collectors.reducing(BigDecimal.ZERO, c -> c.getTotalTtc() != null ? c.getTotalTtc() : BigDecimal.ZERO, BigDecimal::add)
-                ));
-
         groupedByDate.forEach((date, value) -> {
             Map<String, Object> point = new HashMap<>();
             point.put("date", date);
@@ -170,8 +165,6 @@ public class RapportsServiceImplementation implements RapportServiceInterface {
             evolutionCA.add(point);
         });
 
-        evolutionCA.sort((a, b) -> ((String) a.get("date")).compareTo((String) b.get("date")));
-
         Map<String, Object> stats = new HashMap<>();
         stats.put("ca", ca);
         stats.put("nbCommandes", nbCommandes);
@@ -179,6 +172,12 @@ public class RapportsServiceImplementation implements RapportServiceInterface {
         stats.put("nbClients", nbClients);
         stats.put("evolutionCA", evolutionCA);
 
+        logger.info("{} Statistiques calculées à partir de {} lignes d'agrégat", context, agregats.size());
         return stats;
     }
+
+    @Override
+    public int reconstruireAgregatsVentes() {
+        return agregationVentesService.reconstruire();
+    }
 }
@@ -24,17 +24,20 @@ public class RecetteItemServiceImplementation implements RecetteItemServiceInter
     private final RecetteRepository recetteRepository;
     private final IngredientRepository ingredientRepository;
     private final RecetteItemMapper mapper;
+    private final NomenclaturePlatCache nomenclaturePlatCache;
 
     public RecetteItemServiceImplementation(
             RecetteItemRepository recetteItemRepository,
             RecetteRepository recetteRepository,
             IngredientRepository ingredientRepository,
-            RecetteItemMapper mapper
+            RecetteItemMapper mapper,
+            NomenclaturePlatCache nomenclaturePlatCache
     ) {
         this.recetteItemRepository = recetteItemRepository;
         this.recetteRepository = recetteRepository;
         this.ingredientRepository = ingredientRepository;
         this.mapper = mapper;
+        this.nomenclaturePlatCache = nomenclaturePlatCache;
     }
 
     @Override
@@ -60,6 +63,7 @@ public class RecetteItemServiceImplementation implements RecetteItemServiceInter
         entity.setIngredient(ingredient);
 
         RecetteItem saved = recetteItemRepository.save(entity);
+        nomenclaturePlatCache.invalider();
         logger.info("{} Item de recette sauvegardé avec succès. ID: {}", context, saved.getId());
         return mapper.toDto(saved);
     }
@@ -109,6 +113,7 @@ public class RecetteItemServiceImplementation implements RecetteItemServiceInter
             throw new RuntimeException("Item de recette non trouvé avec l'ID: " + id);
         }
         recetteItemRepository.deleteById(id);
+        nomenclaturePlatCache.invalider();
         logger.info("{} Item de recette ID: {} supprimé avec succès", context, id);
     }
 }
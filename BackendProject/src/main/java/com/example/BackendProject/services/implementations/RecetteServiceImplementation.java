@@ -19,13 +19,16 @@ public class RecetteServiceImplementation implements RecetteServiceInterface {
     private static final Logger logger = LoggerFactory.getLogger(RecetteServiceImplementation.class);
     private final RecetteRepository recetteRepository;
     private final RecetteMapper recetteMapper;
+    private final NomenclaturePlatCache nomenclaturePlatCache;
 
     public RecetteServiceImplementation(
             RecetteRepository recetteRepository,
-            RecetteMapper recetteMapper
+            RecetteMapper recetteMapper,
+            NomenclaturePlatCache nomenclaturePlatCache
     ) {
         this.recetteRepository = recetteRepository;
         this.recetteMapper = recetteMapper;
+        this.nomenclaturePlatCache = nomenclaturePlatCache;
     }
 
     @Override
@@ -34,6 +37,7 @@ public class RecetteServiceImplementation implements RecetteServiceInterface {
         logger.info("{} Tentative de sauvegarde d'une recette - Plat ID: {}");
         Recette recette = recetteMapper.toEntity(dto);
         Recette saved = recetteRepository.save(recette);
+        nomenclaturePlatCache.invalider();
         logger.info("{} Recette sauvegardée avec succès. ID: {}", context, saved.getId());
         return recetteMapper.toDto(saved);
     }
@@ -84,6 +88,7 @@ public class RecetteServiceImplementation implements RecetteServiceInterface {
             throw new RuntimeException("Recette non trouvée avec l'ID: " + id);
         }
         recetteRepository.deleteById(id);
+        nomenclaturePlatCache.invalider();
         logger.info("{} Recette ID: {} supprimée avec succès", context, id);
     }
 }
@@ -0,0 +1,416 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.ResultatRechercheDto;
+import com.example.BackendProject.entities.Ingredient;
+import com.example.BackendProject.entities.Plat;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.repository.PlatRepository;
+import com.example.BackendProject.utils.TypeElementCatalogue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Index inversé en mémoire des noms d'ingrédients et des noms et descriptions de plats.
+ * <p>
+ * Les textes sont découpés en mots sans accents ni majuscules (« Crème brûlée » → creme, brulee). Chaque mot
+ * du terme doit correspondre à un mot du document : exactement, en préfixe (recherche au fil de la frappe) ou,
+ * si aucun mot connu ne commence par lui, à une faute de frappe près (lettre en trop, en moins, remplacée ou
+ * inversée, à partir de quatre lettres).
+ * Les fautes sont retrouvées par un index des variantes à une lettre supprimée. Un mot trouvé dans le nom
+ * compte double par rapport à la description. L'index est chargé à la première recherche puis tenu à jour
+ * après commit par les services des plats et des ingrédients.
+ * <p>
+ * {@link #contenant} sert en plus la recherche par sous-chaîne du nom (l'équivalent de {@code LIKE '%terme%'},
+ * sans accents) aux écrans qui attendent ce comportement.
+ */
+@Service
+public class RechercheCatalogueIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RechercheCatalogueIndex.class);
+
+    private static final Set<String> MOTS_VIDES = Set.of(
+            "a", "au", "aux", "d", "de", "des", "du", "en", "et", "l", "la", "le", "les", "un", "une");
+    private static final int LONGUEUR_MIN_FAUTE = 4;
+    private static final double EXACT = 1.0;
+    private static final double PREFIXE = 0.7;
+    private static final double FAUTE = 0.5;
+    private static final double POIDS_NOM = 2.0;
+
+    private final PlatRepository platRepository;
+    private final IngredientRepository ingredientRepository;
+    private final TransactionTemplate lectureSeule;
+
+    // Toutes les écritures et lectures de l'index passent par "this"
+    private final Map<String, Document> documents = new HashMap<>();
+    // Mot -> clés des documents qui le contiennent ; trié pour les recherches par préfixe
+    private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+    // Mot privé d'une lettre -> mots d'origine, pour la tolérance aux fautes
+    private final Map<String, Set<String>> variantes = new HashMap<>();
+    private boolean charge = false;
+
+    public RechercheCatalogueIndex(PlatRepository platRepository,
+                                   IngredientRepository ingredientRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.platRepository = platRepository;
+        this.ingredientRepository = ingredientRepository;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Plats et/ou ingrédients correspondant au terme, les plus pertinents d'abord.
+     *
+     * @param type null pour chercher dans tout le catalogue
+     */
+    public List<ResultatRechercheDto> rechercher(String terme, TypeElementCatalogue type, int limite) {
+        List<String> mots = mots(terme);
+        if (mots.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        List<ResultatRechercheDto> resultats = new ArrayList<>();
+        synchronized (this) {
+            if (!assurerCharge()) {
+                return rechercherEnBase(terme, type, limite);
+            }
+            Map<String, Double> scores = null;
+            for (String mot : mots) {
+                Map<String, Double> parDocument = scoresPourMot(mot, type);
+                if (scores == null) {
+                    scores = parDocument;
+                } else {
+                    // Tous les mots du terme doivent être trouvés
+                    scores.keySet().retainAll(parDocument.keySet());
+                    scores.replaceAll((cle, score) -> score + parDocument.get(cle));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            scores.forEach((cle, score) -> {
+                Document document = documents.get(cle);
+                resultats.add(new ResultatRechercheDto(document.type, document.id, document.nom, document.description, score));
+            });
+        }
+        return resultats.stream()
+                .sorted(Comparator.comparingDouble(ResultatRechercheDto::getScore).reversed()
+                        .thenComparingInt(resultat -> resultat.getNom().length())
+                        .thenComparing(ResultatRechercheDto::getNom)
+                        .thenComparing(ResultatRechercheDto::getId))
+                .limit(limite)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Éléments dont le nom contient le terme, sans tenir compte de la casse ni des accents, par ID croissant.
+     * Pas de découpage en mots, de mots vides ni de fautes tolérées : « mate » trouve « Tomate », « de »
+     * trouve « Pâte de piment ».
+     */
+    public List<Long> contenant(String terme, TypeElementCatalogue type) {
+        if (terme == null) {
+            return List.of();
+        }
+        String recherche = normaliser(terme);
+        List<Long> ids = new ArrayList<>();
+        synchronized (this) {
+            if (!assurerCharge()) {
+                return contenantEnBase(terme, type);
+            }
+            for (Document document : documents.values()) {
+                if ((type == null || document.type == type) && document.nomNormalise.contains(recherche)) {
+                    ids.add(document.id);
+                }
+            }
+        }
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+
+    // Meilleur score de chaque document pour un mot du terme
+    private Map<String, Double> scoresPourMot(String mot, TypeElementCatalogue type) {
+        Map<String, Double> correspondances = new HashMap<>();
+        for (String candidat : postings.subMap(mot, true, mot + Character.MAX_VALUE, false).keySet()) {
+            correspondances.put(candidat, candidat.equals(mot) ? EXACT : PREFIXE);
+        }
+        // Faute de frappe supposée seulement si aucun mot connu ne commence par le terme (« creme » ne doit pas trouver « crepe »)
+        if (correspondances.isEmpty() && mot.length() >= LONGUEUR_MIN_FAUTE) {
+            for (String proche : motsProches(mot)) {
+                correspondances.putIfAbsent(proche, FAUTE);
+            }
+        }
+
+        Map<String, Double> parDocument = new HashMap<>();
+        correspondances.forEach((candidat, qualite) -> {
+            for (String cle : postings.get(candidat)) {
+                Document document = documents.get(cle);
+                if (type != null && document.type != type) {
+                    continue;
+                }
+                double score = qualite * (document.motsNom.contains(candidat) ? POIDS_NOM : 1.0);
+                parDocument.merge(cle, score, Math::max);
+            }
+        });
+        return parDocument;
+    }
+
+    private Set<String> motsProches(String mot) {
+        Set<String> candidats = new HashSet<>(variantes.getOrDefault(mot, Set.of()));
+        for (String variante : suppressions(mot)) {
+            if (postings.containsKey(variante)) {
+                candidats.add(variante);
+            }
+            candidats.addAll(variantes.getOrDefault(variante, Set.of()));
+        }
+        candidats.removeIf(candidat -> !aUneFautePres(mot, candidat));
+        return candidats;
+    }
+
+    // --- Mises à jour (après commit) ---
+
+    public void platEnregistre(Plat plat) {
+        enregistrer(new Document(TypeElementCatalogue.PLAT, plat.getId(), plat.getNom(), plat.getDescription()));
+    }
+
+    public void platSupprime(Long platId) {
+        retirer(cle(TypeElementCatalogue.PLAT, platId));
+    }
+
+    public void ingredientEnregistre(Ingredient ingredient) {
+        enregistrer(new Document(TypeElementCatalogue.INGREDIENT, ingredient.getId(), ingredient.getNom(), null));
+    }
+
+    public void ingredientSupprime(Long ingredientId) {
+        retirer(cle(TypeElementCatalogue.INGREDIENT, ingredientId));
+    }
+
+    private void enregistrer(Document document) {
+        apresCommit(() -> {
+            synchronized (this) {
+                if (charge) {
+                    retirerDeIndex(document.cle);
+                    ajouterAIndex(document);
+                }
+            }
+        });
+    }
+
+    private void retirer(String cle) {
+        apresCommit(() -> {
+            synchronized (this) {
+                if (charge) {
+                    retirerDeIndex(cle);
+                }
+            }
+        });
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void ajouterAIndex(Document document) {
+        documents.put(document.cle, document);
+        for (String mot : document.tousLesMots()) {
+            Set<String> cles = postings.get(mot);
+            if (cles == null) {
+                cles = new HashSet<>();
+                postings.put(mot, cles);
+                for (String variante : suppressions(mot)) {
+                    variantes.computeIfAbsent(variante, cle -> new HashSet<>()).add(mot);
+                }
+            }
+            cles.add(document.cle);
+        }
+    }
+
+    private void retirerDeIndex(String cle) {
+        Document ancien = documents.remove(cle);
+        if (ancien == null) {
+            return;
+        }
+        for (String mot : ancien.tousLesMots()) {
+            Set<String> cles = postings.get(mot);
+            if (cles != null && cles.remove(cle) && cles.isEmpty()) {
+                postings.remove(mot);
+                for (String variante : suppressions(mot)) {
+                    Set<String> mots = variantes.get(variante);
+                    if (mots != null && mots.remove(mot) && mots.isEmpty()) {
+                        variantes.remove(variante);
+                    }
+                }
+            }
+        }
+    }
+
+    // --- Chargement ---
+
+    // false si l'index n'a pas pu être chargé : la recherche passe alors par la base
+    private boolean assurerCharge() {
+        if (charge) {
+            return true;
+        }
+        long debut = System.currentTimeMillis();
+        try {
+            List<Document> catalogue = lectureSeule.execute(statut -> {
+                List<Document> lus = new ArrayList<>();
+                for (Object[] ligne : platRepository.findIndexRecherche()) {
+                    lus.add(new Document(TypeElementCatalogue.PLAT, (Long) ligne[0], (String) ligne[1], (String) ligne[2]));
+                }
+                for (Object[] ligne : ingredientRepository.findIndexRecherche()) {
+                    lus.add(new Document(TypeElementCatalogue.INGREDIENT, (Long) ligne[0], (String) ligne[1], null));
+                }
+                return lus;
+            });
+            catalogue.forEach(this::ajouterAIndex);
+            charge = true;
+            logger.info("Recherche catalogue : {} document(s), {} mot(s) indexé(s) en {} ms",
+                    documents.size(), postings.size(), System.currentTimeMillis() - debut);
+            return true;
+        } catch (RuntimeException e) {
+            documents.clear();
+            postings.clear();
+            variantes.clear();
+            logger.error("Recherche catalogue : chargement de l'index impossible, repli sur la base", e);
+            return false;
+        }
+    }
+
+    private List<ResultatRechercheDto> rechercherEnBase(String terme, TypeElementCatalogue type, int limite) {
+        List<ResultatRechercheDto> resultats = new ArrayList<>();
+        if (type == null || type == TypeElementCatalogue.PLAT) {
+            platRepository.findByNomContainingIgnoreCase(terme).forEach(plat -> resultats.add(new ResultatRechercheDto(
+                    TypeElementCatalogue.PLAT, plat.getId(), plat.getNom(), plat.getDescription(), EXACT)));
+        }
+        if (type == null || type == TypeElementCatalogue.INGREDIENT) {
+            ingredientRepository.findByNomContainingIgnoreCase(terme).forEach(ingredient -> resultats.add(new ResultatRechercheDto(
+                    TypeElementCatalogue.INGREDIENT, ingredient.getId(), ingredient.getNom(), null, EXACT)));
+        }
+        return resultats.size() > limite ? new ArrayList<>(resultats.subList(0, limite)) : resultats;
+    }
+
+    private List<Long> contenantEnBase(String terme, TypeElementCatalogue type) {
+        List<Long> ids = new ArrayList<>();
+        if (type == null || type == TypeElementCatalogue.PLAT) {
+            platRepository.findByNomContainingIgnoreCase(terme).forEach(plat -> ids.add(plat.getId()));
+        }
+        if (type == null || type == TypeElementCatalogue.INGREDIENT) {
+            ingredientRepository.findByNomContainingIgnoreCase(terme).forEach(ingredient -> ids.add(ingredient.getId()));
+        }
+        return ids;
+    }
+
+    // --- Analyse du texte ---
+
+    static List<String> mots(String texte) {
+        if (texte == null) {
+            return List.of();
+        }
+        List<String> mots = new ArrayList<>();
+        for (String mot : normaliser(texte).split("[^a-z0-9]+")) {
+            if (!mot.isEmpty() && !MOTS_VIDES.contains(mot)) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+
+    // Sans accents ni majuscules
+    private static String normaliser(String texte) {
+        return Normalizer.normalize(texte, Normalizer.Form.NFD).replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+    }
+
+    private static Set<String> suppressions(String mot) {
+        Set<String> resultat = new HashSet<>();
+        for (int i = 0; i < mot.length(); i++) {
+            resultat.add(mot.substring(0, i) + mot.substring(i + 1));
+        }
+        return resultat;
+    }
+
+    // Distance de Damerau-Levenshtein d'au plus 1
+    static boolean aUneFautePres(String a, String b) {
+        if (a.equals(b)) {
+            return true;
+        }
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < Math.min(la, lb) && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (la == lb) {
+            if (a.substring(i + 1).equals(b.substring(i + 1))) {
+                return true;
+            }
+            // Deux lettres voisines inversées
+            return i + 1 < la && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.substring(i + 2).equals(b.substring(i + 2));
+        }
+        return la > lb ? a.substring(i + 1).equals(b.substring(i)) : b.substring(i + 1).equals(a.substring(i));
+    }
+
+    private static String cle(TypeElementCatalogue type, Long id) {
+        return type + ":" + id;
+    }
+
+    // Document indexé, immuable : une modification remplace le document
+    private static final class Document {
+        private final String cle;
+        private final TypeElementCatalogue type;
+        private final Long id;
+        private final String nom;
+        private final String description;
+        private final String nomNormalise;
+        private final Set<String> motsNom;
+        private final Set<String> motsDescription;
+
+        private Document(TypeElementCatalogue type, Long id, String nom, String description) {
+            this.cle = cle(type, id);
+            this.type = type;
+            this.id = id;
+            this.nom = nom != null ? nom : "";
+            this.description = description;
+            this.nomNormalise = normaliser(this.nom);
+            this.motsNom = new HashSet<>(mots(nom));
+            this.motsDescription = new HashSet<>(mots(description));
+        }
+
+        private Set<String> tousLesMots() {
+            Set<String> tous = new LinkedHashSet<>(motsNom);
+            tous.addAll(motsDescription);
+            return tous;
+        }
+    }
+}
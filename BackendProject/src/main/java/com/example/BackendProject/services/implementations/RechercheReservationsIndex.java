@@ -0,0 +1,375 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.ReservationDto;
+import com.example.BackendProject.mappers.ReservationMapper;
+import com.example.BackendProject.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Index de recherche des réservations par nom du client et téléphone, pour la recherche au fil de la frappe.
+ * <p>
+ * Noms (sans accents, en minuscules) et chiffres du téléphone sont découpés en trigrammes : une recherche
+ * intersecte les listes des trigrammes du terme puis vérifie la sous-chaîne sur les seuls candidats. Les termes
+ * de moins de trois caractères parcourent les entrées en mémoire. Seules les réservations depuis
+ * {@code app.reservations.recherche.horizon-jours} jours sont indexées ; l'index est tenu à jour après commit
+ * par le service de réservation.
+ */
+@Service
+public class RechercheReservationsIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RechercheReservationsIndex.class);
+
+    private static final int TAILLE_NGRAMME = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationMapper reservationMapper;
+    private final TransactionTemplate lectureSeule;
+    private final int horizonJours;
+    private final int resultatsMax;
+
+    // Toutes les écritures et lectures de l'index passent par "this"
+    private final Map<Long, Entree> entrees = new HashMap<>();
+    private final Map<String, Set<Long>> trigrammesNom = new HashMap<>();
+    private final Map<String, Set<Long>> trigrammesTelephone = new HashMap<>();
+    private boolean charge = false;
+
+    public RechercheReservationsIndex(ReservationRepository reservationRepository,
+                                      ReservationMapper reservationMapper,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.reservations.recherche.horizon-jours:90}") int horizonJours,
+                                      @Value("${app.reservations.recherche.resultats-max:50}") int resultatsMax) {
+        this.reservationRepository = reservationRepository;
+        this.reservationMapper = reservationMapper;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        this.horizonJours = horizonJours;
+        this.resultatsMax = resultatsMax;
+    }
+
+    /**
+     * Réservations dont le nom ou le téléphone contient le terme, les plus pertinentes d'abord :
+     * correspondance exacte, puis début du nom ou fin du numéro, puis début d'un mot, puis sous-chaîne ;
+     * à pertinence égale, la date la plus proche d'aujourd'hui. Chaque appel renvoie de nouveaux DTO, que l'appelant
+     * peut modifier sans altérer l'index.
+     */
+    public List<ReservationDto> rechercher(String terme) {
+        String nom = normaliserNom(terme);
+        String telephone = estNumero(terme) ? chiffres(terme) : "";
+        if (nom.isEmpty() && telephone.isEmpty()) {
+            return List.of();
+        }
+        LocalDate aujourdhui = aujourdhui();
+
+        List<Resultat> resultats = new ArrayList<>();
+        synchronized (this) {
+            if (!assurerCharge()) {
+                return rechercherEnBase(terme);
+            }
+            Set<Long> candidats = new HashSet<>(candidats(trigrammesNom, nom, entree -> entree.nom));
+            candidats.addAll(candidats(trigrammesTelephone, telephone, entree -> entree.telephone));
+            for (Long id : candidats) {
+                Entree entree = entrees.get(id);
+                int rang = Math.min(rangNom(entree.nom, nom), rangTelephone(entree.telephone, telephone));
+                long ecart = entree.date != null ? Math.abs(ChronoUnit.DAYS.between(aujourdhui, entree.date)) : Long.MAX_VALUE;
+                resultats.add(new Resultat(entree, rang, ecart));
+            }
+        }
+        return resultats.stream()
+                .sorted(Comparator.comparingInt((Resultat resultat) -> resultat.rang)
+                        .thenComparingLong(resultat -> resultat.ecartJours)
+                        .thenComparing(resultat -> resultat.entree.id, Comparator.<Long>reverseOrder()))
+                .limit(resultatsMax)
+                .map(resultat -> resultat.entree.versDto())
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> candidats(Map<String, Set<Long>> index, String terme, Function<Entree, String> champ) {
+        if (terme.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> candidats;
+        if (terme.length() < TAILLE_NGRAMME) {
+            candidats = entrees.keySet();
+        } else {
+            // Intersection en partant de la liste la plus courte
+            List<Set<Long>> listes = new ArrayList<>();
+            for (String trigramme : trigrammes(terme)) {
+                Set<Long> ids = index.get(trigramme);
+                if (ids == null) {
+                    return Set.of();
+                }
+                listes.add(ids);
+            }
+            listes.sort(Comparator.comparingInt(Set::size));
+            candidats = new HashSet<>(listes.get(0));
+            for (int i = 1; i < listes.size() && !candidats.isEmpty(); i++) {
+                candidats.retainAll(listes.get(i));
+            }
+        }
+        Set<Long> trouves = new HashSet<>();
+        for (Long id : candidats) {
+            if (champ.apply(entrees.get(id)).contains(terme)) {
+                trouves.add(id);
+            }
+        }
+        return trouves;
+    }
+
+    private static int rangNom(String nom, String terme) {
+        if (terme.isEmpty() || !nom.contains(terme)) {
+            return Integer.MAX_VALUE;
+        }
+        if (nom.equals(terme)) {
+            return 0;
+        }
+        if (nom.startsWith(terme)) {
+            return 1;
+        }
+        return nom.contains(" " + terme) ? 2 : 3;
+    }
+
+    private static int rangTelephone(String telephone, String terme) {
+        if (terme.isEmpty() || !telephone.contains(terme)) {
+            return Integer.MAX_VALUE;
+        }
+        if (telephone.equals(terme)) {
+            return 0;
+        }
+        // Les hôtes tapent souvent les derniers chiffres
+        if (telephone.endsWith(terme)) {
+            return 1;
+        }
+        return telephone.startsWith(terme) ? 2 : 3;
+    }
+
+    // --- Mises à jour (après commit) ---
+
+    public void enregistrer(ReservationDto reservation) {
+        apresCommit(() -> {
+            synchronized (this) {
+                if (!charge) {
+                    return;
+                }
+                retirerDeIndex(reservation.getId());
+                if (dansHorizon(reservation.getDate())) {
+                    ajouterAIndex(reservation);
+                }
+            }
+        });
+    }
+
+    public void retirer(Long reservationId) {
+        apresCommit(() -> {
+            synchronized (this) {
+                if (charge) {
+                    retirerDeIndex(reservationId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Oublie les réservations sorties de l'horizon de recherche.
+     */
+    @Scheduled(cron = "${app.reservations.recherche.purge-cron:0 30 4 * * *}")
+    public synchronized void purger() {
+        List<Long> anciennes = new ArrayList<>();
+        for (Entree entree : entrees.values()) {
+            if (!dansHorizon(entree.date)) {
+                anciennes.add(entree.id);
+            }
+        }
+        anciennes.forEach(this::retirerDeIndex);
+        if (!anciennes.isEmpty()) {
+            logger.info("Recherche réservations : {} réservation(s) hors horizon retirée(s) de l'index", anciennes.size());
+        }
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void ajouterAIndex(ReservationDto reservation) {
+        Entree entree = new Entree(reservation);
+        entrees.put(reservation.getId(), entree);
+        for (String trigramme : trigrammes(entree.nom)) {
+            trigrammesNom.computeIfAbsent(trigramme, cle -> new HashSet<>()).add(reservation.getId());
+        }
+        for (String trigramme : trigrammes(entree.telephone)) {
+            trigrammesTelephone.computeIfAbsent(trigramme, cle -> new HashSet<>()).add(reservation.getId());
+        }
+    }
+
+    private void retirerDeIndex(Long reservationId) {
+        Entree ancienne = entrees.remove(reservationId);
+        if (ancienne == null) {
+            return;
+        }
+        retirerTrigrammes(trigrammesNom, ancienne.nom, reservationId);
+        retirerTrigrammes(trigrammesTelephone, ancienne.telephone, reservationId);
+    }
+
+    private static void retirerTrigrammes(Map<String, Set<Long>> index, String valeur, Long reservationId) {
+        for (String trigramme : trigrammes(valeur)) {
+            Set<Long> ids = index.get(trigramme);
+            if (ids != null && ids.remove(reservationId) && ids.isEmpty()) {
+                index.remove(trigramme);
+            }
+        }
+    }
+
+    // --- Chargement ---
+
+    // false si l'index n'a pas pu être chargé : la recherche passe alors par la base
+    private boolean assurerCharge() {
+        if (charge) {
+            return true;
+        }
+        long debut = System.currentTimeMillis();
+        try {
+            List<ReservationDto> reservations = lectureSeule.execute(statut ->
+                    reservationRepository.findByDateGreaterThanEqual(debutHorizon()).stream()
+                            .map(reservationMapper::toDto)
+                            .collect(Collectors.toList()));
+            reservations.forEach(this::ajouterAIndex);
+            charge = true;
+            logger.info("Recherche réservations : {} réservation(s) indexée(s), {} trigramme(s) en {} ms",
+                    entrees.size(), trigrammesNom.size() + trigrammesTelephone.size(), System.currentTimeMillis() - debut);
+            return true;
+        } catch (RuntimeException e) {
+            entrees.clear();
+            trigrammesNom.clear();
+            trigrammesTelephone.clear();
+            logger.error("Recherche réservations : chargement de l'index impossible, repli sur la base", e);
+            return false;
+        }
+    }
+
+    private List<ReservationDto> rechercherEnBase(String terme) {
+        return reservationRepository.findByTelephoneContainingOrNomClientContainingIgnoreCase(terme, terme).stream()
+                .map(reservationMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private boolean dansHorizon(LocalDate date) {
+        return date != null && !date.isBefore(debutHorizon());
+    }
+
+    private LocalDate debutHorizon() {
+        return aujourdhui().minusDays(horizonJours);
+    }
+
+    protected LocalDate aujourdhui() {
+        return LocalDate.now();
+    }
+
+    // --- Normalisation ---
+
+    static String normaliserNom(String valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        String sansAccents = Normalizer.normalize(valeur, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sansAccents.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String chiffres(String valeur) {
+        return valeur == null ? "" : valeur.replaceAll("\\D", "");
+    }
+
+    // Un terme n'est cherché dans les téléphones que s'il ressemble à un numéro
+    private static boolean estNumero(String terme) {
+        return terme != null && terme.matches("[\\d\\s+().-]*\\d[\\d\\s+().-]*");
+    }
+
+    private static Set<String> trigrammes(String valeur) {
+        Set<String> trigrammes = new HashSet<>();
+        for (int i = 0; i + TAILLE_NGRAMME <= valeur.length(); i++) {
+            trigrammes.add(valeur.substring(i, i + TAILLE_NGRAMME));
+        }
+        return trigrammes;
+    }
+
+    // Copie champ à champ : tous les champs du DTO sont des valeurs immuables
+    private static ReservationDto copie(ReservationDto source) {
+        ReservationDto copie = new ReservationDto();
+        copie.setId(source.getId());
+        copie.setNomClient(source.getNomClient());
+        copie.setEmail(source.getEmail());
+        copie.setTelephone(source.getTelephone());
+        copie.setNombrePersonnes(source.getNombrePersonnes());
+        copie.setDate(source.getDate());
+        copie.setHeure(source.getHeure());
+        copie.setStatut(source.getStatut());
+        copie.setNotes(source.getNotes());
+        copie.setDureeMinutes(source.getDureeMinutes());
+        copie.setTableId(source.getTableId());
+        copie.setNumeroTable(source.getNumeroTable());
+        return copie;
+    }
+
+    // Champs normalisés d'une réservation, immuable : une mise à jour remplace l'entrée. La réservation est
+    // copiée à l'indexation et à chaque lecture, aucun DTO de l'index n'est visible de l'extérieur
+    private static final class Entree {
+        private final Long id;
+        private final ReservationDto reservation;
+        private final String nom;
+        private final String telephone;
+        private final LocalDate date;
+
+        private Entree(ReservationDto dto) {
+            this.id = dto.getId();
+            this.reservation = copie(dto);
+            this.nom = normaliserNom(dto.getNomClient());
+            this.telephone = chiffres(dto.getTelephone());
+            this.date = dto.getDate();
+        }
+
+        private ReservationDto versDto() {
+            return copie(reservation);
+        }
+    }
+
+    private static final class Resultat {
+        private final Entree entree;
+        private final int rang;
+        private final long ecartJours;
+
+        private Resultat(Entree entree, int rang, long ecartJours) {
+            this.entree = entree;
+            this.rang = rang;
+            this.ecartJours = ecartJours;
+        }
+    }
+}
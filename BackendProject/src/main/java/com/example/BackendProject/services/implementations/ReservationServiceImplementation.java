@@ -1,8 +1,12 @@
 package com.example.BackendProject.services.implementations;
 
+import com.example.BackendProject.dto.CreneauDisponibleDto;
+import com.example.BackendProject.dto.PlanTablesDto;
 import com.example.BackendProject.dto.ReservationDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
 import com.example.BackendProject.entities.Reservation;
 import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.exceptions.ConflitReservationException;
 import com.example.BackendProject.mappers.ReservationMapper;
 import com.example.BackendProject.repository.ReservationRepository;
 import com.example.BackendProject.repository.TableRestaurantRepository;
@@ -15,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,13 +31,22 @@ public class ReservationServiceImplementation implements ReservationService {
     private final ReservationRepository reservationRepository;
     private final TableRestaurantRepository tableRepository;
     private final ReservationMapper reservationMapper;
+    private final DisponibiliteTablesService disponibiliteTablesService;
+    private final OptimiseurTablesService optimiseurTablesService;
+    private final RechercheReservationsIndex rechercheReservationsIndex;
 
     public ReservationServiceImplementation(ReservationRepository reservationRepository,
                                             TableRestaurantRepository tableRepository,
-                                            ReservationMapper reservationMapper) {
+                                            ReservationMapper reservationMapper,
+                                            DisponibiliteTablesService disponibiliteTablesService,
+                                            OptimiseurTablesService optimiseurTablesService,
+                                            RechercheReservationsIndex rechercheReservationsIndex) {
         this.reservationRepository = reservationRepository;
         this.tableRepository = tableRepository;
         this.reservationMapper = reservationMapper;
+        this.disponibiliteTablesService = disponibiliteTablesService;
+        this.optimiseurTablesService = optimiseurTablesService;
+        this.rechercheReservationsIndex = rechercheReservationsIndex;
     }
 
     @Override
@@ -46,8 +60,12 @@ public class ReservationServiceImplementation implements ReservationService {
             reservation.setTable(table);
         }
         reservation.setStatut(StatutReservation.EN_ATTENTE);
+        verifierCreneauLibre(reservation);
         Reservation saved = reservationRepository.save(reservation);
-        return reservationMapper.toDto(saved);
+        disponibiliteTablesService.enregistrer(saved);
+        ReservationDto dto = reservationMapper.toDto(saved);
+        rechercheReservationsIndex.enregistrer(dto);
+        return dto;
     }
 
     @Override
@@ -64,6 +82,7 @@ public class ReservationServiceImplementation implements ReservationService {
         existing.setDate(reservationDto.getDate());
         existing.setHeure(reservationDto.getHeure());
         existing.setNotes(reservationDto.getNotes());
+        existing.setDureeMinutes(reservationDto.getDureeMinutes());
 
         if (reservationDto.getTableId() != null) {
             TableRestaurant table = tableRepository.findById(reservationDto.getTableId())
@@ -73,8 +92,12 @@ public class ReservationServiceImplementation implements ReservationService {
             existing.setTable(null);
         }
 
+        verifierCreneauLibre(existing);
         Reservation updated = reservationRepository.save(existing);
-        return reservationMapper.toDto(updated);
+        disponibiliteTablesService.enregistrer(updated);
+        ReservationDto dto = reservationMapper.toDto(updated);
+        rechercheReservationsIndex.enregistrer(dto);
+        return dto;
     }
 
     @Override
@@ -82,6 +105,8 @@ public class ReservationServiceImplementation implements ReservationService {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Suppression de la réservation ID: {}", context, id);
         reservationRepository.deleteById(id);
+        disponibiliteTablesService.retirer(id);
+        rechercheReservationsIndex.retirer(id);
     }
 
     @Override
@@ -113,14 +138,74 @@ public class ReservationServiceImplementation implements ReservationService {
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Réservation non trouvée"));
         reservation.setStatut(StatutReservation.valueOf(status));
-        return reservationMapper.toDto(reservationRepository.save(reservation));
+        // Une réservation réactivée peut entrer en conflit avec une autre prise entre-temps
+        verifierCreneauLibre(reservation);
+        Reservation saved = reservationRepository.save(reservation);
+        disponibiliteTablesService.enregistrer(saved);
+        ReservationDto dto = reservationMapper.toDto(saved);
+        rechercheReservationsIndex.enregistrer(dto);
+        return dto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ReservationDto> searchReservations(String term) {
-        return reservationRepository.findByTelephoneContainingOrNomClientContainingIgnoreCase(term, term).stream()
-                .map(reservationMapper::toDto)
-                .collect(Collectors.toList());
+        return rechercheReservationsIndex.rechercher(term);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TableRestaurantDto> getTablesDisponibles(int personnes, LocalDateTime debut, Integer dureeMinutes) {
+        return disponibiliteTablesService.tablesDisponibles(personnes, debut, dureeMinutes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CreneauDisponibleDto> getProchainsCreneaux(int personnes, LocalDateTime aPartirDe, Integer dureeMinutes, int nombre) {
+        return disponibiliteTablesService.prochainsCreneaux(personnes, aPartirDe, dureeMinutes, nombre);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlanTablesDto getPlanTables(LocalDate date, boolean complet) {
+        String context = LoggingUtils.getLogContext();
+        PlanTablesDto plan = optimiseurTablesService.planifier(date, complet);
+        logger.info("{} Plan des tables du {} : {} couvert(s) placé(s), {} non placé(s), calculé en {} ms",
+                context, date, plan.getCouvertsPlaces(), plan.getCouvertsNonPlaces(), plan.getDureeCalculMs());
+        return plan;
+    }
+
+    /**
+     * Refuse une réservation active qui chevauche une autre réservation active de la même table.
+     * La ligne de la table est verrouillée jusqu'au commit : deux réservations concurrentes sur la même
+     * table sont contrôlées l'une après l'autre, la seconde voit la première.
+     */
+    private void verifierCreneauLibre(Reservation reservation) {
+        if (reservation.getTable() == null || reservation.getTable().getId() == null
+                || !DisponibiliteTablesService.estActive(reservation.getStatut())) {
+            return;
+        }
+        String context = LoggingUtils.getLogContext();
+        Long tableId = reservation.getTable().getId();
+        tableRepository.findByIdPourReservation(tableId)
+                .orElseThrow(() -> new RuntimeException("Table non trouvée"));
+
+        LocalDateTime debut = LocalDateTime.of(reservation.getDate(), reservation.getHeure());
+        LocalDateTime fin = debut.plusMinutes(disponibiliteTablesService.dureeEffective(reservation.getDureeMinutes()));
+        List<Reservation> autres = reservationRepository.findActivesPourTable(tableId,
+                reservation.getDate().minusDays(1), reservation.getDate().plusDays(1), DisponibiliteTablesService.STATUTS_ACTIFS);
+        for (Reservation autre : autres) {
+            if (autre.getId().equals(reservation.getId())) {
+                continue;
+            }
+            LocalDateTime autreDebut = LocalDateTime.of(autre.getDate(), autre.getHeure());
+            LocalDateTime autreFin = autreDebut.plusMinutes(disponibiliteTablesService.dureeEffective(autre.getDureeMinutes()));
+            if (autreDebut.isBefore(fin) && debut.isBefore(autreFin)) {
+                logger.warn("{} Double réservation refusée sur la table ID: {} ({} - {}), déjà prise par la réservation ID: {}",
+                        context, tableId, debut, fin, autre.getId());
+                throw new ConflitReservationException("La table est déjà réservée de " + autreDebut.toLocalTime()
+                        + " à " + autreFin.toLocalTime() + " le " + autre.getDate());
+            }
+        }
     }
 }
@@ -28,11 +28,14 @@ public class RestaurantServiceImplementation implements RestaurantServiceInterfa
     private static final Logger logger = LoggerFactory.getLogger(RestaurantServiceImplementation.class);
     private final RestaurantRepository restaurantRepository;
     private final RestaurantMapper restaurantMapper;
+    private final TauxTvaCache tauxTvaCache;
     private final String UPLOAD_DIR = Paths.get(System.getProperty("user.dir"), "uploads", "restaurant").toString() + "/";
 
-    public RestaurantServiceImplementation(RestaurantRepository restaurantRepository, RestaurantMapper restaurantMapper) {
+    public RestaurantServiceImplementation(RestaurantRepository restaurantRepository, RestaurantMapper restaurantMapper,
+                                           TauxTvaCache tauxTvaCache) {
         this.restaurantRepository = restaurantRepository;
         this.restaurantMapper = restaurantMapper;
+        this.tauxTvaCache = tauxTvaCache;
     }
 
     @Override
@@ -44,6 +47,7 @@ public class RestaurantServiceImplementation implements RestaurantServiceInterfa
             throw new RuntimeException("Données incorrectes pour la création du restaurant");
         }
         Restaurant saved = restaurantRepository.save(restaurantMapper.toEntity(restaurantDto));
+        tauxTvaCache.invalider();
         logger.info("{} Restaurant créé avec succès. ID: {}, Nom: {}", context, saved.getId(), saved.getNom());
         return restaurantMapper.toDto(saved);
     }
@@ -77,6 +81,7 @@ public class RestaurantServiceImplementation implements RestaurantServiceInterfa
             existingRestaurant.setHeuresOuverture(restaurantMapper.toEntity(restaurantDto).getHeuresOuverture());
             existingRestaurant.setDateCreation(restaurantDto.getDateCreation());
             Restaurant updated = restaurantRepository.save(existingRestaurant);
+            tauxTvaCache.invalider();
             logger.info("{} Restaurant ID: {} mis à jour avec succès - Nom: {}", context, id, updated.getNom());
             return restaurantMapper.toDto(updated);
         } catch (Exception e) {
@@ -94,6 +99,7 @@ public class RestaurantServiceImplementation implements RestaurantServiceInterfa
             throw new RuntimeException("Restaurant introuvable avec l'ID : " + id);
         }
         restaurantRepository.deleteById(id);
+        tauxTvaCache.invalider();
         logger.info("{} Restaurant ID: {} supprimé avec succès", context, id);
     }
 
@@ -130,7 +136,9 @@ public class RestaurantServiceImplementation implements RestaurantServiceInterfa
                     // Initialisation des horaires par défaut en JSON
                     defaultResto.setHeuresOuverture("{\"lundi\":{\"ouvert\":true,\"debut\":\"09:00\",\"fin\":\"22:00\"},\"mardi\":{\"ouvert\":true,\"debut\":\"09:00\",\"fin\":\"22:00\"},\"mercredi\":{\"ouvert\":true,\"debut\":\"09:00\",\"fin\":\"22:00\"},\"jeudi\":{\"ouvert\":true,\"debut\":\"09:00\",\"fin\":\"22:00\"},\"vendredi\":{\"ouvert\":true,\"debut\":\"09:00\",\"fin\":\"23:00\"},\"samedi\":{\"ouvert\":true,\"debut\":\"10:00\",\"fin\":\"23:00\"},\"dimanche\":{\"ouvert\":false,\"debut\":\"10:00\",\"fin\":\"22:00\"}}");
                     
-                    return restaurantMapper.toDto(restaurantRepository.save(defaultResto));
+                    Restaurant saved = restaurantRepository.save(defaultResto);
+                    tauxTvaCache.invalider();
+                    return restaurantMapper.toDto(saved);
                 });
     }
 
@@ -148,7 +156,9 @@ public class RestaurantServiceImplementation implements RestaurantServiceInterfa
             updatedEntity.setId(restaurant.getId());
         }
         
-        return restaurantMapper.toDto(restaurantRepository.save(updatedEntity));
+        Restaurant saved = restaurantRepository.save(updatedEntity);
+        tauxTvaCache.invalider();
+        return restaurantMapper.toDto(saved);
     }
 
     @Override
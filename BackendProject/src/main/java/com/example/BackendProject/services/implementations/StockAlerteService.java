@@ -1,36 +1,279 @@
 package com.example.BackendProject.services.implementations;
 
+import com.example.BackendProject.dto.AlerteStockDto;
 import com.example.BackendProject.entities.Ingredient;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.utils.NiveauStock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Machine à états des alertes de stock, par ingrédient : OK → FAIBLE → RUPTURE.
+ * <p>
+ * Une alerte n'est émise que sur changement d'état, et un ingrédient en alerte ne repasse OK qu'au-dessus du
+ * seuil majoré de {@code app.stock.alertes.marge-rearmement} : un stock qui oscille autour du seuil pendant le
+ * service ne produit pas une alerte par retrait. Les transitions commitées sont regroupées et diffusées en un
+ * seul message sur {@value #DESTINATION} toutes les {@code app.stock.alertes.fenetre-ms} millisecondes ; une
+ * transition annulée dans la même fenêtre n'est pas diffusée. Les alertes en cours sont servies depuis la mémoire.
+ */
 @Service
 public class StockAlerteService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final Logger logger = LoggerFactory.getLogger(StockAlerteService.class);
 
-    public StockAlerteService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public static final String DESTINATION = "/topic/stock/alertes";
+
+    private final IngredientRepository ingredientRepository;
+    private final DiffusionWebSocketService diffusionWebSocketService;
+    private final TransactionTemplate lectureSeule;
+    private final BigDecimal facteurRearmement;
+
+    // Toutes les lectures et écritures passent par "this" ; un ingrédient absent est OK
+    private final Map<Long, Etat> enAlerte = new HashMap<>();
+    // Transitions à diffuser, par ingrédient : niveau diffusé en dernier et état le plus récent
+    private final Map<Long, Transition> aDiffuser = new LinkedHashMap<>();
+    private boolean charge = false;
+
+    public StockAlerteService(IngredientRepository ingredientRepository,
+                              DiffusionWebSocketService diffusionWebSocketService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.stock.alertes.marge-rearmement:0.10}") BigDecimal margeRearmement) {
+        this.ingredientRepository = ingredientRepository;
+        this.diffusionWebSocketService = diffusionWebSocketService;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+        // Le chargement peut être déclenché par evaluer(), au sein de la transaction qui écrit le stock :
+        // il doit lire l'état commité, sinon la transition en cours serait prise pour l'état initial
+        this.lectureSeule.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.facteurRearmement = BigDecimal.ONE.add(margeRearmement);
+    }
+
+    /**
+     * Niveau visé par une quantité, compte tenu du niveau actuel : sous le seuil on alerte aussitôt,
+     * mais on ne réarme qu'au-dessus de seuil × (1 + marge).
+     */
+    public NiveauStock niveau(BigDecimal quantite, BigDecimal seuil, NiveauStock actuel) {
+        BigDecimal seuilAlerte = seuil != null ? seuil : BigDecimal.ZERO;
+        if (quantite.signum() <= 0) {
+            return NiveauStock.RUPTURE;
+        }
+        if (quantite.compareTo(seuilAlerte) <= 0) {
+            return NiveauStock.FAIBLE;
+        }
+        if (actuel != NiveauStock.OK && quantite.compareTo(seuilAlerte.multiply(facteurRearmement)) <= 0) {
+            return NiveauStock.FAIBLE;
+        }
+        return NiveauStock.OK;
+    }
+
+    // --- Lectures ---
+
+    /**
+     * Ingrédients actuellement en alerte, ruptures d'abord.
+     */
+    public synchronized List<AlerteStockDto> alertesEnCours() {
+        assurerCharge();
+        List<AlerteStockDto> alertes = new ArrayList<>();
+        enAlerte.values().forEach(etat -> alertes.add(etat.versDto(null)));
+        alertes.sort(Comparator.comparing(AlerteStockDto::getStatus, Comparator.reverseOrder())
+                .thenComparing(AlerteStockDto::getNom, Comparator.nullsLast(String::compareTo)));
+        return alertes;
+    }
+
+    /**
+     * Parmi les ingrédients donnés, ceux actuellement en alerte.
+     */
+    public synchronized List<Long> filtrerEnAlerte(Collection<Long> ingredientIds) {
+        assurerCharge();
+        List<Long> resultat = new ArrayList<>();
+        for (Long id : ingredientIds) {
+            if (enAlerte.containsKey(id)) {
+                resultat.add(id);
+            }
+        }
+        return resultat;
+    }
+
+    // --- Mises à jour (après commit) ---
+
+    /**
+     * Évalue le niveau de stock d'un ingrédient qui vient d'être écrit. La transition éventuelle
+     * n'est prise en compte qu'après le commit de la transaction en cours.
+     */
+    public void evaluer(Ingredient ingredient) {
+        synchronized (this) {
+            assurerCharge();
+        }
+        Releve releve = new Releve(ingredient.getId(), ingredient.getNom(), ingredient.getUniteMesure(),
+                ingredient.getQuantiteActuelle() != null ? ingredient.getQuantiteActuelle() : BigDecimal.ZERO,
+                ingredient.getSeuilAlerte());
+        apresCommit(() -> appliquer(releve));
+    }
+
+    /**
+     * Oublie un ingrédient supprimé.
+     */
+    public void oublier(Long ingredientId) {
+        apresCommit(() -> {
+            synchronized (this) {
+                enAlerte.remove(ingredientId);
+                aDiffuser.remove(ingredientId);
+            }
+        });
+    }
+
+    private synchronized void appliquer(Releve releve) {
+        Etat actuel = enAlerte.get(releve.id);
+        NiveauStock avant = actuel != null ? actuel.niveau : NiveauStock.OK;
+        NiveauStock apres = niveau(releve.quantite, releve.seuil, avant);
+
+        LocalDateTime depuis = apres == avant && actuel != null ? actuel.depuis : maintenant();
+        Etat nouveau = new Etat(releve, apres, depuis);
+        if (apres == NiveauStock.OK) {
+            enAlerte.remove(releve.id);
+        } else {
+            enAlerte.put(releve.id, nouveau);
+        }
+
+        if (apres != avant) {
+            Transition enCours = aDiffuser.get(releve.id);
+            aDiffuser.put(releve.id, new Transition(enCours != null ? enCours.niveauDiffuse : avant, nouveau));
+        } else if (aDiffuser.containsKey(releve.id)) {
+            // Même niveau : la transition en attente porte la quantité la plus récente
+            aDiffuser.put(releve.id, new Transition(aDiffuser.get(releve.id).niveauDiffuse, nouveau));
+        }
     }
 
-    public void verifierSeuilIngredient(Ingredient ingredient) {
-        // BigDecimal : compareTo renvoie -1 si inférieur, 0 si égal, 1 si supérieur
-        // On alerte si quantiteActuelle <= seuilAlerte
-        if (ingredient.getQuantiteActuelle().compareTo(ingredient.getSeuilAlerte()) <= 0) {
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Diffuse en un message les transitions de la fenêtre écoulée.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.alertes.fenetre-ms:2000}")
+    public void diffuser() {
+        List<AlerteStockDto> lot = new ArrayList<>();
+        synchronized (this) {
+            for (Transition transition : aDiffuser.values()) {
+                // Aller-retour dans la fenêtre : rien de nouveau pour les clients
+                if (transition.etat.niveau != transition.niveauDiffuse) {
+                    lot.add(transition.etat.versDto(transition.niveauDiffuse));
+                }
+            }
+            aDiffuser.clear();
+        }
+        if (lot.isEmpty()) {
+            return;
+        }
+
+        for (AlerteStockDto alerte : lot) {
+            if (alerte.getStatus() == NiveauStock.OK) {
+                logger.info("STOCK RÉTABLI - Ingrédient: {}, Quantité: {}", alerte.getNom(), alerte.getQuantite());
+            } else {
+                logger.warn("ALERTE STOCK - Ingrédient: {}, Statut: {} (était {}), Quantité: {}",
+                        alerte.getNom(), alerte.getStatus(), alerte.getStatusPrecedent(), alerte.getQuantite());
+            }
+        }
+        diffusionWebSocketService.publier(DESTINATION, null, lot);
+    }
+
+    // --- Chargement ---
+
+    // Appelé sous "this" : état initial depuis la base, sans diffusion
+    private void assurerCharge() {
+        if (charge) {
+            return;
+        }
+        List<Ingredient> ingredients = lectureSeule.execute(statut -> ingredientRepository.findIngredientsEnAlerte());
+        LocalDateTime maintenant = maintenant();
+        for (Ingredient ingredient : ingredients) {
+            BigDecimal quantite = ingredient.getQuantiteActuelle() != null ? ingredient.getQuantiteActuelle() : BigDecimal.ZERO;
+            NiveauStock niveau = niveau(quantite, ingredient.getSeuilAlerte(), NiveauStock.OK);
+            if (niveau != NiveauStock.OK) {
+                Releve releve = new Releve(ingredient.getId(), ingredient.getNom(), ingredient.getUniteMesure(),
+                        quantite, ingredient.getSeuilAlerte());
+                enAlerte.put(ingredient.getId(), new Etat(releve, niveau, maintenant));
+            }
+        }
+        charge = true;
+        logger.info("Alertes de stock chargées : {} ingrédient(s) en alerte", enAlerte.size());
+    }
+
+    protected LocalDateTime maintenant() {
+        return LocalDateTime.now();
+    }
+
+    private static final class Releve {
+        private final Long id;
+        private final String nom;
+        private final String unite;
+        private final BigDecimal quantite;
+        private final BigDecimal seuil;
+
+        private Releve(Long id, String nom, String unite, BigDecimal quantite, BigDecimal seuil) {
+            this.id = id;
+            this.nom = nom;
+            this.unite = unite;
+            this.quantite = quantite;
+            this.seuil = seuil;
+        }
+    }
+
+    private static final class Etat {
+        private final Releve releve;
+        private final NiveauStock niveau;
+        private final LocalDateTime depuis;
+
+        private Etat(Releve releve, NiveauStock niveau, LocalDateTime depuis) {
+            this.releve = releve;
+            this.niveau = niveau;
+            this.depuis = depuis;
+        }
+
+        private AlerteStockDto versDto(NiveauStock precedent) {
+            String message = niveau == NiveauStock.OK
+                    ? "Stock rétabli pour " + releve.nom
+                    : "Attention : Stock " + niveau + " pour " + releve.nom;
+            return new AlerteStockDto(releve.id, releve.nom, releve.quantite, releve.unite, releve.seuil,
+                    niveau, precedent, message, depuis);
+        }
+    }
 
-            Map<String, Object> alerte = new HashMap<>();
-            alerte.put("id", ingredient.getId());
-            alerte.put("nom", ingredient.getNom());
-            alerte.put("quantite", ingredient.getQuantiteActuelle());
-            alerte.put("unite", ingredient.getUniteMesure());
-            alerte.put("status", ingredient.getQuantiteActuelle().compareTo(BigDecimal.ZERO) <= 0 ? "RUPTURE" : "FAIBLE");
+    private static final class Transition {
+        private final NiveauStock niveauDiffuse;
+        private final Etat etat;
 
-            // Envoi en temps réel aux administrateurs/économes
-            messagingTemplate.convertAndSend("/topic/stock/alertes", (Object) alerte);
+        private Transition(NiveauStock niveauDiffuse, Etat etat) {
+            this.niveauDiffuse = niveauDiffuse;
+            this.etat = etat;
         }
     }
 }
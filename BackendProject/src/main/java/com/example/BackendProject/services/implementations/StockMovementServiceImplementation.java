@@ -1,5 +1,6 @@
 package com.example.BackendProject.services.implementations;
 
+import com.example.BackendProject.dto.BilanStockDto;
 import com.example.BackendProject.dto.StockMovementDto;
 import com.example.BackendProject.entities.Ingredient;
 import com.example.BackendProject.entities.StockMovement;
@@ -27,15 +28,18 @@ public class StockMovementServiceImplementation implements StockMovementServiceI
     private final StockMovementMapper stockMovementMapper;
     private final StockMovementRepository stockMovementRepository;
     private final IngredientRepository ingredientRepository;
+    private final JournalStockService journalStockService;
 
     public StockMovementServiceImplementation(
             StockMovementMapper stockMovementMapper,
             StockMovementRepository stockMovementRepository,
-            IngredientRepository ingredientRepository) {
+            IngredientRepository ingredientRepository,
+            JournalStockService journalStockService) {
 
         this.stockMovementMapper = stockMovementMapper;
         this.stockMovementRepository = stockMovementRepository;
         this.ingredientRepository = ingredientRepository;
+        this.journalStockService = journalStockService;
     }
 
 
@@ -219,13 +223,33 @@ public class StockMovementServiceImplementation implements StockMovementServiceI
     public BigDecimal getTotalQuantityByIngredient(Long ingredientId) {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Calcul du total de stock pour l'ingrédient ID: {}", context, ingredientId);
-        BigDecimal total = stockMovementRepository.findByIngredientId(ingredientId)
-                .stream()
-                .map(m -> m.getTypeMouvement() == TypeMouvement.ENTREE
-                        ? m.getQuantite()
-                        : m.getQuantite().negate())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal somme = stockMovementRepository.sommerParIngredient(ingredientId);
+        BigDecimal total = somme != null ? somme : BigDecimal.ZERO;
         logger.info("{} Total calculé pour l'ingrédient ID: {} - Quantité: {}", context, ingredientId, total);
         return total;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getSoldeA(Long ingredientId, Timestamp instant) {
+        String context = LoggingUtils.getLogContext();
+        logger.info("{} Solde du journal de stock pour l'ingrédient ID: {} au {}", context, ingredientId, instant);
+        if (!ingredientRepository.existsById(ingredientId)) {
+            logger.error("{} Ingrédient non trouvé avec l'ID: {}", context, ingredientId);
+            throw new RuntimeException("Ingrédient non trouvé");
+        }
+        return journalStockService.soldeA(ingredientId, instant);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BilanStockDto getBilan(Long ingredientId, Timestamp debut, Timestamp fin) {
+        String context = LoggingUtils.getLogContext();
+        logger.info("{} Bilan du journal de stock pour l'ingrédient ID: {} entre {} et {}", context, ingredientId, debut, fin);
+        if (!ingredientRepository.existsById(ingredientId)) {
+            logger.error("{} Ingrédient non trouvé avec l'ID: {}", context, ingredientId);
+            throw new RuntimeException("Ingrédient non trouvé");
+        }
+        return journalStockService.bilan(ingredientId, debut, fin);
+    }
 }
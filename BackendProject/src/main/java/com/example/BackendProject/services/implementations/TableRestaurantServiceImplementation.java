@@ -1,6 +1,7 @@
 // java
 package com.example.BackendProject.services.implementations;
 
+import com.example.BackendProject.dto.EtatSalleDto;
 import com.example.BackendProject.dto.TableRestaurantDto;
 import com.example.BackendProject.entities.TableRestaurant;
 import com.example.BackendProject.entities.Zone;
@@ -14,7 +15,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class TableRestaurantServiceImplementation implements TableRestaurantServiceInterface {
@@ -23,13 +23,19 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
     private final TableRestaurantRepository tableRestaurantRepository;
     private final ZoneRepository zoneRepository;
     private final TableRestaurantMapper tableRestaurantMapper;
+    private final PlanSalleIndex planSalleIndex;
+    private final EvenementsTableService evenementsTableService;
 
     public TableRestaurantServiceImplementation(TableRestaurantRepository tableRestaurantRepository,
                                                 ZoneRepository zoneRepository,
-                                                TableRestaurantMapper tableRestaurantMapper) {
+                                                TableRestaurantMapper tableRestaurantMapper,
+                                                PlanSalleIndex planSalleIndex,
+                                                EvenementsTableService evenementsTableService) {
         this.tableRestaurantRepository = tableRestaurantRepository;
         this.zoneRepository = zoneRepository;
         this.tableRestaurantMapper = tableRestaurantMapper;
+        this.planSalleIndex = planSalleIndex;
+        this.evenementsTableService = evenementsTableService;
     }
 
     @Override
@@ -44,6 +50,7 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
         }
         try {
             TableRestaurant saved = tableRestaurantRepository.save(tableRestaurantMapper.toEntity(tableDto));
+            evenementsTableService.tableEnregistree(saved);
             logger.info("{} Table créée avec succès. ID: {}, Numéro: {}", context, saved.getId(), saved.getNumero());
             return tableRestaurantMapper.toDto(saved);
         } catch (Exception e) {
@@ -56,10 +63,7 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
     public List<TableRestaurantDto> getAllTables() {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Récupération de toutes les tables", context);
-        List<TableRestaurantDto> tables = tableRestaurantRepository.findAll()
-                .stream()
-                .map(tableRestaurantMapper::toDto)
-                .collect(Collectors.toList());
+        List<TableRestaurantDto> tables = planSalleIndex.toutes();
         logger.info("{} {} tables récupérées avec succès", context, tables.size());
         return tables;
     }
@@ -68,8 +72,7 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
     public TableRestaurantDto getTableById(Long id) {
         String context = LoggingUtils.getLogContext();
         logger.info("{} Récupération de la table avec l'ID: {}", context, id);
-        return tableRestaurantRepository.findById(id)
-                .map(tableRestaurantMapper::toDto)
+        return planSalleIndex.parId(id)
                 .orElseThrow(() -> {
                     logger.error("{} Table non trouvée avec l'ID: {}", context, id);
                     return new RuntimeException("Table introuvable avec l'ID : " + id);
@@ -105,6 +108,7 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
         }
 
         TableRestaurant updated = tableRestaurantRepository.save(existing);
+        evenementsTableService.tableEnregistree(updated);
         logger.info("{} Table ID: {} mise à jour avec succès - Numéro: {}", context, id, updated.getNumero());
         return tableRestaurantMapper.toDto(updated);
     }
@@ -118,6 +122,7 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
             throw new RuntimeException("Table introuvable avec l'ID : " + id);
         }
         tableRestaurantRepository.deleteById(id);
+        evenementsTableService.tableSupprimee(id);
         logger.info("{} Table ID: {} supprimée avec succès", context, id);
     }
 
@@ -129,11 +134,7 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
             logger.warn("{} Zone ID est null", context);
             return List.of();
         }
-        List<TableRestaurantDto> tables = tableRestaurantRepository.findAll()
-                .stream()
-                .filter(t -> t.getZone() != null && zoneId.equals(t.getZone().getId()))
-                .map(tableRestaurantMapper::toDto)
-                .collect(Collectors.toList());
+        List<TableRestaurantDto> tables = planSalleIndex.tablesDeZone(zoneId);
         logger.info("{} {} tables récupérées pour la zone ID: {}", context, tables.size(), zoneId);
         return tables;
     }
@@ -146,13 +147,18 @@ public class TableRestaurantServiceImplementation implements TableRestaurantServ
             logger.warn("{} Numéro de recherche vide ou null", context);
             return List.of();
         }
-        String lower = numero.toLowerCase();
-        List<TableRestaurantDto> tables = tableRestaurantRepository.findAll()
-                .stream()
-                .filter(t -> t.getNumero() != null && t.getNumero().toLowerCase().contains(lower))
-                .map(tableRestaurantMapper::toDto)
-                .collect(Collectors.toList());
+        List<TableRestaurantDto> tables = planSalleIndex.rechercherParNumero(numero);
         logger.info("{} {} tables trouvées pour le numéro: {}", context, tables.size(), numero);
         return tables;
     }
+
+    @Override
+    public EtatSalleDto getEtatSalle() {
+        String context = LoggingUtils.getLogContext();
+        // Séquence lue AVANT l'état : tout événement <= sequence est déjà inclus dans l'instantané
+        long sequence = evenementsTableService.sequenceCourante();
+        List<TableRestaurantDto> tables = planSalleIndex.toutes();
+        logger.info("{} État de la salle : {} table(s), séquence {}", context, tables.size(), sequence);
+        return new EtatSalleDto(sequence, tables);
+    }
 }
@@ -0,0 +1,229 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.EvenementCommandeDto;
+import com.example.BackendProject.dto.LigneCommandeDto;
+import com.example.BackendProject.mappers.CommandeMapper;
+import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.utils.StatutCommande;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Projection en mémoire des commandes ouvertes en cuisine (EN_ATTENTE / EN_PREPARATION).
+ * <p>
+ * Alimentée par les événements de commande après commit (voir {@link EvenementsCommandeService})
+ * et réconciliée périodiquement avec la base. Les lectures ne touchent jamais la base : elles renvoient
+ * une liste immuable déjà triée. Le chargement initial et les rechargements demandés par un événement
+ * sont faits par une tâche planifiée ({@code app.cuisine.rechargement-ms}), hors du thread de requête.
+ */
+@Service
+public class TableauCuisineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableauCuisineService.class);
+    public static final List<StatutCommande> STATUTS_CUISINE =
+            List.of(StatutCommande.EN_ATTENTE, StatutCommande.EN_PREPARATION);
+    private static final Comparator<CommandeDto> ORDRE_ARRIVEE = Comparator
+            .comparing(CommandeDto::getDateHeureCommande, Comparator.nullsLast(Timestamp::compareTo))
+            .thenComparing(CommandeDto::getId);
+
+    private final CommandeRepository commandeRepository;
+    private final CommandeMapper commandeMapper;
+    private final TransactionTemplate lectureSeule;
+
+    // Toutes les écritures passent par "this" ; les lectures se contentent de la référence volatile
+    private final Map<Long, CommandeDto> commandesOuvertes = new HashMap<>();
+    private volatile List<CommandeDto> vue = List.of();
+    private volatile boolean initialisee = false;
+    private volatile boolean rechargementDemande = false;
+    // Événements reçus pendant une lecture de la base, rejoués sur l'instantané ; null hors lecture
+    private List<EvenementCommandeDto> recusPendantLecture;
+    // Une seule lecture de la base à la fois
+    private final Object rechargement = new Object();
+
+    public TableauCuisineService(CommandeRepository commandeRepository,
+                                 CommandeMapper commandeMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.commandeRepository = commandeRepository;
+        this.commandeMapper = commandeMapper;
+        this.lectureSeule = new TransactionTemplate(transactionManager);
+        this.lectureSeule.setReadOnly(true);
+    }
+
+    /**
+     * Commandes à préparer, par ordre d'arrivée. Liste vide tant que le premier chargement n'a pas eu lieu.
+     */
+    public List<CommandeDto> commandesAPreparer() {
+        return vue;
+    }
+
+    /**
+     * Applique un événement de commande déjà commité. Chaque modification remplace le DTO concerné
+     * par une copie : une liste renvoyée précédemment n'est jamais modifiée.
+     */
+    public synchronized void appliquer(EvenementCommandeDto evenement) {
+        if (recusPendantLecture != null) {
+            recusPendantLecture.add(evenement);
+        }
+        if (!initialisee) {
+            // Le premier chargement rejouera l'événement sur l'état lu en base
+            return;
+        }
+        appliquerSurProjection(evenement);
+        publierVue();
+    }
+
+    // Appelé sous "this"
+    private void appliquerSurProjection(EvenementCommandeDto evenement) {
+        Long commandeId = evenement.getCommandeId();
+        CommandeDto actuelle = commandesOuvertes.get(commandeId);
+
+        switch (evenement.getType()) {
+            case COMMANDE_CREEE:
+                if (evenement.getCommande() != null && STATUTS_CUISINE.contains(evenement.getCommande().getStatut())) {
+                    commandesOuvertes.put(commandeId, copier(evenement.getCommande(), evenement.getCommande().getLignesCommande()));
+                }
+                break;
+            case STATUT_MODIFIE:
+                if (!STATUTS_CUISINE.contains(evenement.getStatut())) {
+                    commandesOuvertes.remove(commandeId);
+                } else if (actuelle != null) {
+                    CommandeDto copie = copier(actuelle, actuelle.getLignesCommande());
+                    copie.setStatut(evenement.getStatut());
+                    commandesOuvertes.put(commandeId, copie);
+                } else {
+                    // Commande revenue en cuisine : son contenu n'est pas dans l'événement
+                    rechargementDemande = true;
+                }
+                break;
+            case COMMANDE_SUPPRIMEE:
+                commandesOuvertes.remove(commandeId);
+                break;
+            default:
+                if (actuelle != null) {
+                    commandesOuvertes.put(commandeId, appliquerSurLignes(actuelle, evenement));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Charge la projection au démarrage, puis la recharge quand un événement n'a pas pu être appliqué
+     * (commande revenue en cuisine). Sans effet, et sans transaction, le reste du temps.
+     */
+    @Scheduled(fixedDelayString = "${app.cuisine.rechargement-ms:500}")
+    public void rechargerSiDemande() {
+        if (initialisee && !rechargementDemande) {
+            return;
+        }
+        reconcilier();
+    }
+
+    private static CommandeDto appliquerSurLignes(CommandeDto actuelle, EvenementCommandeDto evenement) {
+        List<LigneCommandeDto> lignes = new ArrayList<>();
+        if (actuelle.getLignesCommande() != null) {
+            lignes.addAll(actuelle.getLignesCommande());
+        }
+
+        switch (evenement.getType()) {
+            case LIGNE_AJOUTEE:
+            case LIGNE_MODIFIEE:
+            case QUANTITE_MODIFIEE:
+                LigneCommandeDto ligne = evenement.getLigne();
+                if (ligne != null) {
+                    lignes.removeIf(l -> l.getId() != null && l.getId().equals(ligne.getId()));
+                    lignes.add(ligne);
+                }
+                break;
+            case LIGNE_SUPPRIMEE:
+                lignes.removeIf(l -> l.getId() != null && l.getId().equals(evenement.getLigneId()));
+                break;
+            case LIGNES_VIDEES:
+                lignes.clear();
+                break;
+            default:
+                break;
+        }
+
+        CommandeDto copie = copier(actuelle, lignes);
+        if (evenement.getTotalHt() != null) copie.setTotalHt(evenement.getTotalHt());
+        if (evenement.getTotalTtc() != null) copie.setTotalTtc(evenement.getTotalTtc());
+        return copie;
+    }
+
+    /**
+     * Recharge la projection depuis la base. Les événements appliqués pendant la lecture sont
+     * mis de côté puis rejoués sur l'instantané : chaque événement remplace ou retire un élément
+     * entier, le rejouer alors que la lecture le contient déjà est donc sans effet. Le
+     * rechargement aboutit ainsi même sous un flux continu d'événements.
+     */
+    @Scheduled(fixedDelayString = "${app.cuisine.reconciliation-ms:30000}")
+    public void reconcilier() {
+        synchronized (rechargement) {
+            synchronized (this) {
+                recusPendantLecture = new ArrayList<>();
+            }
+
+            List<CommandeDto> depuisLaBase;
+            try {
+                depuisLaBase = lectureSeule.execute(statut -> commandeRepository
+                        .findAvecLignesByStatutIn(STATUTS_CUISINE)
+                        .stream()
+                        .map(commandeMapper::toDto)
+                        .collect(Collectors.toList()));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    recusPendantLecture = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                List<EvenementCommandeDto> aRejouer = recusPendantLecture;
+                recusPendantLecture = null;
+
+                Map<Long, CommandeDto> avant = new HashMap<>(commandesOuvertes);
+                commandesOuvertes.clear();
+                depuisLaBase.forEach(c -> commandesOuvertes.put(c.getId(), c));
+                initialisee = true;
+                // Un retour en cuisine rejoué sans la commande dans l'instantané redemandera un rechargement
+                rechargementDemande = false;
+                aRejouer.forEach(this::appliquerSurProjection);
+                if (!avant.isEmpty() && !avant.keySet().equals(commandesOuvertes.keySet())) {
+                    logger.warn("Tableau cuisine corrigé par réconciliation : {} commande(s) en mémoire, {} en base",
+                            avant.size(), commandesOuvertes.size());
+                }
+                if (!aRejouer.isEmpty()) {
+                    logger.debug("Tableau cuisine rechargé : {} événement(s) rejoué(s) sur l'instantané", aRejouer.size());
+                }
+                publierVue();
+            }
+        }
+    }
+
+    private void publierVue() {
+        List<CommandeDto> triee = new ArrayList<>(commandesOuvertes.values());
+        triee.sort(ORDRE_ARRIVEE);
+        vue = List.copyOf(triee);
+    }
+
+    private static CommandeDto copier(CommandeDto source, List<LigneCommandeDto> lignes) {
+        CommandeDto copie = new CommandeDto(source.getId(), source.getTableId(), source.getDateHeureCommande(),
+                source.getStatut(), source.getTypeCommande(), source.getTotalHt(), source.getTotalTtc(),
+                lignes != null ? List.copyOf(lignes) : List.of());
+        copie.setServeurId(source.getServeurId());
+        return copie;
+    }
+}
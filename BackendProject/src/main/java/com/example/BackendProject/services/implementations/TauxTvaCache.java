@@ -0,0 +1,81 @@
+package com.example.BackendProject.services.implementations;
+
+import com.example.BackendProject.entities.Restaurant;
+import com.example.BackendProject.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+/**
+ * Taux de TVA appliqué aux totaux des commandes, lu dans les paramètres du restaurant.
+ * <p>
+ * Le restaurant stocke un pourcentage (ex. 19.25) ; le taux servi est la fraction correspondante (0.1925),
+ * prête pour {@link com.example.BackendProject.utils.CalculTotaux#ttc}. Sans restaurant ou sans taux
+ * configuré, le taux par défaut s'applique. La valeur est gardée en mémoire jusqu'à la prochaine
+ * modification des paramètres (après commit).
+ */
+@Service
+public class TauxTvaCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TauxTvaCache.class);
+    public static final BigDecimal TAUX_DEFAUT = new BigDecimal("0.1925");
+
+    private final RestaurantRepository restaurantRepository;
+
+    private volatile BigDecimal taux;
+    // Incrémentée à chaque modification commitée ; un taux lu avant ne peut pas être gardé après
+    private volatile long version = 0;
+
+    public TauxTvaCache(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Taux de TVA courant, en fraction.
+     */
+    public BigDecimal taux() {
+        BigDecimal actuel = taux;
+        if (actuel != null) {
+            return actuel;
+        }
+
+        long versionLue = version;
+        BigDecimal lu = restaurantRepository.findAll().stream()
+                .findFirst()
+                .map(Restaurant::getTauxTva)
+                .map(pourcentage -> pourcentage.movePointLeft(2))
+                .orElse(TAUX_DEFAUT);
+        synchronized (this) {
+            if (version == versionLue) {
+                taux = lu;
+            }
+        }
+        logger.debug("Taux de TVA chargé : {}", lu);
+        return lu;
+    }
+
+    /**
+     * Signale la modification des paramètres du restaurant. Effective après le commit de la transaction en cours.
+     */
+    public void invalider() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    oublier();
+                }
+            });
+        } else {
+            oublier();
+        }
+    }
+
+    private synchronized void oublier() {
+        version++;
+        taux = null;
+    }
+}
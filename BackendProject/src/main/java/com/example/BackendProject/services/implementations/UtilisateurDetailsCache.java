@@ -0,0 +1,70 @@
+package com.example.BackendProject.services.implementations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Cache borné des UserDetails utilisés par le filtre JWT, indexé par email.
+ * <p>
+ * Évite un findByEmail par requête HTTP authentifiée. Les entrées expirent après
+ * {@code app.securite.cache-utilisateurs.ttl-secondes} et sont invalidées explicitement par
+ * {@link UtilisateurServiceImplementation} dès qu'un rôle, un mot de passe ou un compte change.
+ * Les statistiques (hits, misses, évictions) sont publiées sous le nom {@code utilisateurs_details}.
+ */
+@Service
+public class UtilisateurDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UtilisateurDetailsCache.class);
+    public static final String NOM_CACHE = "utilisateurs_details";
+
+    private final UtilisateurDetailService utilisateurDetailService;
+    private final Cache<String, UserDetails> cache;
+
+    public UtilisateurDetailsCache(UtilisateurDetailService utilisateurDetailService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.securite.cache-utilisateurs.taille-max:1000}") long tailleMax,
+                                   @Value("${app.securite.cache-utilisateurs.ttl-secondes:300}") long ttlSecondes) {
+        this.utilisateurDetailService = utilisateurDetailService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfterWrite(Duration.ofSeconds(ttlSecondes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOM_CACHE);
+    }
+
+    /**
+     * UserDetails de l'utilisateur, depuis le cache ou la base. Une absence n'est pas mise en cache.
+     */
+    public UserDetails charger(String email) throws UsernameNotFoundException {
+        return cache.get(email, this::chargerSansMotDePasse);
+    }
+
+    private UserDetails chargerSansMotDePasse(String email) {
+        UserDetails details = utilisateurDetailService.loadUserByUsername(email);
+        // Le filtre JWT n'a pas besoin du hash : on ne le garde pas en mémoire
+        return User.withUserDetails(details).password("").build();
+    }
+
+    public void invalider(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+            logger.debug("Cache UserDetails invalidé pour {}", email);
+        }
+    }
+
+    public void invaliderTout() {
+        cache.invalidateAll();
+    }
+}
@@ -30,14 +30,16 @@ public class UtilisateurServiceImplementation implements UtilisateurServiceInter
     private final UtilisateurRepository utilisateurRepository;
     private PasswordEncoder passwordEncoder;
     public final CodeGenerator codeGenerator;
+    private final UtilisateurDetailsCache utilisateurDetailsCache;
 
 
-    public UtilisateurServiceImplementation(UtilisateurMapper utilisateurMapper, RestaurantRepository restaurantRepository, UtilisateurRepository utilisateurRepository, CodeGenerator codeGenerator, PasswordEncoder passwordEncoder) {
+    public UtilisateurServiceImplementation(UtilisateurMapper utilisateurMapper, RestaurantRepository restaurantRepository, UtilisateurRepository utilisateurRepository, CodeGenerator codeGenerator, PasswordEncoder passwordEncoder, UtilisateurDetailsCache utilisateurDetailsCache) {
         this.utilisateurMapper = utilisateurMapper;
         this.restaurantRepository = restaurantRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.codeGenerator = codeGenerator;
         this.passwordEncoder = passwordEncoder;
+        this.utilisateurDetailsCache = utilisateurDetailsCache;
     }
 
     @Override
@@ -144,6 +146,7 @@ public class UtilisateurServiceImplementation implements UtilisateurServiceInter
                     logger.error("{} Utilisateur non trouvé avec l'ID: {}", context, id);
                     return new RuntimeException("Utilisateur non trouvé avec l'ID : " + id);
                 });
+        String ancienEmail = utilisateur.getEmail();
 
         // Mise à jour des champs (sauf le mot de passe pour l'instant)
         if (utilisateurDto.getNom() != null && !utilisateurDto.getNom().isEmpty()) {
@@ -202,6 +205,9 @@ public class UtilisateurServiceImplementation implements UtilisateurServiceInter
 
         // Sauvegarde
         Utilisateur updatedUtilisateur = utilisateurRepository.save(utilisateur);
+        // Rôle, mot de passe ou email ont pu changer : le filtre JWT doit relire l'utilisateur
+        utilisateurDetailsCache.invalider(ancienEmail);
+        utilisateurDetailsCache.invalider(updatedUtilisateur.getEmail());
         logger.info("{} Utilisateur ID: {} mis à jour avec succès", context, id);
 
         UtilisateurDto resultDto = utilisateurMapper.toDto(updatedUtilisateur);
@@ -221,6 +227,7 @@ public class UtilisateurServiceImplementation implements UtilisateurServiceInter
                 });
 
         utilisateurRepository.delete(utilisateur);
+        utilisateurDetailsCache.invalider(utilisateur.getEmail());
         logger.info("{} Utilisateur ID: {} supprimé avec succès", context, id);
     }
 
@@ -283,6 +290,7 @@ public class UtilisateurServiceImplementation implements UtilisateurServiceInter
         utilisateur.setMotDePasse(encodedPassword);
 
         utilisateurRepository.save(utilisateur);
+        utilisateurDetailsCache.invalider(utilisateur.getEmail());
         logger.info("{} Mot de passe modifié avec succès pour l'utilisateur ID: {}", context, id);
     }
 
@@ -307,6 +315,7 @@ public class UtilisateurServiceImplementation implements UtilisateurServiceInter
         utilisateur.setMotDePasse(encodedPassword);
 
         utilisateurRepository.save(utilisateur);
+        utilisateurDetailsCache.invalider(utilisateur.getEmail());
         logger.info("{} Mot de passe réinitialisé avec succès pour l'utilisateur ID: {}", context, id);
     }
 
@@ -2,6 +2,10 @@ package com.example.BackendProject.services.interfaces;
 
 
 import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.FiltreCommandesDto;
+import com.example.BackendProject.dto.PageCommandesDto;
+import com.example.BackendProject.dto.ResyncCommandeDto;
+import com.example.BackendProject.dto.SoumissionCommandeDto;
 import com.example.BackendProject.utils.StatutCommande;
 import com.example.BackendProject.utils.TypeCommande;
 
@@ -14,8 +18,14 @@ public interface CommandeServiceInterface {
 
     CommandeDto save(CommandeDto commandeDto);
 
+    // Création d'une commande complète (lignes + options + stock) en une transaction
+    CommandeDto soumettreCommande(SoumissionCommandeDto panier);
+
     List<CommandeDto> getAll();
 
+    // Liste paginée par curseur (plus récentes d'abord), filtrée côté serveur
+    PageCommandesDto rechercher(FiltreCommandesDto filtre, String curseur, Integer taille);
+
     CommandeDto getById(Long id);
 
     CommandeDto update(Long id, CommandeDto commandeDto);
@@ -35,6 +45,9 @@ public interface CommandeServiceInterface {
 
     CommandeDto updateStatut(Long id, StatutCommande nouveauStatut);
 
+    // État complet + dernière séquence d'événement, pour les clients ayant manqué un delta
+    ResyncCommandeDto resynchroniser(Long id);
+
     List<CommandeDto> getCommandesAujourdhui();
 
     BigDecimal calculateTotalVentes(Timestamp debut, Timestamp fin);
@@ -4,6 +4,7 @@ import com.example.BackendProject.dto.IngredientDto;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface IngredientServiceInterface {
 
@@ -33,4 +34,8 @@ public interface IngredientServiceInterface {
     // METHODE DE GESTION DE STOCK AUTOMATIQUE
     void deduireStockPourPlat(Long platId, Integer nombreDePlats);
     void restaurerStockPourPlat(Long platId, Integer nombreDePlats);
+
+    // Variantes ensemblistes : toutes les portions (platId -> nombre) d'une commande en un seul UPDATE par lot
+    void deduireStockEnLot(Map<Long, Integer> portionsParPlat);
+    void restaurerStockEnLot(Map<Long, Integer> portionsParPlat);
 }
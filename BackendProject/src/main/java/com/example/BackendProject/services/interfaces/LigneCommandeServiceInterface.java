@@ -1,6 +1,7 @@
 package com.example.BackendProject.services.interfaces;
 
 
+import com.example.BackendProject.dto.CommandeDto;
 import com.example.BackendProject.dto.LigneCommandeDto;
 
 import java.math.BigDecimal;
@@ -30,4 +31,7 @@ public interface LigneCommandeServiceInterface {
     BigDecimal calculateTotalCommande(Long commandeId);
 
     void supprimerToutesLignesCommande(Long commandeId);
+
+    // Vérification / réparation : recalcul complet des totaux à partir des lignes en base
+    CommandeDto recalculerTotaux(Long commandeId);
 }
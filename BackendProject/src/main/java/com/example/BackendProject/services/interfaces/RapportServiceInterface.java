@@ -23,6 +23,9 @@ public interface RapportServiceInterface {
 
     // Récupérer les statistiques globales pour une période
     Object getStatistiques(String period);
+
+    // Reconstruire les agrégats de ventes depuis l'historique des commandes
+    int reconstruireAgregatsVentes();
 }
 
 
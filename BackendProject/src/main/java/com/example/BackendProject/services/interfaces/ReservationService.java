@@ -1,7 +1,11 @@
 package com.example.BackendProject.services.interfaces;
 
+import com.example.BackendProject.dto.CreneauDisponibleDto;
+import com.example.BackendProject.dto.PlanTablesDto;
 import com.example.BackendProject.dto.ReservationDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReservationService {
@@ -13,4 +17,7 @@ public interface ReservationService {
     List<ReservationDto> getReservationsByDate(LocalDate date);
     ReservationDto updateStatus(Long id, String status);
     List<ReservationDto> searchReservations(String term);
+    List<TableRestaurantDto> getTablesDisponibles(int personnes, LocalDateTime debut, Integer dureeMinutes);
+    List<CreneauDisponibleDto> getProchainsCreneaux(int personnes, LocalDateTime aPartirDe, Integer dureeMinutes, int nombre);
+    PlanTablesDto getPlanTables(LocalDate date, boolean complet);
 }
@@ -1,5 +1,6 @@
 package com.example.BackendProject.services.interfaces;
 
+import com.example.BackendProject.dto.BilanStockDto;
 import com.example.BackendProject.dto.StockMovementDto;
 import com.example.BackendProject.utils.TypeMouvement;
 
@@ -26,4 +27,8 @@ public interface StockMovementServiceInterface {
     List<StockMovementDto> getStockMovementsBetweenDates(Timestamp startDate, Timestamp endDate);
 
     BigDecimal getTotalQuantityByIngredient(Long ingredientId);
+
+    BigDecimal getSoldeA(Long ingredientId, Timestamp instant);
+
+    BilanStockDto getBilan(Long ingredientId, Timestamp debut, Timestamp fin);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.BackendProject.services.interfaces;
 
+import com.example.BackendProject.dto.EtatSalleDto;
 import com.example.BackendProject.dto.TableRestaurantDto;
 
 import java.util.List;
@@ -19,4 +20,6 @@ public interface TableRestaurantServiceInterface {
     List<TableRestaurantDto> getTablesByZoneId(Long zoneId);
 
     List<TableRestaurantDto> searchTablesByNumero(String numero);
+
+    EtatSalleDto getEtatSalle();
 }
\ No newline at end of file
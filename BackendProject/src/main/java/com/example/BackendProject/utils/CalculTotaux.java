@@ -0,0 +1,31 @@
+package com.example.BackendProject.utils;
+
+import com.example.BackendProject.entities.LigneCommande;
+
+import java.math.BigDecimal;
+
+/**
+ * Calculs de montants d'une commande, sans accès à la base.
+ */
+public final class CalculTotaux {
+
+    private CalculTotaux() {
+    }
+
+    /**
+     * Montant HT d'une ligne (prix unitaire x quantité), zéro si incomplète.
+     */
+    public static BigDecimal montantLigne(LigneCommande ligne) {
+        if (ligne.getPrixUnitaire() == null || ligne.getQuantite() == null) {
+            return BigDecimal.ZERO;
+        }
+        return ligne.getPrixUnitaire().multiply(new BigDecimal(ligne.getQuantite()));
+    }
+
+    /**
+     * Montant TTC correspondant à un montant HT pour un taux de TVA (ex. 0.1925).
+     */
+    public static BigDecimal ttc(BigDecimal montantHt, BigDecimal tauxTva) {
+        return montantHt.add(montantHt.multiply(tauxTva));
+    }
+}
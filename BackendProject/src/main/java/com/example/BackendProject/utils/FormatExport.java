@@ -0,0 +1,6 @@
+package com.example.BackendProject.utils;
+
+public enum FormatExport {
+    NDJSON,
+    CSV
+}
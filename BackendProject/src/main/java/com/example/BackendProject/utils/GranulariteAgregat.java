@@ -0,0 +1,6 @@
+package com.example.BackendProject.utils;
+
+public enum GranulariteAgregat {
+    HEURE,
+    JOUR
+}
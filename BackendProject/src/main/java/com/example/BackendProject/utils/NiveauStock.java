@@ -0,0 +1,7 @@
+package com.example.BackendProject.utils;
+
+public enum NiveauStock {
+    OK,
+    FAIBLE,
+    RUPTURE
+}
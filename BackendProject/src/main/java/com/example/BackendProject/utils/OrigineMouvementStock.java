@@ -0,0 +1,12 @@
+package com.example.BackendProject.utils;
+
+public enum OrigineMouvementStock {
+    OUVERTURE,
+    INVENTAIRE,
+    AJOUT_MANUEL,
+    RETRAIT_MANUEL,
+    COMMANDE,
+    ANNULATION,
+    // Solde ramené à zéro à la suppression de l'ingrédient
+    CLOTURE
+}
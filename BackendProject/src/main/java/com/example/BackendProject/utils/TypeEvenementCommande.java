@@ -0,0 +1,13 @@
+package com.example.BackendProject.utils;
+
+public enum TypeEvenementCommande {
+    COMMANDE_CREEE,
+    LIGNE_AJOUTEE,
+    LIGNE_MODIFIEE,
+    QUANTITE_MODIFIEE,
+    LIGNE_SUPPRIMEE,
+    LIGNES_VIDEES,
+    STATUT_MODIFIE,
+    COMMANDE_SUPPRIMEE,
+    TOTAUX_MODIFIES
+}
@@ -0,0 +1,7 @@
+package com.example.BackendProject.utils;
+
+public enum TypeEvenementTable {
+    TABLE_ENREGISTREE,
+    STATUT_MODIFIE,
+    TABLE_SUPPRIMEE
+}
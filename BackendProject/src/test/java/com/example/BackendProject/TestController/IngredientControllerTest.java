@@ -1,8 +1,11 @@
 package com.example.BackendProject.TestController;
 
 import com.example.BackendProject.controllers.IngredientController;
+import com.example.BackendProject.dto.AlerteStockDto;
 import com.example.BackendProject.dto.IngredientDto;
 import com.example.BackendProject.services.implementations.IngredientServiceImplementation;
+import com.example.BackendProject.services.implementations.StockAlerteService;
+import com.example.BackendProject.utils.NiveauStock;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +41,8 @@ class IngredientControllerTest {
 
     @Mock
     private IngredientServiceImplementation ingredientService;
+    @Mock
+    private StockAlerteService stockAlerteService;
 
     @InjectMocks
     private IngredientController ingredientController;
@@ -183,6 +188,20 @@ class IngredientControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
+    @Test
+    @DisplayName("GET /api/ingredients/alertes/en-cours - Alertes servies depuis la mémoire")
+    void testGetAlertesEnCours() throws Exception {
+        AlerteStockDto alerte = new AlerteStockDto(1L, "Tomate", BigDecimal.ZERO, "KG", new BigDecimal("2.0"),
+                NiveauStock.RUPTURE, null, "Attention : Stock RUPTURE pour Tomate", null);
+        when(stockAlerteService.alertesEnCours()).thenReturn(List.of(alerte));
+
+        mockMvc.perform(get("/api/ingredients/alertes/en-cours"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status").value("RUPTURE"));
+        verifyNoInteractions(ingredientService);
+    }
+
 //    @Test
 //    @DisplayName("GET /api/ingredients/statistiques - Vérifier les stats")
 //    void testGetStatistiques_Success() throws Exception {
@@ -1,7 +1,9 @@
 package com.example.BackendProject.TestController;
 
 import com.example.BackendProject.controllers.MenuController;
+import com.example.BackendProject.dto.ArbreMenuDto;
 import com.example.BackendProject.dto.MenuDto;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
 import com.example.BackendProject.services.implementations.MenuServiceImplementation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,8 +21,10 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,6 +40,9 @@ class MenuControllerTest {
     @Mock
     private MenuServiceImplementation menuService;
 
+    @Mock
+    private ArbreMenuCache arbreMenuCache;
+
     @InjectMocks
     private MenuController menuController;
 
@@ -142,6 +149,34 @@ class MenuControllerTest {
                 .andExpect(jsonPath("$.nom").value("Carte d'Été"));
     }
 
+    // ==================== Tests ARBRE ====================
+
+    @Test
+    @DisplayName("GET /api/menus/arbre - Carte complète imbriquée")
+    void testGetArbres_Success() throws Exception {
+        ArbreMenuDto.Option option = new ArbreMenuDto.Option(7L, "Piment", new BigDecimal("100"));
+        ArbreMenuDto.Plat plat = new ArbreMenuDto.Plat(3L, "Ndolé", null, new BigDecimal("3500"), null, List.of(option));
+        ArbreMenuDto.Categorie categorie = new ArbreMenuDto.Categorie(2L, "Plats", null, 1, List.of(plat));
+        when(arbreMenuCache.arbres()).thenReturn(List.of(new ArbreMenuDto(1L, "Carte d'Été", List.of(categorie))));
+
+        mockMvc.perform(get("/api/menus/arbre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].categories[0].nom").value("Plats"))
+                .andExpect(jsonPath("$[0].categories[0].plats[0].nom").value("Ndolé"))
+                .andExpect(jsonPath("$[0].categories[0].plats[0].options[0].nom").value("Piment"));
+        verifyNoInteractions(menuService);
+    }
+
+    @Test
+    @DisplayName("GET /api/menus/{id}/arbre - 404 si menu inconnu ou inactif")
+    void testGetArbre_NotFound() throws Exception {
+        when(arbreMenuCache.arbre(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/menus/99/arbre"))
+                .andExpect(status().isNotFound());
+    }
+
     // ==================== Tests DELETE ====================
 
     @Test
@@ -2,31 +2,41 @@ package com.example.BackendProject.TestController;
 
 import com.example.BackendProject.controllers.PlatController;
 import com.example.BackendProject.dto.PlatDto;
+import com.example.BackendProject.entities.Plat;
+import com.example.BackendProject.mappers.PlatMapper;
+import com.example.BackendProject.repository.PlatRepository;
+import com.example.BackendProject.services.implementations.MenuActifCache;
 import com.example.BackendProject.services.implementations.PlatServiceImplementation;
+import com.example.BackendProject.services.implementations.PortionsRestantesService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -39,8 +49,16 @@ class PlatControllerTest {
 
     @Mock
     private PlatServiceImplementation platService;
+    @Mock
+    private PlatRepository platRepository;
+    @Mock
+    private PlatMapper platMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private PortionsRestantesService portionsRestantesService;
 
-    @InjectMocks
+    private MenuActifCache menuActifCache;
     private PlatController platController;
 
     private MockMvc mockMvc;
@@ -61,6 +79,9 @@ class PlatControllerTest {
 
     @BeforeEach
     void setUp() {
+        // Instantané réel : seule la base (dépôt) est simulée
+        menuActifCache = new MenuActifCache(platRepository, platMapper, new ObjectMapper(), transactionManager);
+        platController = new PlatController(platService, menuActifCache, portionsRestantesService);
         mockMvc = MockMvcBuilders.standaloneSetup(platController)
                 .setControllerAdvice(new TestGlobalExceptionHandler())
                 .build();
@@ -113,14 +134,66 @@ class PlatControllerTest {
     @Test
     @DisplayName("GET /api/plats/disponibles - Récupérer la carte")
     void testGetMenu_Success() throws Exception {
-        when(platService.getMenuActif()).thenReturn(Arrays.asList(platDto));
+        Plat plat = new Plat();
+        when(platRepository.findByDisponibiliteTrue()).thenReturn(List.of(plat));
+        when(platMapper.toDto(plat)).thenReturn(platDto);
 
         mockMvc.perform(get("/api/plats/disponibles"))
                 .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].disponibilite").value(true));
     }
 
+    @Test
+    @DisplayName("GET /api/plats/disponibles - 304 sans accès base si l'ETag correspond")
+    void testGetMenu_NotModified() throws Exception {
+        when(platRepository.findByDisponibiliteTrue()).thenReturn(List.of(new Plat()));
+        when(platMapper.toDto(any(Plat.class))).thenReturn(platDto);
+
+        String etag = mockMvc.perform(get("/api/plats/disponibles"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/plats/disponibles").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        verify(platRepository, times(1)).findByDisponibiliteTrue();
+    }
+
+    @Test
+    @DisplayName("GET /api/plats/disponibles - Carte modifiée : nouvel ETag")
+    void testGetMenu_NewEtagAfterInvalidation() throws Exception {
+        when(platRepository.findByDisponibiliteTrue()).thenReturn(List.of(new Plat()));
+        when(platMapper.toDto(any(Plat.class))).thenReturn(platDto);
+
+        String etag = mockMvc.perform(get("/api/plats/disponibles"))
+                .andReturn().getResponse().getHeader("ETag");
+        menuActifCache.invalider();
+
+        mockMvc.perform(get("/api/plats/disponibles").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+        verify(platRepository, times(2)).findByDisponibiliteTrue();
+    }
+
+    @Test
+    @DisplayName("GET /api/plats/disponibles - Corps pré-compressé si le client accepte gzip")
+    void testGetMenu_Gzip() throws Exception {
+        when(platRepository.findByDisponibiliteTrue()).thenReturn(List.of(new Plat()));
+        when(platMapper.toDto(any(Plat.class))).thenReturn(platDto);
+
+        MvcResult resultat = mockMvc.perform(get("/api/plats/disponibles").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        String json;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(resultat.getResponse().getContentAsByteArray()))) {
+            json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals("Burger Maison", objectMapper.readTree(json).get(0).get("nom").asText());
+    }
+
     @Test
     @DisplayName("GET /api/plats/plus-vendus - Statistiques de ventes")
     void testGetTopPlats_Success() throws Exception {
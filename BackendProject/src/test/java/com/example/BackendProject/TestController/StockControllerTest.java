@@ -1,6 +1,7 @@
 package com.example.BackendProject.TestController;
 
 import com.example.BackendProject.controllers.StockMovementController;
+import com.example.BackendProject.dto.BilanStockDto;
 import com.example.BackendProject.dto.StockMovementDto;
 import com.example.BackendProject.services.interfaces.StockMovementServiceInterface;
 import com.example.BackendProject.utils.TypeMouvement;
@@ -193,4 +194,41 @@ class StockControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("150.75"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET - Solde du journal à un instant donné")
+    void getSoldeA_Success() throws Exception {
+        when(stockMovementService.getSoldeA(10L, Timestamp.valueOf("2024-06-01 12:00:00"))).thenReturn(new BigDecimal("42.5"));
+
+        mockMvc.perform(get("/api/stock-movements/ingredient/10/solde").param("instant", "2024-06-01 12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42.5"));
+    }
+
+    @Test
+    @DisplayName("GET - Bilan du journal sur une période")
+    void getBilan_Success() throws Exception {
+        Timestamp debut = Timestamp.valueOf("2024-06-01 00:00:00");
+        Timestamp fin = Timestamp.valueOf("2024-06-30 23:59:59");
+        when(stockMovementService.getBilan(10L, debut, fin)).thenReturn(new BilanStockDto(10L, debut, fin,
+                new BigDecimal("20"), new BigDecimal("15"), new BigDecimal("30"), new BigDecimal("35")));
+
+        mockMvc.perform(get("/api/stock-movements/ingredient/10/bilan")
+                        .param("debut", "2024-06-01 00:00:00")
+                        .param("fin", "2024-06-30 23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sorties").value(35))
+                .andExpect(jsonPath("$.entrees").value(30));
+    }
+
+    @Test
+    @DisplayName("GET - Bilan refusé si le début suit la fin")
+    void getBilan_BadRequest_WhenDatesInverted() throws Exception {
+        mockMvc.perform(get("/api/stock-movements/ingredient/10/bilan")
+                        .param("debut", "2024-07-01 00:00:00")
+                        .param("fin", "2024-06-01 00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(stockMovementService, never()).getBilan(any(), any(), any());
+    }
+}
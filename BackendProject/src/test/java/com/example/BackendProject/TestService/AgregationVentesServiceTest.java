@@ -0,0 +1,115 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.entities.VenteAgregee;
+import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.repository.VenteAgregeeRepository;
+import com.example.BackendProject.services.implementations.AgregationVentesService;
+import com.example.BackendProject.utils.GranulariteAgregat;
+import com.example.BackendProject.utils.StatutCommande;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Agrégation des ventes")
+class AgregationVentesServiceTest {
+
+    @Mock
+    private VenteAgregeeRepository venteAgregeeRepository;
+    @Mock
+    private CommandeRepository commandeRepository;
+
+    @InjectMocks
+    private AgregationVentesService service;
+
+    private Commande commande;
+    private final LocalDateTime dateCommande = LocalDateTime.of(2025, 3, 14, 12, 42, 10);
+
+    @BeforeEach
+    void setUp() {
+        commande = new Commande();
+        commande.setId(1L);
+        commande.setDateHeureCommande(Timestamp.valueOf(dateCommande));
+        commande.setTotalTtc(new BigDecimal("11925"));
+        commande.setNombrePersonnes(3);
+    }
+
+    @Test
+    @DisplayName("Transition vers PAYEE - Cumul horaire et journalier")
+    void enregistrerTransition_ShouldAddToHourAndDayBuckets_WhenPaid() {
+        commande.setStatut(StatutCommande.PAYEE);
+
+        service.enregistrerTransition(commande, StatutCommande.SERVIE, commande.getTotalTtc());
+
+        verify(venteAgregeeRepository).cumuler("HEURE", Timestamp.valueOf(LocalDateTime.of(2025, 3, 14, 12, 0)),
+                new BigDecimal("11925"), 1L, 3L);
+        verify(venteAgregeeRepository).cumuler("JOUR", Timestamp.valueOf(LocalDateTime.of(2025, 3, 14, 0, 0)),
+                new BigDecimal("11925"), 1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Annulation de paiement - Décompte de la commande")
+    void enregistrerTransition_ShouldSubtract_WhenLeavingPaidState() {
+        commande.setStatut(StatutCommande.EN_ATTENTE);
+
+        service.enregistrerTransition(commande, StatutCommande.PAYEE, commande.getTotalTtc());
+
+        verify(venteAgregeeRepository, times(2)).cumuler(anyString(), any(Timestamp.class),
+                eq(new BigDecimal("-11925")), eq(-1L), eq(-3L));
+    }
+
+    @Test
+    @DisplayName("Transition hors encaissement - Aucun accès aux agrégats")
+    void enregistrerTransition_ShouldDoNothing_WhenNotPaid() {
+        commande.setStatut(StatutCommande.EN_PREPARATION);
+
+        service.enregistrerTransition(commande, StatutCommande.EN_ATTENTE, commande.getTotalTtc());
+
+        verifyNoInteractions(venteAgregeeRepository);
+    }
+
+    @Test
+    @DisplayName("Reconstruction - Regroupement par heure et par jour")
+    void reconstruire_ShouldGroupRowsByBucket() {
+        List<Object[]> donnees = List.of(
+                new Object[]{Timestamp.valueOf(dateCommande), new BigDecimal("1000"), 2},
+                new Object[]{Timestamp.valueOf(dateCommande.plusMinutes(5)), new BigDecimal("500"), null},
+                new Object[]{Timestamp.valueOf(dateCommande.plusHours(2)), new BigDecimal("200"), 1});
+        when(commandeRepository.findDonneesVentesByStatutIn(anyList())).thenReturn(donnees);
+
+        int lignes = service.reconstruire();
+
+        // 2 heures distinctes + 1 jour
+        assertEquals(3, lignes);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<VenteAgregee>> captor = ArgumentCaptor.forClass(List.class);
+        // Suppression avant lecture : les cumuls concurrents attendent la fin de la reconstruction
+        InOrder ordre = inOrder(venteAgregeeRepository, commandeRepository);
+        ordre.verify(venteAgregeeRepository).deleteAllInBatch();
+        ordre.verify(commandeRepository).findDonneesVentesByStatutIn(anyList());
+        ordre.verify(venteAgregeeRepository).saveAll(captor.capture());
+
+        VenteAgregee jour = captor.getValue().stream()
+                .filter(a -> a.getGranularite() == GranulariteAgregat.JOUR)
+                .findFirst().orElseThrow();
+        assertEquals(new BigDecimal("1700"), jour.getChiffreAffaires());
+        assertEquals(3L, jour.getNombreCommandes());
+        assertEquals(4L, jour.getNombreClients());
+    }
+}
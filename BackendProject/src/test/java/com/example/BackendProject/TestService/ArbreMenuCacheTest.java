@@ -0,0 +1,95 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.ArbreMenuDto;
+import com.example.BackendProject.repository.MenuRepository;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Arbre de la carte")
+class ArbreMenuCacheTest {
+
+    @Mock
+    private MenuRepository menuRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArbreMenuCache arbreMenuCache;
+
+    @BeforeEach
+    void setUp() {
+        arbreMenuCache = new ArbreMenuCache(menuRepository, transactionManager);
+
+        when(menuRepository.findArbreMenus()).thenReturn(lignes(
+                new Object[]{1L, "Carte du midi"},
+                new Object[]{2L, "Carte vide"}));
+        // Déjà triées par ordre d'affichage par la requête
+        when(menuRepository.findArbreCategories()).thenReturn(lignes(
+                new Object[]{20L, 1L, "Entrées", null, 1},
+                new Object[]{10L, 1L, "Plats", "Plats chauds", 2}));
+        when(menuRepository.findArbrePlats()).thenReturn(lignes(
+                new Object[]{100L, 10L, "Ndolé", null, new BigDecimal("3500"), null},
+                new Object[]{200L, 20L, "Salade", null, new BigDecimal("1500"), "salade.png"}));
+        when(menuRepository.findArbreOptions()).thenReturn(lignes(
+                new Object[]{100L, 7L, "Piment", new BigDecimal("100")},
+                new Object[]{100L, 8L, "Plantain", new BigDecimal("500")}));
+    }
+
+    private static List<Object[]> lignes(Object[]... lignes) {
+        return new ArrayList<>(List.of(lignes));
+    }
+
+    @Test
+    @DisplayName("Assemble l'arbre imbriqué dans l'ordre d'affichage")
+    void arbres_ShouldAssembleNestedTree() {
+        List<ArbreMenuDto> arbres = arbreMenuCache.arbres();
+
+        assertEquals(2, arbres.size());
+        ArbreMenuDto midi = arbres.get(0);
+        assertEquals(List.of("Entrées", "Plats"), midi.getCategories().stream().map(ArbreMenuDto.Categorie::getNom).toList());
+        ArbreMenuDto.Plat ndole = midi.getCategories().get(1).getPlats().get(0);
+        assertEquals("Ndolé", ndole.getNom());
+        assertEquals(List.of("Piment", "Plantain"), ndole.getOptions().stream().map(ArbreMenuDto.Option::getNom).toList());
+        assertTrue(midi.getCategories().get(0).getPlats().get(0).getOptions().isEmpty());
+        assertTrue(arbres.get(1).getCategories().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> midi.getCategories().clear());
+    }
+
+    @Test
+    @DisplayName("Sert le même arbre sans requête tant que rien n'est modifié")
+    void arbres_ShouldBeServedFromMemory() {
+        List<ArbreMenuDto> premier = arbreMenuCache.arbres();
+        List<ArbreMenuDto> second = arbreMenuCache.arbres();
+
+        assertSame(premier, second);
+        assertEquals(1L, arbreMenuCache.arbre(1L).orElseThrow().getId());
+        assertTrue(arbreMenuCache.arbre(99L).isEmpty());
+        verify(menuRepository, times(1)).findArbreMenus();
+        verify(menuRepository, times(1)).findArbreOptions();
+    }
+
+    @Test
+    @DisplayName("Reconstruit l'arbre après invalidation")
+    void invalider_ShouldRebuildOnNextRead() {
+        List<ArbreMenuDto> premier = arbreMenuCache.arbres();
+
+        arbreMenuCache.invalider();
+        List<ArbreMenuDto> second = arbreMenuCache.arbres();
+
+        assertNotSame(premier, second);
+        verify(menuRepository, times(2)).findArbreMenus();
+    }
+}
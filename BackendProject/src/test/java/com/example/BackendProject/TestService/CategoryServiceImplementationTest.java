@@ -7,6 +7,7 @@ import com.example.BackendProject.entities.Menu;
 import com.example.BackendProject.mappers.CategoryMapper;
 import com.example.BackendProject.repository.CategoryRepository;
 import com.example.BackendProject.repository.MenuRepository;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
 import com.example.BackendProject.services.implementations.CategoryServiceImplementation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +36,8 @@ class CategoryServiceImplementationTest {
     private MenuRepository menuRepository;
     @Mock
     private CategoryMapper categoryMapper;
+    @Mock
+    private ArbreMenuCache arbreMenuCache;
 
     @InjectMocks
     private CategoryServiceImplementation categoryService;
@@ -153,6 +156,7 @@ class CategoryServiceImplementationTest {
         assertEquals(1, cat1.getOrdreAffichage());
         assertEquals(2, cat2.getOrdreAffichage());
         verify(categoryRepository, times(2)).save(any(Category.class));
+        verify(arbreMenuCache).invalider();
     }
 
     @Test
@@ -1,33 +1,57 @@
 package com.example.BackendProject.TestService;
 
 import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.FiltreCommandesDto;
+import com.example.BackendProject.dto.LignePanierDto;
+import com.example.BackendProject.dto.PageCommandesDto;
+import com.example.BackendProject.dto.ResyncCommandeDto;
+import com.example.BackendProject.dto.SoumissionCommandeDto;
 import com.example.BackendProject.dto.TableRestaurantDto;
 import com.example.BackendProject.dto.UtilisateurDto;
 import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.entities.LigneCommande;
+import com.example.BackendProject.entities.OptionItem;
+import com.example.BackendProject.entities.Plat;
 import com.example.BackendProject.entities.TableRestaurant;
 import com.example.BackendProject.entities.Utilisateur;
 import com.example.BackendProject.mappers.CommandeMapper;
 import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.repository.LigneCommandeRepository;
+import com.example.BackendProject.repository.PlatRepository;
 import com.example.BackendProject.repository.TableRestaurantRepository;
 import com.example.BackendProject.repository.UtilisateurRepository;
+import com.example.BackendProject.services.implementations.AgregationVentesService;
 import com.example.BackendProject.services.implementations.CommandeServiceImplementation;
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import com.example.BackendProject.services.implementations.EvenementsCommandeService;
+import com.example.BackendProject.services.implementations.EvenementsTableService;
+import com.example.BackendProject.services.implementations.TauxTvaCache;
+import com.example.BackendProject.services.interfaces.IngredientServiceInterface;
 import com.example.BackendProject.utils.RoleType;
 import com.example.BackendProject.utils.StatutCommande;
+import com.example.BackendProject.utils.StatutTable;
 import com.example.BackendProject.utils.TypeCommande;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +67,21 @@ class CommandeServiceImplementationTest {
     @Mock
     private CommandeMapper commandeMapper;
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private DiffusionWebSocketService diffusionWebSocketService;
+    @Mock
+    private EvenementsCommandeService evenementsCommandeService;
+    @Mock
+    private AgregationVentesService agregationVentesService;
+    @Mock
+    private PlatRepository platRepository;
+    @Mock
+    private LigneCommandeRepository ligneCommandeRepository;
+    @Mock
+    private IngredientServiceInterface ingredientService;
+    @Mock
+    private EvenementsTableService evenementsTableService;
+    @Mock
+    private TauxTvaCache tauxTvaCache;
 
     @InjectMocks
     private CommandeServiceImplementation service;
@@ -55,6 +93,8 @@ class CommandeServiceImplementationTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(tauxTvaCache.taux()).thenReturn(new BigDecimal("0.1925"));
+
         // Mock Serveur
         serveur = new Utilisateur();
         serveur.setId(1L);
@@ -99,6 +139,7 @@ class CommandeServiceImplementationTest {
         assertNotNull(result);
         assertEquals(StatutCommande.EN_ATTENTE, commandeDto.getStatut());
         assertEquals(BigDecimal.ZERO, commandeDto.getTotalHt());
+        verify(evenementsTableService).statutModifie(10L, StatutTable.Occupée);
     }
 
     @Test
@@ -120,6 +161,94 @@ class CommandeServiceImplementationTest {
         assertThrows(RuntimeException.class, () -> service.save(commandeDto));
     }
 
+    // ==================== TESTS DE SOUMISSION DE PANIER ====================
+
+    @Test
+    @DisplayName("Soumettre - Lignes et options insérées en lot, stock déduit en lot, une seule notification")
+    @SuppressWarnings("unchecked")
+    void soumettreCommande_ShouldCreateWholeBasketInOnePass() {
+        OptionItem piment = new OptionItem(5L, "Piment", new BigDecimal("500"), null);
+        Plat ndole = new Plat();
+        ndole.setId(1L);
+        ndole.setNom("NDOLE");
+        ndole.setPrix(new BigDecimal("5000"));
+        ndole.setDisponibilite(true);
+        ndole.setOptions(List.of(piment));
+
+        SoumissionCommandeDto panier = new SoumissionCommandeDto(10L, 1L, TypeCommande.SUR_PLACE, 3, List.of(
+                new LignePanierDto(1L, 2, "Bien cuit", List.of(5L)),
+                new LignePanierDto(1L, 1, null, null)));
+
+        when(utilisateurRepository.findById(1L)).thenReturn(Optional.of(serveur));
+        when(tableRestaurantRepository.findById(10L)).thenReturn(Optional.of(table));
+        when(platRepository.findAllWithOptionsByIdIn(any())).thenReturn(List.of(ndole));
+        when(commandeRepository.save(any())).thenAnswer(inv -> {
+            Commande c = inv.getArgument(0);
+            c.setId(200L);
+            return c;
+        });
+        when(commandeMapper.toDto(any())).thenReturn(new CommandeDto());
+
+        CommandeDto result = service.soumettreCommande(panier);
+
+        ArgumentCaptor<Commande> commandeCaptor = ArgumentCaptor.forClass(Commande.class);
+        verify(commandeRepository).save(commandeCaptor.capture());
+        // HT = (5000 + 500) * 2 + 5000 = 16000 ; TTC = 16000 * 1.1925 = 19080
+        assertEquals(0, new BigDecimal("16000").compareTo(commandeCaptor.getValue().getTotalHt()));
+        assertEquals(0, new BigDecimal("19080").compareTo(commandeCaptor.getValue().getTotalTtc()));
+
+        ArgumentCaptor<List<LigneCommande>> lignesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(ligneCommandeRepository).insererEnLot(eq(200L), lignesCaptor.capture());
+        assertEquals(2, lignesCaptor.getValue().size());
+        assertEquals(0, new BigDecimal("5500").compareTo(lignesCaptor.getValue().get(0).getPrixUnitaire()));
+        assertEquals(1, lignesCaptor.getValue().get(0).getOptions().size());
+
+        verify(ingredientService).deduireStockEnLot(Map.of(1L, 3));
+        verify(evenementsCommandeService, times(1)).commandeCreee(any(CommandeDto.class));
+        assertEquals(2, result.getLignesCommande().size());
+    }
+
+    @Test
+    @DisplayName("Soumettre - Échec si un plat du panier est indisponible")
+    void soumettreCommande_ShouldThrow_WhenPlatUnavailable() {
+        Plat plat = new Plat();
+        plat.setId(1L);
+        plat.setNom("NDOLE");
+        plat.setDisponibilite(false);
+        SoumissionCommandeDto panier = new SoumissionCommandeDto(null, null, TypeCommande.A_EMPORTER, 1,
+                List.of(new LignePanierDto(1L, 1, null, null)));
+        when(platRepository.findAllWithOptionsByIdIn(any())).thenReturn(List.of(plat));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.soumettreCommande(panier));
+        assertTrue(ex.getMessage().contains("pas disponible"));
+        verify(commandeRepository, never()).save(any());
+        verifyNoInteractions(ligneCommandeRepository, ingredientService);
+    }
+
+    @Test
+    @DisplayName("Soumettre - Échec de la déduction de stock propagé, aucune notification")
+    void soumettreCommande_ShouldPropagate_WhenStockDeductionFails() {
+        Plat plat = new Plat();
+        plat.setId(1L);
+        plat.setNom("NDOLE");
+        plat.setPrix(new BigDecimal("5000"));
+        plat.setDisponibilite(true);
+        SoumissionCommandeDto panier = new SoumissionCommandeDto(null, null, TypeCommande.A_EMPORTER, 1,
+                List.of(new LignePanierDto(1L, 2, null, null)));
+        when(platRepository.findAllWithOptionsByIdIn(any())).thenReturn(List.of(plat));
+        when(commandeRepository.save(any())).thenAnswer(inv -> {
+            Commande c = inv.getArgument(0);
+            c.setId(200L);
+            return c;
+        });
+        doThrow(new RuntimeException("Retrait de stock indéterminé pour l'ingrédient ID : 7"))
+                .when(ingredientService).deduireStockEnLot(Map.of(1L, 2));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.soumettreCommande(panier));
+        assertTrue(ex.getMessage().contains("Retrait de stock indéterminé"));
+        verify(evenementsCommandeService, never()).commandeCreee(any());
+    }
+
     // ==================== TESTS DE STATUTS ====================
 
     @Test
@@ -143,6 +272,36 @@ class CommandeServiceImplementationTest {
                 () -> service.updateStatut(100L, StatutCommande.ANNULEE));
     }
 
+    @Test
+    @DisplayName("UpdateStatut - Le passage à PAYEE alimente les agrégats de ventes")
+    void updateStatut_ShouldFeedSalesRollup_WhenPaid() {
+        commande.setStatut(StatutCommande.SERVIE);
+        when(commandeRepository.findById(100L)).thenReturn(Optional.of(commande));
+        when(commandeRepository.save(any())).thenReturn(commande);
+        when(commandeMapper.toDto(any())).thenReturn(commandeDto);
+
+        service.updateStatut(100L, StatutCommande.PAYEE);
+
+        verify(agregationVentesService).enregistrerTransition(commande, StatutCommande.SERVIE, commande.getTotalTtc());
+        verify(evenementsCommandeService).statutModifie(commande);
+    }
+
+    @Test
+    @DisplayName("Resync - Séquence lue avant l'instantané de la commande")
+    void resynchroniser_ShouldReturnSequenceAndSnapshot() {
+        when(evenementsCommandeService.sequenceCourante(100L)).thenReturn(7L);
+        when(commandeRepository.findById(100L)).thenReturn(Optional.of(commande));
+        when(commandeMapper.toDto(commande)).thenReturn(commandeDto);
+
+        ResyncCommandeDto resync = service.resynchroniser(100L);
+
+        assertEquals(7L, resync.getSequence());
+        assertSame(commandeDto, resync.getCommande());
+        InOrder ordre = inOrder(evenementsCommandeService, commandeRepository);
+        ordre.verify(evenementsCommandeService).sequenceCourante(100L);
+        ordre.verify(commandeRepository).findById(100L);
+    }
+
     // ==================== TESTS DE SUPPRESSION ====================
 
     @Test
@@ -157,6 +316,58 @@ class CommandeServiceImplementationTest {
 
     // ==================== TESTS DE RECHERCHE ====================
 
+    @Test
+    @DisplayName("Rechercher - Page pleine : curseur suivant positionné sur la dernière commande")
+    void rechercher_ShouldReturnCursor_WhenMoreResults() {
+        Commande c1 = commandeDatee(3L, "2026-03-10 12:00:00");
+        Commande c2 = commandeDatee(2L, "2026-03-10 11:00:00");
+        Commande c3 = commandeDatee(1L, "2026-03-10 10:00:00");
+        FiltreCommandesDto filtre = new FiltreCommandesDto(StatutCommande.PAYEE, null, null, null, null, null);
+        when(commandeRepository.rechercherPage(filtre, null, null, 3)).thenReturn(List.of(c1, c2, c3));
+        when(commandeMapper.toDto(any(Commande.class))).thenReturn(commandeDto);
+
+        PageCommandesDto page = service.rechercher(filtre, null, 2);
+
+        assertEquals(2, page.getCommandes().size());
+        assertNotNull(page.getCurseurSuivant());
+
+        // Le curseur renvoyé reprend exactement après la 2e commande
+        when(commandeRepository.rechercherPage(filtre, c2.getDateHeureCommande(), 2L, 3)).thenReturn(List.of(c3));
+        PageCommandesDto suivante = service.rechercher(filtre, page.getCurseurSuivant(), 2);
+
+        assertEquals(1, suivante.getCommandes().size());
+        assertNull(suivante.getCurseurSuivant());
+    }
+
+    @Test
+    @DisplayName("Rechercher - Taille de page bornée")
+    void rechercher_ShouldCapPageSize() {
+        when(commandeRepository.rechercherPage(any(), isNull(), isNull(), anyInt())).thenReturn(List.of());
+
+        service.rechercher(null, null, 100_000);
+        service.rechercher(null, null, null);
+
+        verify(commandeRepository).rechercherPage(isNull(), isNull(), isNull(),
+                eq(CommandeServiceImplementation.TAILLE_PAGE_MAX + 1));
+        verify(commandeRepository).rechercherPage(isNull(), isNull(), isNull(),
+                eq(CommandeServiceImplementation.TAILLE_PAGE_DEFAUT + 1));
+    }
+
+    @Test
+    @DisplayName("Rechercher - Échec si curseur invalide")
+    void rechercher_ShouldThrow_WhenCursorInvalid() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.rechercher(null, "pas-un-curseur", 10));
+        assertEquals("Curseur de pagination invalide", ex.getMessage());
+        verifyNoInteractions(commandeRepository);
+    }
+
+    private static Commande commandeDatee(Long id, String date) {
+        Commande c = new Commande();
+        c.setId(id);
+        c.setDateHeureCommande(Timestamp.valueOf(date));
+        return c;
+    }
+
     // @Test
     // @DisplayName("FindByDateRange - Échec si début > fin")
     // void findByDateRange_ShouldThrow_WhenDatesInverted() {
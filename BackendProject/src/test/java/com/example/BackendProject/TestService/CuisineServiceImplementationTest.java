@@ -4,6 +4,9 @@ import com.example.BackendProject.dto.CommandeDto;
 import com.example.BackendProject.entities.Commande;
 import com.example.BackendProject.mappers.CommandeMapper;
 import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import com.example.BackendProject.services.implementations.EvenementsCommandeService;
+import com.example.BackendProject.services.implementations.TableauCuisineService;
 import com.example.BackendProject.services.implementations.CuisineServiceImplementation;
 import com.example.BackendProject.utils.StatutCommande;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,9 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,7 +35,13 @@ class CuisineServiceImplementationTest {
     private CommandeMapper commandeMapper;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private DiffusionWebSocketService diffusionWebSocketService;
+
+    @Mock
+    private EvenementsCommandeService evenementsCommandeService;
+
+    @Mock
+    private TableauCuisineService tableauCuisineService;
 
     @InjectMocks
     private CuisineServiceImplementation cuisineService;
@@ -57,17 +64,15 @@ class CuisineServiceImplementationTest {
     @DisplayName("Get Liste à Préparer - Devrait retourner les commandes en attente ou préparation")
     void getListeAPreparer_ShouldReturnList() {
         // Arrange
-        List<Commande> commandes = Arrays.asList(sampleCommande);
-        when(commandeRepository.findByStatutInOrderByDateHeureCommandeAsc(anyList())).thenReturn(commandes);
-        when(commandeMapper.toDto(any(Commande.class))).thenReturn(sampleDto);
+        when(tableauCuisineService.commandesAPreparer()).thenReturn(List.of(sampleDto));
 
         // Act
         List<CommandeDto> result = cuisineService.getListeAPreparer();
 
-        // Assert
+        // Assert : servi depuis la projection, sans requête
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(commandeRepository).findByStatutInOrderByDateHeureCommandeAsc(anyList());
+        verifyNoInteractions(commandeRepository, commandeMapper);
     }
 
     @Test
@@ -118,7 +123,7 @@ class CuisineServiceImplementationTest {
         verify(commandeRepository).save(sampleCommande);
 
         // Vérifie l'envoi du message WebSocket à la salle
-        verify(messagingTemplate).convertAndSend(eq("/topic/salle/prete"), eq(sampleDto));
+        verify(diffusionWebSocketService).publier(eq("/topic/salle/prete"), any(), eq(sampleDto));
     }
 
     @Test
@@ -0,0 +1,134 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Diffusion WebSocket")
+class DiffusionWebSocketServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private MessageConverter messageConverter;
+
+    @InjectMocks
+    private DiffusionWebSocketService diffusionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(messagingTemplate.getMessageConverter()).thenReturn(messageConverter);
+        lenient().when(messageConverter.toMessage(any(), isNull()))
+                .thenAnswer(inv -> MessageBuilder.withPayload(inv.getArgument(0).toString().getBytes()).build());
+    }
+
+    @Test
+    @DisplayName("Rafale sur la même commande - Un seul envoi avec le dernier état")
+    void vider_ShouldCoalesceBurstForSameKey() {
+        Map<String, Object> etat1 = Map.of("id", 10L, "total", 1);
+        Map<String, Object> etat2 = Map.of("id", 10L, "total", 2);
+        Map<String, Object> etat3 = Map.of("id", 10L, "total", 3);
+
+        diffusionService.publier("/topic/cuisine/commandes", 10L, etat1);
+        diffusionService.publier("/topic/cuisine/commandes", 10L, etat2);
+        diffusionService.publier("/topic/cuisine/commandes", 10L, etat3);
+        diffusionService.vider();
+
+        verify(messageConverter, times(1)).toMessage(etat3, null);
+        verify(messagingTemplate, times(1)).send(eq("/topic/cuisine/commandes"), any(Message.class));
+    }
+
+    @Test
+    @DisplayName("Même payload vers deux destinations - Sérialisé une seule fois")
+    void vider_ShouldSerializeSharedPayloadOnce() {
+        Map<String, Object> etat = Map.of("id", 10L);
+
+        diffusionService.publier("/topic/serveurs/addition/10", 10L, etat);
+        diffusionService.publier("/topic/cuisine/commandes", 10L, etat);
+        diffusionService.vider();
+
+        verify(messageConverter, times(1)).toMessage(etat, null);
+        verify(messagingTemplate).send(eq("/topic/serveurs/addition/10"), any(Message.class));
+        verify(messagingTemplate).send(eq("/topic/cuisine/commandes"), any(Message.class));
+    }
+
+    @Test
+    @DisplayName("Clés différentes - Aucun envoi fusionné")
+    void vider_ShouldKeepDistinctKeys() {
+        diffusionService.publier("/topic/cuisine/commandes", 10L, Map.of("id", 10L));
+        diffusionService.publier("/topic/cuisine/commandes", 11L, Map.of("id", 11L));
+        diffusionService.publier("/topic/stock/alertes", null, Map.of("id", 1L));
+        diffusionService.publier("/topic/stock/alertes", null, Map.of("id", 1L));
+        diffusionService.vider();
+
+        verify(messagingTemplate, times(2)).send(eq("/topic/cuisine/commandes"), any(Message.class));
+        verify(messagingTemplate, times(2)).send(eq("/topic/stock/alertes"), any(Message.class));
+    }
+
+    @Test
+    @DisplayName("Rafale d'événements - Une seule trame par destination, événements dans l'ordre")
+    void vider_ShouldBatchEventsPerDestination() {
+        Map<String, Object> ajout = Map.of("sequence", 1L);
+        Map<String, Object> modification = Map.of("sequence", 2L);
+        Map<String, Object> suppression = Map.of("sequence", 3L);
+
+        diffusionService.publierEvenement(List.of("/topic/cuisine/commandes", "/topic/serveurs/addition/10"), () -> ajout);
+        diffusionService.publierEvenement(List.of("/topic/cuisine/commandes", "/topic/serveurs/addition/10"), () -> modification);
+        diffusionService.publierEvenement(List.of("/topic/cuisine/commandes"), () -> suppression);
+        diffusionService.vider();
+
+        verify(messageConverter).toMessage(eq(List.of(ajout, modification, suppression)), isNull());
+        verify(messageConverter).toMessage(eq(List.of(ajout, modification)), isNull());
+        verify(messagingTemplate, times(1)).send(eq("/topic/cuisine/commandes"), any(Message.class));
+        verify(messagingTemplate, times(1)).send(eq("/topic/serveurs/addition/10"), any(Message.class));
+
+        // Fenêtre suivante : un nouveau lot
+        diffusionService.publierEvenement(List.of("/topic/cuisine/commandes"), () -> ajout);
+        diffusionService.vider();
+        verify(messageConverter).toMessage(eq(List.of(ajout)), isNull());
+    }
+
+    @Test
+    @DisplayName("Publication transactionnelle - Mise en file seulement après commit")
+    void publier_ShouldWaitForCommit_WhenTransactionActive() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            diffusionService.publier("/topic/salle/prete", 5L, Map.of("id", 5L));
+            diffusionService.vider();
+            verify(messagingTemplate, never()).send(anyString(), any(Message.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        diffusionService.vider();
+        verify(messagingTemplate, times(1)).send(eq("/topic/salle/prete"), any(Message.class));
+    }
+
+    @Test
+    @DisplayName("File vide - Aucun envoi")
+    void vider_ShouldDoNothing_WhenQueueEmpty() {
+        diffusionService.vider();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.CreneauDisponibleDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
+import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.repository.ReservationRepository;
+import com.example.BackendProject.services.implementations.DisponibiliteTablesService;
+import com.example.BackendProject.services.implementations.PlanSalleIndex;
+import com.example.BackendProject.utils.StatutReservation;
+import com.example.BackendProject.utils.StatutTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Disponibilité des tables")
+class DisponibiliteTablesServiceTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2030, 6, 15);
+    private static final LocalDateTime MAINTENANT = LocalDateTime.of(2030, 6, 15, 12, 0);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private PlanSalleIndex planSalleIndex;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DisponibiliteTablesService disponibiliteTablesService;
+
+    @BeforeEach
+    void setUp() {
+        disponibiliteTablesService = new DisponibiliteTablesService(reservationRepository, planSalleIndex,
+                transactionManager, 90, 60) {
+            @Override
+            protected LocalDateTime maintenant() {
+                return MAINTENANT;
+            }
+        };
+        when(planSalleIndex.toutes()).thenReturn(List.of(
+                new TableRestaurantDto(1L, 10L, "T1", 2, StatutTable.Libre),
+                new TableRestaurantDto(2L, 10L, "T2", 4, StatutTable.Libre),
+                new TableRestaurantDto(3L, 20L, "T3", 6, StatutTable.Occupée)));
+        List<Object[]> creneaux = new ArrayList<>();
+        // T2 réservée de 19h00 à 20h30 (durée par défaut)
+        creneaux.add(new Object[]{100L, 2L, JOUR, LocalTime.of(19, 0), null});
+        when(reservationRepository.findCreneauxDepuis(any(), any())).thenReturn(creneaux);
+    }
+
+    private static List<Long> ids(List<TableRestaurantDto> tables) {
+        return tables.stream().map(TableRestaurantDto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Tables libres - Capacité, réservations et tables occupées pris en compte")
+    void tablesDisponibles_ShouldExcludeOverlapsAndOccupiedTables() {
+        // T3 encore occupée jusqu'à 13h, T2 prise à 19h30
+        assertEquals(List.of(2L), ids(disponibiliteTablesService.tablesDisponibles(3, JOUR.atTime(12, 30), 60)));
+        assertEquals(List.of(3L), ids(disponibiliteTablesService.tablesDisponibles(3, JOUR.atTime(19, 30), 60)));
+        // Fin exclusive : 20h30 est libre sur T2, la plus petite table adaptée vient en premier
+        assertEquals(List.of(2L, 3L), ids(disponibiliteTablesService.tablesDisponibles(3, JOUR.atTime(20, 30), 60)));
+        // Un créneau qui se termine au début de la réservation ne la chevauche pas
+        assertEquals(List.of(1L, 2L, 3L), ids(disponibiliteTablesService.tablesDisponibles(2, JOUR.atTime(17, 30), 90)));
+
+        verify(reservationRepository, times(1)).findCreneauxDepuis(eq(JOUR.minusDays(1)), any());
+    }
+
+    @Test
+    @DisplayName("Prochains créneaux - Premier trou assez long sur chaque table")
+    void prochainsCreneaux_ShouldSkipBookedIntervals() {
+        List<CreneauDisponibleDto> creneaux = disponibiliteTablesService.prochainsCreneaux(4, JOUR.atTime(18, 30), 90, 5);
+
+        assertEquals(2, creneaux.size());
+        assertEquals(3L, creneaux.get(0).getTableId());
+        assertEquals(JOUR.atTime(18, 30), creneaux.get(0).getDebut());
+        assertEquals(2L, creneaux.get(1).getTableId());
+        assertEquals(JOUR.atTime(20, 30), creneaux.get(1).getDebut());
+        assertEquals(JOUR.atTime(22, 0), creneaux.get(1).getFin());
+    }
+
+    @Test
+    @DisplayName("Mises à jour - Réservation déplacée, annulée puis supprimée reflétée dans l'index")
+    void enregistrerEtRetirer_ShouldKeepIndexCurrent() {
+        disponibiliteTablesService.tablesDisponibles(2, JOUR.atTime(19, 0), null);
+
+        TableRestaurant table = new TableRestaurant();
+        table.setId(1L);
+        Reservation reservation = new Reservation();
+        reservation.setId(100L);
+        reservation.setTable(table);
+        reservation.setDate(JOUR);
+        reservation.setHeure(LocalTime.of(19, 0));
+        reservation.setStatut(StatutReservation.CONFIRMEE);
+
+        // Hors transaction : appliqué immédiatement
+        disponibiliteTablesService.enregistrer(reservation);
+        assertEquals(List.of(2L, 3L), ids(disponibiliteTablesService.tablesDisponibles(2, JOUR.atTime(19, 0), null)));
+
+        reservation.setStatut(StatutReservation.ANNULEE);
+        disponibiliteTablesService.enregistrer(reservation);
+        assertEquals(List.of(1L, 2L, 3L), ids(disponibiliteTablesService.tablesDisponibles(2, JOUR.atTime(19, 0), null)));
+
+        reservation.setStatut(StatutReservation.EN_ATTENTE);
+        disponibiliteTablesService.enregistrer(reservation);
+        disponibiliteTablesService.retirer(100L);
+        assertEquals(List.of(1L, 2L, 3L), ids(disponibiliteTablesService.tablesDisponibles(2, JOUR.atTime(19, 0), null)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.EvenementCommandeDto;
+import com.example.BackendProject.dto.LigneCommandeDto;
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import com.example.BackendProject.services.implementations.EvenementsCommandeService;
+import com.example.BackendProject.services.implementations.TableauCuisineService;
+import com.example.BackendProject.utils.StatutCommande;
+import com.example.BackendProject.utils.TypeEvenementCommande;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Événements de commande")
+class EvenementsCommandeServiceTest {
+
+    @Mock
+    private DiffusionWebSocketService diffusionWebSocketService;
+    @Mock
+    private TableauCuisineService tableauCuisineService;
+
+    private EvenementsCommandeService evenementsService;
+
+    private Commande commande;
+
+    @BeforeEach
+    void setUp() {
+        evenementsService = new EvenementsCommandeService(diffusionWebSocketService, tableauCuisineService, 10000L, 720L);
+        commande = new Commande();
+        commande.setId(10L);
+        commande.setTotalHt(new BigDecimal("10000"));
+        commande.setTotalTtc(new BigDecimal("11925"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private EvenementCommandeDto dernierEvenementMisEnFile() {
+        ArgumentCaptor<Supplier<?>> fabrique = ArgumentCaptor.forClass(Supplier.class);
+        verify(diffusionWebSocketService, atLeastOnce()).publierEvenement(
+                eq(List.of("/topic/cuisine/commandes", "/topic/serveurs/addition/10")), fabrique.capture());
+        // Simule la mise en file après commit
+        return (EvenementCommandeDto) fabrique.getValue().get();
+    }
+
+    @Test
+    @DisplayName("Ligne ajoutée - Delta sans instantané, séquence 1")
+    void ligneAjoutee_ShouldPublishDeltaWithFirstSequence() {
+        LigneCommandeDto ligne = new LigneCommandeDto(100L, 10L, 1L, 2, new BigDecimal("5000"), null);
+
+        evenementsService.ligneAjoutee(commande, ligne);
+        EvenementCommandeDto evenement = dernierEvenementMisEnFile();
+
+        assertEquals(TypeEvenementCommande.LIGNE_AJOUTEE, evenement.getType());
+        assertEquals(1L, evenement.getSequence());
+        assertSame(ligne, evenement.getLigne());
+        assertNull(evenement.getCommande());
+        assertEquals(0, new BigDecimal("11925").compareTo(evenement.getTotalTtc()));
+        assertEquals(1L, evenementsService.sequenceCourante(10L));
+        verify(tableauCuisineService).appliquer(evenement);
+    }
+
+    @Test
+    @DisplayName("Séquence - Incrémentée à chaque événement de la même commande")
+    void sequence_ShouldIncreasePerOrder() {
+        evenementsService.ligneSupprimee(commande, 100L);
+        dernierEvenementMisEnFile();
+        evenementsService.totauxModifies(commande);
+        EvenementCommandeDto evenement = dernierEvenementMisEnFile();
+
+        assertEquals(2L, evenement.getSequence());
+        assertEquals(0L, evenementsService.sequenceCourante(99L));
+    }
+
+    @Test
+    @DisplayName("Statut PAYEE - La séquence continue pour les événements suivants de la commande")
+    void statutModifie_ShouldKeepSequence_WhenPaid() {
+        evenementsService.lignesVidees(commande);
+        dernierEvenementMisEnFile();
+
+        commande.setStatut(StatutCommande.PAYEE);
+        evenementsService.statutModifie(commande);
+        EvenementCommandeDto evenement = dernierEvenementMisEnFile();
+
+        assertEquals(TypeEvenementCommande.STATUT_MODIFIE, evenement.getType());
+        assertEquals(StatutCommande.PAYEE, evenement.getStatut());
+        assertEquals(2L, evenement.getSequence());
+        assertEquals(2L, evenementsService.sequenceCourante(10L));
+
+        // Un remboursement remet la commande en attente : aucun retour à 1 côté clients
+        commande.setStatut(StatutCommande.EN_ATTENTE);
+        evenementsService.statutModifie(commande);
+        assertEquals(3L, dernierEvenementMisEnFile().getSequence());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.EvenementTableDto;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.entities.Zone;
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import com.example.BackendProject.services.implementations.EvenementsTableService;
+import com.example.BackendProject.services.implementations.PlanSalleIndex;
+import com.example.BackendProject.utils.StatutTable;
+import com.example.BackendProject.utils.TypeEvenementTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Événements de table")
+class EvenementsTableServiceTest {
+
+    @Mock
+    private DiffusionWebSocketService diffusionWebSocketService;
+    @Mock
+    private PlanSalleIndex planSalleIndex;
+
+    @InjectMocks
+    private EvenementsTableService evenementsTableService;
+
+    @SuppressWarnings("unchecked")
+    private EvenementTableDto dernierEvenementMisEnFile() {
+        ArgumentCaptor<Supplier<?>> fabrique = ArgumentCaptor.forClass(Supplier.class);
+        verify(diffusionWebSocketService, atLeastOnce()).publierEvenement(
+                eq(List.of("/topic/salle/tables")), fabrique.capture());
+        // Simule la mise en file après commit
+        return (EvenementTableDto) fabrique.getValue().get();
+    }
+
+    @Test
+    @DisplayName("Statut modifié - Événement compact, appliqué à l'index puis séquencé")
+    void statutModifie_ShouldPublishCompactEvent() {
+        evenementsTableService.statutModifie(4L, StatutTable.Occupée);
+        EvenementTableDto evenement = dernierEvenementMisEnFile();
+
+        assertEquals(TypeEvenementTable.STATUT_MODIFIE, evenement.getType());
+        assertEquals(4L, evenement.getTableId());
+        assertEquals(StatutTable.Occupée, evenement.getStatut());
+        assertEquals(1L, evenement.getSequence());
+        assertNull(evenement.getNumero());
+        assertNull(evenement.getZoneId());
+        assertEquals(1L, evenementsTableService.sequenceCourante());
+        verify(planSalleIndex).appliquer(evenement);
+    }
+
+    @Test
+    @DisplayName("Séquence - Globale à la salle, visible seulement après application à l'index")
+    void sequence_ShouldBeGlobalAndPublishedAfterIndexUpdate() {
+        Zone zone = new Zone();
+        zone.setId(2L);
+        TableRestaurant table = new TableRestaurant();
+        table.setId(7L);
+        table.setZone(zone);
+        table.setNumero("T7");
+        table.setCapacite(4);
+        table.setStatut(StatutTable.Libre);
+
+        evenementsTableService.tableEnregistree(table);
+        EvenementTableDto creation = dernierEvenementMisEnFile();
+        doAnswer(invocation -> {
+            // Pendant l'application, un instantané voit encore la séquence précédente
+            assertEquals(1L, evenementsTableService.sequenceCourante());
+            return null;
+        }).when(planSalleIndex).appliquer(any());
+        evenementsTableService.tableSupprimee(3L);
+        EvenementTableDto suppression = dernierEvenementMisEnFile();
+
+        assertEquals(1L, creation.getSequence());
+        assertEquals(2L, creation.getZoneId());
+        assertEquals("T7", creation.getNumero());
+        assertEquals(TypeEvenementTable.TABLE_SUPPRIMEE, suppression.getType());
+        assertEquals(2L, suppression.getSequence());
+        assertEquals(2L, evenementsTableService.sequenceCourante());
+        InOrder ordre = inOrder(planSalleIndex);
+        ordre.verify(planSalleIndex).appliquer(creation);
+        ordre.verify(planSalleIndex).appliquer(suppression);
+    }
+}
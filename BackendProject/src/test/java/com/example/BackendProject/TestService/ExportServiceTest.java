@@ -0,0 +1,100 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.repository.ExportRepository;
+import com.example.BackendProject.services.implementations.ExportService;
+import com.example.BackendProject.utils.FormatExport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Exports en flux")
+class ExportServiceTest {
+
+    @Mock
+    private ExportRepository exportRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExportService exportService;
+
+    private final Timestamp debut = Timestamp.valueOf("2026-01-01 00:00:00");
+    private final Timestamp fin = Timestamp.valueOf("2026-12-31 23:59:59");
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(exportRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Paiements NDJSON - Un objet JSON par ligne, curseur fermé")
+    void exporterPaiements_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        AtomicBoolean ferme = new AtomicBoolean(false);
+        Stream<Object[]> lignes = Stream.of(
+                new Object[]{1L, 10L, Timestamp.valueOf("2026-03-01 12:30:00"), "Carte", new BigDecimal("15000.50"), "REF-1"},
+                new Object[]{2L, 11L, Timestamp.valueOf("2026-03-01 13:00:00"), "Carte", new BigDecimal("8000"), null}
+        ).onClose(() -> ferme.set(true));
+        when(exportRepository.paiementsEntre(debut, fin)).thenReturn(lignes);
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        long nombre = exportService.exporterPaiements(debut, fin, FormatExport.NDJSON, sortie);
+
+        String[] json = sortie.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, nombre);
+        assertEquals(2, json.length);
+        JsonNode premier = objectMapper.readTree(json[0]);
+        assertEquals(10L, premier.get("commandeId").asLong());
+        assertEquals(new BigDecimal("15000.50"), premier.get("montant").decimalValue());
+        assertEquals("2026-03-01T12:30", premier.get("datePaiement").asText());
+        assertTrue(objectMapper.readTree(json[1]).get("referenceTransaction").isNull());
+        assertTrue(ferme.get());
+    }
+
+    @Test
+    @DisplayName("Mouvements de stock CSV - Gzippé, en-tête et champs échappés")
+    void exporterMouvementsStock_ShouldWriteGzippedCsv() throws Exception {
+        when(exportRepository.mouvementsStockEntre(debut, fin)).thenReturn(Stream.<Object[]>of(
+                new Object[]{5L, Timestamp.valueOf("2026-02-10 08:00:00"), 3L, "Tomate", "SORTIE",
+                        new BigDecimal("1.250"), "kg", "Commande; \"urgente\""}
+        ));
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        long nombre = exportService.exporterMouvementsStock(debut, fin, FormatExport.CSV, sortie);
+
+        String csv;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(sortie.toByteArray()))) {
+            csv = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lignes = csv.split("\r\n");
+        assertEquals(1, nombre);
+        assertEquals(String.join(";", ExportService.COLONNES_MOUVEMENTS_STOCK), lignes[0]);
+        assertEquals("5;2026-02-10T08:00;3;Tomate;SORTIE;1.250;kg;\"Commande; \"\"urgente\"\"\"", lignes[1]);
+    }
+
+    @Test
+    @DisplayName("Commandes - Période vide : aucun contenu NDJSON")
+    void exporterCommandes_ShouldWriteNothing_WhenNoRows() throws Exception {
+        when(exportRepository.commandesEntre(debut, fin)).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exporterCommandes(debut, fin, FormatExport.NDJSON, sortie));
+        assertEquals(0, sortie.size());
+    }
+}
@@ -5,6 +5,13 @@ import com.example.BackendProject.entities.Ingredient;
 import com.example.BackendProject.mappers.IngredientMapper;
 import com.example.BackendProject.repository.IngredientRepository;
 import com.example.BackendProject.services.implementations.IngredientServiceImplementation;
+import com.example.BackendProject.services.implementations.JournalStockService;
+import com.example.BackendProject.services.implementations.NomenclaturePlatCache;
+import com.example.BackendProject.services.implementations.PortionsRestantesService;
+import com.example.BackendProject.services.implementations.RechercheCatalogueIndex;
+import com.example.BackendProject.services.implementations.StockAlerteService;
+import com.example.BackendProject.utils.OrigineMouvementStock;
+import com.example.BackendProject.utils.TypeElementCatalogue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,11 +20,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -32,7 +40,15 @@ class IngredientServiceImplementationTest {
     @Mock
     private IngredientMapper ingredientMapper;
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private StockAlerteService stockAlerteService;
+    @Mock
+    private NomenclaturePlatCache nomenclaturePlatCache;
+    @Mock
+    private RechercheCatalogueIndex rechercheCatalogueIndex;
+    @Mock
+    private PortionsRestantesService portionsRestantesService;
+    @Mock
+    private JournalStockService journalStockService;
 
     @InjectMocks
     private IngredientServiceImplementation ingredientService;
@@ -59,8 +75,8 @@ class IngredientServiceImplementationTest {
     // ==================== TESTS DE VALIDATION & SAVE ====================
 
     @Test
-    @DisplayName("Save - Succès et vérification de l'alerte")
-    void save_ShouldSucceed_AndNotAlert_WhenStockIsHigh() {
+    @DisplayName("Save - Succès et évaluation de l'alerte")
+    void save_ShouldSucceed_AndEvaluateAlert() {
         when(ingredientRepository.existsByNomIgnoreCase(anyString())).thenReturn(false);
         when(ingredientMapper.toEntity(any())).thenReturn(ingredient);
         when(ingredientRepository.save(any())).thenReturn(ingredient);
@@ -68,8 +84,8 @@ class IngredientServiceImplementationTest {
 
         ingredientService.save(ingredientDto);
 
-        // Pas d'alerte car 10.0 > 2.0
-        verify(messagingTemplate, never()).convertAndSend(eq("/topic/stock/alertes"), any(Object.class));
+        // La décision d'alerter (sur transition uniquement) revient au service d'alertes
+        verify(stockAlerteService).evaluer(ingredient);
     }
 
     @Test
@@ -79,79 +95,171 @@ class IngredientServiceImplementationTest {
         assertThrows(RuntimeException.class, () -> ingredientService.save(ingredientDto));
     }
 
+    @Test
+    @DisplayName("Search - Sous-chaîne du nom résolue par l'index, ingrédients chargés dans l'ordre des IDs")
+    void search_ShouldLoadSubstringMatchesFromIndex() {
+        Ingredient autre = new Ingredient();
+        autre.setId(2L);
+        autre.setNom("Tomate cerise");
+        IngredientDto autreDto = new IngredientDto();
+        autreDto.setNom("Tomate cerise");
+        when(rechercheCatalogueIndex.contenant("mate", TypeElementCatalogue.INGREDIENT)).thenReturn(List.of(1L, 2L));
+        when(ingredientRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(autre, ingredient));
+        when(ingredientMapper.toDto(ingredient)).thenReturn(ingredientDto);
+        when(ingredientMapper.toDto(autre)).thenReturn(autreDto);
+
+        List<IngredientDto> result = ingredientService.search("mate");
+
+        assertEquals(List.of("Tomate", "Tomate cerise"), result.stream().map(IngredientDto::getNom).toList());
+        verify(ingredientRepository, never()).findByNomContainingIgnoreCase(any());
+    }
+
+    @Test
+    @DisplayName("Delete - Écriture de clôture ramenant le solde du journal à zéro")
+    void delete_ShouldJournalClosingEntry_FromLockedRead() {
+        when(ingredientRepository.findByIdPourMiseAJour(1L)).thenReturn(Optional.of(ingredient));
+
+        ingredientService.delete(1L);
+
+        verify(journalStockService).enregistrer(1L, new BigDecimal("-10.0"), OrigineMouvementStock.CLOTURE);
+        verify(ingredientRepository).delete(ingredient);
+        verify(portionsRestantesService).stockDefini(1L, BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("Delete - Échec si l'ingrédient n'existe pas, rien n'est journalisé")
+    void delete_ShouldThrow_WhenNotFound() {
+        when(ingredientRepository.findByIdPourMiseAJour(99L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> ingredientService.delete(99L));
+        verify(journalStockService, never()).enregistrer(any(Long.class), any(), any());
+        verify(ingredientRepository, never()).delete(any());
+    }
+
     // ==================== TESTS DE GESTION DES QUANTITÉS ====================
 
     @Test
-    @DisplayName("RetirerQuantite - Succès et déclenchement d'alerte WebSocket")
-    @SuppressWarnings("unchecked")
-    void retirerQuantite_ShouldTriggerWebsocket_WhenBelowSeuil() {
+    @DisplayName("Update - Écart d'inventaire journalisé depuis la quantité lue verrouillée")
+    void update_ShouldJournalInventoryGap_FromLockedRead() {
+        when(ingredientRepository.findByIdPourMiseAJour(1L)).thenReturn(Optional.of(ingredient));
+        when(ingredientRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        ingredientDto.setQuantiteActuelle(new BigDecimal("12.5"));
+
+        ingredientService.update(1L, ingredientDto);
+
+        verify(ingredientRepository, never()).findById(any());
+        verify(journalStockService).enregistrer(1L, new BigDecimal("2.5"), OrigineMouvementStock.INVENTAIRE);
+    }
+
+    @Test
+    @DisplayName("RetirerQuantite - Succès et évaluation de l'alerte sur l'état relu")
+    void retirerQuantite_ShouldEvaluateAlert_WithReloadedStock() {
         // On retire 9kg, il reste 1kg (seuil à 2kg)
         BigDecimal quantiteARetirer = new BigDecimal("9.0");
+        when(ingredientRepository.decrementerStock(1L, quantiteARetirer)).thenReturn(1);
+        ingredient.setQuantiteActuelle(new BigDecimal("1.0")); // état relu après l'UPDATE atomique
         when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
-        when(ingredientRepository.save(any())).thenReturn(ingredient);
         when(ingredientMapper.toDto(any())).thenReturn(ingredientDto);
 
         ingredientService.retirerQuantite(1L, quantiteARetirer);
 
-        // Capturer l'objet envoyé par WebSocket
-        ArgumentCaptor<Object> alertCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/stock/alertes"), alertCaptor.capture());
-
-        Map<String, Object> alertMap = (Map<String, Object>) alertCaptor.getValue();
-        assertEquals("FAIBLE", alertMap.get("status"));
-        assertEquals("Tomate", alertMap.get("nom"));
-        assertEquals(new BigDecimal("1.0"), alertMap.get("quantite"));
+        ArgumentCaptor<Ingredient> evalueCaptor = ArgumentCaptor.forClass(Ingredient.class);
+        verify(stockAlerteService).evaluer(evalueCaptor.capture());
+        assertEquals(new BigDecimal("1.0"), evalueCaptor.getValue().getQuantiteActuelle());
     }
 
     @Test
     @DisplayName("RetirerQuantite - Échec si stock insuffisant")
     void retirerQuantite_ShouldThrow_WhenStockInsufficient() {
-        when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
         BigDecimal tropGrand = new BigDecimal("50.0");
+        when(ingredientRepository.decrementerStock(1L, tropGrand)).thenReturn(0);
+        when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> ingredientService.retirerQuantite(1L, tropGrand));
         assertTrue(ex.getMessage().contains("Stock insuffisant"));
+        verify(ingredientRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("AjouterQuantite - Succès")
     void ajouterQuantite_ShouldIncreaseStock() {
+        when(ingredientRepository.incrementerStock(1L, new BigDecimal("5.0"))).thenReturn(1);
         when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
-        when(ingredientRepository.save(any())).thenReturn(ingredient);
         when(ingredientMapper.toDto(any())).thenReturn(ingredientDto);
 
         ingredientService.ajouterQuantite(1L, new BigDecimal("5.0"));
 
-        assertEquals(new BigDecimal("15.0"), ingredient.getQuantiteActuelle());
-        verify(ingredientRepository).save(ingredient);
+        // L'incrément est délégué à la base : aucune écriture de l'entité lue
+        verify(ingredientRepository).incrementerStock(1L, new BigDecimal("5.0"));
+        verify(journalStockService).enregistrer(1L, new BigDecimal("5.0"), OrigineMouvementStock.AJOUT_MANUEL);
+        verify(ingredientRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("AjouterQuantite - Échec si ingrédient introuvable")
+    void ajouterQuantite_ShouldThrow_WhenNotFound() {
+        when(ingredientRepository.incrementerStock(eq(99L), any())).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> ingredientService.ajouterQuantite(99L, BigDecimal.ONE));
     }
 
-    // ==================== TESTS D'ALERTE RUPTURE ====================
+    @Test
+    @DisplayName("RestaurerStockEnLot - Seuls les ingrédients en alerte sont relus")
+    void restaurerStockEnLot_ShouldReevaluateOnlyIngredientsInAlert() {
+        when(nomenclaturePlatCache.nomenclature(7L)).thenReturn(new NomenclaturePlatCache.Nomenclature(
+                new long[]{1L, 2L}, new BigDecimal[]{new BigDecimal("2.0"), BigDecimal.ONE}));
+        when(stockAlerteService.filtrerEnAlerte(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(ingredientRepository.findAllById(List.of(1L))).thenReturn(List.of(ingredient));
+
+        ingredientService.restaurerStockEnLot(Map.of(7L, 1));
+
+        verify(ingredientRepository).ajouterStockEnLot(any());
+        verify(stockAlerteService).evaluer(ingredient);
+    }
+
+    // ==================== TESTS DE DÉDUCTION EN LOT ====================
 
     @Test
-    @DisplayName("Alerte - Statut RUPTURE quand stock tombe à zéro")
+    @DisplayName("DeduireStockEnLot - Cumul par ingrédient, un seul UPDATE par lot et alerte sur les lignes débitées")
     @SuppressWarnings("unchecked")
-    void verifierEtAlerter_ShouldSendRuptureStatus() {
-        // Initialiser le stock à 1.0
+    void deduireStockEnLot_ShouldMergeNeedsAndAlertOnlyDebitedRows() {
+        // Plat 7 : 2kg de tomate + 1 oignon ; Plat 8 : 1.5kg de tomate
+        when(nomenclaturePlatCache.nomenclature(7L)).thenReturn(new NomenclaturePlatCache.Nomenclature(
+                new long[]{1L, 2L}, new BigDecimal[]{new BigDecimal("2.0"), new BigDecimal("1")}));
+        when(nomenclaturePlatCache.nomenclature(8L)).thenReturn(new NomenclaturePlatCache.Nomenclature(
+                new long[]{1L}, new BigDecimal[]{new BigDecimal("1.5")}));
+        // L'oignon (ID 2) est en stock insuffisant : il n'est pas débité
+        when(ingredientRepository.retirerStockEnLot(any())).thenReturn(Set.of(1L));
         ingredient.setQuantiteActuelle(new BigDecimal("1.0"));
+        when(ingredientRepository.findAllById(Set.of(1L))).thenReturn(List.of(ingredient));
 
-        when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
-        when(ingredientRepository.save(any(Ingredient.class))).thenReturn(ingredient);
-        when(ingredientMapper.toDto(any())).thenReturn(ingredientDto);
+        ingredientService.deduireStockEnLot(Map.of(7L, 2, 8L, 1));
+
+        ArgumentCaptor<Map<Long, BigDecimal>> besoinsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(ingredientRepository).retirerStockEnLot(besoinsCaptor.capture());
+        assertEquals(0, new BigDecimal("5.5").compareTo(besoinsCaptor.getValue().get(1L)));
+        assertEquals(0, new BigDecimal("2").compareTo(besoinsCaptor.getValue().get(2L)));
 
-        // Retirer exactement 1.0 pour arriver à ZÉRO (ne pas dépasser pour éviter l'exception)
-        ingredientService.retirerQuantite(1L, new BigDecimal("1.0"));
+        // Seule la ligne débitée est signalée au moteur de portions
+        ArgumentCaptor<Map<Long, BigDecimal>> variationsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(portionsRestantesService).stockAjuste(variationsCaptor.capture());
+        assertEquals(Set.of(1L), variationsCaptor.getValue().keySet());
+        assertEquals(0, new BigDecimal("-5.5").compareTo(variationsCaptor.getValue().get(1L)));
+        // Le journal reçoit les mêmes variations, dans la transaction de la commande
+        verify(journalStockService).enregistrer(variationsCaptor.getValue(), OrigineMouvementStock.COMMANDE);
 
-        // Capturer l'alerte
-        ArgumentCaptor<Object> alertCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/stock/alertes"), alertCaptor.capture());
+        verify(stockAlerteService, times(1)).evaluer(ingredient);
+        verify(ingredientRepository, never()).findById(any());
+        verify(ingredientRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("DeduireStockPourPlat - Aucun accès au stock sans recette")
+    void deduireStockPourPlat_ShouldDoNothing_WhenNoRecipe() {
+        when(nomenclaturePlatCache.nomenclature(99L)).thenReturn(NomenclaturePlatCache.Nomenclature.VIDE);
 
-        Map<String, Object> alertMap = (Map<String, Object>) alertCaptor.getValue();
+        ingredientService.deduireStockPourPlat(99L, 3);
 
-        // Vérifications
-        assertTrue(BigDecimal.ZERO.compareTo(ingredient.getQuantiteActuelle()) == 0,
-                "La quantité actuelle devrait être égale à zéro");
-        assertEquals("RUPTURE", alertMap.get("status"));
-        assertEquals("Attention : Stock RUPTURE pour Tomate", alertMap.get("message"));
+        verify(ingredientRepository, never()).retirerStockEnLot(any());
     }
 }
@@ -0,0 +1,134 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.entities.Ingredient;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.services.interfaces.IngredientServiceInterface;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Tests de concurrence - Compteurs de stock")
+class IngredientStockConcurrenceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientStockConcurrenceTest.class);
+    private static final int NB_THREADS = 16;
+    private static final int OPERATIONS_PAR_THREAD = 50;
+
+    @Autowired
+    private IngredientServiceInterface ingredientService;
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    private Long ingredientId;
+
+    @BeforeEach
+    void setUp() {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setNom("Farine-" + System.nanoTime());
+        ingredient.setUniteMesure("KG");
+        ingredient.setQuantiteActuelle(new BigDecimal("1000"));
+        ingredient.setSeuilAlerte(BigDecimal.ZERO);
+        ingredientId = ingredientRepository.save(ingredient).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingredientRepository.deleteById(ingredientId);
+    }
+
+    @Test
+    @DisplayName("Retraits concurrents - Aucune mise à jour perdue")
+    void retirerQuantite_ShouldNotLoseUpdates_UnderContention() throws Exception {
+        AtomicInteger echecs = lancerEnParallele(() -> ingredientService.retirerQuantite(ingredientId, BigDecimal.ONE));
+
+        // 16 x 50 = 800 retraits de 1 sur 1000
+        assertEquals(0, echecs.get());
+        assertQuantite(new BigDecimal("200"));
+    }
+
+    @Test
+    @DisplayName("Retraits et ajouts concurrents - Solde exact")
+    void retraitsEtAjouts_ShouldKeepExactBalance() throws Exception {
+        AtomicInteger compteur = new AtomicInteger();
+        AtomicInteger echecs = lancerEnParallele(() -> {
+            if (compteur.incrementAndGet() % 2 == 0) {
+                ingredientService.ajouterQuantite(ingredientId, new BigDecimal("3"));
+            } else {
+                ingredientService.retirerQuantite(ingredientId, new BigDecimal("2"));
+            }
+        });
+
+        // 400 ajouts de 3 et 400 retraits de 2 : 1000 + 1200 - 800
+        assertEquals(0, echecs.get());
+        assertQuantite(new BigDecimal("1400"));
+    }
+
+    @Test
+    @DisplayName("Demande supérieure au stock - Jamais de stock négatif")
+    void retirerQuantite_ShouldNeverGoNegative() throws Exception {
+        AtomicInteger echecs = lancerEnParallele(() -> ingredientService.retirerQuantite(ingredientId, new BigDecimal("1.5")));
+
+        // 800 demandes de 1.5 sur 1000 : exactement 666 servies, 134 refusées
+        assertEquals(134, echecs.get());
+        assertQuantite(new BigDecimal("1"));
+    }
+
+    private AtomicInteger lancerEnParallele(Runnable operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NB_THREADS);
+        CountDownLatch depart = new CountDownLatch(1);
+        AtomicInteger echecs = new AtomicInteger();
+        List<Future<?>> taches = new ArrayList<>();
+
+        for (int t = 0; t < NB_THREADS; t++) {
+            taches.add(executor.submit(() -> {
+                depart.await();
+                for (int i = 0; i < OPERATIONS_PAR_THREAD; i++) {
+                    try {
+                        operation.run();
+                    } catch (RuntimeException e) {
+                        echecs.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long debut = System.nanoTime();
+        depart.countDown();
+        for (Future<?> tache : taches) {
+            tache.get(60, TimeUnit.SECONDS);
+        }
+        long dureeNs = System.nanoTime() - debut;
+        executor.shutdown();
+
+        int total = NB_THREADS * OPERATIONS_PAR_THREAD;
+        logger.info("Débit stock : {} opérations en {} ms ({} ops/s, {} threads)",
+                total, dureeNs / 1_000_000, Math.round(total / (dureeNs / 1e9)), NB_THREADS);
+        return echecs;
+    }
+
+    private void assertQuantite(BigDecimal attendue) {
+        BigDecimal actuelle = ingredientRepository.findById(ingredientId).orElseThrow().getQuantiteActuelle();
+        assertEquals(0, attendue.compareTo(actuelle), "Quantité finale attendue " + attendue + " mais " + actuelle);
+    }
+}
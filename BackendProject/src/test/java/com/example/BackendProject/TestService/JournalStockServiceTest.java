@@ -0,0 +1,202 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.BilanStockDto;
+import com.example.BackendProject.entities.EcritureStock;
+import com.example.BackendProject.entities.SoldeStock;
+import com.example.BackendProject.repository.EcritureStockRepository;
+import com.example.BackendProject.repository.SoldeStockRepository;
+import com.example.BackendProject.services.implementations.JournalStockService;
+import com.example.BackendProject.utils.OrigineMouvementStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Journal de stock et clichés de soldes")
+class JournalStockServiceTest {
+
+    private static final Timestamp MAINTENANT = Timestamp.valueOf("2024-06-01 12:00:00");
+
+    @Mock
+    private EcritureStockRepository ecritureStockRepository;
+    @Mock
+    private SoldeStockRepository soldeStockRepository;
+
+    private JournalStockService journalStockService;
+    private Timestamp horloge = MAINTENANT;
+
+    @BeforeEach
+    void setUp() {
+        journalStockService = new JournalStockService(ecritureStockRepository, soldeStockRepository, 60L) {
+            @Override
+            protected Timestamp maintenant() {
+                return horloge;
+            }
+        };
+    }
+
+    private static List<Object[]> lignes(Object[]... lignes) {
+        return new ArrayList<>(List.of(lignes));
+    }
+
+    @Test
+    @DisplayName("Enregistrer hors transaction - Insertion immédiate, variations nulles ignorées")
+    @SuppressWarnings("unchecked")
+    void enregistrer_ShouldInsertImmediately_WithoutTransaction() {
+        Map<Long, BigDecimal> variations = new TreeMap<>(Map.of(1L, new BigDecimal("-2.5"), 2L, BigDecimal.ZERO));
+
+        journalStockService.enregistrer(variations, OrigineMouvementStock.COMMANDE);
+
+        ArgumentCaptor<List<EcritureStock>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ecritureStockRepository).insererEnLot(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        EcritureStock ecriture = captor.getValue().get(0);
+        assertEquals(1L, ecriture.getIngredientId());
+        assertEquals(0, new BigDecimal("-2.5").compareTo(ecriture.getVariation()));
+        assertEquals(OrigineMouvementStock.COMMANDE, ecriture.getOrigine());
+        assertEquals(MAINTENANT, ecriture.getDateEcriture());
+    }
+
+    @Test
+    @DisplayName("Enregistrer dans une transaction - Lot inséré et daté au commit, pas à l'enregistrement")
+    @SuppressWarnings("unchecked")
+    void enregistrer_ShouldInsertAndDateAtCommit_WithinTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            journalStockService.enregistrer(1L, new BigDecimal("-1"), OrigineMouvementStock.RETRAIT_MANUEL);
+            journalStockService.enregistrer(2L, new BigDecimal("3"), OrigineMouvementStock.AJOUT_MANUEL);
+            verify(ecritureStockRepository, never()).insererEnLot(anyList());
+
+            // Transaction longue : le commit arrive bien après les enregistrements
+            horloge = Timestamp.valueOf("2024-06-01 12:05:00");
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronisation -> synchronisation.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronisation -> synchronisation.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<List<EcritureStock>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ecritureStockRepository, times(1)).insererEnLot(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        captor.getValue().forEach(ecriture -> assertEquals(horloge, ecriture.getDateEcriture()));
+    }
+
+    @Test
+    @DisplayName("SoldeA - Cliché le plus proche plus la traîne d'écritures")
+    void soldeA_ShouldAddTailToNearestSnapshot() {
+        Timestamp dateCliche = Timestamp.valueOf("2024-06-01 11:00:00");
+        when(soldeStockRepository.findFirstByIngredientIdAndDateSoldeLessThanEqualOrderByDateSoldeDesc(1L, MAINTENANT))
+                .thenReturn(Optional.of(new SoldeStock(1L, dateCliche, new BigDecimal("10"), new BigDecimal("4"))));
+        when(ecritureStockRepository.sommerEntre(1L, dateCliche, MAINTENANT))
+                .thenReturn(lignes(new Object[]{new BigDecimal("-3"), new BigDecimal("5")}));
+
+        assertEquals(0, new BigDecimal("7").compareTo(journalStockService.soldeA(1L, MAINTENANT)));
+    }
+
+    @Test
+    @DisplayName("Bilan - Sorties et entrées déduites des soldes et des sorties cumulées")
+    void bilan_ShouldDeriveInflowsAndConsumption() {
+        Timestamp debut = Timestamp.valueOf("2024-06-01 08:00:00");
+        // Aucun cliché : tout vient du journal depuis l'origine
+        when(soldeStockRepository.findFirstByIngredientIdAndDateSoldeLessThanEqualOrderByDateSoldeDesc(eq(1L), any()))
+                .thenReturn(Optional.empty());
+        when(ecritureStockRepository.sommerEntre(eq(1L), any(), eq(debut)))
+                .thenReturn(lignes(new Object[]{new BigDecimal("20"), new BigDecimal("2")}));
+        when(ecritureStockRepository.sommerEntre(eq(1L), any(), eq(MAINTENANT)))
+                .thenReturn(lignes(new Object[]{new BigDecimal("15"), new BigDecimal("12")}));
+
+        BilanStockDto bilan = journalStockService.bilan(1L, debut, MAINTENANT);
+
+        assertEquals(0, new BigDecimal("20").compareTo(bilan.getSoldeDebut()));
+        assertEquals(0, new BigDecimal("15").compareTo(bilan.getSoldeFin()));
+        assertEquals(0, new BigDecimal("10").compareTo(bilan.getSorties()));
+        assertEquals(0, new BigDecimal("5").compareTo(bilan.getEntrees()));
+    }
+
+    @Test
+    @DisplayName("Bilan - Échec si le début suit la fin")
+    void bilan_ShouldThrow_WhenDatesInverted() {
+        assertThrows(RuntimeException.class,
+                () -> journalStockService.bilan(1L, MAINTENANT, Timestamp.valueOf("2024-01-01 00:00:00")));
+    }
+
+    @Test
+    @DisplayName("PrendreCliche - Ouverture des comptes anciens, cliché des seuls ingrédients mouvementés")
+    @SuppressWarnings("unchecked")
+    void prendreCliche_ShouldOpenAccountsAndSnapshotOnlyMovedIngredients() {
+        Timestamp precedent = Timestamp.valueOf("2024-06-01 10:59:00");
+        Timestamp instant = Timestamp.valueOf("2024-06-01 11:59:00");
+        // Ingrédient 2 créé avant le journal : 8 en stock, -1 déjà journalisé
+        when(ecritureStockRepository.findComptesNonOuverts()).thenReturn(lignes(new Object[]{2L, new BigDecimal("8"), new BigDecimal("-1")}));
+        when(soldeStockRepository.findDerniereDateSolde()).thenReturn(precedent);
+        // Ingrédients 1 et 4 mouvementés sur la période ; les autres ne reçoivent pas de cliché
+        when(ecritureStockRepository.sommerParIngredientEntre(precedent, instant)).thenReturn(lignes(
+                new Object[]{1L, new BigDecimal("-3"), new BigDecimal("3")},
+                new Object[]{4L, new BigDecimal("5"), BigDecimal.ZERO}));
+        // Ingrédient 1 immobile depuis un cliché plus ancien que le précédent ; ingrédient 4 sans cliché
+        when(soldeStockRepository.findDerniersByIngredientIdIn(Set.of(1L, 4L))).thenReturn(List.of(
+                new SoldeStock(1L, Timestamp.valueOf("2024-06-01 08:59:00"), new BigDecimal("10"), new BigDecimal("4"))));
+
+        journalStockService.prendreCliche();
+
+        ArgumentCaptor<List<EcritureStock>> ouvertures = ArgumentCaptor.forClass(List.class);
+        verify(ecritureStockRepository).insererEnLot(ouvertures.capture());
+        assertEquals(OrigineMouvementStock.OUVERTURE, ouvertures.getValue().get(0).getOrigine());
+        assertEquals(0, new BigDecimal("9").compareTo(ouvertures.getValue().get(0).getVariation()));
+
+        ArgumentCaptor<List<SoldeStock>> cliches = ArgumentCaptor.forClass(List.class);
+        verify(soldeStockRepository).saveAll(cliches.capture());
+        Map<Long, SoldeStock> parIngredient = new TreeMap<>();
+        cliches.getValue().forEach(cliche -> parIngredient.put(cliche.getIngredientId(), cliche));
+        assertEquals(Set.of(1L, 4L), parIngredient.keySet());
+        assertEquals(instant, parIngredient.get(1L).getDateSolde());
+        assertEquals(0, new BigDecimal("7").compareTo(parIngredient.get(1L).getSolde()));
+        assertEquals(0, new BigDecimal("7").compareTo(parIngredient.get(1L).getSortiesCumulees()));
+        assertEquals(0, new BigDecimal("5").compareTo(parIngredient.get(4L).getSolde()));
+    }
+
+    @Test
+    @DisplayName("PrendreCliche - Aucune écriture sur la période, aucun cliché")
+    void prendreCliche_ShouldWriteNothing_WhenNoMovement() {
+        Timestamp precedent = Timestamp.valueOf("2024-06-01 10:59:00");
+        when(ecritureStockRepository.findComptesNonOuverts()).thenReturn(List.of());
+        when(soldeStockRepository.findDerniereDateSolde()).thenReturn(precedent);
+        when(ecritureStockRepository.sommerParIngredientEntre(eq(precedent), any())).thenReturn(List.of());
+
+        journalStockService.prendreCliche();
+
+        verify(soldeStockRepository, never()).findDerniersByIngredientIdIn(any());
+        verify(soldeStockRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("PrendreCliche - Rien à figer si le dernier cliché couvre déjà la période")
+    void prendreCliche_ShouldSkip_WhenAlreadyUpToDate() {
+        when(ecritureStockRepository.findComptesNonOuverts()).thenReturn(List.of());
+        when(soldeStockRepository.findDerniereDateSolde()).thenReturn(Timestamp.valueOf("2024-06-01 11:59:00"));
+
+        journalStockService.prendreCliche();
+
+        verify(soldeStockRepository, never()).saveAll(anyList());
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.BackendProject.TestService;
 
 import com.example.BackendProject.dto.LigneCommandeDto;
-import com.example.BackendProject.dto.RestaurantDto;
 import com.example.BackendProject.entities.Commande;
 import com.example.BackendProject.entities.LigneCommande;
 import com.example.BackendProject.entities.Plat;
@@ -10,18 +9,22 @@ import com.example.BackendProject.mappers.LigneCommandeMapper;
 import com.example.BackendProject.repository.CommandeRepository;
 import com.example.BackendProject.repository.LigneCommandeRepository;
 import com.example.BackendProject.repository.PlatRepository;
+import com.example.BackendProject.services.implementations.AgregationVentesService;
+import com.example.BackendProject.services.implementations.EvenementsCommandeService;
 import com.example.BackendProject.services.implementations.LigneCommandeServiceImplementation;
+import com.example.BackendProject.services.implementations.TauxTvaCache;
+import com.example.BackendProject.utils.StatutCommande;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Optional;
 
@@ -38,7 +41,9 @@ class LigneCommandeServiceImplementationTest {
     @Mock private PlatRepository platRepository;
     @Mock private LigneCommandeMapper ligneCommandeMapper;
     @Mock private CommandeMapper commandeMapper;
-    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private EvenementsCommandeService evenementsCommandeService;
+    @Mock private AgregationVentesService agregationVentesService;
+    @Mock private TauxTvaCache tauxTvaCache;
 
     @InjectMocks
     private LigneCommandeServiceImplementation service;
@@ -50,10 +55,8 @@ class LigneCommandeServiceImplementationTest {
 
     @BeforeEach
     void setUp() {
-        // Mock du RestaurantDto (TVA à 0.1925 pour le Cameroun)
-        RestaurantDto restaurantDto = new RestaurantDto();
-        restaurantDto.setTauxTva(BigDecimal.valueOf(0.1925));
-        ReflectionTestUtils.setField(service, "restaurantDto", restaurantDto);
+        // TVA à 0.1925 pour le Cameroun
+        lenient().when(tauxTvaCache.taux()).thenReturn(new BigDecimal("0.1925"));
 
         plat = new Plat();
         plat.setId(1L);
@@ -64,6 +67,9 @@ class LigneCommandeServiceImplementationTest {
         commande = new Commande();
         commande.setId(10L);
         commande.setLignes(new ArrayList<>());
+        // Une commande créée par CommandeService a toujours des totaux initialisés
+        commande.setTotalHt(BigDecimal.ZERO);
+        commande.setTotalTtc(BigDecimal.ZERO);
 
         ligneCommande = new LigneCommande();
         ligneCommande.setId(100L);
@@ -84,7 +90,7 @@ class LigneCommandeServiceImplementationTest {
         // Configuration
         commande.getLignes().add(ligneCommande); // Simule que la ligne est ajoutée
 
-        when(commandeRepository.findById(10L)).thenReturn(Optional.of(commande));
+        when(commandeRepository.findByIdPourMiseAJour(10L)).thenReturn(Optional.of(commande));
         when(platRepository.findById(1L)).thenReturn(Optional.of(plat));
         when(ligneCommandeMapper.toEntity(any())).thenReturn(ligneCommande);
         when(ligneCommandeRepository.save(any())).thenReturn(ligneCommande);
@@ -98,15 +104,15 @@ class LigneCommandeServiceImplementationTest {
         // TTC = 10000 + (10000 * 0.1925) = 11925
         assertTrue(new BigDecimal("11925.0").compareTo(commande.getTotalTtc()) == 0);
 
-        // Vérification WebSocket
-        verify(messagingTemplate).convertAndSend(eq("/topic/serveurs/addition/10"), (Object) any());
+        // Vérification WebSocket : delta de ligne, pas l'instantané complet
+        verify(evenementsCommandeService).ligneAjoutee(commande, ligneDto);
     }
 
     @Test
     @DisplayName("Save - Échec si le plat n'est pas disponible")
     void save_ShouldThrow_WhenPlatNotAvailable() {
         plat.setDisponibilite(false);
-        when(commandeRepository.findById(10L)).thenReturn(Optional.of(commande));
+        when(commandeRepository.findByIdPourMiseAJour(10L)).thenReturn(Optional.of(commande));
         when(platRepository.findById(1L)).thenReturn(Optional.of(plat));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> service.save(ligneDto));
@@ -117,8 +123,10 @@ class LigneCommandeServiceImplementationTest {
     @DisplayName("UpdateQuantite - Succès et Recalcul")
     void updateQuantite_ShouldUpdateAndRecalculate() {
         commande.getLignes().add(ligneCommande);
+        commande.setTotalHt(new BigDecimal("10000"));
+        commande.setTotalTtc(new BigDecimal("11925"));
+        when(ligneCommandeRepository.findCommandeIdById(100L)).thenReturn(Optional.of(10L));
         when(ligneCommandeRepository.findById(100L)).thenReturn(Optional.of(ligneCommande));
-        when(commandeRepository.findById(10L)).thenReturn(Optional.of(commande));
         when(ligneCommandeRepository.save(any())).thenReturn(ligneCommande);
 
         service.updateQuantite(100L, 3); // On passe de 2 à 3
@@ -129,6 +137,79 @@ class LigneCommandeServiceImplementationTest {
         verify(commandeRepository).save(commande);
     }
 
+    @Test
+    @DisplayName("UpdateQuantite - Commande encaissée, écart de TTC reporté sur les agrégats de ventes")
+    void updateQuantite_ShouldReportTotalChangeToSalesAggregates() {
+        commande.setStatut(StatutCommande.PAYEE);
+        commande.setTotalHt(new BigDecimal("10000"));
+        commande.setTotalTtc(new BigDecimal("11925"));
+        when(ligneCommandeRepository.findCommandeIdById(100L)).thenReturn(Optional.of(10L));
+        when(ligneCommandeRepository.findById(100L)).thenReturn(Optional.of(ligneCommande));
+        when(ligneCommandeRepository.save(any())).thenReturn(ligneCommande);
+
+        service.updateQuantite(100L, 3);
+
+        // Même statut, ancien TTC : le service d'agrégation retire l'ancien montant et cumule le nouveau
+        verify(agregationVentesService).enregistrerTransition(commande, StatutCommande.PAYEE, new BigDecimal("11925"));
+        assertTrue(new BigDecimal("17887.50").compareTo(commande.getTotalTtc()) == 0);
+    }
+
+    @Test
+    @DisplayName("Delete - Totaux ajustés par différence sans relire les lignes")
+    void delete_ShouldApplyNegativeDelta_WithoutResumming() {
+        commande.setTotalHt(new BigDecimal("25000"));
+        commande.setTotalTtc(new BigDecimal("29812.5"));
+        when(ligneCommandeRepository.findCommandeIdById(100L)).thenReturn(Optional.of(10L));
+        when(ligneCommandeRepository.findById(100L)).thenReturn(Optional.of(ligneCommande));
+
+        service.delete(100L);
+
+        // La commande est verrouillée avant la lecture de la ligne
+        InOrder ordre = inOrder(commandeRepository, ligneCommandeRepository);
+        ordre.verify(commandeRepository).findByIdPourMiseAJour(10L);
+        ordre.verify(ligneCommandeRepository).findById(100L);
+
+        // 25000 - 2 * 5000 = 15000 HT ; TTC = 29812.5 - 11925 = 17887.5
+        assertEquals(0, new BigDecimal("15000").compareTo(commande.getTotalHt()));
+        assertEquals(0, new BigDecimal("17887.5").compareTo(commande.getTotalTtc()));
+        verify(commandeRepository, never()).findById(any());
+        verify(ligneCommandeRepository, never()).calculateTotalCommande(any());
+        verify(evenementsCommandeService).ligneSupprimee(commande, 100L);
+    }
+
+    @Test
+    @DisplayName("Deltas successifs - TTC identique à un recalcul complet, sans dérive d'arrondi")
+    void save_ShouldDeriveTtcFromExactHt_WithoutRoundingDrift() {
+        // Totaux relus de la base (DECIMAL(.., 2)) après une première ligne à 1.00 HT
+        commande.setTotalHt(new BigDecimal("1.00"));
+        commande.setTotalTtc(new BigDecimal("1.19"));
+        ligneCommande.setQuantite(1);
+        ligneCommande.setPrixUnitaire(new BigDecimal("1.00"));
+        when(commandeRepository.findByIdPourMiseAJour(10L)).thenReturn(Optional.of(commande));
+        when(platRepository.findById(1L)).thenReturn(Optional.of(plat));
+        when(ligneCommandeMapper.toEntity(any())).thenReturn(ligneCommande);
+        when(ligneCommandeRepository.save(any())).thenReturn(ligneCommande);
+
+        service.save(ligneDto);
+
+        // 2.00 x 1.1925 = 2.385, arrondi 2.39 en base ; un TTC par delta aurait donné 1.19 + 1.1925 -> 2.38
+        assertEquals(0, new BigDecimal("2.39").compareTo(commande.getTotalTtc().setScale(2, RoundingMode.HALF_UP)));
+    }
+
+    @Test
+    @DisplayName("RecalculerTotaux - Réparation à partir de l'agrégat SQL")
+    void recalculerTotaux_ShouldRepairFromDatabaseSum() {
+        commande.setTotalHt(new BigDecimal("1"));
+        when(commandeRepository.findByIdPourMiseAJour(10L)).thenReturn(Optional.of(commande));
+        when(ligneCommandeRepository.calculateTotalCommande(10L)).thenReturn(new BigDecimal("10000"));
+
+        service.recalculerTotaux(10L);
+
+        assertEquals(0, new BigDecimal("10000").compareTo(commande.getTotalHt()));
+        assertEquals(0, new BigDecimal("11925").compareTo(commande.getTotalTtc()));
+        verify(commandeRepository).save(commande);
+    }
+
     @Test
     @DisplayName("Delete - Échec si ligne inexistante")
     void delete_ShouldThrow_WhenNotFound() {
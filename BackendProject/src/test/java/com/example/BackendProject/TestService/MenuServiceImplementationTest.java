@@ -5,6 +5,7 @@ import com.example.BackendProject.entities.Category;
 import com.example.BackendProject.entities.Menu;
 import com.example.BackendProject.mappers.MenuMapper;
 import com.example.BackendProject.repository.MenuRepository;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
 import com.example.BackendProject.services.implementations.MenuServiceImplementation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -33,6 +34,9 @@ class MenuServiceImplementationTest {
     @Mock
     private MenuMapper menuMapper;
 
+    @Mock
+    private ArbreMenuCache arbreMenuCache;
+
     @InjectMocks
     private MenuServiceImplementation menuService;
 
@@ -108,6 +112,7 @@ class MenuServiceImplementationTest {
 
         assertEquals("Menu Midi", result.getNom());
         verify(menuRepository).save(menu);
+        verify(arbreMenuCache).invalider();
     }
 
     // ==================== TESTS DELETE ====================
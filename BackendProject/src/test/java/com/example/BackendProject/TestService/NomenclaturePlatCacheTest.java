@@ -0,0 +1,77 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.repository.RecetteRepository;
+import com.example.BackendProject.services.implementations.NomenclaturePlatCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Cache des nomenclatures de plats")
+class NomenclaturePlatCacheTest {
+
+    @Mock
+    private RecetteRepository recetteRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NomenclaturePlatCache nomenclaturePlatCache;
+
+    @BeforeEach
+    void setUp() {
+        nomenclaturePlatCache = new NomenclaturePlatCache(recetteRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Chargement unique - Première recette du plat, plat sans recette connu")
+    void nomenclature_ShouldLoadOnceAndKeepFirstRecipe() {
+        List<Object[]> lignes = new ArrayList<>();
+        lignes.add(new Object[]{7L, 70L, 1L, new BigDecimal("0.2")});
+        lignes.add(new Object[]{7L, 70L, 2L, new BigDecimal("1")});
+        // Seconde recette du même plat : ignorée
+        lignes.add(new Object[]{7L, 71L, 3L, new BigDecimal("5")});
+        when(recetteRepository.findNomenclatures()).thenReturn(lignes);
+
+        NomenclaturePlatCache.Nomenclature nomenclature = nomenclaturePlatCache.nomenclature(7L);
+
+        assertEquals(2, nomenclature.taille());
+        assertEquals(1L, nomenclature.ingredientId(0));
+        assertEquals(0, new BigDecimal("0.2").compareTo(nomenclature.quantiteParPortion(0)));
+        assertEquals(2L, nomenclature.ingredientId(1));
+        assertSame(NomenclaturePlatCache.Nomenclature.VIDE, nomenclaturePlatCache.nomenclature(99L));
+        nomenclaturePlatCache.nomenclature(7L);
+        // Index inverse : la recette ignorée ne compte pas
+        assertEquals(List.of(7L), nomenclaturePlatCache.platsUtilisant(1L));
+        assertTrue(nomenclaturePlatCache.platsUtilisant(3L).isEmpty());
+
+        verify(recetteRepository, times(1)).findNomenclatures();
+    }
+
+    @Test
+    @DisplayName("Invalidation - Rechargement à la lecture suivante")
+    void invalider_ShouldReloadOnNextRead() {
+        List<Object[]> avant = new ArrayList<>();
+        avant.add(new Object[]{7L, 70L, 1L, new BigDecimal("0.2")});
+        List<Object[]> apres = new ArrayList<>();
+        apres.add(new Object[]{7L, 70L, 1L, new BigDecimal("0.3")});
+        when(recetteRepository.findNomenclatures()).thenReturn(avant, apres);
+
+        assertEquals(0, new BigDecimal("0.2").compareTo(nomenclaturePlatCache.nomenclature(7L).quantiteParPortion(0)));
+        // Hors transaction : invalidation immédiate
+        nomenclaturePlatCache.invalider();
+
+        assertEquals(0, new BigDecimal("0.3").compareTo(nomenclaturePlatCache.nomenclature(7L).quantiteParPortion(0)));
+        verify(recetteRepository, times(2)).findNomenclatures();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.AffectationTableDto;
+import com.example.BackendProject.dto.PlanTablesDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
+import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.repository.ReservationRepository;
+import com.example.BackendProject.services.implementations.DisponibiliteTablesService;
+import com.example.BackendProject.services.implementations.OptimiseurTablesService;
+import com.example.BackendProject.services.implementations.PlanSalleIndex;
+import com.example.BackendProject.utils.StatutReservation;
+import com.example.BackendProject.utils.StatutTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Optimiseur du plan des tables")
+class OptimiseurTablesServiceTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2030, 6, 15);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private PlanSalleIndex planSalleIndex;
+    @Mock
+    private DisponibiliteTablesService disponibiliteTablesService;
+
+    private OptimiseurTablesService optimiseurTablesService;
+
+    @BeforeEach
+    void setUp() {
+        optimiseurTablesService = new OptimiseurTablesService(reservationRepository, planSalleIndex, disponibiliteTablesService, 3);
+        when(disponibiliteTablesService.dureeEffective(any())).thenReturn(90);
+    }
+
+    private static Reservation reservation(Long id, int personnes, LocalTime heure, Long tableId) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setNomClient("Client " + id);
+        reservation.setNombrePersonnes(personnes);
+        reservation.setDate(JOUR);
+        reservation.setHeure(heure);
+        reservation.setStatut(StatutReservation.CONFIRMEE);
+        if (tableId != null) {
+            TableRestaurant table = new TableRestaurant();
+            table.setId(tableId);
+            reservation.setTable(table);
+        }
+        return reservation;
+    }
+
+    private static AffectationTableDto affectation(PlanTablesDto plan, Long reservationId) {
+        return plan.getAffectations().stream()
+                .filter(affectation -> affectation.getReservationId().equals(reservationId))
+                .findFirst().orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Grand groupe - Tables voisines d'une même zone combinées")
+    void planifier_ShouldCombineAdjacentTables() {
+        when(planSalleIndex.toutes()).thenReturn(List.of(
+                new TableRestaurantDto(1L, 10L, "T1", 2, StatutTable.Libre),
+                new TableRestaurantDto(2L, 10L, "T2", 2, StatutTable.Libre),
+                new TableRestaurantDto(3L, 10L, "T3", 4, StatutTable.Libre),
+                new TableRestaurantDto(4L, 20L, "T10", 6, StatutTable.Libre)));
+        when(reservationRepository.findByDate(JOUR)).thenReturn(List.of(
+                reservation(1L, 2, LocalTime.of(19, 0), null),
+                reservation(2L, 8, LocalTime.of(19, 30), null)));
+
+        PlanTablesDto plan = optimiseurTablesService.planifier(JOUR, false);
+
+        assertEquals(List.of(1L, 2L, 3L), affectation(plan, 2L).getTableIds());
+        assertEquals(8, affectation(plan, 2L).getCapaciteTotale());
+        assertEquals(List.of(4L), affectation(plan, 1L).getTableIds());
+        assertEquals(10, plan.getCouvertsPlaces());
+        assertEquals(4, plan.getPlacesPerdues());
+        assertTrue(plan.getReservationsNonPlacees().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Choix de l'hôte conservé, plus petite table suffisante pour le reste")
+    void planifier_ShouldKeepHostChoiceAndMinimizeWaste() {
+        when(planSalleIndex.toutes()).thenReturn(List.of(
+                new TableRestaurantDto(1L, 10L, "T1", 2, StatutTable.Libre),
+                new TableRestaurantDto(3L, 20L, "T3", 4, StatutTable.Libre)));
+        when(reservationRepository.findByDate(JOUR)).thenReturn(List.of(
+                reservation(1L, 2, LocalTime.of(19, 0), 3L),
+                reservation(2L, 2, LocalTime.of(19, 0), null),
+                reservation(3L, 2, LocalTime.of(19, 30), null)));
+
+        PlanTablesDto plan = optimiseurTablesService.planifier(JOUR, false);
+
+        assertTrue(affectation(plan, 1L).isFixee());
+        assertEquals(List.of(3L), affectation(plan, 1L).getTableIds());
+        assertEquals(List.of(1L), affectation(plan, 2L).getTableIds());
+        assertEquals(List.of(3L), plan.getReservationsNonPlacees());
+        assertEquals(2, plan.getCouvertsNonPlaces());
+    }
+
+    @Test
+    @DisplayName("Recalcul incrémental - Plan conservé, réparation pour placer un nouveau groupe")
+    void planifier_ShouldReuseLastPlanAndRepair() {
+        when(planSalleIndex.toutes()).thenReturn(List.of(
+                new TableRestaurantDto(1L, 10L, "T1", 4, StatutTable.Libre),
+                new TableRestaurantDto(2L, 20L, "T2", 4, StatutTable.Libre),
+                new TableRestaurantDto(3L, 30L, "T3", 2, StatutTable.Libre)));
+        when(reservationRepository.findByDate(JOUR)).thenReturn(
+                List.of(reservation(1L, 2, LocalTime.of(19, 0), null),
+                        reservation(2L, 2, LocalTime.of(19, 0), null)),
+                List.of(reservation(2L, 2, LocalTime.of(19, 0), null),
+                        reservation(3L, 4, LocalTime.of(19, 0), null),
+                        reservation(4L, 4, LocalTime.of(19, 15), null)));
+
+        PlanTablesDto premier = optimiseurTablesService.planifier(JOUR, false);
+        assertEquals(List.of(1L), affectation(premier, 2L).getTableIds());
+
+        // La réservation 1 est annulée, deux groupes de 4 arrivent
+        PlanTablesDto second = optimiseurTablesService.planifier(JOUR, false);
+
+        assertEquals(1, second.getAffectationsConservees());
+        assertEquals(List.of(3L), affectation(second, 2L).getTableIds());
+        assertEquals(List.of(2L), affectation(second, 3L).getTableIds());
+        assertEquals(List.of(1L), affectation(second, 4L).getTableIds());
+        assertEquals(0, second.getCouvertsNonPlaces());
+    }
+
+    @Test
+    @DisplayName("Recalcul complet sur demande, sans reprise du plan précédent")
+    void planifier_Complet_ShouldIgnoreLastPlan() {
+        when(planSalleIndex.toutes()).thenReturn(List.of(
+                new TableRestaurantDto(1L, 10L, "T1", 2, StatutTable.Libre)));
+        when(reservationRepository.findByDate(JOUR)).thenReturn(List.of(reservation(1L, 2, LocalTime.of(19, 0), null)));
+
+        optimiseurTablesService.planifier(JOUR, false);
+
+        assertEquals(1, optimiseurTablesService.planifier(JOUR, false).getAffectationsConservees());
+        assertEquals(0, optimiseurTablesService.planifier(JOUR, true).getAffectationsConservees());
+    }
+}
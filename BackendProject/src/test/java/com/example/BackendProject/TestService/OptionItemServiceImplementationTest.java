@@ -4,6 +4,7 @@ import com.example.BackendProject.dto.OptionItemDto;
 import com.example.BackendProject.entities.OptionItem;
 import com.example.BackendProject.mappers.OptionItemMapper;
 import com.example.BackendProject.repository.OptionItemRepository;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
 import com.example.BackendProject.services.implementations.OptionItemServiceImplementation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +33,9 @@ class OptionItemServiceImplementationTest {
     @Mock
     private OptionItemMapper optionItemMapper;
 
+    @Mock
+    private ArbreMenuCache arbreMenuCache;
+
     @InjectMocks
     private OptionItemServiceImplementation optionItemService;
 
@@ -139,5 +143,6 @@ class OptionItemServiceImplementationTest {
 
         // Assert
         verify(optionItemRepository, times(1)).deleteById(id);
+        verify(arbreMenuCache).invalider();
     }
 }
@@ -6,6 +6,8 @@ import com.example.BackendProject.entities.Paiement;
 import com.example.BackendProject.mappers.PaiementMapper;
 import com.example.BackendProject.repository.CommandeRepository;
 import com.example.BackendProject.repository.PaiementRepository;
+import com.example.BackendProject.services.implementations.AgregationVentesService;
+import com.example.BackendProject.services.implementations.EvenementsCommandeService;
 import com.example.BackendProject.services.implementations.PaiementServiceImplementation;
 import com.example.BackendProject.utils.StatutCommande;
 import com.example.BackendProject.utils.TypePaiement;
@@ -34,6 +36,10 @@ class PaiementServiceImplementationTest {
     private CommandeRepository commandeRepository;
     @Mock
     private PaiementMapper paiementMapper;
+    @Mock
+    private AgregationVentesService agregationVentesService;
+    @Mock
+    private EvenementsCommandeService evenementsCommandeService;
 
     @InjectMocks
     private PaiementServiceImplementation service;
@@ -81,6 +87,8 @@ class PaiementServiceImplementationTest {
         assertNotNull(paiementDto.getReferenceTransaction()); // Vérifie la génération automatique
         verify(commandeRepository).save(commande);
         verify(paiementRepository).save(any(Paiement.class));
+        verify(agregationVentesService).enregistrerTransition(commande, StatutCommande.EN_ATTENTE, null);
+        verify(evenementsCommandeService).statutModifie(commande);
     }
 
     @Test
@@ -114,6 +122,7 @@ class PaiementServiceImplementationTest {
         // Assert
         assertEquals(StatutCommande.EN_ATTENTE, commande.getStatut());
         verify(commandeRepository).save(commande);
+        verify(evenementsCommandeService).statutModifie(commande);
         verify(paiementRepository).delete(paiement);
     }
 
@@ -147,5 +156,7 @@ class PaiementServiceImplementationTest {
                 p.getTypePaiement() == TypePaiement.Carte &&
                         p.getCommande().getId().equals(50L)
         ));
+        assertEquals(StatutCommande.PAYEE, commande.getStatut());
+        verify(evenementsCommandeService).statutModifie(commande);
     }
 }
@@ -0,0 +1,107 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.EvenementTableDto;
+import com.example.BackendProject.dto.TableRestaurantDto;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.mappers.TableRestaurantMapper;
+import com.example.BackendProject.repository.TableRestaurantRepository;
+import com.example.BackendProject.services.implementations.PlanSalleIndex;
+import com.example.BackendProject.utils.StatutTable;
+import com.example.BackendProject.utils.TypeEvenementTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Index du plan de salle")
+class PlanSalleIndexTest {
+
+    @Mock
+    private TableRestaurantRepository tableRestaurantRepository;
+    @Mock
+    private TableRestaurantMapper tableRestaurantMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlanSalleIndex planSalleIndex;
+
+    @BeforeEach
+    void setUp() {
+        planSalleIndex = new PlanSalleIndex(tableRestaurantRepository, tableRestaurantMapper, transactionManager);
+    }
+
+    private void planInitial() {
+        List<Object[]> lignes = new ArrayList<>();
+        lignes.add(new Object[]{1L, 10L, "T1", 4, StatutTable.Libre});
+        lignes.add(new Object[]{2L, 10L, "T 12", 2, StatutTable.Occupée});
+        lignes.add(new Object[]{3L, 20L, "Terrasse", 6, StatutTable.Libre});
+        when(tableRestaurantRepository.findPlanSalle()).thenReturn(lignes);
+    }
+
+    private static List<Long> ids(List<TableRestaurantDto> tables) {
+        return tables.stream().map(TableRestaurantDto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Lectures servies depuis l'index après un seul chargement")
+    void lectures_ShouldUseIndexWithoutDatabase() {
+        planInitial();
+
+        assertEquals(List.of(1L, 2L), ids(planSalleIndex.tablesDeZone(10L)));
+        assertEquals(List.of(3L), ids(planSalleIndex.tablesDeZone(20L)));
+        assertTrue(planSalleIndex.tablesDeZone(99L).isEmpty());
+        assertEquals(List.of(2L), ids(planSalleIndex.rechercherParNumero("t12")));
+        assertEquals(List.of(1L, 2L, 3L), ids(planSalleIndex.rechercherParNumero("T")));
+        assertEquals(3, planSalleIndex.toutes().size());
+
+        verify(tableRestaurantRepository, times(1)).findPlanSalle();
+        verify(tableRestaurantRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Changement de zone, de statut et suppression reflétés dans l'index")
+    void misesAJour_ShouldKeepIndexCurrent() {
+        planInitial();
+        planSalleIndex.toutes();
+
+        EvenementTableDto deplacee = new EvenementTableDto(TypeEvenementTable.TABLE_ENREGISTREE, 1L);
+        deplacee.setZoneId(20L);
+        deplacee.setNumero("T1");
+        deplacee.setCapacite(4);
+        deplacee.setStatut(StatutTable.Libre);
+        EvenementTableDto occupee = new EvenementTableDto(TypeEvenementTable.STATUT_MODIFIE, 3L);
+        occupee.setStatut(StatutTable.Occupée);
+
+        planSalleIndex.appliquer(deplacee);
+        planSalleIndex.appliquer(occupee);
+        planSalleIndex.appliquer(new EvenementTableDto(TypeEvenementTable.TABLE_SUPPRIMEE, 2L));
+
+        assertTrue(planSalleIndex.tablesDeZone(10L).isEmpty());
+        assertEquals(List.of(1L, 3L), ids(planSalleIndex.tablesDeZone(20L)));
+        assertEquals(StatutTable.Occupée, planSalleIndex.parId(3L).orElseThrow().getStatut());
+        assertTrue(planSalleIndex.rechercherParNumero("12").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Repli sur les requêtes du dépôt si le chargement échoue")
+    void chargementEchoue_ShouldFallBackToRepository() {
+        TableRestaurant table = new TableRestaurant();
+        table.setId(5L);
+        TableRestaurantDto dto = new TableRestaurantDto(5L, 10L, "T5", 2, StatutTable.Libre);
+        when(tableRestaurantRepository.findPlanSalle()).thenThrow(new RuntimeException("Base indisponible"));
+        when(tableRestaurantRepository.findByZoneIdOrderByIdAsc(10L)).thenReturn(List.of(table));
+        when(tableRestaurantMapper.toDto(table)).thenReturn(dto);
+
+        assertEquals(List.of(5L), ids(planSalleIndex.tablesDeZone(10L)));
+    }
+}
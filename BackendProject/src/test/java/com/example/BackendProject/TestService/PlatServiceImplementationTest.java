@@ -6,7 +6,11 @@ import com.example.BackendProject.entities.Plat;
 import com.example.BackendProject.mappers.PlatMapper;
 import com.example.BackendProject.repository.CategoryRepository;
 import com.example.BackendProject.repository.PlatRepository;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
+import com.example.BackendProject.services.implementations.MenuActifCache;
 import com.example.BackendProject.services.implementations.PlatServiceImplementation;
+import com.example.BackendProject.services.implementations.PortionsRestantesService;
+import com.example.BackendProject.services.implementations.RechercheCatalogueIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -39,6 +43,10 @@ class PlatServiceImplementationTest {
     @Mock private PlatRepository platRepository;
     @Mock private CategoryRepository categoryRepository;
     @Mock private PlatMapper platMapper;
+    @Mock private MenuActifCache menuActifCache;
+    @Mock private ArbreMenuCache arbreMenuCache;
+    @Mock private RechercheCatalogueIndex rechercheCatalogueIndex;
+    @Mock private PortionsRestantesService portionsRestantesService;
 
     @InjectMocks
     private PlatServiceImplementation platService;
@@ -86,6 +94,7 @@ class PlatServiceImplementationTest {
 
         assertNotNull(result);
         verify(platRepository).save(any(Plat.class));
+        verify(menuActifCache).invalider();
     }
 
     @Test
@@ -101,6 +110,7 @@ class PlatServiceImplementationTest {
 
         assertEquals("Salade César Deluxe", plat.getNom());
         verify(platRepository).save(plat);
+        verify(menuActifCache).invalider();
     }
 
     // ==================== TESTS DISPONIBILITÉ ====================
@@ -108,6 +118,7 @@ class PlatServiceImplementationTest {
     @Test
     @DisplayName("ModifierDisponibilite - Basculer l'état du plat")
     void modifierDisponibilite_ShouldChangeStatus() {
+        plat.setRetireParRupture(true);
         when(platRepository.findById(10L)).thenReturn(Optional.of(plat));
         when(platRepository.save(any())).thenReturn(plat);
         when(platMapper.toDto(any())).thenReturn(platDto);
@@ -115,7 +126,11 @@ class PlatServiceImplementationTest {
         platService.modifierDisponibilite(10L, false);
 
         assertFalse(plat.getDisponibilite());
+        // Choix manuel enregistré : plus de remise à la carte automatique, même après redémarrage
+        assertFalse(plat.getRetireParRupture());
         verify(platRepository).save(plat);
+        verify(menuActifCache).invalider();
+        verify(portionsRestantesService).disponibiliteModifiee(10L);
     }
 
     // ==================== TESTS UPLOAD IMAGE ====================
@@ -0,0 +1,164 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.PortionsRestantesDto;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.repository.PlatRepository;
+import com.example.BackendProject.services.implementations.ArbreMenuCache;
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import com.example.BackendProject.services.implementations.MenuActifCache;
+import com.example.BackendProject.services.implementations.NomenclaturePlatCache;
+import com.example.BackendProject.services.implementations.PortionsRestantesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Moteur des portions restantes")
+class PortionsRestantesServiceTest {
+
+    @Mock
+    private NomenclaturePlatCache nomenclaturePlatCache;
+    @Mock
+    private IngredientRepository ingredientRepository;
+    @Mock
+    private PlatRepository platRepository;
+    @Mock
+    private MenuActifCache menuActifCache;
+    @Mock
+    private ArbreMenuCache arbreMenuCache;
+    @Mock
+    private DiffusionWebSocketService diffusionWebSocketService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PortionsRestantesService portionsRestantesService;
+
+    @BeforeEach
+    void setUp() {
+        portionsRestantesService = new PortionsRestantesService(nomenclaturePlatCache, ingredientRepository, platRepository,
+                menuActifCache, arbreMenuCache, diffusionWebSocketService, transactionManager, 3_600_000L);
+
+        // Plat 7 : 0.2 kg de farine (ID 1) par portion ; plat 8 : 1 œuf (ID 2) par portion
+        when(nomenclaturePlatCache.version()).thenReturn(0L);
+        when(nomenclaturePlatCache.platsAvecRecette()).thenReturn(Set.of(7L, 8L));
+        when(nomenclaturePlatCache.nomenclature(7L)).thenReturn(new NomenclaturePlatCache.Nomenclature(
+                new long[]{1L}, new BigDecimal[]{new BigDecimal("0.2")}));
+        when(nomenclaturePlatCache.nomenclature(8L)).thenReturn(new NomenclaturePlatCache.Nomenclature(
+                new long[]{2L}, new BigDecimal[]{BigDecimal.ONE}));
+
+        List<Object[]> stocks = new ArrayList<>();
+        stocks.add(new Object[]{1L, new BigDecimal("1.1")});
+        stocks.add(new Object[]{2L, BigDecimal.ZERO});
+        when(ingredientRepository.findStocks()).thenReturn(stocks);
+        when(platRepository.findIdsDisponiblesParmi(List.of(8L))).thenReturn(List.of(8L));
+    }
+
+    @Test
+    @DisplayName("Premier passage - Portions calculées, plat épuisé retiré de la carte")
+    void traiter_ShouldComputePortionsAndDisableExhaustedDish() {
+        List<PortionsRestantesDto> portions = portionsRestantesService.toutes();
+
+        assertEquals(2, portions.size());
+        assertEquals(7L, portions.get(0).getPlatId());
+        assertEquals(5, portions.get(0).getPortions());
+        assertEquals(0, portions.get(1).getPortions());
+        verify(platRepository).modifierDisponibilite(List.of(8L), false, true);
+        verify(menuActifCache).invalider();
+        verify(diffusionWebSocketService, times(2)).publier(eq(PortionsRestantesService.DESTINATION), any(), any(PortionsRestantesDto.class));
+    }
+
+    @Test
+    @DisplayName("Variation de stock - Seuls les plats de l'ingrédient sont recalculés, sans relecture")
+    void stockAjuste_ShouldRecomputeOnlyDishesUsingIngredient() {
+        portionsRestantesService.traiter();
+        when(nomenclaturePlatCache.platsUtilisant(1L)).thenReturn(List.of(7L));
+
+        portionsRestantesService.stockAjuste(Map.of(1L, new BigDecimal("-0.7")));
+        portionsRestantesService.traiter();
+
+        assertEquals(2, portionsRestantesService.toutes().get(0).getPortions());
+        verify(ingredientRepository, times(1)).findStocks();
+        verify(nomenclaturePlatCache, never()).platsUtilisant(2L);
+        verify(diffusionWebSocketService).publier(eq(PortionsRestantesService.DESTINATION), eq(7L),
+                argThat((PortionsRestantesDto dto) -> dto.getPortions() == 2));
+    }
+
+    @Test
+    @DisplayName("Réconciliation - Mouvement reçu pendant la lecture rejoué sur l'instantané")
+    void traiter_ShouldReplayMovementReceivedDuringReload() {
+        PortionsRestantesService reconciliationContinue = new PortionsRestantesService(nomenclaturePlatCache,
+                ingredientRepository, platRepository, menuActifCache, arbreMenuCache, diffusionWebSocketService,
+                transactionManager, 0L);
+        reconciliationContinue.traiter();
+
+        // La base corrige la farine à 2.1 kg ; 0.7 kg est déduit pendant la lecture
+        List<Object[]> corriges = new ArrayList<>();
+        corriges.add(new Object[]{1L, new BigDecimal("2.1")});
+        corriges.add(new Object[]{2L, BigDecimal.ZERO});
+        when(ingredientRepository.findStocks()).thenAnswer(invocation -> {
+            reconciliationContinue.stockAjuste(Map.of(1L, new BigDecimal("-0.7")));
+            return corriges;
+        });
+        reconciliationContinue.traiter();
+
+        // 2.1 - 0.7 = 1.4 kg, soit 7 portions
+        assertEquals(7, reconciliationContinue.toutes().get(0).getPortions());
+    }
+
+    @Test
+    @DisplayName("Réapprovisionnement - Plat retiré par le moteur remis à la carte")
+    void stockAjuste_ShouldReenableDishDisabledByEngine() {
+        portionsRestantesService.traiter();
+        when(nomenclaturePlatCache.platsUtilisant(2L)).thenReturn(List.of(8L));
+
+        portionsRestantesService.stockAjuste(Map.of(2L, new BigDecimal("3")));
+        portionsRestantesService.traiter();
+
+        assertEquals(3, portionsRestantesService.toutes().get(1).getPortions());
+        verify(platRepository).modifierDisponibilite(List.of(8L), true, false);
+    }
+
+    @Test
+    @DisplayName("Redémarrage - Plat retiré avant l'arrêt remis à la carte au réapprovisionnement")
+    void traiter_ShouldReenableDishDisabledBeforeRestart() {
+        // Plat 8 retiré par le moteur avant le redémarrage, œufs livrés entre-temps
+        List<Object[]> stocks = new ArrayList<>();
+        stocks.add(new Object[]{1L, new BigDecimal("1.1")});
+        stocks.add(new Object[]{2L, new BigDecimal("3")});
+        when(ingredientRepository.findStocks()).thenReturn(stocks);
+        when(platRepository.findIdsRetiresParRupture()).thenReturn(List.of(8L));
+
+        portionsRestantesService.traiter();
+
+        assertEquals(3, portionsRestantesService.toutes().get(1).getPortions());
+        verify(platRepository).modifierDisponibilite(List.of(8L), true, false);
+    }
+
+    @Test
+    @DisplayName("Choix manuel - Plat modifié à la main non remis à la carte")
+    void disponibiliteModifiee_ShouldPreventAutomaticReenable() {
+        portionsRestantesService.traiter();
+        when(nomenclaturePlatCache.platsUtilisant(2L)).thenReturn(List.of(8L));
+
+        portionsRestantesService.disponibiliteModifiee(8L);
+        portionsRestantesService.stockDefini(2L, new BigDecimal("4"));
+        portionsRestantesService.traiter();
+
+        assertEquals(4, portionsRestantesService.toutes().get(1).getPortions());
+        verify(platRepository, never()).modifierDisponibilite(anyCollection(), eq(true), anyBoolean());
+    }
+}
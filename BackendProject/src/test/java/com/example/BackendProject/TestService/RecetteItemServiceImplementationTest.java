@@ -8,6 +8,7 @@ import com.example.BackendProject.mappers.RecetteItemMapper;
 import com.example.BackendProject.repository.IngredientRepository;
 import com.example.BackendProject.repository.RecetteItemRepository;
 import com.example.BackendProject.repository.RecetteRepository;
+import com.example.BackendProject.services.implementations.NomenclaturePlatCache;
 import com.example.BackendProject.services.implementations.RecetteItemServiceImplementation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -34,6 +35,7 @@ class RecetteItemServiceImplementationTest {
     @Mock private RecetteRepository recetteRepository;
     @Mock private IngredientRepository ingredientRepository;
     @Mock private RecetteItemMapper mapper;
+    @Mock private NomenclaturePlatCache nomenclaturePlatCache;
 
     @InjectMocks
     private RecetteItemServiceImplementation service;
@@ -4,6 +4,7 @@ import com.example.BackendProject.dto.RecetteDto;
 import com.example.BackendProject.entities.Recette;
 import com.example.BackendProject.mappers.RecetteMapper;
 import com.example.BackendProject.repository.RecetteRepository;
+import com.example.BackendProject.services.implementations.NomenclaturePlatCache;
 import com.example.BackendProject.services.implementations.RecetteServiceImplementation;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +33,9 @@ class RecetteServiceImplementationTest {
     @Mock
     private RecetteMapper recetteMapper;
 
+    @Mock
+    private NomenclaturePlatCache nomenclaturePlatCache;
+
     @InjectMocks
     private RecetteServiceImplementation service;
 
@@ -66,6 +70,7 @@ class RecetteServiceImplementationTest {
         assertNotNull(result);
         assertEquals("Recette Burger Classic", result.getNom());
         verify(recetteRepository).save(recette);
+        verify(nomenclaturePlatCache).invalider();
     }
 
     // ==================== TESTS RÉCUPÉRATION ====================
@@ -140,5 +145,6 @@ class RecetteServiceImplementationTest {
 
         // 3. Assert : Vérifier que deleteById a bien été sollicité
         verify(recetteRepository, times(1)).deleteById(idRecette);
+        verify(nomenclaturePlatCache).invalider();
     }
 }
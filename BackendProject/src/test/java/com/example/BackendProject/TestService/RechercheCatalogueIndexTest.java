@@ -0,0 +1,129 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.ResultatRechercheDto;
+import com.example.BackendProject.entities.Ingredient;
+import com.example.BackendProject.entities.Plat;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.repository.PlatRepository;
+import com.example.BackendProject.services.implementations.RechercheCatalogueIndex;
+import com.example.BackendProject.utils.TypeElementCatalogue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Index de recherche du catalogue")
+class RechercheCatalogueIndexTest {
+
+    @Mock
+    private PlatRepository platRepository;
+    @Mock
+    private IngredientRepository ingredientRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RechercheCatalogueIndex rechercheCatalogueIndex;
+
+    @BeforeEach
+    void setUp() {
+        rechercheCatalogueIndex = new RechercheCatalogueIndex(platRepository, ingredientRepository, transactionManager);
+    }
+
+    private void catalogue() {
+        List<Object[]> plats = new ArrayList<>();
+        plats.add(new Object[]{1L, "Crème brûlée", "Dessert à la vanille"});
+        plats.add(new Object[]{2L, "Velouté de potiron", "Soupe à la crème fraîche"});
+        plats.add(new Object[]{3L, "Crêpe Suzette", null});
+        List<Object[]> ingredients = new ArrayList<>();
+        ingredients.add(new Object[]{10L, "Crème fraîche"});
+        ingredients.add(new Object[]{11L, "Vanille Bourbon"});
+        when(platRepository.findIndexRecherche()).thenReturn(plats);
+        when(ingredientRepository.findIndexRecherche()).thenReturn(ingredients);
+    }
+
+    private List<Long> ids(String terme, TypeElementCatalogue type) {
+        return rechercheCatalogueIndex.rechercher(terme, type, 20).stream().map(ResultatRechercheDto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Sans accents - Le nom compte plus que la description")
+    void rechercher_ShouldFoldAccentsAndRankNameFirst() {
+        catalogue();
+
+        // Mot exact dans le nom, nom le plus court d'abord, puis la description
+        assertEquals(List.of(1L, 10L, 2L), ids("creme", null));
+        assertEquals(List.of(10L), ids("CRÈME", TypeElementCatalogue.INGREDIENT));
+        assertEquals(List.of(1L, 2L), ids("crème", TypeElementCatalogue.PLAT));
+
+        verify(platRepository, times(1)).findIndexRecherche();
+        verify(platRepository, never()).findByNomContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    @DisplayName("Préfixe et faute de frappe tolérés, tous les mots requis")
+    void rechercher_ShouldMatchPrefixesAndTypos() {
+        catalogue();
+
+        assertEquals(List.of(3L), ids("crep", null));
+        assertEquals(List.of(2L), ids("veloute potiron", null));
+        // Lettre inversée, lettre manquante
+        assertEquals(List.of(1L, 10L, 2L), ids("cerme", null));
+        assertEquals(List.of(11L, 1L), ids("vanile", null));
+        assertTrue(ids("creme chocolat", null).isEmpty());
+        // Pas de tolérance sur les mots courts
+        assertTrue(ids("cre", null).stream().noneMatch(id -> id.equals(11L)));
+    }
+
+    @Test
+    @DisplayName("Création, renommage et suppression reflétés dans l'index")
+    void misesAJour_ShouldKeepIndexCurrent() {
+        catalogue();
+        ids("creme", null);
+
+        Plat plat = new Plat();
+        plat.setId(4L);
+        plat.setNom("Tarte aux pommes");
+        // Hors transaction : appliqué immédiatement
+        rechercheCatalogueIndex.platEnregistre(plat);
+        assertEquals(List.of(4L), ids("pomme", null));
+
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(10L);
+        ingredient.setNom("Crème liquide");
+        rechercheCatalogueIndex.ingredientEnregistre(ingredient);
+        assertEquals(List.of(10L), ids("liquide", null));
+        assertEquals(List.of(2L), ids("fraiche", null));
+
+        rechercheCatalogueIndex.platSupprime(4L);
+        assertTrue(ids("tarte", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Sous-chaîne du nom - Milieu de mot, mots vides, aucune faute tolérée")
+    void contenant_ShouldMatchSubstringsOfNameOnly() {
+        List<Object[]> ingredients = new ArrayList<>();
+        ingredients.add(new Object[]{21L, "Tomate"});
+        ingredients.add(new Object[]{20L, "Pâte de piment"});
+        ingredients.add(new Object[]{22L, "Tomme de Savoie"});
+        when(platRepository.findIndexRecherche()).thenReturn(List.of());
+        when(ingredientRepository.findIndexRecherche()).thenReturn(ingredients);
+
+        assertEquals(List.of(21L), rechercheCatalogueIndex.contenant("mate", TypeElementCatalogue.INGREDIENT));
+        assertEquals(List.of(20L, 22L), rechercheCatalogueIndex.contenant("de", TypeElementCatalogue.INGREDIENT));
+        assertEquals(List.of(20L), rechercheCatalogueIndex.contenant("PATE", TypeElementCatalogue.INGREDIENT));
+        // « tomate » à une faute de « tomme » : pas de résultat en plus
+        assertEquals(List.of(21L), rechercheCatalogueIndex.contenant("tomate", TypeElementCatalogue.INGREDIENT));
+        verify(ingredientRepository, never()).findByNomContainingIgnoreCase(anyString());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.ReservationDto;
+import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.mappers.ReservationMapper;
+import com.example.BackendProject.repository.ReservationRepository;
+import com.example.BackendProject.services.implementations.RechercheReservationsIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Index de recherche des réservations")
+class RechercheReservationsIndexTest {
+
+    private static final LocalDate AUJOURDHUI = LocalDate.of(2030, 6, 15);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ReservationMapper reservationMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RechercheReservationsIndex rechercheReservationsIndex;
+    private final List<Reservation> enBase = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rechercheReservationsIndex = new RechercheReservationsIndex(reservationRepository, reservationMapper,
+                transactionManager, 30, 50) {
+            @Override
+            protected LocalDate aujourdhui() {
+                return AUJOURDHUI;
+            }
+        };
+    }
+
+    private static ReservationDto dto(Long id, String nom, String telephone, LocalDate date) {
+        ReservationDto dto = new ReservationDto();
+        dto.setId(id);
+        dto.setNomClient(nom);
+        dto.setTelephone(telephone);
+        dto.setDate(date);
+        return dto;
+    }
+
+    private void enBase(ReservationDto dto) {
+        Reservation reservation = new Reservation();
+        reservation.setId(dto.getId());
+        enBase.add(reservation);
+        when(reservationMapper.toDto(reservation)).thenReturn(dto);
+    }
+
+    private void reservationsInitiales() {
+        enBase(dto(1L, "Éloïse Martin", "06 12 34 56 78", AUJOURDHUI.plusDays(10)));
+        enBase(dto(2L, "Martine Dupont", "07 56 78 12 34", AUJOURDHUI.plusDays(3)));
+        enBase(dto(3L, "Jean Martinez", "+33 6 00 00 00 01", AUJOURDHUI.plusDays(1)));
+        when(reservationRepository.findByDateGreaterThanEqual(AUJOURDHUI.minusDays(30))).thenReturn(enBase);
+    }
+
+    private List<Long> ids(String terme) {
+        return rechercheReservationsIndex.rechercher(terme).stream().map(ReservationDto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Nom - Sans accents, début du nom puis début de mot, date la plus proche d'abord")
+    void rechercher_ShouldRankNameMatches() {
+        reservationsInitiales();
+
+        assertEquals(List.of(2L, 3L, 1L), ids("MARTIN"));
+        assertEquals(List.of(1L), ids("élo"));
+        assertEquals(List.of(1L), ids("eloise martin"));
+        assertTrue(ids("dubois").isEmpty());
+
+        verify(reservationRepository, times(1)).findByDateGreaterThanEqual(AUJOURDHUI.minusDays(30));
+        verify(reservationRepository, never()).findByTelephoneContainingOrNomClientContainingIgnoreCase(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Téléphone - Chiffres seuls, fin du numéro classée en premier")
+    void rechercher_ShouldRankPhoneSuffixFirst() {
+        reservationsInitiales();
+
+        assertEquals(List.of(2L, 1L), ids("12 34"));
+        assertEquals(List.of(1L, 2L), ids("5678"));
+        assertEquals(List.of(3L), ids("01"));
+    }
+
+    @Test
+    @DisplayName("Création, modification, suppression et horizon reflétés dans l'index")
+    void misesAJour_ShouldKeepIndexCurrent() {
+        reservationsInitiales();
+        ids("martin");
+
+        // Hors transaction : appliqué immédiatement
+        rechercheReservationsIndex.enregistrer(dto(4L, "Chloé Bernard", "0611223344", AUJOURDHUI));
+        assertEquals(List.of(4L), ids("chloe"));
+
+        rechercheReservationsIndex.enregistrer(dto(4L, "Chloé Lefèvre", "0611223344", AUJOURDHUI));
+        assertTrue(ids("bernard").isEmpty());
+        assertEquals(List.of(4L), ids("lefevre"));
+
+        rechercheReservationsIndex.enregistrer(dto(2L, "Martine Dupont", "07 56 78 12 34", AUJOURDHUI.minusDays(31)));
+        assertEquals(List.of(3L, 1L), ids("martin"));
+
+        rechercheReservationsIndex.retirer(4L);
+        assertTrue(ids("3344").isEmpty());
+    }
+
+    @Test
+    @DisplayName("DTO renvoyés - Copies : les modifier n'altère ni l'index ni les recherches suivantes")
+    void rechercher_ShouldReturnCopies() {
+        reservationsInitiales();
+        ReservationDto indexee = dto(4L, "Chloé Bernard", "0611223344", AUJOURDHUI);
+        rechercheReservationsIndex.enregistrer(indexee);
+
+        ReservationDto premier = rechercheReservationsIndex.rechercher("chloe").get(0);
+        premier.setNomClient("Modifié");
+        indexee.setNomClient("Modifié aussi");
+        ReservationDto second = rechercheReservationsIndex.rechercher("chloe").get(0);
+
+        assertNotSame(premier, second);
+        assertNotSame(indexee, second);
+        assertEquals("Chloé Bernard", second.getNomClient());
+        assertEquals("0611223344", second.getTelephone());
+    }
+
+    @Test
+    @DisplayName("Repli sur la requête du dépôt si le chargement échoue")
+    void chargementEchoue_ShouldFallBackToRepository() {
+        Reservation reservation = new Reservation();
+        ReservationDto attendu = dto(9L, "Martin", "0600000000", AUJOURDHUI);
+        when(reservationRepository.findByDateGreaterThanEqual(any())).thenThrow(new RuntimeException("Base indisponible"));
+        when(reservationRepository.findByTelephoneContainingOrNomClientContainingIgnoreCase("martin", "martin"))
+                .thenReturn(List.of(reservation));
+        when(reservationMapper.toDto(reservation)).thenReturn(attendu);
+
+        assertEquals(List.of(attendu), rechercheReservationsIndex.rechercher("martin"));
+    }
+}
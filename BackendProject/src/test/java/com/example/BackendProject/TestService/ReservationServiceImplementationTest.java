@@ -0,0 +1,142 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.ReservationDto;
+import com.example.BackendProject.entities.Reservation;
+import com.example.BackendProject.entities.TableRestaurant;
+import com.example.BackendProject.exceptions.ConflitReservationException;
+import com.example.BackendProject.mappers.ReservationMapper;
+import com.example.BackendProject.repository.ReservationRepository;
+import com.example.BackendProject.repository.TableRestaurantRepository;
+import com.example.BackendProject.services.implementations.DisponibiliteTablesService;
+import com.example.BackendProject.services.implementations.OptimiseurTablesService;
+import com.example.BackendProject.services.implementations.RechercheReservationsIndex;
+import com.example.BackendProject.services.implementations.ReservationServiceImplementation;
+import com.example.BackendProject.utils.StatutReservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - ReservationService")
+class ReservationServiceImplementationTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2030, 6, 15);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private TableRestaurantRepository tableRepository;
+    @Mock
+    private ReservationMapper reservationMapper;
+    @Mock
+    private DisponibiliteTablesService disponibiliteTablesService;
+    @Mock
+    private OptimiseurTablesService optimiseurTablesService;
+    @Mock
+    private RechercheReservationsIndex rechercheReservationsIndex;
+
+    @InjectMocks
+    private ReservationServiceImplementation reservationService;
+
+    private TableRestaurant table;
+    private ReservationDto dto;
+
+    @BeforeEach
+    void setUp() {
+        table = new TableRestaurant();
+        table.setId(2L);
+        dto = new ReservationDto();
+        dto.setNomClient("Dupont");
+        dto.setTableId(2L);
+        dto.setDate(JOUR);
+        dto.setHeure(LocalTime.of(20, 0));
+    }
+
+    private Reservation reservation(Long id, LocalTime heure) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setTable(table);
+        reservation.setDate(JOUR);
+        reservation.setHeure(heure);
+        reservation.setStatut(StatutReservation.CONFIRMEE);
+        return reservation;
+    }
+
+    private void creationPreparee() {
+        when(reservationMapper.toEntity(dto)).thenReturn(reservation(null, LocalTime.of(20, 0)));
+        when(tableRepository.findById(2L)).thenReturn(Optional.of(table));
+        when(tableRepository.findByIdPourReservation(2L)).thenReturn(Optional.of(table));
+        when(disponibiliteTablesService.dureeEffective(any())).thenReturn(90);
+    }
+
+    @Test
+    @DisplayName("Création - Double réservation refusée sous verrou de la table")
+    void createReservation_ShouldRejectOverlap() {
+        creationPreparee();
+        when(reservationRepository.findActivesPourTable(eq(2L), eq(JOUR.minusDays(1)), eq(JOUR.plusDays(1)), any()))
+                .thenReturn(List.of(reservation(7L, LocalTime.of(19, 0))));
+
+        assertThrows(ConflitReservationException.class, () -> reservationService.createReservation(dto));
+
+        verify(tableRepository).findByIdPourReservation(2L);
+        verify(reservationRepository, never()).save(any());
+        verify(disponibiliteTablesService, never()).enregistrer(any());
+    }
+
+    @Test
+    @DisplayName("Création - Créneau contigu accepté et indexé")
+    void createReservation_ShouldAcceptAdjacentSlot() {
+        creationPreparee();
+        Reservation saved = reservation(8L, LocalTime.of(20, 0));
+        when(reservationRepository.findActivesPourTable(eq(2L), any(), any(), any()))
+                .thenReturn(List.of(reservation(7L, LocalTime.of(18, 30))));
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(saved);
+        when(reservationMapper.toDto(saved)).thenReturn(dto);
+
+        assertSame(dto, reservationService.createReservation(dto));
+
+        verify(disponibiliteTablesService).enregistrer(saved);
+        verify(rechercheReservationsIndex).enregistrer(dto);
+    }
+
+    @Test
+    @DisplayName("Mise à jour - La réservation ne se bloque pas elle-même")
+    void updateReservation_ShouldIgnoreItself() {
+        Reservation existing = reservation(7L, LocalTime.of(19, 0));
+        when(reservationRepository.findById(7L)).thenReturn(Optional.of(existing));
+        when(tableRepository.findById(2L)).thenReturn(Optional.of(table));
+        when(tableRepository.findByIdPourReservation(2L)).thenReturn(Optional.of(table));
+        when(disponibiliteTablesService.dureeEffective(any())).thenReturn(90);
+        when(reservationRepository.findActivesPourTable(eq(2L), any(), any(), any())).thenReturn(List.of(existing));
+        when(reservationRepository.save(existing)).thenReturn(existing);
+        when(reservationMapper.toDto(existing)).thenReturn(dto);
+
+        reservationService.updateReservation(7L, dto);
+
+        assertEquals(LocalTime.of(20, 0), existing.getHeure());
+        verify(disponibiliteTablesService).enregistrer(existing);
+    }
+
+    @Test
+    @DisplayName("Suppression - Créneau retiré de l'index")
+    void deleteReservation_ShouldUnindex() {
+        reservationService.deleteReservation(7L);
+
+        verify(reservationRepository).deleteById(7L);
+        verify(disponibiliteTablesService).retirer(7L);
+        verify(rechercheReservationsIndex).retirer(7L);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.AlerteStockDto;
+import com.example.BackendProject.entities.Ingredient;
+import com.example.BackendProject.repository.IngredientRepository;
+import com.example.BackendProject.services.implementations.DiffusionWebSocketService;
+import com.example.BackendProject.services.implementations.StockAlerteService;
+import com.example.BackendProject.utils.NiveauStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Alertes de stock par transition")
+class StockAlerteServiceTest {
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+    @Mock
+    private DiffusionWebSocketService diffusionWebSocketService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockAlerteService stockAlerteService;
+
+    @BeforeEach
+    void setUp() {
+        stockAlerteService = new StockAlerteService(ingredientRepository, diffusionWebSocketService, transactionManager,
+                new BigDecimal("0.10"));
+    }
+
+    private static Ingredient tomate(String quantite) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setId(1L);
+        ingredient.setNom("Tomate");
+        ingredient.setUniteMesure("KG");
+        ingredient.setQuantiteActuelle(new BigDecimal(quantite));
+        ingredient.setSeuilAlerte(new BigDecimal("2.0"));
+        return ingredient;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AlerteStockDto> lotDiffuse() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(diffusionWebSocketService).publier(eq(StockAlerteService.DESTINATION), isNull(), captor.capture());
+        return (List<AlerteStockDto>) captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Retraits successifs sous le seuil - Une seule alerte")
+    void evaluer_ShouldAlertOnlyOnTransition() {
+        when(ingredientRepository.findIngredientsEnAlerte()).thenReturn(List.of());
+
+        stockAlerteService.evaluer(tomate("1.8"));
+        stockAlerteService.evaluer(tomate("1.5"));
+        stockAlerteService.evaluer(tomate("1.2"));
+        stockAlerteService.diffuser();
+        stockAlerteService.evaluer(tomate("1.0"));
+        stockAlerteService.diffuser();
+
+        List<AlerteStockDto> lot = lotDiffuse();
+        assertEquals(1, lot.size());
+        assertEquals(NiveauStock.FAIBLE, lot.get(0).getStatus());
+        assertEquals(NiveauStock.OK, lot.get(0).getStatusPrecedent());
+        // La transition diffusée porte la dernière quantité connue de la fenêtre
+        assertEquals(0, new BigDecimal("1.2").compareTo(lot.get(0).getQuantite()));
+        assertEquals("Attention : Stock FAIBLE pour Tomate", lot.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Première évaluation sous le seuil - Chargement hors transaction d'écriture, transition diffusée")
+    void evaluer_ShouldBroadcastFirstCrossing_WithSeedReadInItsOwnTransaction() {
+        // État commité : stock au-dessus du seuil, aucune alerte
+        when(ingredientRepository.findIngredientsEnAlerte()).thenReturn(List.of());
+
+        stockAlerteService.evaluer(tomate("1.5"));
+        stockAlerteService.diffuser();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        assertTrue(definition.getValue().isReadOnly());
+
+        List<AlerteStockDto> lot = lotDiffuse();
+        assertEquals(1, lot.size());
+        assertEquals(NiveauStock.FAIBLE, lot.get(0).getStatus());
+        assertEquals(NiveauStock.OK, lot.get(0).getStatusPrecedent());
+    }
+
+    @Test
+    @DisplayName("Réarmement - Sortie d'alerte seulement au-dessus du seuil majoré")
+    void evaluer_ShouldRearmAboveMarginOnly() {
+        when(ingredientRepository.findIngredientsEnAlerte()).thenReturn(List.of(tomate("1.5")));
+
+        // 2.1 dépasse le seuil mais pas seuil x 1.10 = 2.2
+        stockAlerteService.evaluer(tomate("2.1"));
+        assertEquals(NiveauStock.FAIBLE, stockAlerteService.alertesEnCours().get(0).getStatus());
+
+        stockAlerteService.evaluer(tomate("2.3"));
+        assertTrue(stockAlerteService.alertesEnCours().isEmpty());
+
+        stockAlerteService.diffuser();
+        List<AlerteStockDto> lot = lotDiffuse();
+        assertEquals(NiveauStock.OK, lot.get(0).getStatus());
+        assertEquals("Stock rétabli pour Tomate", lot.get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Rupture - Alerte en cours, aller-retour dans la fenêtre non diffusé")
+    void evaluer_ShouldTrackRuptureAndDropRoundTrips() {
+        when(ingredientRepository.findIngredientsEnAlerte()).thenReturn(List.of());
+
+        stockAlerteService.evaluer(tomate("0"));
+        stockAlerteService.evaluer(tomate("5"));
+        stockAlerteService.diffuser();
+        verify(diffusionWebSocketService, never()).publier(any(), any(), any());
+
+        stockAlerteService.evaluer(tomate("0"));
+        assertEquals(NiveauStock.RUPTURE, stockAlerteService.alertesEnCours().get(0).getStatus());
+        assertEquals(List.of(1L), stockAlerteService.filtrerEnAlerte(List.of(1L, 2L)));
+    }
+
+    @Test
+    @DisplayName("Chargement initial - Alertes existantes connues sans diffusion")
+    void alertesEnCours_ShouldLoadExistingAlertsSilently() {
+        when(ingredientRepository.findIngredientsEnAlerte()).thenReturn(List.of(tomate("0")));
+
+        List<AlerteStockDto> alertes = stockAlerteService.alertesEnCours();
+        stockAlerteService.evaluer(tomate("0"));
+        stockAlerteService.diffuser();
+
+        assertEquals(1, alertes.size());
+        assertEquals(NiveauStock.RUPTURE, alertes.get(0).getStatus());
+        verify(ingredientRepository, times(1)).findIngredientsEnAlerte();
+        verify(diffusionWebSocketService, never()).publier(any(), any(), any());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.dto.CommandeDto;
+import com.example.BackendProject.dto.EvenementCommandeDto;
+import com.example.BackendProject.dto.LigneCommandeDto;
+import com.example.BackendProject.entities.Commande;
+import com.example.BackendProject.mappers.CommandeMapper;
+import com.example.BackendProject.repository.CommandeRepository;
+import com.example.BackendProject.services.implementations.TableauCuisineService;
+import com.example.BackendProject.utils.StatutCommande;
+import com.example.BackendProject.utils.TypeCommande;
+import com.example.BackendProject.utils.TypeEvenementCommande;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Tableau cuisine en mémoire")
+class TableauCuisineServiceTest {
+
+    @Mock
+    private CommandeRepository commandeRepository;
+    @Mock
+    private CommandeMapper commandeMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TableauCuisineService tableau;
+
+    private CommandeDto commandeExistante;
+
+    @BeforeEach
+    void setUp() {
+        tableau = new TableauCuisineService(commandeRepository, commandeMapper, transactionManager);
+        commandeExistante = new CommandeDto(1L, 3L, Timestamp.valueOf("2025-03-14 12:00:00"), StatutCommande.EN_ATTENTE,
+                TypeCommande.SUR_PLACE, new BigDecimal("5000"), new BigDecimal("5962.5"),
+                new ArrayList<>(List.of(new LigneCommandeDto(100L, 1L, 1L, 1, new BigDecimal("5000"), null))));
+        Commande entite = new Commande();
+        when(commandeRepository.findAvecLignesByStatutIn(anyList())).thenReturn(List.of(entite));
+        when(commandeMapper.toDto(entite)).thenReturn(commandeExistante);
+    }
+
+    @Test
+    @DisplayName("Lectures - Jamais de requête : la projection est chargée par la tâche planifiée")
+    void commandesAPreparer_ShouldNeverHitDatabase() {
+        assertTrue(tableau.commandesAPreparer().isEmpty());
+        verify(commandeRepository, never()).findAvecLignesByStatutIn(anyList());
+
+        tableau.rechargerSiDemande();
+        tableau.rechargerSiDemande();
+        tableau.commandesAPreparer();
+        List<CommandeDto> result = tableau.commandesAPreparer();
+
+        assertEquals(1, result.size());
+        verify(commandeRepository, times(1)).findAvecLignesByStatutIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Commande revenue en cuisine - Rechargée par la tâche planifiée, pas par la lecture")
+    void rechargerSiDemande_ShouldReload_WhenOrderReturnsToKitchen() {
+        tableau.rechargerSiDemande();
+        EvenementCommandeDto retour = new EvenementCommandeDto(TypeEvenementCommande.STATUT_MODIFIE, 5L);
+        retour.setStatut(StatutCommande.EN_PREPARATION);
+        tableau.appliquer(retour);
+
+        tableau.commandesAPreparer();
+        verify(commandeRepository, times(1)).findAvecLignesByStatutIn(anyList());
+
+        tableau.rechargerSiDemande();
+        verify(commandeRepository, times(2)).findAvecLignesByStatutIn(anyList());
+        tableau.rechargerSiDemande();
+        verify(commandeRepository, times(2)).findAvecLignesByStatutIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Delta de ligne - Copie mise à jour, ancienne vue inchangée")
+    void appliquer_ShouldUpdateLinesWithoutMutatingPreviousView() {
+        tableau.rechargerSiDemande();
+        List<CommandeDto> avant = tableau.commandesAPreparer();
+
+        EvenementCommandeDto evenement = new EvenementCommandeDto(TypeEvenementCommande.QUANTITE_MODIFIEE, 1L);
+        evenement.setLigne(new LigneCommandeDto(100L, 1L, 1L, 3, new BigDecimal("5000"), null));
+        evenement.setTotalHt(new BigDecimal("15000"));
+        tableau.appliquer(evenement);
+
+        CommandeDto apres = tableau.commandesAPreparer().get(0);
+        assertEquals(1, apres.getLignesCommande().size());
+        assertEquals(3, apres.getLignesCommande().get(0).getQuantite());
+        assertEquals(0, new BigDecimal("15000").compareTo(apres.getTotalHt()));
+        assertEquals(1, avant.get(0).getLignesCommande().get(0).getQuantite());
+    }
+
+    @Test
+    @DisplayName("Nouvelle commande puis PRETE - Ajout trié puis retrait du tableau")
+    void appliquer_ShouldAddThenRemoveOrder() {
+        tableau.rechargerSiDemande();
+
+        CommandeDto nouvelle = new CommandeDto(2L, null, Timestamp.valueOf("2025-03-14 11:00:00"), StatutCommande.EN_ATTENTE,
+                TypeCommande.A_EMPORTER, BigDecimal.ZERO, BigDecimal.ZERO, List.of());
+        EvenementCommandeDto creation = new EvenementCommandeDto(TypeEvenementCommande.COMMANDE_CREEE, 2L);
+        creation.setCommande(nouvelle);
+        tableau.appliquer(creation);
+
+        List<CommandeDto> result = tableau.commandesAPreparer();
+        assertEquals(List.of(2L, 1L), result.stream().map(CommandeDto::getId).toList());
+
+        EvenementCommandeDto prete = new EvenementCommandeDto(TypeEvenementCommande.STATUT_MODIFIE, 1L);
+        prete.setStatut(StatutCommande.PRETE);
+        tableau.appliquer(prete);
+
+        assertEquals(List.of(2L), tableau.commandesAPreparer().stream().map(CommandeDto::getId).toList());
+        verify(commandeRepository, times(1)).findAvecLignesByStatutIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Réconciliation - Remplace la projection par l'état de la base")
+    void reconcilier_ShouldReplaceProjection() {
+        tableau.rechargerSiDemande();
+        EvenementCommandeDto suppression = new EvenementCommandeDto(TypeEvenementCommande.COMMANDE_SUPPRIMEE, 1L);
+        tableau.appliquer(suppression);
+        assertTrue(tableau.commandesAPreparer().isEmpty());
+
+        tableau.reconcilier();
+
+        assertEquals(1, tableau.commandesAPreparer().size());
+    }
+
+    @Test
+    @DisplayName("Réconciliation sous trafic - Événement reçu pendant la lecture rejoué sur l'instantané")
+    void reconcilier_ShouldReplayEventsReceivedDuringRead() {
+        tableau.rechargerSiDemande();
+        // Projection désynchronisée : la commande 1 a disparu de la mémoire mais pas de la base
+        tableau.appliquer(new EvenementCommandeDto(TypeEvenementCommande.COMMANDE_SUPPRIMEE, 1L));
+
+        CommandeDto nouvelle = new CommandeDto(2L, null, Timestamp.valueOf("2025-03-14 11:00:00"), StatutCommande.EN_ATTENTE,
+                TypeCommande.A_EMPORTER, BigDecimal.ZERO, BigDecimal.ZERO, List.of());
+        EvenementCommandeDto creation = new EvenementCommandeDto(TypeEvenementCommande.COMMANDE_CREEE, 2L);
+        creation.setCommande(nouvelle);
+        Commande entite = new Commande();
+        when(commandeRepository.findAvecLignesByStatutIn(anyList())).thenAnswer(invocation -> {
+            // Commande créée pendant la lecture, absente de l'instantané
+            tableau.appliquer(creation);
+            return List.of(entite);
+        });
+        when(commandeMapper.toDto(entite)).thenReturn(commandeExistante);
+
+        tableau.reconcilier();
+
+        assertEquals(List.of(2L, 1L), tableau.commandesAPreparer().stream().map(CommandeDto::getId).toList());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.entities.Restaurant;
+import com.example.BackendProject.repository.RestaurantRepository;
+import com.example.BackendProject.services.implementations.TauxTvaCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Cache du taux de TVA")
+class TauxTvaCacheTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private TauxTvaCache tauxTvaCache;
+
+    @BeforeEach
+    void setUp() {
+        tauxTvaCache = new TauxTvaCache(restaurantRepository);
+    }
+
+    private Restaurant restaurant(String pourcentage) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setTauxTva(pourcentage == null ? null : new BigDecimal(pourcentage));
+        return restaurant;
+    }
+
+    @Test
+    @DisplayName("Taux configuré - Pourcentage converti en fraction, lu une seule fois")
+    void taux_ShouldConvertPercentage_AndLoadOnce() {
+        when(restaurantRepository.findAll()).thenReturn(List.of(restaurant("18")));
+
+        tauxTvaCache.taux();
+        BigDecimal taux = tauxTvaCache.taux();
+
+        assertEquals(0, new BigDecimal("0.18").compareTo(taux));
+        verify(restaurantRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Sans restaurant ni taux - Taux par défaut")
+    void taux_ShouldFallBackToDefault() {
+        when(restaurantRepository.findAll()).thenReturn(List.of(), List.of(restaurant(null)));
+
+        assertEquals(TauxTvaCache.TAUX_DEFAUT, tauxTvaCache.taux());
+        tauxTvaCache.invalider();
+        assertEquals(TauxTvaCache.TAUX_DEFAUT, tauxTvaCache.taux());
+    }
+
+    @Test
+    @DisplayName("Invalidation - Le taux modifié est relu")
+    void invalider_ShouldReloadOnNextAccess() {
+        when(restaurantRepository.findAll()).thenReturn(List.of(restaurant("18")), List.of(restaurant("19.25")));
+
+        tauxTvaCache.taux();
+        tauxTvaCache.invalider();
+
+        assertEquals(0, new BigDecimal("0.1925").compareTo(tauxTvaCache.taux()));
+        verify(restaurantRepository, times(2)).findAll();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.BackendProject.TestService;
+
+import com.example.BackendProject.services.implementations.UtilisateurDetailService;
+import com.example.BackendProject.services.implementations.UtilisateurDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Service - Cache des UserDetails")
+class UtilisateurDetailsCacheTest {
+
+    private static final String EMAIL = "serveur@gusto.cm";
+
+    @Mock
+    private UtilisateurDetailService utilisateurDetailService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UtilisateurDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UtilisateurDetailsCache(utilisateurDetailService, meterRegistry, 100, 300);
+    }
+
+    private UserDetails utilisateur(String role) {
+        return new User(EMAIL, "$2a$10$hash", List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    @Test
+    @DisplayName("Appels répétés - Une seule lecture en base, sans le hash du mot de passe")
+    void charger_ShouldQueryOnce_AndDropPasswordHash() {
+        when(utilisateurDetailService.loadUserByUsername(EMAIL)).thenReturn(utilisateur("ROLE_SERVEUR"));
+
+        cache.charger(EMAIL);
+        UserDetails details = cache.charger(EMAIL);
+
+        verify(utilisateurDetailService, times(1)).loadUserByUsername(EMAIL);
+        assertEquals("", details.getPassword());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UtilisateurDetailsCache.NOM_CACHE)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Invalidation - Le rôle modifié est relu")
+    void invalider_ShouldReloadOnNextAccess() {
+        when(utilisateurDetailService.loadUserByUsername(EMAIL))
+                .thenReturn(utilisateur("ROLE_SERVEUR"), utilisateur("ROLE_MANAGER"));
+
+        cache.charger(EMAIL);
+        cache.invalider(EMAIL);
+        UserDetails details = cache.charger(EMAIL);
+
+        assertTrue(details.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_MANAGER")));
+        verify(utilisateurDetailService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Utilisateur inconnu - Exception propagée et rien en cache")
+    void charger_ShouldNotCacheMissingUser() {
+        when(utilisateurDetailService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException("absent"));
+
+        assertThrows(UsernameNotFoundException.class, () -> cache.charger(EMAIL));
+        assertThrows(UsernameNotFoundException.class, () -> cache.charger(EMAIL));
+
+        verify(utilisateurDetailService, times(2)).loadUserByUsername(EMAIL);
+    }
+}
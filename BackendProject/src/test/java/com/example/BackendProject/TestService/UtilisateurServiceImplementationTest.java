@@ -6,6 +6,7 @@ import com.example.BackendProject.entities.Utilisateur;
 import com.example.BackendProject.mappers.UtilisateurMapper;
 import com.example.BackendProject.repository.RestaurantRepository;
 import com.example.BackendProject.repository.UtilisateurRepository;
+import com.example.BackendProject.services.implementations.UtilisateurDetailsCache;
 import com.example.BackendProject.services.implementations.UtilisateurServiceImplementation;
 import com.example.BackendProject.utils.RoleType;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +32,7 @@ class UtilisateurServiceImplementationTest {
     @Mock private RestaurantRepository restaurantRepository;
     @Mock private UtilisateurMapper utilisateurMapper;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private UtilisateurDetailsCache utilisateurDetailsCache;
 
     @InjectMocks
     private UtilisateurServiceImplementation utilisateurService;
@@ -49,6 +51,7 @@ class UtilisateurServiceImplementationTest {
         utilisateur.setId(10L);
         utilisateur.setNom("Dupont");
         utilisateur.setPrenom("Jean");
+        utilisateur.setEmail("jean.dupont@gusto.cm");
         utilisateur.setMotDePasse("encoded_password");
         utilisateur.setRole(RoleType.MANAGER);
 
@@ -118,6 +121,7 @@ class UtilisateurServiceImplementationTest {
         // Assert
         assertEquals("Martin", utilisateur.getNom());
         verify(utilisateurRepository).save(utilisateur);
+        verify(utilisateurDetailsCache, atLeastOnce()).invalider("jean.dupont@gusto.cm");
     }
 
     // ==================== TEST MOT DE PASSE ====================
@@ -136,6 +140,7 @@ class UtilisateurServiceImplementationTest {
         // Assert
         assertEquals("new_encoded_password", utilisateur.getMotDePasse());
         verify(utilisateurRepository).save(utilisateur);
+        verify(utilisateurDetailsCache).invalider("jean.dupont@gusto.cm");
     }
 
     @Test
@@ -151,6 +156,7 @@ class UtilisateurServiceImplementationTest {
 
         assertEquals("L'ancien mot de passe est incorrect", exception.getMessage());
         verify(utilisateurRepository, never()).save(any());
+        verifyNoInteractions(utilisateurDetailsCache);
     }
 
     // ==================== TEST SUPPRESSION ====================
@@ -163,5 +169,6 @@ class UtilisateurServiceImplementationTest {
         utilisateurService.delete(10L);
 
         verify(utilisateurRepository).delete(utilisateur);
+        verify(utilisateurDetailsCache).invalider("jean.dupont@gusto.cm");
     }
 }